@@ -0,0 +1,85 @@
+package core.algorithms;
+
+import core.util.ComplexMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how gate application scales with the number of cores. Each
+ * parallelism level runs on its own ForkJoinPool, so the speedup per core
+ * count is the ratio of its score to the score at parallelism 1.
+ * @version 0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class ParallelStateVectorBenchmark {
+
+    /**
+     * The number of qubits in the register
+     */
+    @Param({"20", "24"})
+    public int qubits;
+
+    /**
+     * The number of worker threads applying each gate
+     */
+    @Param({"1", "2", "4", "8", "16", "32"})
+    public int parallelism;
+
+    private StateVectorSimulator simulator;
+    private ForkJoinPool pool;
+    private ComplexMatrix gate;
+
+    @Setup
+    public void setup() {
+        pool = new ForkJoinPool(parallelism);
+        simulator = new StateVectorSimulator(qubits);
+        simulator.setPool(pool);
+        gate = Gates.rotationY(0.1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * One layer of single-qubit gates, one on every qubit of the register
+     */
+    @Benchmark
+    public StateVectorSimulator gateLayer() {
+        for (int q = 0; q < qubits; q++) {
+            simulator.applyGate(gate, q);
+        }
+        return simulator;
+    }
+
+    /**
+     * One layer of CNOTs between neighbouring qubits
+     */
+    @Benchmark
+    public StateVectorSimulator entanglingLayer() {
+        for (int q = 0; q < qubits - 1; q++) {
+            simulator.cnot(q, q + 1);
+        }
+        return simulator;
+    }
+
+}
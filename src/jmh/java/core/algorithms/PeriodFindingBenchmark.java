@@ -0,0 +1,56 @@
+package core.algorithms;
+
+import core.util.Mathematics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the simulated quantum period finder against the classical one.
+ * N = 3233 needs a 24 qubit counting register, the largest that
+ * QuantumImpl simulates.
+ * @version 0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PeriodFindingBenchmark {
+
+    /**
+     * The modulus N (products of two primes)
+     */
+    @Param({"15", "221", "899", "3233"})
+    public int N;
+
+    private Random random;
+
+    @Setup
+    public void setup() {
+        random = new Random(42);
+    }
+
+    @Benchmark
+    public int quantum() {
+        return QuantumImpl.findPeriod(2, N, random);
+    }
+
+    @Benchmark
+    public int classical() {
+        return Mathematics.findPeriodClassically(2, N);
+    }
+
+}
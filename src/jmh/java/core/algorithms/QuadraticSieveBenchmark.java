@@ -0,0 +1,59 @@
+package core.algorithms;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the quadratic sieve on semiprimes of two primes of equal size,
+ * one run at a time, as a single factorization takes seconds. The numbers
+ * are the same from run to run.
+ * @version 0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class QuadraticSieveBenchmark {
+
+    /**
+     * The number of digits of N
+     */
+    @Param({"40", "50", "60"})
+    public int digits;
+
+    /**
+     * The number of sieving threads
+     */
+    @Param({"1", "4"})
+    public int threads;
+
+    private BigInteger N;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(digits);
+        int bits = (int) Math.round(digits * Math.log(10) / Math.log(2) / 2);
+        N = BigInteger.probablePrime(bits, random).multiply(BigInteger.probablePrime(bits, random));
+    }
+
+    @Benchmark
+    public BigInteger findFactor() {
+        return new QuadraticSieve(N).findFactor(threads, false);
+    }
+
+}
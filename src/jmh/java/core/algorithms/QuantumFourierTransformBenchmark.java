@@ -0,0 +1,92 @@
+package core.algorithms;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the quantum Fourier transform applied as an FFT with the same
+ * transform applied gate by gate, over the whole register and over the
+ * lower half of it (the counting register of phase estimation)
+ * @version 0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class QuantumFourierTransformBenchmark {
+
+    /**
+     * The number of qubits in the register
+     */
+    @Param({"12", "16", "20", "24"})
+    public int qubits;
+
+    /**
+     * The number of worker threads applying each sweep
+     */
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private StateVectorSimulator simulator;
+    private ForkJoinPool pool;
+    private int[] counting;
+
+    @Setup
+    public void setup() {
+        pool = new ForkJoinPool(parallelism);
+        simulator = new StateVectorSimulator(qubits);
+        simulator.setPool(pool);
+        counting = new int[qubits / 2];
+        for (int i = 0; i < counting.length; i++) {
+            counting[i] = i;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * The inverse transform of the whole register as an FFT
+     */
+    @Benchmark
+    public StateVectorSimulator fft() {
+        simulator.inverseQft();
+        return simulator;
+    }
+
+    /**
+     * The inverse transform of the whole register as a circuit
+     */
+    @Benchmark
+    public StateVectorSimulator gates() {
+        QuantumImpl.inverseQftByGates(simulator);
+        return simulator;
+    }
+
+    /**
+     * The inverse transform of the lower half of the register as an FFT
+     */
+    @Benchmark
+    public StateVectorSimulator fftCountingRegister() {
+        simulator.inverseQft(counting);
+        return simulator;
+    }
+
+}
@@ -0,0 +1,65 @@
+package core.algorithms;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures drawing one million shots from a random 20-qubit state, by
+ * binary search of the cumulative probabilities and by alias table, and
+ * the cost of building the alias table
+ * @version 0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class SamplingBenchmark {
+
+    @Param({"1000000"})
+    public int shots;
+
+    private StateVectorSimulator simulator;
+    private ShotSampler sampler;
+    private Random random;
+
+    @Setup
+    public void setup() {
+        simulator = new StateVectorSimulator(20);
+        Random angles = new Random(42);
+        for (int q = 0; q < 20; q++) {
+            simulator.applyGate(Gates.rotationY(angles.nextDouble() * Math.PI), q);
+        }
+        sampler = ShotSampler.of(simulator);
+        random = new Random(7);
+    }
+
+    @Benchmark
+    public int[] binarySearch() {
+        return simulator.sample(shots, random);
+    }
+
+    @Benchmark
+    public ShotHistogram aliasHistogram() {
+        return sampler.histogram(shots, 7);
+    }
+
+    @Benchmark
+    public ShotSampler buildAliasTable() {
+        return ShotSampler.of(simulator);
+    }
+
+}
@@ -0,0 +1,69 @@
+package core.algorithms;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the classical Shor factorization of semiprimes of growing size.
+ * The choice of X is random, so the scores carry more noise than the
+ * other benchmarks; the number of measurement iterations makes up for it.
+ * The FactoringEngine is measured on the same numbers, as the baseline.
+ * @version 0.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 8, time = 1)
+@Fork(1)
+public class ShorBenchmark {
+
+    /**
+     * The semiprime N = p * q to factor
+     */
+    @Param({"221", "3233", "1022117", "1071514531", "999936000799"})
+    public long N;
+
+    @Benchmark
+    public List<Long> shorsPrimeFactorization() {
+        return ClassicalImpl.shorsPrimeFactorization(N, false);
+    }
+
+    @Benchmark
+    public List<Long> factoringEngine() {
+        return FactoringEngine.factor(N);
+    }
+
+    /**
+     * The semiprimes which also fit in an int, for the int version
+     */
+    @State(Scope.Thread)
+    public static class IntModulus {
+
+        @Param({"221", "3233", "1022117", "1071514531"})
+        public int N;
+
+    }
+
+    @Benchmark
+    public List<Integer> shorsPrimeFactorizationInt(IntModulus modulus) {
+        return ClassicalImpl.shorsPrimeFactorization(modulus.N, false);
+    }
+
+    @Benchmark
+    public List<Integer> factoringEngineInt(IntModulus modulus) {
+        return FactoringEngine.factor(modulus.N);
+    }
+
+}
@@ -0,0 +1,50 @@
+package core.algorithms;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures period finding with the whole circuit, work register included,
+ * simulated on a sparse state. N = 1147 needs 21 counting and 11 work
+ * qubits, past the 30 qubits of a dense state vector.
+ * @version 0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SparseStateBenchmark {
+
+    /**
+     * The modulus N (products of two primes)
+     */
+    @Param({"15", "221", "899", "1147"})
+    public int N;
+
+    private Random random;
+
+    @Setup
+    public void setup() {
+        random = new Random(42);
+    }
+
+    @Benchmark
+    public int sparse() {
+        return QuantumImpl.findPeriodSparse(2, N, random);
+    }
+
+}
@@ -0,0 +1,61 @@
+package core.algorithms;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the stabilizer simulator on GHZ circuits of thousands of qubits:
+ * preparing the state, and preparing it and measuring every qubit
+ * @version 0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class StabilizerBenchmark {
+
+    @Param({"100", "1000", "4000"})
+    public int qubits;
+
+    private List<CliffordGate> gates;
+    private Random random;
+
+    @Setup
+    public void setup() {
+        gates = new ArrayList<CliffordGate>();
+        gates.add(CliffordGate.hadamard(0));
+        for (int q = 1; q < qubits; q++) {
+            gates.add(CliffordGate.cnot(q - 1, q));
+        }
+        random = new Random(42);
+    }
+
+    @Benchmark
+    public StabilizerSimulator prepare() {
+        StabilizerSimulator simulator = new StabilizerSimulator(qubits);
+        simulator.apply(gates);
+        return simulator;
+    }
+
+    @Benchmark
+    public long[][] sampleOneShot() {
+        return StabilizerSimulator.sample(qubits, gates, 1, random);
+    }
+
+}
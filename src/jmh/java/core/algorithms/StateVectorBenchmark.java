@@ -0,0 +1,85 @@
+package core.algorithms;
+
+import core.util.ComplexMatrix;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures gate throughput of the state-vector simulator. Besides the
+ * gate rate, the "amplitudes" counter reports amplitudes updated per second.
+ * @version 0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class StateVectorBenchmark {
+
+    /**
+     * The number of qubits in the register
+     */
+    @Param({"10", "16", "20", "25"})
+    public int qubits;
+
+    private StateVectorSimulator simulator;
+    private ComplexMatrix gate;
+    private int target;
+
+    /**
+     * Counts the amplitudes updated per benchmark iteration
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Amplitudes {
+
+        public long amplitudes;
+
+        @Setup(Level.Iteration)
+        public void clean() {
+            amplitudes = 0;
+        }
+
+    }
+
+    @Setup
+    public void setup() {
+        simulator = new StateVectorSimulator(qubits);
+        gate = Gates.rotationY(0.1);
+        target = 0;
+    }
+
+    @Benchmark
+    public void singleQubitGate(Amplitudes counter) {
+
+        // Cycle through the qubits so that every stride is measured
+        simulator.applyGate(gate, target);
+        target = (target + 1) % qubits;
+        counter.amplitudes += simulator.getDimension();
+
+    }
+
+    @Benchmark
+    public void controlledGate(Amplitudes counter) {
+
+        simulator.cnot(target, (target + 1) % qubits);
+        target = (target + 1) % qubits;
+        counter.amplitudes += simulator.getDimension() >> 1;
+
+    }
+
+}
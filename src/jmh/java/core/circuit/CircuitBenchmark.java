@@ -0,0 +1,87 @@
+package core.circuit;
+
+import core.algorithms.StateVectorSimulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares running a random circuit gate by gate against running its
+ * optimised form, on a register large enough to be memory bound
+ * @version 0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CircuitBenchmark {
+
+    @Param({"16", "20"})
+    public int qubits;
+
+    /**
+     * The number of gates in the circuit
+     */
+    @Param({"200"})
+    public int gates;
+
+    private Circuit circuit;
+    private Circuit optimized;
+    private StateVectorSimulator simulator;
+
+    @Setup
+    public void setup() {
+
+        Random random = new Random(42);
+        circuit = new Circuit(qubits);
+        for (int i = 0; i < gates; i++) {
+            // Gates on nearby qubits, as in typical layered circuits
+            int a = random.nextInt(qubits);
+            int b = (a + 1) % qubits;
+            switch (random.nextInt(6)) {
+                case 0: circuit.hadamard(a); break;
+                case 1: circuit.t(a); break;
+                case 2: circuit.rotationX(a, random.nextDouble()); break;
+                case 3: circuit.cnot(a, b); break;
+                case 4: circuit.cz(a, b); break;
+                default: circuit.controlledPhase(b, a, random.nextDouble());
+            }
+        }
+        optimized = circuit.optimize();
+        simulator = new StateVectorSimulator(qubits);
+
+    }
+
+    @Benchmark
+    public StateVectorSimulator original() {
+        simulator.reset();
+        circuit.applyTo(simulator);
+        return simulator;
+    }
+
+    @Benchmark
+    public StateVectorSimulator optimized() {
+        simulator.reset();
+        optimized.applyTo(simulator);
+        return simulator;
+    }
+
+    @Benchmark
+    public Circuit optimize() {
+        return circuit.optimize();
+    }
+
+}
@@ -0,0 +1,57 @@
+package core.circuit;
+
+import core.algorithms.DensityMatrixSimulator;
+import core.algorithms.NoiseChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the exact density-matrix backend with 100 quantum trajectories
+ * on a noisy GHZ circuit, where every gate is followed by depolarising noise
+ * @version 0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class NoiseBenchmark {
+
+    @Param({"6", "10"})
+    public int qubits;
+
+    private Circuit circuit;
+    private NoiseModel model;
+
+    @Setup
+    public void setup() {
+        circuit = new Circuit(qubits).hadamard(0);
+        for (int q = 1; q < qubits; q++) {
+            circuit.cnot(q - 1, q);
+        }
+        model = NoiseModel.uniform(NoiseChannel.depolarizing(0.01));
+    }
+
+    @Benchmark
+    public DensityMatrixSimulator densityMatrix() {
+        return model.simulateDensityMatrix(circuit);
+    }
+
+    @Benchmark
+    public double[] trajectories() {
+        return model.simulateTrajectories(circuit, 100, 42);
+    }
+
+}
@@ -0,0 +1,164 @@
+package core.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH results file against a stored baseline, both in JMH's CSV
+ * format (-rf csv), and reports every benchmark whose score got worse by
+ * more than a tolerance. Lower is better for time modes, higher is better
+ * for throughput. Benchmarks that are only in one of the files are listed
+ * but do not count as regressions.
+ *
+ * Usage: BaselineComparison baseline.csv results.csv [tolerance]
+ * where the tolerance is a fraction (default 0.25, i.e. 25% slower). The
+ * exit code is 1 if anything regressed.
+ * @version 0.1
+ */
+public class BaselineComparison {
+
+    /**
+     * The default fraction by which a score may get worse before it counts
+     * as a regression; short JMH runs on shared machines are noisy
+     */
+    public static final double DEFAULT_TOLERANCE = 0.25;
+
+    public static void main(String[] args) throws IOException {
+
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison baseline.csv results.csv [tolerance]");
+            System.exit(2);
+        }
+
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE;
+        Map<String, Score> baseline = read(Paths.get(args[0]));
+        Map<String, Score> results = read(Paths.get(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : results.entrySet()) {
+
+            Score before = baseline.get(entry.getKey());
+            Score after = entry.getValue();
+            if (before == null) {
+                System.out.println(String.format("NEW        %-90s %12.3f %s", entry.getKey(), after.value, after.unit));
+                continue;
+            }
+
+            // A ratio above 1 is worse, whichever direction the mode counts in
+            double ratio = after.isThroughput() ? before.value / after.value : after.value / before.value;
+            boolean regressed = ratio > 1 + tolerance;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.println(String.format("%-10s %-90s %12.3f -> %12.3f %s (%+.1f%%)",
+                    regressed ? "REGRESSED" : "ok", entry.getKey(), before.value, after.value, after.unit,
+                    (ratio - 1) * 100));
+
+        }
+
+        for (String key : baseline.keySet()) {
+            if (!results.containsKey(key)) {
+                System.out.println(String.format("MISSING    %s", key));
+            }
+        }
+
+        System.out.println(regressions + " regression(s) beyond " + Math.round(tolerance * 100) + "%");
+        if (regressions > 0) {
+            System.exit(1);
+        }
+
+    }
+
+    /**
+     * A benchmark score and its unit
+     */
+    private static class Score {
+
+        final double value;
+        final String unit;
+
+        Score(double value, String unit) {
+            this.value = value;
+            this.unit = unit;
+        }
+
+        boolean isThroughput() {
+            return unit.startsWith("ops/");
+        }
+
+    }
+
+    /**
+     * Reads a JMH CSV file into a map from benchmark name and parameters to score
+     */
+    private static Map<String, Score> read(Path file) throws IOException {
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        Map<String, Score> scores = new LinkedHashMap<String, Score>();
+        if (lines.isEmpty()) {
+            return scores;
+        }
+
+        List<String> header = split(lines.get(0));
+        int name = header.indexOf("Benchmark");
+        int mode = header.indexOf("Mode");
+        int score = header.indexOf("Score");
+        int unit = header.indexOf("Unit");
+
+        for (String line : lines.subList(1, lines.size())) {
+
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            List<String> fields = split(line);
+
+            StringBuilder key = new StringBuilder(fields.get(name)).append(' ').append(fields.get(mode));
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).startsWith("Param: ") && i < fields.size() && !fields.get(i).isEmpty()) {
+                    key.append(' ').append(header.get(i).substring(7)).append('=').append(fields.get(i));
+                }
+            }
+            scores.put(key.toString(), new Score(Double.parseDouble(fields.get(score)), fields.get(unit)));
+
+        }
+        return scores;
+
+    }
+
+    /**
+     * Splits a CSV line, where fields may be quoted
+     */
+    private static List<String> split(String line) {
+
+        List<String> fields = new ArrayList<String>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+
+    }
+
+}
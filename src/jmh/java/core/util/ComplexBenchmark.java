@@ -0,0 +1,74 @@
+package core.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the arithmetic of the high precision Complex class, with the
+ * double precision DoubleComplex as a point of comparison
+ * @version 0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComplexBenchmark {
+
+    private Complex a;
+    private Complex b;
+    private DoubleComplex doubleA;
+    private DoubleComplex doubleB;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        a = new Complex(random.nextFloat(), random.nextFloat());
+        b = new Complex(random.nextFloat() + 1, random.nextFloat());
+        doubleA = a.toDoubleComplex();
+        doubleB = b.toDoubleComplex();
+    }
+
+    @Benchmark
+    public Complex add() {
+        return a.add(b);
+    }
+
+    @Benchmark
+    public Complex multiply() {
+        return a.multiply(b);
+    }
+
+    @Benchmark
+    public Complex divide() {
+        return a.divide(b);
+    }
+
+    @Benchmark
+    public Complex exponentiate() {
+        return a.exponentiate(8);
+    }
+
+    @Benchmark
+    public Object magnitude() {
+        return a.getMagnitude();
+    }
+
+    @Benchmark
+    public DoubleComplex doubleMultiply() {
+        return doubleA.multiply(doubleB);
+    }
+
+}
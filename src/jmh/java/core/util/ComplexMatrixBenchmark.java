@@ -0,0 +1,128 @@
+package core.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the structure of arrays ComplexMatrix kernels against a naive
+ * implementation built from a Complex[][] of high precision numbers
+ * @version 0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComplexMatrixBenchmark {
+
+    /**
+     * The number of rows and columns of the square matrix
+     */
+    @Param({"4", "16", "64"})
+    public int size;
+
+    private ComplexMatrix matrix;
+    private ComplexVector vector;
+    private ComplexVector result;
+    private ComplexMatrix small;
+
+    private Complex[][] naiveMatrix;
+    private Complex[] naiveVector;
+
+    @Setup
+    public void setup() {
+
+        Random random = new Random(42);
+        matrix = new ComplexMatrix(size, size);
+        vector = new ComplexVector(size);
+        result = new ComplexVector(size);
+        naiveMatrix = new Complex[size][size];
+        naiveVector = new Complex[size];
+
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                float re = random.nextFloat();
+                float im = random.nextFloat();
+                matrix.set(r, c, re, im);
+                naiveMatrix[r][c] = new Complex(re, im);
+            }
+            float re = random.nextFloat();
+            float im = random.nextFloat();
+            vector.set(r, re, im);
+            naiveVector[r] = new Complex(re, im);
+        }
+
+        // Kronecker products are benchmarked against a single-qubit sized operand
+        small = new ComplexMatrix(2, 2);
+        for (int i = 0; i < 4; i++) {
+            small.set(i / 2, i % 2, random.nextDouble(), random.nextDouble());
+        }
+
+    }
+
+    @Benchmark
+    public ComplexVector matrixVector() {
+        matrix.multiply(vector, result);
+        return result;
+    }
+
+    @Benchmark
+    public Complex[] naiveMatrixVector() {
+
+        Complex[] naiveResult = new Complex[size];
+        for (int r = 0; r < size; r++) {
+            Complex sum = new Complex(0, 0);
+            for (int c = 0; c < size; c++) {
+                sum = sum.add(naiveMatrix[r][c].multiply(naiveVector[c]));
+            }
+            naiveResult[r] = sum;
+        }
+        return naiveResult;
+
+    }
+
+    @Benchmark
+    public ComplexMatrix adjoint() {
+        return matrix.adjoint();
+    }
+
+    @Benchmark
+    public DoubleComplex innerProduct() {
+        return vector.innerProduct(vector);
+    }
+
+    @Benchmark
+    public Complex naiveInnerProduct() {
+
+        Complex sum = new Complex(0, 0);
+        for (int i = 0; i < size; i++) {
+            sum = sum.add(naiveVector[i].getConjugate().multiply(naiveVector[i]));
+        }
+        return sum;
+
+    }
+
+    @Benchmark
+    public double norm() {
+        return vector.norm();
+    }
+
+    @Benchmark
+    public ComplexMatrix kronecker() {
+        return matrix.kronecker(small);
+    }
+
+}
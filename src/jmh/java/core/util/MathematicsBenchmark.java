@@ -0,0 +1,281 @@
+package core.util;
+
+import org.apfloat.Apfloat;
+import org.apfloat.Apint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the number theory in Mathematics across input sizes. Each
+ * benchmark with a batch of inputs reports the time per input.
+ * @version 0.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MathematicsBenchmark {
+
+    /**
+     * The number of inputs in each batch
+     */
+    private static final int BATCH = 256;
+
+    /**
+     * The expansion of pi into a continued fraction
+     */
+    @State(Scope.Thread)
+    public static class Fractions {
+
+        @Param({"8", "32", "128"})
+        public int iterations;
+
+    }
+
+    /**
+     * Pairs of random ints and longs to take the gcd of
+     */
+    @State(Scope.Thread)
+    public static class Pairs {
+
+        int[] intA = new int[BATCH];
+        int[] intB = new int[BATCH];
+        long[] longA = new long[BATCH];
+        long[] longB = new long[BATCH];
+        long[] results = new long[BATCH];
+
+        @Setup
+        public void setup() {
+            Random random = new Random(42);
+            for (int i = 0; i < BATCH; i++) {
+                intA[i] = random.nextInt(Integer.MAX_VALUE);
+                intB[i] = random.nextInt(Integer.MAX_VALUE);
+                longA[i] = random.nextLong() >>> 1;
+                longB[i] = random.nextLong() >>> 1;
+            }
+        }
+
+    }
+
+    /**
+     * Pairs of random high precision integers to take the gcd of
+     */
+    @State(Scope.Thread)
+    public static class ApintPairs {
+
+        /**
+         * The number of decimal digits of the integers
+         */
+        @Param({"20", "100", "1000"})
+        public int digits;
+
+        Apint[] a = new Apint[BATCH];
+        Apint[] b = new Apint[BATCH];
+        BigInteger[] bigA = new BigInteger[BATCH];
+        BigInteger[] bigB = new BigInteger[BATCH];
+
+        @Setup
+        public void setup() {
+            Random random = new Random(42);
+            int bits = (int) Math.ceil(digits * Math.log(10) / Math.log(2));
+            for (int i = 0; i < BATCH; i++) {
+                bigA[i] = new BigInteger(bits, random);
+                bigB[i] = new BigInteger(bits, random).add(BigInteger.ONE);
+                a[i] = new Apint(bigA[i]);
+                b[i] = new Apint(bigB[i]);
+            }
+        }
+
+    }
+
+    /**
+     * Moduli for the period of 2^x mod N, each a product of two primes
+     */
+    @State(Scope.Thread)
+    public static class Moduli {
+
+        @Param({"3233", "1022117", "1000036000099"})
+        public long N;
+
+    }
+
+    /**
+     * Random odd candidates for the int and long primality tests, of 31 and
+     * 62 bits respectively
+     */
+    @State(Scope.Thread)
+    public static class Candidates {
+
+        int[] ints = new int[BATCH];
+        long[] longs = new long[BATCH];
+
+        @Setup
+        public void setup() {
+            Random random = new Random(42);
+            for (int i = 0; i < BATCH; i++) {
+                ints[i] = random.nextInt(1 << 30) | (1 << 30) | 1;
+                longs[i] = (random.nextLong() >>> 2) | (1L << 61) | 1;
+            }
+        }
+
+    }
+
+    /**
+     * Random odd candidates for the high precision primality test
+     */
+    @State(Scope.Thread)
+    public static class BigCandidates {
+
+        @Param({"128", "512"})
+        public int bits;
+
+        Apint[] apints = new Apint[BATCH];
+
+        @Setup
+        public void setup() {
+            Random random = new Random(42);
+            for (int i = 0; i < BATCH; i++) {
+                apints[i] = new Apint(new BigInteger(bits, random).setBit(bits - 1).setBit(0));
+            }
+        }
+
+    }
+
+    @Benchmark
+    public int[] continuedFraction(Fractions fractions) {
+        return Mathematics.continuedFraction(Mathematics.PI, fractions.iterations);
+    }
+
+    /**
+     * A measurement of a 40-qubit counting register, as expanded in Shor's post-processing
+     */
+    private static final long MEASURED = 1357913579L;
+
+    @Benchmark
+    public int[] continuedFractionOfMeasurement() {
+        return Mathematics.continuedFraction(new Apfloat(MEASURED, 60).divide(new Apfloat(1L << 40, 60)), 80);
+    }
+
+    @Benchmark
+    public long convergentsOfMeasurement() {
+        ContinuedFraction fraction = new ContinuedFraction(MEASURED, 1L << 40);
+        long denominator = 0;
+        while (fraction.hasNext()) {
+            denominator = fraction.next().getDenominator();
+        }
+        return denominator;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int gcdInt(Pairs pairs) {
+        int sum = 0;
+        for (int i = 0; i < BATCH; i++) {
+            sum += Mathematics.greatestCommonDenominator(pairs.intA[i], pairs.intB[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long gcdLong(Pairs pairs) {
+        long sum = 0;
+        for (int i = 0; i < BATCH; i++) {
+            sum += Mathematics.greatestCommonDenominator(pairs.longA[i], pairs.longB[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Apint gcdApint(ApintPairs pairs) {
+        Apint last = null;
+        for (int i = 0; i < BATCH; i++) {
+            last = Mathematics.greatestCommonDenominator(pairs.a[i], pairs.b[i]);
+        }
+        return last;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long[] gcdLongBatch(Pairs pairs) {
+        Gcd.gcd(pairs.longA, 1000003L * 999983L, pairs.results);
+        return pairs.results;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BigInteger gcdLehmer(ApintPairs pairs) {
+        BigInteger last = null;
+        for (int i = 0; i < BATCH; i++) {
+            last = Gcd.gcd(pairs.bigA[i], pairs.bigB[i]);
+        }
+        return last;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BigInteger gcdBigInteger(ApintPairs pairs) {
+        BigInteger last = null;
+        for (int i = 0; i < BATCH; i++) {
+            last = pairs.bigA[i].gcd(pairs.bigB[i]);
+        }
+        return last;
+    }
+
+    @Benchmark
+    public long findPeriodClassically(Moduli moduli) {
+        return Mathematics.findPeriodClassically(2L, moduli.N);
+    }
+
+    @Benchmark
+    public Apint findPeriodClassicallyApint(Moduli moduli) {
+        return Mathematics.findPeriodClassically(new Apint(2), new Apint(moduli.N));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int isPrimeInt(Candidates candidates) {
+        int primes = 0;
+        for (int i = 0; i < BATCH; i++) {
+            primes += Mathematics.isPrime(candidates.ints[i]) ? 1 : 0;
+        }
+        return primes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int isPrimeLong(Candidates candidates) {
+        int primes = 0;
+        for (int i = 0; i < BATCH; i++) {
+            primes += Mathematics.isPrime(candidates.longs[i]) ? 1 : 0;
+        }
+        return primes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int isPrimeApint(BigCandidates candidates) {
+        int primes = 0;
+        for (int i = 0; i < BATCH; i++) {
+            primes += Mathematics.isPrime(candidates.apints[i]) ? 1 : 0;
+        }
+        return primes;
+    }
+
+}
@@ -0,0 +1,145 @@
+package core.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the Montgomery kernels with BigInteger: powers modulo a long,
+ * by binary exponentiation, sliding window and fixed base tables, and
+ * chains of products modulo numbers of many limbs, as in rho, ECM and the
+ * Lucas test. Each benchmark reports the time per power or per step.
+ * @version 0.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModularArithmeticBenchmark {
+
+    /**
+     * The number of powers or steps in each batch
+     */
+    private static final int BATCH = 256;
+
+    /**
+     * Random exponents modulo a prime just below 2^63
+     */
+    @State(Scope.Thread)
+    public static class LongPowers {
+
+        LongMontgomery field = new LongMontgomery(Long.MAX_VALUE - 24);
+        LongMontgomery.FixedBase powers = field.fixedBase(3);
+        BigInteger modulus = BigInteger.valueOf(Long.MAX_VALUE - 24);
+        long[] exponents = new long[BATCH];
+
+        @Setup
+        public void setup() {
+            Random random = new Random(1);
+            for (int i = 0; i < BATCH; i++) {
+                exponents[i] = random.nextLong() >>> 1;
+            }
+        }
+
+    }
+
+    /**
+     * A random odd modulus of the given size, and a number below it
+     */
+    @State(Scope.Thread)
+    public static class MultiLimb {
+
+        @Param({"128", "256", "512"})
+        public int bits;
+
+        BigInteger modulus;
+        BigInteger value;
+        MultiLimbMontgomery field;
+        int[] x;
+        int[] c;
+
+        @Setup
+        public void setup() {
+            Random random = new Random(bits);
+            modulus = new BigInteger(bits, random).setBit(bits - 1).setBit(0);
+            value = new BigInteger(bits - 1, random);
+            field = new MultiLimbMontgomery(modulus);
+            x = field.toMontgomery(value);
+            c = field.toMontgomery(BigInteger.ONE);
+        }
+
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long longBigIntegerModPow(LongPowers state) {
+        long sum = 0;
+        BigInteger base = BigInteger.valueOf(3);
+        for (long e : state.exponents) {
+            sum += base.modPow(BigInteger.valueOf(e), state.modulus).longValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long longSlidingWindow(LongPowers state) {
+        long sum = 0;
+        for (long e : state.exponents) {
+            sum += state.field.pow(3, e);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long longFixedBase(LongPowers state) {
+        long sum = 0;
+        for (long e : state.exponents) {
+            sum += state.powers.pow(e);
+        }
+        return sum;
+    }
+
+    /**
+     * x = x^2 + 1 mod m with BigInteger, which allocates twice per step
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BigInteger squareAddBigInteger(MultiLimb state) {
+        BigInteger x = state.value;
+        for (int i = 0; i < BATCH; i++) {
+            x = x.multiply(x).add(BigInteger.ONE).mod(state.modulus);
+        }
+        return x;
+    }
+
+    /**
+     * x = x^2 + 1 mod m in place, in Montgomery form
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int[] squareAddMontgomery(MultiLimb state) {
+        int[] x = state.x;
+        for (int i = 0; i < BATCH; i++) {
+            state.field.square(x, x);
+            state.field.add(x, state.c, x);
+        }
+        return x;
+    }
+
+}
@@ -2,19 +2,28 @@ package core.algorithms;
 
 import core.expection.InvalidParameterException;
 import core.util.Mathematics;
+import core.util.OrderFinding;
+import core.util.Primality;
 import org.apfloat.Apint;
-import org.apfloat.ApintMath;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 
 /**
  * A collection of classical implementations of Quantum Algorithms
  * (For example, Shor's algorithm with a classical period-finding
  * sub-routine)
  * @author Aaron Vontell
- * @version 0.1
+ * @version 0.7
  */
 public class ClassicalImpl {
 
@@ -30,10 +39,65 @@ public class ClassicalImpl {
      */
     public static List<Integer> shorsPrimeFactorization(int N, boolean verbose) {
 
+        return shorsPrimeFactorization(N, verbose, Mathematics::findPeriodClassically);
+
+    }
+
+    /**
+     * Computes the prime factors of N using Shor's algorithm, with the given
+     * sub-routine for finding the period of X^r mod N (for example a
+     * simulated quantum period finder, see QuantumImpl)
+     * @param N The integer N = pq to find the prime factors of
+     * @param verbose Prints out steps and calculations if set to True
+     * @param periodFinder The sub-routine used to find the period of X^r mod N
+     * @return the prime factors of N
+     */
+    public static List<Integer> shorsPrimeFactorization(int N, boolean verbose, PeriodFinder periodFinder) {
+
+        return shorsPrimeFactorization(N, verbose, periodFinder, null, 1);
+
+    }
+
+    /**
+     * Computes the prime factors of N using Shor's algorithm, racing the
+     * given number of random X values at a time on the executor. Each
+     * composite factor is split by whichever trial first finds a nontrivial
+     * divisor, and the other trials of that round are cancelled. Trials are
+     * cancelled by interrupting them, so a period finder which runs for long
+     * should check for interrupts, as those of QuantumImpl and OrderFinding do.
+     * @param N The integer N = pq to find the prime factors of
+     * @param verbose Prints out steps and calculations if set to True
+     * @param periodFinder The sub-routine used to find the period of X^r mod N,
+     *                     which must be safe to call from several threads
+     * @param executor The executor to run the trials on, or null to run
+     *                 one trial at a time on the calling thread
+     * @param trials The number of X values tried concurrently, usually the
+     *               number of threads of the executor
+     * @return the prime factors of N
+     */
+    public static List<Integer> shorsPrimeFactorization(int N, boolean verbose, PeriodFinder periodFinder,
+                                                        ExecutorService executor, int trials) {
+
+        return shorsPrimeFactorization(N, verbose, periodFinder, executor, trials, ThreadLocalRandom::current);
+
+    }
+
+    /**
+     * Computes the prime factors of N as above, with each trial drawing its
+     * X from the Random given by the supplier, which is called on the thread
+     * that runs the trial
+     */
+    static List<Integer> shorsPrimeFactorization(int N, boolean verbose, PeriodFinder periodFinder,
+                                                 ExecutorService executor, int trials, Supplier<Random> randomness) {
+
+        if (trials < 1) {
+            throw new InvalidParameterException("At least one trial must be run at a time");
+        }
+
         // Initial check for bad or obvious N
         if (N == 0) {
             throw new InvalidParameterException("N = 0 has no prime factorization");
-        } else if (N == 1 || N == 2 || N == 3) {
+        } else if (N == 1) {
             List<Integer> factors = new ArrayList<Integer>();
             factors.add(N);
             return factors;
@@ -57,9 +121,8 @@ public class ClassicalImpl {
                 break;
             }
 
-            // If prime, move to the next factor in the list
-            // TODO: Use an efficient primality test
-            if (Mathematics.isPrime(factors.get(index))) {
+            // If prime (or a trivial factor of 1), move to the next factor in the list
+            if (factors.get(index) == 1 || Mathematics.isPrime(factors.get(index))) {
 
                 if (verbose) {
                     System.out.println("" + factors.get(index) + " is a prime, move to next value");
@@ -71,64 +134,138 @@ public class ClassicalImpl {
 
             N = factors.remove(index);
 
-            // Pick a random number X < N
-            int X = new Random().nextInt(N - 2) + 1;
+            // Shor's algorithm cannot split a prime power, so split off the root of any perfect power first
+            int root = (int) perfectPowerRoot(N);
+            int p = root != N ? root : executor == null
+                    ? trySplit(N, verbose, periodFinder, randomness.get())
+                    : raceSplit(N, verbose, periodFinder, executor, trials, randomness);
+
+            factors.add(p);
+            factors.add(N / p);
 
             if(verbose) {
-                System.out.println("Found an X: " + X);
+                System.out.println("Found new factors, new collection: " + factors);
             }
 
-            // Compute the GCD of X and N
-            int gcd = Mathematics.greatestCommonDenominator(X, N);
+        }
 
-            if(gcd != 1) {
+        // Remove all `1` factors from the results, since they are trivial
+        while(factors.contains(new Integer(1))) {
+            factors.remove(new Integer(1));
+        }
+
+        if (verbose) {
+            System.out.println("Found final factors: " + factors);
+        }
 
-                factors.add(gcd);
-                factors.add(N / gcd);
+        return factors;
 
-                if (verbose) {
-                    System.out.println("Good guess on GCD: " + gcd);
-                }
+    }
 
-                // Good guess on X! Lucky you!
-                continue;
+    /**
+     * Computes the prime factors of N using a classical implementation of
+     * Shor's algorithm, for any N that fits in a long. The period is found
+     * with OrderFinding, and X^{r/2} is computed mod N rather than in full.
+     * OrderFinding only finds periods up to 2^46, so a composite whose
+     * period is larger, such as a product of two 30 bit primes, is split
+     * with Pollard's rho method instead (see FactoringEngine). A perfect
+     * power, for which every trial would fail, is split at its root first.
+     * @param N The integer N to find the prime factors of, N &gt; 0
+     * @param verbose Prints out steps and calculations if set to True
+     * @return the prime factors of N
+     */
+    public static List<Long> shorsPrimeFactorization(long N, boolean verbose) {
 
+        if (N <= 0) {
+            throw new InvalidParameterException("N = " + N + " has no prime factorization");
+        }
+
+        List<Long> factors = new ArrayList<Long>();
+        factors.add(N);
+        int index = 0;
+
+        while (index < factors.size()) {
+
+            long current = factors.get(index);
+            if (current == 1 || Mathematics.isPrime(current)) {
+                index++;
+                continue;
             }
 
-            // Otherwise, need to continue, and use high precision
-            // Find the period of f(x) = X^r mod N
-            Apint bigX = new Apint(X);
-            Apint bigN = new Apint(N);
-            Apint r = Mathematics.findPeriodClassically(bigX, bigN);
+            factors.remove(index);
+            long root = perfectPowerRoot(current);
+            long p = root != current ? root : trySplit(current, verbose);
+            factors.add(p);
+            factors.add(current / p);
 
             if(verbose) {
-                System.out.println("Found period r: " + r);
+                System.out.println("Found new factors, new collection: " + factors);
             }
 
-            // Compute the prime factors p and q!
-            Apint a = ApintMath.pow(bigX, r.intValue()/2).add(Apint.ONE);
-            Apint b = a.subtract(Apint.ONE.add(Apint.ONE));
+        }
 
-            if(verbose) {
-                System.out.println("Found (x^{r/2} + 1): " + a);
-                System.out.println("Found (x^{r/2} - 1): " + b);
+        // A lone factor of 1 is kept for N = 1, as in the int version
+        if (N > 1) {
+            while (factors.remove(Long.valueOf(1))) {
+                // Removes every trivial factor
             }
+        }
 
-            Apint p = Mathematics.greatestCommonDenominator(a, bigN);
-            //Apint q = Mathematics.greatestCommonDenominator(b, bigN);
+        return factors;
 
-            factors.add(p.intValue());
-            factors.add(bigN.divide(p).intValue());
+    }
 
-            if(verbose) {
-                System.out.println("Found new factors, new collection: " + factors);
+    /**
+     * Computes the prime factors of N using a classical implementation of
+     * Shor's algorithm, for N of any size. Factors that fit in a long are
+     * handed to the long version; beyond that the period is found with
+     * multi-limb arithmetic, which is only practical when the period is
+     * small. X^{r/2} is always computed mod N with modPow. A composite whose
+     * period is past the 2^46 bound of OrderFinding is factored with
+     * FactoringEngine instead.
+     * @param N The integer N to find the prime factors of, N &gt; 0
+     * @param verbose Prints out steps and calculations if set to True
+     * @return the prime factors of N
+     */
+    public static List<BigInteger> shorsPrimeFactorization(BigInteger N, boolean verbose) {
+
+        if (N.signum() <= 0) {
+            throw new InvalidParameterException("N = " + N + " has no prime factorization");
+        }
+
+        List<BigInteger> factors = new ArrayList<BigInteger>();
+        List<BigInteger> pending = new ArrayList<BigInteger>();
+        pending.add(N);
+
+        while (!pending.isEmpty()) {
+
+            BigInteger current = pending.remove(pending.size() - 1);
+            if (current.bitLength() < 64) {
+                for (long factor : shorsPrimeFactorization(current.longValue(), verbose)) {
+                    factors.add(BigInteger.valueOf(factor));
+                }
+            } else if (Primality.isProbablePrime(current)) {
+                factors.add(current);
+            } else {
+                int[] power = new int[1];
+                BigInteger root = FactoringEngine.perfectPower(current, power);
+                BigInteger p = root != null ? root : trySplit(current, verbose, ThreadLocalRandom.current());
+                if (p == null) {
+                    factors.addAll(FactoringEngine.factor(current));
+                } else if (p.equals(BigInteger.ONE) || p.equals(current)) {
+                    pending.add(current);
+                } else {
+                    pending.add(p);
+                    pending.add(current.divide(p));
+                }
             }
 
         }
 
-        // Remove all `1` factors from the results, since they are trivial
-        while(factors.contains(new Integer(1))) {
-            factors.remove(new Integer(1));
+        if (N.compareTo(BigInteger.ONE) > 0) {
+            while (factors.remove(BigInteger.ONE)) {
+                // Removes every trivial factor
+            }
         }
 
         if (verbose) {
@@ -139,4 +276,233 @@ public class ClassicalImpl {
 
     }
 
+    /**
+     * Computes the prime factors of N using a classical implementation of
+     * Shor's algorithm, for N of any size (see the BigInteger version)
+     * @param N The integer N to find the prime factors of, N &gt; 0
+     * @param verbose Prints out steps and calculations if set to True
+     * @return the prime factors of N, high precision
+     */
+    public static List<Apint> shorsPrimeFactorization(Apint N, boolean verbose) {
+
+        List<Apint> factors = new ArrayList<Apint>();
+        for (BigInteger factor : shorsPrimeFactorization(N.toBigInteger(), verbose)) {
+            factors.add(new Apint(factor));
+        }
+        return factors;
+
+    }
+
+    /**
+     * Returns the smallest r with r^k = N for some k &gt; 1, or N itself if N
+     * is not a perfect power. Every trial of Shor's algorithm on a prime
+     * power p^k gives a trivial divisor unless X happens to share p with N,
+     * so perfect powers are split at their roots instead.
+     * @param N The number to check, N &gt; 1
+     * @return the smallest root of N
+     */
+    static long perfectPowerRoot(long N) {
+
+        // The largest exponent gives the smallest root; a double root is within 1 of the true one
+        for (int k = 63 - Long.numberOfLeadingZeros(N); k > 1; k--) {
+            long estimate = Math.round(Math.pow(N, 1.0 / k));
+            for (long r = Math.max(2, estimate - 1); r <= estimate + 1; r++) {
+                if (power(r, k, N) == N) {
+                    return r;
+                }
+            }
+        }
+        return N;
+
+    }
+
+    /**
+     * Returns r^k, or -1 once the power passes N
+     */
+    private static long power(long r, int k, long N) {
+
+        long power = 1;
+        for (int i = 0; i < k; i++) {
+            if (power > N / r) {
+                return -1;
+            }
+            power *= r;
+        }
+        return power;
+
+    }
+
+    /**
+     * Runs rounds of trials concurrently until one of them finds a
+     * nontrivial divisor of N, cancelling the rest of its round
+     * @return a divisor of N other than 1 and N
+     */
+    private static int raceSplit(int N, boolean verbose, PeriodFinder periodFinder,
+                                 ExecutorService executor, int trials, Supplier<Random> randomness) {
+
+        while (true) {
+
+            // A fresh completion service per round, since cancelled futures are queued too
+            CompletionService<Integer> completion = new ExecutorCompletionService<Integer>(executor);
+            List<Future<Integer>> futures = new ArrayList<Future<Integer>>(trials);
+            for (int i = 0; i < trials; i++) {
+                futures.add(completion.submit(() -> trySplit(N, verbose, periodFinder, randomness.get())));
+            }
+
+            try {
+                for (int i = 0; i < trials; i++) {
+                    int p = completion.take().get();
+                    if (p != 1 && p != N) {
+                        return p;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while factoring " + N, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException("Trial failed while factoring " + N, e.getCause());
+            } finally {
+                for (Future<Integer> future : futures) {
+                    future.cancel(true);
+                }
+            }
+
+            if (verbose) {
+                System.out.println("All " + trials + " trials were trivial, trying again");
+            }
+
+        }
+
+    }
+
+    /**
+     * Runs one trial of Shor's algorithm on N with a random X
+     * @return a divisor of N, which is trivial (1 or N) if the trial failed
+     */
+    private static int trySplit(int N, boolean verbose, PeriodFinder periodFinder, Random random) {
+
+        OrderFinding.checkInterrupted();
+
+        // Pick a random number X < N
+        int X = random.nextInt(N - 2) + 1;
+
+        if(verbose) {
+            System.out.println("Found an X: " + X);
+        }
+
+        // Compute the GCD of X and N
+        int gcd = Mathematics.greatestCommonDenominator(X, N);
+
+        if(gcd != 1) {
+
+            if (verbose) {
+                System.out.println("Good guess on GCD: " + gcd);
+            }
+
+            // Good guess on X! Lucky you!
+            return gcd;
+
+        }
+
+        // Otherwise, need to continue
+        // Find the period of f(x) = X^r mod N
+        int r = periodFinder.findPeriod(X, N);
+
+        if(verbose) {
+            System.out.println("Found period r: " + r);
+        }
+
+        // Compute the factor p = gcd(X^{r/2} + 1, N), reducing X^{r/2} mod N first
+        long a = OrderFinding.powMod(X, r/2, N);
+
+        if(verbose) {
+            System.out.println("Found (x^{r/2} + 1) mod N: " + (a + 1) % N);
+            System.out.println("Found (x^{r/2} - 1) mod N: " + Math.floorMod(a - 1, N));
+        }
+
+        return (int) Mathematics.greatestCommonDenominator((a + 1) % N, N);
+
+    }
+
+    /**
+     * Runs one trial of Shor's algorithm on a long N with a random X
+     * @return a divisor of N, which is trivial (1 or N) if the trial failed
+     */
+    private static long trySplit(long N, boolean verbose) {
+
+        OrderFinding.checkInterrupted();
+        long X = ThreadLocalRandom.current().nextLong(1, N - 1);
+        long gcd = Mathematics.greatestCommonDenominator(X, N);
+        if (gcd != 1) {
+            if (verbose) {
+                System.out.println("Good guess on GCD with X = " + X + ": " + gcd);
+            }
+            return gcd;
+        }
+
+        long r;
+        try {
+            r = Mathematics.findPeriodClassically(X, N);
+        } catch (InvalidParameterException e) {
+            // The period is too large to find classically, and so is that of almost any other X
+            if (verbose) {
+                System.out.println("Period of X = " + X + " is too large, splitting " + N + " with Pollard's rho");
+            }
+            return FactoringEngine.pollardBrent(N);
+        }
+        long a = OrderFinding.powMod(X, r / 2, N);
+
+        if (verbose) {
+            System.out.println("Found period r = " + r + " of X = " + X + ", x^{r/2} mod N = " + a);
+        }
+
+        return Mathematics.greatestCommonDenominator((a + 1) % N, N);
+
+    }
+
+    /**
+     * Runs one trial of Shor's algorithm on a BigInteger N with a random X
+     * @return a divisor of N, which is trivial (1 or N) if the trial failed,
+     *         or null if the period of X is too large to find classically
+     */
+    private static BigInteger trySplit(BigInteger N, boolean verbose, Random random) {
+
+        OrderFinding.checkInterrupted();
+
+        // Pick a random 1 <= X < N - 1
+        BigInteger X;
+        do {
+            X = new BigInteger(N.bitLength(), random);
+        } while (X.signum() == 0 || X.compareTo(N.subtract(BigInteger.ONE)) >= 0);
+
+        BigInteger gcd = X.gcd(N);
+        if (!gcd.equals(BigInteger.ONE)) {
+            if (verbose) {
+                System.out.println("Good guess on GCD with X = " + X + ": " + gcd);
+            }
+            return gcd;
+        }
+
+        BigInteger r;
+        try {
+            r = Mathematics.findPeriodClassically(new Apint(X), new Apint(N)).toBigInteger();
+        } catch (InvalidParameterException e) {
+            if (verbose) {
+                System.out.println("Period of X = " + X + " is too large, factoring " + N + " classically");
+            }
+            return null;
+        }
+        BigInteger a = X.modPow(r.shiftRight(1), N);
+
+        if (verbose) {
+            System.out.println("Found period r = " + r + " of X = " + X + ", x^{r/2} mod N = " + a);
+        }
+
+        return a.add(BigInteger.ONE).gcd(N);
+
+    }
+
 }
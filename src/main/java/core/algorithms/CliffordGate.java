@@ -0,0 +1,175 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+
+import java.util.Arrays;
+
+/**
+ * A gate of the Clifford group, applied to given qubits, for use with the
+ * StabilizerSimulator. Clifford gates map Pauli operators to Pauli
+ * operators, which is what allows circuits made only of them to be
+ * simulated in polynomial time.
+ * @version 0.1
+ */
+public final class CliffordGate {
+
+    /**
+     * The supported Clifford gates
+     */
+    public enum Type {
+        HADAMARD, PHASE, PHASE_DAGGER, PAULI_X, PAULI_Y, PAULI_Z, CNOT, CZ, SWAP
+    }
+
+    private final Type type;
+    private final int[] qubits;
+
+    private CliffordGate(Type type, int... qubits) {
+
+        for (int q : qubits) {
+            if (q < 0) {
+                throw new InvalidParameterException("Qubit indices must be non-negative, got " + q);
+            }
+        }
+        if (qubits.length == 2 && qubits[0] == qubits[1]) {
+            throw new InvalidParameterException("A two-qubit gate needs two distinct qubits");
+        }
+        this.type = type;
+        this.qubits = qubits;
+
+    }
+
+    /**
+     * @param target The qubit to apply the Hadamard gate to
+     * @return the new gate
+     */
+    public static CliffordGate hadamard(int target) {
+        return new CliffordGate(Type.HADAMARD, target);
+    }
+
+    /**
+     * @param target The qubit to apply the phase gate S = diag(1, i) to
+     * @return the new gate
+     */
+    public static CliffordGate phase(int target) {
+        return new CliffordGate(Type.PHASE, target);
+    }
+
+    /**
+     * @param target The qubit to apply the inverse phase gate diag(1, -i) to
+     * @return the new gate
+     */
+    public static CliffordGate phaseDagger(int target) {
+        return new CliffordGate(Type.PHASE_DAGGER, target);
+    }
+
+    /**
+     * @param target The qubit to apply the Pauli X gate to
+     * @return the new gate
+     */
+    public static CliffordGate pauliX(int target) {
+        return new CliffordGate(Type.PAULI_X, target);
+    }
+
+    /**
+     * @param target The qubit to apply the Pauli Y gate to
+     * @return the new gate
+     */
+    public static CliffordGate pauliY(int target) {
+        return new CliffordGate(Type.PAULI_Y, target);
+    }
+
+    /**
+     * @param target The qubit to apply the Pauli Z gate to
+     * @return the new gate
+     */
+    public static CliffordGate pauliZ(int target) {
+        return new CliffordGate(Type.PAULI_Z, target);
+    }
+
+    /**
+     * @param control The control qubit
+     * @param target The qubit which is flipped when control is |1&gt;
+     * @return the new gate
+     */
+    public static CliffordGate cnot(int control, int target) {
+        return new CliffordGate(Type.CNOT, control, target);
+    }
+
+    /**
+     * @param control The control qubit
+     * @param target The target qubit (CZ is symmetric)
+     * @return the new gate
+     */
+    public static CliffordGate cz(int control, int target) {
+        return new CliffordGate(Type.CZ, control, target);
+    }
+
+    /**
+     * @param qubit1 The first qubit
+     * @param qubit0 The second qubit
+     * @return the new gate
+     */
+    public static CliffordGate swap(int qubit1, int qubit0) {
+        return new CliffordGate(Type.SWAP, qubit1, qubit0);
+    }
+
+    /**
+     * @return the type of the gate
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return the qubits of the gate, control first for CNOT and CZ
+     */
+    public int[] getQubits() {
+        return qubits.clone();
+    }
+
+    /**
+     * Applies this gate to the tableau
+     * @param simulator The simulator to apply the gate to
+     */
+    public void applyTo(StabilizerSimulator simulator) {
+
+        switch (type) {
+            case HADAMARD:
+                simulator.hadamard(qubits[0]);
+                break;
+            case PHASE:
+                simulator.phase(qubits[0]);
+                break;
+            case PHASE_DAGGER:
+                simulator.phaseDagger(qubits[0]);
+                break;
+            case PAULI_X:
+                simulator.pauliX(qubits[0]);
+                break;
+            case PAULI_Y:
+                simulator.pauliY(qubits[0]);
+                break;
+            case PAULI_Z:
+                simulator.pauliZ(qubits[0]);
+                break;
+            case CNOT:
+                simulator.cnot(qubits[0], qubits[1]);
+                break;
+            case CZ:
+                simulator.cz(qubits[0], qubits[1]);
+                break;
+            default:
+                simulator.swap(qubits[0], qubits[1]);
+        }
+
+    }
+
+    /**
+     * @return a description of the gate, such as "CNOT[0, 1]"
+     */
+    @Override
+    public String toString() {
+        return type + Arrays.toString(qubits);
+    }
+
+}
@@ -0,0 +1,269 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+import core.util.ComplexArrays;
+import core.util.ComplexMatrix;
+import core.util.ComplexVector;
+import core.util.DoubleComplex;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A density-matrix simulator for a register of n qubits, which can hold
+ * mixed states and so apply noise channels exactly. The 2^n x 2^n matrix
+ * rho is stored row-major in two primitive arrays, entry (r, c) at index
+ * r * 2^n + c.
+ *
+ * Read this way, rho is a state vector of 2n qubits, in which qubit q + n
+ * is bit q of the row and qubit q is bit q of the column. A gate U on
+ * qubit q maps rho to U rho U^dagger, which is U applied to qubit q + n
+ * and conj(U) applied to qubit q; a channel is its 4x4 superoperator
+ * applied to the pair (q + n, q). Every update is therefore one strided
+ * sweep of the StateVectorSimulator kernels over the 4^n entries, which
+ * also run in parallel for large registers.
+ * @version 0.1
+ */
+public class DensityMatrixSimulator {
+
+    /**
+     * The largest register whose 4^n entries fit in a pair of Java arrays
+     */
+    public static final int MAX_QUBITS = StateVectorSimulator.MAX_QUBITS / 2;
+
+    /**
+     * The number of qubits in the register
+     */
+    private final int qubits;
+
+    /**
+     * The vectorised density matrix, as a register of 2n qubits
+     */
+    private final StateVectorSimulator vectorised;
+
+    /**
+     * Creates a register of the given number of qubits in the state |0...0&gt;&lt;0...0|
+     * @param qubits The number of qubits in the register
+     */
+    public DensityMatrixSimulator(int qubits) {
+
+        checkSize(qubits);
+        this.qubits = qubits;
+        this.vectorised = new StateVectorSimulator(2 * qubits);
+
+    }
+
+    /**
+     * Creates a register in the pure state |psi&gt;&lt;psi|
+     * @param state The state psi, whose length must be a power of two
+     */
+    public DensityMatrixSimulator(ComplexVector state) {
+
+        int dimension = state.length();
+        if (dimension < 2 || Integer.bitCount(dimension) != 1) {
+            throw new InvalidParameterException("State length must be a power of two, got " + dimension);
+        }
+        checkSize(Integer.numberOfTrailingZeros(dimension));
+        this.qubits = Integer.numberOfTrailingZeros(dimension);
+
+        double[] sRe = state.getRealParts();
+        double[] sIm = state.getImaginaryParts();
+        double[] real = new double[dimension * dimension];
+        double[] imag = new double[dimension * dimension];
+        for (int r = 0; r < dimension; r++) {
+            for (int c = 0; c < dimension; c++) {
+                // psi_r * conj(psi_c)
+                real[r * dimension + c] = sRe[r] * sRe[c] + sIm[r] * sIm[c];
+                imag[r * dimension + c] = sIm[r] * sRe[c] - sRe[r] * sIm[c];
+            }
+        }
+        this.vectorised = new StateVectorSimulator(new ComplexVector(real, imag));
+
+    }
+
+    /**
+     * @return the number of qubits in the register
+     */
+    public int getQubitCount() {
+        return qubits;
+    }
+
+    /**
+     * @return the number of rows (and columns) of the density matrix, 2^n
+     */
+    public int getDimension() {
+        return 1 << qubits;
+    }
+
+    /**
+     * Returns an entry of the density matrix
+     * @param row The row, a basis state index
+     * @param column The column, a basis state index
+     * @return the entry rho(row, column)
+     */
+    public DoubleComplex getEntry(int row, int column) {
+        return vectorised.getAmplitude(row * getDimension() + column);
+    }
+
+    /**
+     * @return a copy of the density matrix
+     */
+    public ComplexMatrix getMatrix() {
+        ComplexVector state = vectorised.getState();
+        return new ComplexMatrix(getDimension(), getDimension(),
+                state.getRealParts().clone(), state.getImaginaryParts().clone());
+    }
+
+    /**
+     * Returns the probability of measuring the given basis state, which is
+     * the diagonal entry of the density matrix
+     * @param index The index of the basis state
+     * @return the probability of the basis state
+     */
+    public double getProbability(int index) {
+        return vectorised.getState().getRealParts()[index * (getDimension() + 1)];
+    }
+
+    /**
+     * @return the probabilities of measuring each basis state
+     */
+    public double[] getProbabilities() {
+        double[] probabilities = new double[getDimension()];
+        for (int i = 0; i < probabilities.length; i++) {
+            probabilities[i] = getProbability(i);
+        }
+        return probabilities;
+    }
+
+    /**
+     * @return the trace of the density matrix, 1 up to rounding
+     */
+    public double getTrace() {
+        double trace = 0;
+        for (int i = 0; i < getDimension(); i++) {
+            trace += getProbability(i);
+        }
+        return trace;
+    }
+
+    /**
+     * Returns the purity Tr(rho^2), which is 1 for a pure state and 2^-n
+     * for the maximally mixed state. Since rho is Hermitian, this is the
+     * sum of the squared magnitudes of its entries.
+     * @return the purity of the state
+     */
+    public double getPurity() {
+        ComplexVector state = vectorised.getState();
+        return ComplexArrays.normSquared(state.getRealParts(), state.getImaginaryParts());
+    }
+
+    /**
+     * Sets the pool which updates are applied on for large registers
+     * @param pool The pool to run parallel updates on
+     */
+    public void setPool(ForkJoinPool pool) {
+        vectorised.setPool(pool);
+    }
+
+    /**
+     * Resets the register to the state |0...0&gt;&lt;0...0|
+     */
+    public void reset() {
+        vectorised.reset();
+    }
+
+    /**
+     * Applies a single-qubit gate to the target qubit
+     * @param gate The 2x2 matrix of the gate
+     * @param target The qubit to apply the gate to
+     */
+    public void applyGate(ComplexMatrix gate, int target) {
+        checkQubit(target);
+        vectorised.applyGate(gate, target + qubits);
+        vectorised.applyGate(gate.conjugate(), target);
+    }
+
+    /**
+     * Applies a single-qubit gate to the target qubit, conditioned on the
+     * control qubit being |1&gt;
+     * @param gate The 2x2 matrix of the gate
+     * @param control The control qubit
+     * @param target The qubit to apply the gate to
+     */
+    public void applyControlledGate(ComplexMatrix gate, int control, int target) {
+        checkQubit(control);
+        checkQubit(target);
+        vectorised.applyControlledGate(gate, control + qubits, target + qubits);
+        vectorised.applyControlledGate(gate.conjugate(), control, target);
+    }
+
+    /**
+     * Applies a two-qubit gate, whose rows and columns are indexed by
+     * 2 * q1 + q0 (as in StateVectorSimulator.applyTwoQubitGate)
+     * @param gate The 4x4 matrix of the gate
+     * @param qubit1 The qubit which is the most significant bit of the gate basis
+     * @param qubit0 The qubit which is the least significant bit of the gate basis
+     */
+    public void applyTwoQubitGate(ComplexMatrix gate, int qubit1, int qubit0) {
+        checkQubit(qubit1);
+        checkQubit(qubit0);
+        vectorised.applyTwoQubitGate(gate, qubit1 + qubits, qubit0 + qubits);
+        vectorised.applyTwoQubitGate(gate.conjugate(), qubit1, qubit0);
+    }
+
+    /**
+     * Applies a noise channel to the target qubit, as a single sweep of
+     * its superoperator over the row and column bits of the qubit
+     * @param channel The channel to apply
+     * @param target The qubit to apply the channel to
+     */
+    public void applyChannel(NoiseChannel channel, int target) {
+        checkQubit(target);
+        vectorised.applyTwoQubitGate(channel.getSuperoperator(), target + qubits, target);
+    }
+
+    /**
+     * Applies the Hadamard gate to the target qubit
+     * @param target The qubit to apply the gate to
+     */
+    public void hadamard(int target) {
+        applyGate(Gates.hadamard(), target);
+    }
+
+    /**
+     * Applies the Pauli X (NOT) gate to the target qubit
+     * @param target The qubit to apply the gate to
+     */
+    public void pauliX(int target) {
+        applyGate(Gates.pauliX(), target);
+    }
+
+    /**
+     * Applies the Pauli Z gate to the target qubit
+     * @param target The qubit to apply the gate to
+     */
+    public void pauliZ(int target) {
+        applyGate(Gates.pauliZ(), target);
+    }
+
+    /**
+     * Applies the controlled NOT gate
+     * @param control The control qubit
+     * @param target The qubit which is flipped when control is |1&gt;
+     */
+    public void cnot(int control, int target) {
+        applyControlledGate(Gates.pauliX(), control, target);
+    }
+
+    private static void checkSize(int qubits) {
+        if (qubits < 1 || qubits > MAX_QUBITS) {
+            throw new InvalidParameterException("Number of qubits must be between 1 and " + MAX_QUBITS);
+        }
+    }
+
+    private void checkQubit(int qubit) {
+        if (qubit < 0 || qubit >= qubits) {
+            throw new InvalidParameterException("Qubit " + qubit + " is outside of a register of " + qubits);
+        }
+    }
+
+}
@@ -0,0 +1,729 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+import core.util.Gcd;
+import core.util.LongMontgomery;
+import core.util.MultiLimbMontgomery;
+import core.util.PrimeSieve;
+import core.util.Primality;
+
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A fast classical factoring engine, as a reference to check simulated
+ * Shor runs against at sizes where ClassicalImpl's period finding is far
+ * too slow. Numbers are factored in stages:
+ *
+ * 1. Trial division by a cached table of the primes below
+ *    TRIAL_DIVISION_LIMIT. Numbers that fit in a long are divided with
+ *    exact-division inverses (a multiplication and a comparison per prime);
+ *    larger numbers are reduced once per group of primes whose product
+ *    fits in a long.
+ * 2. Pollard's rho method with Brent's cycle detection, which finds a
+ *    factor p in about sqrt(p) steps. The differences of a whole batch of
+ *    steps are multiplied together, so that only one gcd is taken per
+ *    RHO_BATCH steps. For numbers that fit in a long the steps are done in
+ *    Montgomery arithmetic (see LongMontgomery), and rho always finishes.
+ * 3. Lenstra's elliptic curve method for cofactors beyond a long that rho
+ *    does not split within BIG_RHO_ITERATIONS steps, on Montgomery curves
+ *    with Suyama's parametrisation, with a standard continuation for the
+ *    second stage. The bounds and curve counts grow by ECM_SCHEDULE, which
+ *    targets factors of 15 to 40 digits. Beyond a long, rho and ECM run on
+ *    MultiLimbMontgomery, and do not allocate per step.
+ * 4. The QuadraticSieve, for cofactors of SIEVE_BITS or more once the
+ *    first level of ECM has failed, as their factors are then likely
+ *    balanced enough for the sieve to be faster.
+ *
+ * Composite cofactors are checked for being perfect powers, and primality
+ * is decided by Primality. The factors are returned as a sorted multiset,
+ * like ClassicalImpl.shorsPrimeFactorization (so that 1 gives [1]).
+ * @version 0.3
+ */
+public class FactoringEngine {
+
+    /**
+     * The bound of the cached table of primes used for trial division
+     */
+    public static final int TRIAL_DIVISION_LIMIT = 1 << 16;
+
+    /**
+     * The bound of trial division for numbers that fit in a long, past
+     * which rho finds the remaining small factors faster
+     */
+    public static final int LONG_TRIAL_DIVISION_LIMIT = 1 << 10;
+
+    /**
+     * The number of rho steps whose differences are multiplied together before taking a gcd
+     */
+    public static final int RHO_BATCH = 128;
+
+    /**
+     * The number of rho steps tried on a number beyond a long before ECM
+     */
+    public static final long BIG_RHO_ITERATIONS = 1 << 16;
+
+    /**
+     * The size from which cofactors go to the quadratic sieve, about 40 digits
+     */
+    public static final int SIEVE_BITS = 130;
+
+    /**
+     * Stage one bounds and numbers of curves of ECM, each level aimed at
+     * factors 5 digits larger than the one before (from 15 digits)
+     */
+    private static final int[][] ECM_SCHEDULE = {
+            {2000, 25}, {11000, 90}, {50000, 300}, {250000, 700}, {1000000, 1800}, {3000000, 5100}
+    };
+
+    /**
+     * The ratio of the stage two bound of ECM to its stage one bound
+     */
+    private static final int ECM_STAGE_TWO_RATIO = 50;
+
+    /**
+     * The giant step of ECM stage two, 2 * 3 * 5 * 7
+     */
+    private static final int ECM_GIANT_STEP = 210;
+
+    private static final int[] TRIAL_PRIMES = PrimeSieve.primesUpTo(TRIAL_DIVISION_LIMIT);
+
+    /**
+     * For each odd trial prime p: p^-1 mod 2^64, and the largest quotient
+     * floor((2^64 - 1) / p). n is divisible by p exactly when n * p^-1
+     * mod 2^64 is at most that quotient, in which case it is n / p.
+     */
+    private static final long[] TRIAL_INVERSES = new long[TRIAL_PRIMES.length];
+    private static final long[] TRIAL_QUOTIENT_LIMITS = new long[TRIAL_PRIMES.length];
+
+    static {
+        for (int i = 1; i < TRIAL_PRIMES.length; i++) {
+            long p = TRIAL_PRIMES[i];
+            // Newton's iteration doubles the correct low bits of the inverse, starting from 3 (p * p = 1 mod 8)
+            long inverse = p;
+            for (int bits = 3; bits < 64; bits *= 2) {
+                inverse *= 2 - p * inverse;
+            }
+            TRIAL_INVERSES[i] = inverse;
+            TRIAL_QUOTIENT_LIMITS[i] = Long.divideUnsigned(-1L, p);
+        }
+    }
+
+    /**
+     * Computes the prime factors of N
+     * @param N The integer to factor, N &gt; 0
+     * @return the prime factors of N with multiplicity, in increasing order
+     */
+    public static List<Integer> factor(int N) {
+
+        List<Integer> factors = new ArrayList<Integer>();
+        for (long factor : factor((long) N)) {
+            factors.add((int) factor);
+        }
+        return factors;
+
+    }
+
+    /**
+     * Computes the prime factors of N
+     * @param N The integer to factor, N &gt; 0
+     * @return the prime factors of N with multiplicity, in increasing order
+     */
+    public static List<Long> factor(long N) {
+
+        if (N <= 0) {
+            throw new InvalidParameterException("N = " + N + " has no prime factorization");
+        }
+        List<Long> factors = new ArrayList<Long>();
+        if (N == 1) {
+            factors.add(1L);
+            return factors;
+        }
+
+        long n = trialDivide(N, factors);
+        Deque<Long> pending = new ArrayDeque<Long>();
+        if (n > 1) {
+            pending.push(n);
+        }
+        while (!pending.isEmpty()) {
+            long m = pending.pop();
+            if (Primality.isPrime(m)) {
+                factors.add(m);
+                continue;
+            }
+            long d = pollardBrent(m);
+            pending.push(d);
+            pending.push(m / d);
+        }
+
+        Collections.sort(factors);
+        return factors;
+
+    }
+
+    /**
+     * Computes the prime factors of N. Factors beyond a long are found with
+     * ECM, whose running time grows with the size of the second largest
+     * prime factor of N: factors of up to 30 digits take seconds.
+     * @param N The integer to factor, N &gt; 0
+     * @return the prime factors of N with multiplicity, in increasing order
+     */
+    public static List<BigInteger> factor(BigInteger N) {
+
+        if (N.signum() <= 0) {
+            throw new InvalidParameterException("N = " + N + " has no prime factorization");
+        }
+        List<BigInteger> factors = new ArrayList<BigInteger>();
+        if (N.bitLength() < Long.SIZE - 1) {
+            for (long factor : factor(N.longValue())) {
+                factors.add(BigInteger.valueOf(factor));
+            }
+            return factors;
+        }
+
+        BigInteger n = trialDivide(N, factors);
+        Deque<BigInteger> pending = new ArrayDeque<BigInteger>();
+        if (!n.equals(BigInteger.ONE)) {
+            pending.push(n);
+        }
+        SplittableRandom random = new SplittableRandom(N.longValue());
+        while (!pending.isEmpty()) {
+
+            BigInteger m = pending.pop();
+            if (m.bitLength() < Long.SIZE - 1) {
+                for (long factor : factor(m.longValue())) {
+                    factors.add(BigInteger.valueOf(factor));
+                }
+                continue;
+            }
+            if (Primality.isProbablePrime(m)) {
+                factors.add(m);
+                continue;
+            }
+
+            int[] power = new int[1];
+            BigInteger root = perfectPower(m, power);
+            if (root != null) {
+                for (int i = 0; i < power[0]; i++) {
+                    pending.push(root);
+                }
+                continue;
+            }
+
+            BigInteger d = pollardBrent(m, BIG_RHO_ITERATIONS, random.nextLong());
+            for (int level = 0; d == null; level++) {
+                if (level == 1 && m.bitLength() >= SIEVE_BITS) {
+                    d = new QuadraticSieve(m).findFactor(Runtime.getRuntime().availableProcessors(), false);
+                    if (d != null) {
+                        break;
+                    }
+                }
+                int B1 = level < ECM_SCHEDULE.length ? ECM_SCHEDULE[level][0]
+                        : ECM_SCHEDULE[ECM_SCHEDULE.length - 1][0] << (2 * (level - ECM_SCHEDULE.length + 1));
+                int curves = ECM_SCHEDULE[Math.min(level, ECM_SCHEDULE.length - 1)][1];
+                d = ecm(m, B1, curves, random.nextLong());
+            }
+            pending.push(d);
+            pending.push(m.divide(d));
+
+        }
+
+        Collections.sort(factors);
+        return factors;
+
+    }
+
+    /**
+     * Finds a non-trivial factor of an odd composite with Pollard's rho
+     * method and Brent's cycle detection, in Montgomery arithmetic
+     * @param n An odd composite, n &lt; 2^63
+     * @return a factor d with 1 &lt; d &lt; n
+     */
+    public static long pollardBrent(long n) {
+
+        if ((n & 1) == 0) {
+            return 2;
+        }
+        LongMontgomery field = new LongMontgomery(n);
+        for (long c = 1; ; c++) {
+            long factor = pollardBrent(field, field.toMontgomery(c), field.toMontgomery(2));
+            if (factor != n) {
+                return factor;
+            }
+        }
+
+    }
+
+    /**
+     * One run of Brent's variant of rho on f(x) = x^2 + c, in Montgomery form
+     * @return a factor of n, which is n itself if the run failed
+     */
+    private static long pollardBrent(LongMontgomery field, long c, long start) {
+
+        long n = field.getModulus();
+        long x = start;
+        long y = start;
+        long saved = start;
+        long product = field.one();
+        long g = 1;
+
+        for (long r = 1; g == 1; r *= 2) {
+            x = y;
+            for (long i = 0; i < r; i++) {
+                y = field.add(field.square(y), c);
+            }
+            for (long k = 0; k < r && g == 1; k += RHO_BATCH) {
+                saved = y;
+                long steps = Math.min(RHO_BATCH, r - k);
+                for (long i = 0; i < steps; i++) {
+                    y = field.add(field.square(y), c);
+                    product = field.multiply(product, field.subtract(x, y));
+                }
+                // The Montgomery factor 2^64 is coprime to n, so it does not change the gcd
+                g = Gcd.gcd(product, n);
+            }
+        }
+
+        if (g == n) {
+            // The batch overshot: retrace it one step at a time
+            do {
+                saved = field.add(field.square(saved), c);
+                g = Gcd.gcd(field.subtract(x, saved), n);
+            } while (g == 1);
+        }
+        return g;
+
+    }
+
+    /**
+     * Looks for a non-trivial factor of an odd composite with Pollard's rho
+     * method and Brent's cycle detection
+     * @param n An odd composite
+     * @param maxIterations The number of steps to try
+     * @param seed Chooses the polynomial and the starting point
+     * @return a factor d with 1 &lt; d &lt; n, or null if none was found in time
+     */
+    public static BigInteger pollardBrent(BigInteger n, long maxIterations, long seed) {
+
+        if (!n.testBit(0)) {
+            return BigInteger.valueOf(2);
+        }
+        MultiLimbMontgomery field = new MultiLimbMontgomery(n);
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] c = field.toMontgomery(BigInteger.valueOf(random.nextLong(1, Long.MAX_VALUE)));
+        int[] x = field.toMontgomery(BigInteger.valueOf(random.nextLong(1, Long.MAX_VALUE)));
+        int[] y = x.clone();
+        int[] saved = x.clone();
+        int[] difference = field.newNumber();
+        int[] product = field.newNumber();
+        field.one(product);
+        BigInteger g = BigInteger.ONE;
+        long iterations = 0;
+
+        for (long r = 1; g.equals(BigInteger.ONE); r *= 2) {
+            System.arraycopy(y, 0, x, 0, x.length);
+            for (long i = 0; i < r; i++) {
+                field.square(y, y);
+                field.add(y, c, y);
+            }
+            iterations += r;
+            for (long k = 0; k < r && g.equals(BigInteger.ONE); k += RHO_BATCH) {
+                System.arraycopy(y, 0, saved, 0, y.length);
+                long steps = Math.min(RHO_BATCH, r - k);
+                for (long i = 0; i < steps; i++) {
+                    field.square(y, y);
+                    field.add(y, c, y);
+                    field.subtract(x, y, difference);
+                    field.multiply(product, difference, product);
+                }
+                iterations += steps;
+                g = field.gcd(product);
+            }
+            if (iterations > maxIterations && g.equals(BigInteger.ONE)) {
+                return null;
+            }
+        }
+
+        if (g.equals(n)) {
+            do {
+                field.square(saved, saved);
+                field.add(saved, c, saved);
+                field.subtract(x, saved, difference);
+                g = field.gcd(difference);
+            } while (g.equals(BigInteger.ONE));
+        }
+        return g.equals(n) ? null : g;
+
+    }
+
+    /**
+     * Looks for a non-trivial factor with Lenstra's elliptic curve method
+     * @param n A composite with no small factors, which is not a perfect power
+     * @param B1 The stage one bound: the curves are multiplied by every prime power up to it
+     * @param curves The number of curves to try
+     * @param seed Chooses the curves
+     * @return a factor d with 1 &lt; d &lt; n, or null if none of the curves found one
+     */
+    public static BigInteger ecm(BigInteger n, int B1, int curves, long seed) {
+
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] primes = PrimeSieve.primesUpTo(B1);
+        MultiLimbMontgomery field = new MultiLimbMontgomery(n);
+        for (int i = 0; i < curves; i++) {
+            BigInteger factor = new EcmCurve(field, random.nextLong(6, Integer.MAX_VALUE)).run(primes, B1,
+                    (long) B1 * ECM_STAGE_TWO_RATIO);
+            if (factor != null) {
+                return factor;
+            }
+        }
+        return null;
+
+    }
+
+    /**
+     * Divides out the trial primes below LONG_TRIAL_DIVISION_LIMIT, with exact division inverses
+     * @return what is left of n
+     */
+    private static long trialDivide(long n, List<Long> factors) {
+
+        int twos = Long.numberOfTrailingZeros(n);
+        for (int i = 0; i < twos; i++) {
+            factors.add(2L);
+        }
+        n >>>= twos;
+
+        for (int i = 1; i < TRIAL_PRIMES.length && TRIAL_PRIMES[i] < LONG_TRIAL_DIVISION_LIMIT; i++) {
+            long p = TRIAL_PRIMES[i];
+            if (p * p > n) {
+                break;
+            }
+            long quotient = n * TRIAL_INVERSES[i];
+            while (Long.compareUnsigned(quotient, TRIAL_QUOTIENT_LIMITS[i]) <= 0) {
+                factors.add(p);
+                n = quotient;
+                quotient = n * TRIAL_INVERSES[i];
+            }
+        }
+        return n;
+
+    }
+
+    /**
+     * Divides out every trial prime, reducing n once per group of primes
+     * whose product fits in a long
+     * @return what is left of n
+     */
+    private static BigInteger trialDivide(BigInteger n, List<BigInteger> factors) {
+
+        int twos = n.getLowestSetBit();
+        for (int i = 0; i < twos; i++) {
+            factors.add(BigInteger.valueOf(2));
+        }
+        n = n.shiftRight(twos);
+
+        int start = 1;
+        while (start < TRIAL_PRIMES.length && n.bitLength() >= Long.SIZE - 1) {
+
+            // The group of primes whose product stays below 2^62
+            long product = TRIAL_PRIMES[start];
+            int end = start + 1;
+            while (end < TRIAL_PRIMES.length && product <= (1L << 62) / TRIAL_PRIMES[end]) {
+                product *= TRIAL_PRIMES[end++];
+            }
+
+            long residue = n.mod(BigInteger.valueOf(product)).longValue();
+            for (int i = start; i < end; i++) {
+                int p = TRIAL_PRIMES[i];
+                if (residue % p != 0) {
+                    continue;
+                }
+                BigInteger prime = BigInteger.valueOf(p);
+                BigInteger[] division = n.divideAndRemainder(prime);
+                while (division[1].signum() == 0) {
+                    factors.add(prime);
+                    n = division[0];
+                    division = n.divideAndRemainder(prime);
+                }
+            }
+            start = end;
+
+        }
+        // Once the rest fits in a long, it is left to the trial division of longs
+        return n;
+
+    }
+
+    /**
+     * Returns r if n = r^k for some k &gt; 1, with k stored in power[0].
+     * Only exponents up to log2(n) / 16 + 1 are tried, as n is assumed to
+     * have no factor below TRIAL_DIVISION_LIMIT, so the power of a smaller
+     * root may be missed.
+     * @return the root with the largest power, or null if n is not a perfect power
+     */
+    static BigInteger perfectPower(BigInteger n, int[] power) {
+
+        // n has no factor below the trial bound, so a root r^k = n has k < log(n) / log(bound)
+        int maxExponent = n.bitLength() / 16 + 1;
+        for (int k : PrimeSieve.primesUpTo(Math.max(2, maxExponent))) {
+            BigInteger root = root(n, k);
+            if (root.pow(k).equals(n)) {
+                // The root may itself be a power
+                int[] inner = new int[1];
+                BigInteger deeper = perfectPower(root, inner);
+                power[0] = deeper == null ? k : k * inner[0];
+                return deeper == null ? root : deeper;
+            }
+        }
+        return null;
+
+    }
+
+    /**
+     * Returns floor(n^(1/k)) by Newton's iteration
+     */
+    private static BigInteger root(BigInteger n, int k) {
+
+        BigInteger K = BigInteger.valueOf(k);
+        BigInteger kMinusOne = BigInteger.valueOf(k - 1);
+        // Start above the root, from the bit length
+        BigInteger x = BigInteger.ONE.shiftLeft((n.bitLength() + k - 1) / k);
+        while (true) {
+            BigInteger next = x.multiply(kMinusOne).add(n.divide(x.pow(k - 1))).divide(K);
+            if (next.compareTo(x) >= 0) {
+                return x;
+            }
+            x = next;
+        }
+
+    }
+
+    /**
+     * A Montgomery curve By^2 = x^3 + Ax^2 + x mod n from Suyama's
+     * parametrisation, whose points are kept as projective (X : Z) in
+     * Montgomery form, with a24 = (A + 2) / 4. The point operations work in
+     * place on arrays of the curve, so that the stages do not allocate.
+     */
+    private static final class EcmCurve {
+
+        private final MultiLimbMontgomery field;
+        private final BigInteger n;
+        private int[] a24;
+        private final int[] X;
+        private final int[] Z;
+
+        /**
+         * A factor found while setting up the curve, when an inverse did not exist
+         */
+        private BigInteger factor;
+
+        private final int[] t1;
+        private final int[] t2;
+        private final int[] t3;
+        private final int[] t4;
+        private final int[] ladderX;
+        private final int[] ladderZ;
+        private final int[] baseX;
+        private final int[] baseZ;
+
+        EcmCurve(MultiLimbMontgomery field, long sigma) {
+
+            this.field = field;
+            this.n = field.getModulus();
+            t1 = field.newNumber();
+            t2 = field.newNumber();
+            t3 = field.newNumber();
+            t4 = field.newNumber();
+            ladderX = field.newNumber();
+            ladderZ = field.newNumber();
+            baseX = field.newNumber();
+            baseZ = field.newNumber();
+
+            BigInteger s = BigInteger.valueOf(sigma);
+            BigInteger u = s.multiply(s).subtract(BigInteger.valueOf(5)).mod(n);
+            BigInteger v = s.shiftLeft(2).mod(n);
+            BigInteger u3 = u.pow(3).mod(n);
+            X = field.toMontgomery(u3);
+            Z = field.toMontgomery(v.pow(3));
+
+            // a24 = (v - u)^3 (3u + v) / (16 u^3 v)
+            BigInteger numerator = v.subtract(u).pow(3).multiply(u.multiply(BigInteger.valueOf(3)).add(v)).mod(n);
+            BigInteger denominator = u3.multiply(v).shiftLeft(4).mod(n);
+            BigInteger g = Gcd.gcd(denominator, n);
+            if (!g.equals(BigInteger.ONE)) {
+                factor = g.equals(n) ? null : g;
+                return;
+            }
+            a24 = field.toMontgomery(numerator.multiply(denominator.modInverse(n)));
+
+        }
+
+        /**
+         * Runs both stages on this curve
+         * @return a factor of n, or null if this curve found none
+         */
+        BigInteger run(int[] primes, int B1, long B2) {
+
+            if (a24 == null) {
+                return factor;
+            }
+
+            // Stage one: Q = (product of every prime power up to B1) P
+            for (int p : primes) {
+                long power = p;
+                while (power * p <= B1) {
+                    power *= p;
+                }
+                multiply(X, Z, power);
+            }
+            BigInteger g = field.gcd(Z);
+            if (!g.equals(BigInteger.ONE)) {
+                return g.equals(n) ? null : g;
+            }
+
+            // Stage two: the primes q = mD +- j in (B1, B2], from baby steps jQ and giant steps mDQ
+            int D = ECM_GIANT_STEP;
+            int[][] babyX = new int[D / 2][];
+            int[][] babyZ = new int[D / 2][];
+            int[] twoQX = field.newNumber();
+            int[] twoQZ = field.newNumber();
+            doublePoint(X, Z, twoQX, twoQZ);
+            babyX[1] = X.clone();
+            babyZ[1] = Z.clone();
+            babyX[3] = field.newNumber();
+            babyZ[3] = field.newNumber();
+            addPoints(twoQX, twoQZ, X, Z, X, Z, babyX[3], babyZ[3]);
+            for (int j = 5; j < D / 2; j += 2) {
+                babyX[j] = field.newNumber();
+                babyZ[j] = field.newNumber();
+                addPoints(babyX[j - 2], babyZ[j - 2], twoQX, twoQZ, babyX[j - 4], babyZ[j - 4], babyX[j], babyZ[j]);
+            }
+
+            // Normalise the baby steps to Z = 1 with one inversion, which saves a product per pair
+            int count = 0;
+            int[][] zs = new int[D / 2][];
+            int[][] xs = new int[D / 2][];
+            for (int j = 1; j < D / 2; j += 2) {
+                if (Gcd.gcd(j, D) == 1) {
+                    zs[count] = babyZ[j];
+                    xs[count] = babyX[j];
+                    count++;
+                }
+            }
+            int[][] inverses = new int[count][];
+            for (int i = 0; i < count; i++) {
+                inverses[i] = field.newNumber();
+            }
+            if (!field.batchInverse(zs, count, inverses)) {
+                g = field.gcd(inverses[count - 1]);
+                return g.equals(n) ? null : g;
+            }
+            for (int i = 0; i < count; i++) {
+                field.multiply(xs[i], inverses[i], xs[i]);
+            }
+
+            int[] stepX = X.clone();
+            int[] stepZ = Z.clone();
+            multiply(stepX, stepZ, D);
+            long m = Math.max(2, B1 / D);
+            int[] previousX = stepX.clone();
+            int[] previousZ = stepZ.clone();
+            multiply(previousX, previousZ, m - 1);
+            int[] giantX = stepX.clone();
+            int[] giantZ = stepZ.clone();
+            multiply(giantX, giantZ, m);
+
+            int[] product = field.newNumber();
+            field.one(product);
+            for (; (m - 1) * D <= B2; m++) {
+                for (int i = 0; i < count; i++) {
+                    // X_g - x_j Z_g is 0 mod p when mDQ = +-jQ mod p
+                    field.multiply(xs[i], giantZ, t1);
+                    field.subtract(giantX, t1, t1);
+                    field.multiply(product, t1, product);
+                }
+                addPoints(giantX, giantZ, stepX, stepZ, previousX, previousZ, previousX, previousZ);
+                int[] swap = previousX;
+                previousX = giantX;
+                giantX = swap;
+                swap = previousZ;
+                previousZ = giantZ;
+                giantZ = swap;
+            }
+            g = field.gcd(product);
+            return g.equals(BigInteger.ONE) || g.equals(n) ? null : g;
+
+        }
+
+        /**
+         * Replaces P = (x : z) by k P, with the Montgomery ladder
+         */
+        private void multiply(int[] x, int[] z, long k) {
+
+            if (k == 1) {
+                return;
+            }
+            int limbs = x.length;
+            System.arraycopy(x, 0, baseX, 0, limbs);
+            System.arraycopy(z, 0, baseZ, 0, limbs);
+            doublePoint(baseX, baseZ, ladderX, ladderZ);
+            for (int bit = 62 - Long.numberOfLeadingZeros(k); bit >= 0; bit--) {
+                if (((k >>> bit) & 1) == 1) {
+                    addPoints(ladderX, ladderZ, x, z, baseX, baseZ, x, z);
+                    doublePoint(ladderX, ladderZ, ladderX, ladderZ);
+                } else {
+                    addPoints(ladderX, ladderZ, x, z, baseX, baseZ, ladderX, ladderZ);
+                    doublePoint(x, z, x, z);
+                }
+            }
+
+        }
+
+        /**
+         * Writes 2P to (outX : outZ), which may be P
+         */
+        private void doublePoint(int[] x, int[] z, int[] outX, int[] outZ) {
+
+            field.add(x, z, t1);
+            field.square(t1, t1);
+            field.subtract(x, z, t2);
+            field.square(t2, t2);
+            // t3 = (x + z)^2 - (x - z)^2 = 4xz
+            field.subtract(t1, t2, t3);
+            field.multiply(t1, t2, outX);
+            field.multiply(a24, t3, t4);
+            field.add(t2, t4, t4);
+            field.multiply(t3, t4, outZ);
+
+        }
+
+        /**
+         * Writes P + Q to (outX : outZ), given their difference P - Q; the
+         * output may be any of the points
+         */
+        private void addPoints(int[] px, int[] pz, int[] qx, int[] qz, int[] dx, int[] dz, int[] outX,
+                               int[] outZ) {
+
+            field.subtract(px, pz, t1);
+            field.add(qx, qz, t2);
+            field.multiply(t1, t2, t1);
+            field.add(px, pz, t2);
+            field.subtract(qx, qz, t3);
+            field.multiply(t2, t3, t2);
+            field.add(t1, t2, t3);
+            field.square(t3, t3);
+            field.subtract(t1, t2, t4);
+            field.square(t4, t4);
+            field.multiply(dx, t4, t4);
+            field.multiply(dz, t3, outX);
+            System.arraycopy(t4, 0, outZ, 0, t4.length);
+
+        }
+
+    }
+
+}
@@ -0,0 +1,141 @@
+package core.algorithms;
+
+import core.util.Mathematics;
+import core.util.ResultCache;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the results of classical Shor factorizations, keyed on N, and of
+ * classical period finding, keyed on (X, N), for services which see the
+ * same numbers many times. Identical requests made concurrently share one
+ * computation (see ResultCache). The cached factor lists are unmodifiable,
+ * since they are shared between callers.
+ * @version 0.1
+ */
+public class FactorizationCache {
+
+    /**
+     * The default number of entries kept by each cache
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+    /**
+     * The default time an entry is kept, in minutes
+     */
+    public static final long DEFAULT_TTL_MINUTES = 60;
+
+    private final ResultCache<Long, List<Long>> factorizations;
+    private final ResultCache<BigInteger, List<BigInteger>> bigFactorizations;
+    private final ResultCache<PeriodKey, Long> periods;
+
+    /**
+     * Creates a cache with the default size and time to live
+     */
+    public FactorizationCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_TTL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Creates a cache
+     * @param maximumSize The largest number of entries kept by each of the caches
+     * @param ttl How long an entry is kept after it was computed, or 0 to keep it until evicted for space
+     * @param unit The unit of ttl
+     */
+    public FactorizationCache(int maximumSize, long ttl, TimeUnit unit) {
+        this.factorizations = new ResultCache<Long, List<Long>>(maximumSize, ttl, unit);
+        this.bigFactorizations = new ResultCache<BigInteger, List<BigInteger>>(maximumSize, ttl, unit);
+        this.periods = new ResultCache<PeriodKey, Long>(maximumSize, ttl, unit);
+    }
+
+    /**
+     * Returns the prime factors of N, as ClassicalImpl.shorsPrimeFactorization(long, boolean)
+     * @param N The number to factor
+     * @return the unmodifiable list of prime factors of N
+     */
+    public List<Long> factor(long N) {
+        return factorizations.get(N,
+                n -> Collections.unmodifiableList(ClassicalImpl.shorsPrimeFactorization((long) n, false)));
+    }
+
+    /**
+     * Returns the prime factors of N, as ClassicalImpl.shorsPrimeFactorization(BigInteger, boolean)
+     * @param N The number to factor
+     * @return the unmodifiable list of prime factors of N
+     */
+    public List<BigInteger> factor(BigInteger N) {
+        return bigFactorizations.get(N,
+                n -> Collections.unmodifiableList(ClassicalImpl.shorsPrimeFactorization(n, false)));
+    }
+
+    /**
+     * Returns the period of X^r mod N, as Mathematics.findPeriodClassically(long, long).
+     * X is reduced mod N first, so that every X of the same residue shares one entry.
+     * @param X The base, coprime to N
+     * @param N The modulus
+     * @return the period of X^r mod N
+     */
+    public long findPeriod(long X, long N) {
+
+        // A modulus below 1 is left for findPeriodClassically to reject
+        long reduced = N > 0 ? Math.floorMod(X, N) : X;
+        return periods.get(new PeriodKey(reduced, N), key -> Mathematics.findPeriodClassically(key.X, key.N));
+
+    }
+
+    /**
+     * @return the counters of the factorization caches, long and BigInteger combined
+     */
+    public ResultCache.Stats getFactorizationStats() {
+        return factorizations.getStats().plus(bigFactorizations.getStats());
+    }
+
+    /**
+     * @return the counters of the period cache
+     */
+    public ResultCache.Stats getPeriodStats() {
+        return periods.getStats();
+    }
+
+    /**
+     * Removes every cached result
+     */
+    public void invalidateAll() {
+        factorizations.invalidateAll();
+        bigFactorizations.invalidateAll();
+        periods.invalidateAll();
+    }
+
+    /**
+     * The key of a period: the base X and modulus N
+     */
+    private static final class PeriodKey {
+
+        final long X;
+        final long N;
+
+        PeriodKey(long X, long N) {
+            this.X = X;
+            this.N = N;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof PeriodKey)) {
+                return false;
+            }
+            PeriodKey key = (PeriodKey) other;
+            return key.X == X && key.N == N;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(X) * 31 + Long.hashCode(N);
+        }
+
+    }
+
+}
@@ -0,0 +1,144 @@
+package core.algorithms;
+
+import core.util.ComplexMatrix;
+
+/**
+ * Factories for the matrices of common quantum gates. Single-qubit gates
+ * are 2x2 matrices; two-qubit gates are 4x4 matrices over the basis
+ * |q1 q0&gt; where q0 is the least significant qubit. Each call returns a new
+ * matrix, since ComplexMatrix is mutable.
+ * @version 0.1
+ */
+public class Gates {
+
+    private static final double ONE_OVER_SQRT_2 = 1 / Math.sqrt(2);
+
+    /**
+     * @return the 2x2 identity gate
+     */
+    public static ComplexMatrix identity() {
+        return ComplexMatrix.identity(2);
+    }
+
+    /**
+     * @return the Hadamard gate
+     */
+    public static ComplexMatrix hadamard() {
+        return new ComplexMatrix(2, 2,
+                new double[] {ONE_OVER_SQRT_2, ONE_OVER_SQRT_2, ONE_OVER_SQRT_2, -ONE_OVER_SQRT_2},
+                new double[4]);
+    }
+
+    /**
+     * @return the Pauli X (NOT) gate
+     */
+    public static ComplexMatrix pauliX() {
+        return new ComplexMatrix(2, 2, new double[] {0, 1, 1, 0}, new double[4]);
+    }
+
+    /**
+     * @return the Pauli Y gate
+     */
+    public static ComplexMatrix pauliY() {
+        return new ComplexMatrix(2, 2, new double[4], new double[] {0, -1, 1, 0});
+    }
+
+    /**
+     * @return the Pauli Z gate
+     */
+    public static ComplexMatrix pauliZ() {
+        return new ComplexMatrix(2, 2, new double[] {1, 0, 0, -1}, new double[4]);
+    }
+
+    /**
+     * @return the phase (S) gate, which is diag(1, i)
+     */
+    public static ComplexMatrix s() {
+        return phase(Math.PI / 2);
+    }
+
+    /**
+     * @return the T gate, which is diag(1, e^(i pi/4))
+     */
+    public static ComplexMatrix t() {
+        return phase(Math.PI / 4);
+    }
+
+    /**
+     * Returns the phase shift gate diag(1, e^(i theta))
+     * @param radians The phase theta to apply to |1&gt;
+     * @return the phase shift gate
+     */
+    public static ComplexMatrix phase(double radians) {
+        return new ComplexMatrix(2, 2,
+                new double[] {1, 0, 0, Math.cos(radians)},
+                new double[] {0, 0, 0, Math.sin(radians)});
+    }
+
+    /**
+     * Returns the rotation about the X axis, e^(-i theta X / 2)
+     * @param radians The rotation angle theta
+     * @return the X rotation gate
+     */
+    public static ComplexMatrix rotationX(double radians) {
+        double cos = Math.cos(radians / 2);
+        double sin = Math.sin(radians / 2);
+        return new ComplexMatrix(2, 2, new double[] {cos, 0, 0, cos}, new double[] {0, -sin, -sin, 0});
+    }
+
+    /**
+     * Returns the rotation about the Y axis, e^(-i theta Y / 2)
+     * @param radians The rotation angle theta
+     * @return the Y rotation gate
+     */
+    public static ComplexMatrix rotationY(double radians) {
+        double cos = Math.cos(radians / 2);
+        double sin = Math.sin(radians / 2);
+        return new ComplexMatrix(2, 2, new double[] {cos, -sin, sin, cos}, new double[4]);
+    }
+
+    /**
+     * Returns the rotation about the Z axis, e^(-i theta Z / 2)
+     * @param radians The rotation angle theta
+     * @return the Z rotation gate
+     */
+    public static ComplexMatrix rotationZ(double radians) {
+        double cos = Math.cos(radians / 2);
+        double sin = Math.sin(radians / 2);
+        return new ComplexMatrix(2, 2, new double[] {cos, 0, 0, cos}, new double[] {-sin, 0, 0, sin});
+    }
+
+    /**
+     * @return the controlled NOT gate, with q1 as the control and q0 as the target
+     */
+    public static ComplexMatrix cnot() {
+        ComplexMatrix gate = new ComplexMatrix(4, 4);
+        gate.set(0, 0, 1, 0);
+        gate.set(1, 1, 1, 0);
+        gate.set(2, 3, 1, 0);
+        gate.set(3, 2, 1, 0);
+        return gate;
+    }
+
+    /**
+     * @return the controlled Z gate
+     */
+    public static ComplexMatrix cz() {
+        ComplexMatrix gate = ComplexMatrix.identity(4);
+        gate.set(3, 3, -1, 0);
+        return gate;
+    }
+
+    /**
+     * @return the SWAP gate
+     */
+    public static ComplexMatrix swap() {
+        ComplexMatrix gate = new ComplexMatrix(4, 4);
+        gate.set(0, 0, 1, 0);
+        gate.set(1, 2, 1, 0);
+        gate.set(2, 1, 1, 0);
+        gate.set(3, 3, 1, 0);
+        return gate;
+    }
+
+}
@@ -0,0 +1,192 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+import core.util.ComplexMatrix;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single-qubit noise channel, given by its Kraus operators K_k, which
+ * maps a density matrix rho to sum_k K_k rho K_k^dagger. The operators
+ * satisfy sum_k K_k^dagger K_k = I, so the channel preserves the trace.
+ *
+ * On a density matrix the channel is applied through its superoperator,
+ * sum_k K_k (x) conj(K_k), which acts on the row and column bits of the
+ * qubit as a 4x4 gate on the vectorised matrix (see DensityMatrixSimulator).
+ * On a state vector one operator is picked at random per application (see
+ * TrajectorySimulator).
+ * @version 0.1
+ */
+public final class NoiseChannel {
+
+    /**
+     * The tolerance on sum_k K_k^dagger K_k = I for channels given directly
+     */
+    private static final double EPSILON = 1e-9;
+
+    private final String name;
+    private final List<ComplexMatrix> operators;
+    private final ComplexMatrix superoperator;
+
+    private NoiseChannel(String name, List<ComplexMatrix> operators) {
+
+        this.name = name;
+        this.operators = Collections.unmodifiableList(operators);
+
+        ComplexMatrix sum = new ComplexMatrix(4, 4);
+        for (ComplexMatrix operator : operators) {
+            sum = add(sum, operator.kronecker(operator.conjugate()));
+        }
+        this.superoperator = sum;
+
+    }
+
+    /**
+     * Creates a channel from its Kraus operators
+     * @param operators The 2x2 Kraus operators, whose K^dagger K sum to the identity
+     * @return the new channel
+     */
+    public static NoiseChannel of(ComplexMatrix... operators) {
+
+        if (operators.length == 0) {
+            throw new InvalidParameterException("A channel needs at least one Kraus operator");
+        }
+        ComplexMatrix completeness = new ComplexMatrix(2, 2);
+        List<ComplexMatrix> copies = new ArrayList<ComplexMatrix>();
+        for (ComplexMatrix operator : operators) {
+            if (operator.getRows() != 2 || operator.getColumns() != 2) {
+                throw new InvalidParameterException("Expected 2x2 Kraus operators, got " +
+                        operator.getRows() + "x" + operator.getColumns());
+            }
+            completeness = add(completeness, operator.adjoint().multiply(operator));
+            copies.add(operator.copy());
+        }
+        if (!completeness.valueEquals(ComplexMatrix.identity(2), EPSILON)) {
+            throw new InvalidParameterException("The Kraus operators do not preserve the trace");
+        }
+        return new NoiseChannel("Kraus", copies);
+
+    }
+
+    /**
+     * Creates the depolarising channel rho -&gt; (1 - p) rho + p I / 2, which
+     * with probability p replaces the qubit by the maximally mixed state
+     * @param p The probability of depolarising, between 0 and 1
+     * @return the new channel
+     */
+    public static NoiseChannel depolarizing(double p) {
+
+        checkProbability(p);
+        List<ComplexMatrix> operators = new ArrayList<ComplexMatrix>();
+        addScaled(operators, Gates.identity(), Math.sqrt(1 - 0.75 * p));
+        addScaled(operators, Gates.pauliX(), Math.sqrt(0.25 * p));
+        addScaled(operators, Gates.pauliY(), Math.sqrt(0.25 * p));
+        addScaled(operators, Gates.pauliZ(), Math.sqrt(0.25 * p));
+        return new NoiseChannel("Depolarizing(" + p + ")", operators);
+
+    }
+
+    /**
+     * Creates the amplitude damping channel, which models energy loss: |1&gt;
+     * decays to |0&gt; with probability gamma
+     * @param gamma The probability of decay, between 0 and 1
+     * @return the new channel
+     */
+    public static NoiseChannel amplitudeDamping(double gamma) {
+
+        checkProbability(gamma);
+        ComplexMatrix keep = ComplexMatrix.identity(2);
+        keep.set(1, 1, Math.sqrt(1 - gamma), 0);
+        ComplexMatrix decay = new ComplexMatrix(2, 2);
+        decay.set(0, 1, 1, 0);
+
+        List<ComplexMatrix> operators = new ArrayList<ComplexMatrix>();
+        addScaled(operators, keep, 1);
+        addScaled(operators, decay, Math.sqrt(gamma));
+        return new NoiseChannel("AmplitudeDamping(" + gamma + ")", operators);
+
+    }
+
+    /**
+     * Creates the dephasing (phase flip) channel rho -&gt; (1 - p) rho + p Z rho Z,
+     * which shrinks the off-diagonal entries of the qubit by 1 - 2p
+     * @param p The probability of a phase flip, between 0 and 1
+     * @return the new channel
+     */
+    public static NoiseChannel dephasing(double p) {
+
+        checkProbability(p);
+        List<ComplexMatrix> operators = new ArrayList<ComplexMatrix>();
+        addScaled(operators, Gates.identity(), Math.sqrt(1 - p));
+        addScaled(operators, Gates.pauliZ(), Math.sqrt(p));
+        return new NoiseChannel("Dephasing(" + p + ")", operators);
+
+    }
+
+    /**
+     * @return the Kraus operators of the channel, which must not be modified
+     */
+    public List<ComplexMatrix> getKrausOperators() {
+        return operators;
+    }
+
+    /**
+     * Returns the superoperator sum_k K_k (x) conj(K_k), whose rows and
+     * columns are indexed by 2 * r + c for the row bit r and column bit c
+     * of the qubit in the density matrix. It must not be modified.
+     * @return the 4x4 superoperator of the channel
+     */
+    public ComplexMatrix getSuperoperator() {
+        return superoperator;
+    }
+
+    /**
+     * @return a description of the channel, such as "Dephasing(0.1)"
+     */
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Adds weight * matrix to the list, unless the weight is zero, so that
+     * operators which can never occur are not applied
+     */
+    private static void addScaled(List<ComplexMatrix> operators, ComplexMatrix matrix, double weight) {
+
+        if (weight == 0) {
+            return;
+        }
+        double[] re = matrix.getRealParts().clone();
+        double[] im = matrix.getImaginaryParts().clone();
+        for (int i = 0; i < re.length; i++) {
+            re[i] *= weight;
+            im[i] *= weight;
+        }
+        operators.add(new ComplexMatrix(2, 2, re, im));
+
+    }
+
+    private static ComplexMatrix add(ComplexMatrix a, ComplexMatrix b) {
+
+        double[] re = a.getRealParts().clone();
+        double[] im = a.getImaginaryParts().clone();
+        double[] bRe = b.getRealParts();
+        double[] bIm = b.getImaginaryParts();
+        for (int i = 0; i < re.length; i++) {
+            re[i] += bRe[i];
+            im[i] += bIm[i];
+        }
+        return new ComplexMatrix(a.getRows(), a.getColumns(), re, im);
+
+    }
+
+    private static void checkProbability(double p) {
+        if (!(p >= 0 && p <= 1)) {
+            throw new InvalidParameterException("Probability must be between 0 and 1, got " + p);
+        }
+    }
+
+}
@@ -0,0 +1,314 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+import core.util.AmplitudeStore;
+import core.util.ComplexMatrix;
+import core.util.ComplexVector;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A state-vector simulator which runs against an AmplitudeStore rather
+ * than heap arrays, so that the register can be larger than the heap (or,
+ * with a memory-mapped store, larger than physical memory).
+ *
+ * The store is processed in chunks of 2^c amplitudes. A gate on a qubit
+ * below c only mixes amplitudes within a chunk, so each chunk is paged
+ * in, updated with the in-memory StateVectorSimulator kernels and paged
+ * back out. A gate on a qubit at or above c mixes pairs of chunks which
+ * are 2^target apart, so those are paged in together. Either way the
+ * store is swept sequentially once per gate.
+ * @version 0.1
+ */
+public class PagedStateVectorSimulator {
+
+    /**
+     * The default log2 of the number of amplitudes paged in at once (16 MB per part)
+     */
+    public static final int DEFAULT_CHUNK_QUBITS = 20;
+
+    private final AmplitudeStore store;
+    private final int qubits;
+    private final int chunkQubits;
+    private final int chunkSize;
+
+    /**
+     * The chunk buffers, reused for every gate
+     */
+    private final double[] lowReal;
+    private final double[] lowImag;
+    private final double[] highReal;
+    private final double[] highImag;
+
+    /**
+     * An in-memory simulator over the low chunk buffers
+     */
+    private final StateVectorSimulator chunk;
+
+    /**
+     * Creates a simulator over the given store, paging DEFAULT_CHUNK_QUBITS at a time
+     * @param store The store of 2^n amplitudes; it is reset to |0...0&gt;
+     */
+    public PagedStateVectorSimulator(AmplitudeStore store) {
+        this(store, DEFAULT_CHUNK_QUBITS);
+    }
+
+    /**
+     * Creates a simulator over the given store
+     * @param store The store of 2^n amplitudes; it is reset to |0...0&gt;
+     * @param chunkQubits log2 of the number of amplitudes to page in at once
+     */
+    public PagedStateVectorSimulator(AmplitudeStore store, int chunkQubits) {
+
+        long size = store.size();
+        if (size < 2 || Long.bitCount(size) != 1) {
+            throw new InvalidParameterException("Store size must be a power of two, got " + size);
+        }
+        if (chunkQubits < 1 || chunkQubits > StateVectorSimulator.MAX_QUBITS) {
+            throw new InvalidParameterException("Chunk size must be between 1 and " +
+                    StateVectorSimulator.MAX_QUBITS + " qubits");
+        }
+
+        this.store = store;
+        this.qubits = Long.numberOfTrailingZeros(size);
+        this.chunkQubits = Math.min(chunkQubits, qubits);
+        this.chunkSize = 1 << this.chunkQubits;
+        this.lowReal = new double[chunkSize];
+        this.lowImag = new double[chunkSize];
+        this.highReal = new double[chunkSize];
+        this.highImag = new double[chunkSize];
+        this.chunk = new StateVectorSimulator(new ComplexVector(lowReal, lowImag));
+
+        reset();
+
+    }
+
+    /**
+     * @return the number of qubits in the register
+     */
+    public int getQubitCount() {
+        return qubits;
+    }
+
+    /**
+     * @return the store holding the amplitudes
+     */
+    public AmplitudeStore getStore() {
+        return store;
+    }
+
+    /**
+     * Returns the probability of measuring the given basis state
+     * @param index The index of the basis state
+     * @return the probability of the basis state
+     */
+    public double getProbability(long index) {
+        double re = store.getReal(index);
+        double im = store.getImaginary(index);
+        return re * re + im * im;
+    }
+
+    /**
+     * Resets the register to the basis state |0...0&gt;
+     */
+    public void reset() {
+        store.clear();
+        store.set(0, 1, 0);
+    }
+
+    /**
+     * Applies a single-qubit gate to the target qubit
+     * @param gate The 2x2 matrix of the gate
+     * @param target The qubit to apply the gate to
+     */
+    public void applyGate(ComplexMatrix gate, int target) {
+        apply(gate, -1, target);
+    }
+
+    /**
+     * Applies a single-qubit gate to the target qubit, conditioned on the
+     * control qubit being |1&gt;
+     * @param gate The 2x2 matrix of the gate
+     * @param control The control qubit
+     * @param target The qubit to apply the gate to
+     */
+    public void applyControlledGate(ComplexMatrix gate, int control, int target) {
+
+        checkQubit(control);
+        if (control == target) {
+            throw new InvalidParameterException("A two-qubit gate needs two distinct qubits");
+        }
+        apply(gate, control, target);
+
+    }
+
+    /**
+     * Applies the Hadamard gate to the target qubit
+     * @param target The qubit to apply the gate to
+     */
+    public void hadamard(int target) {
+        applyGate(Gates.hadamard(), target);
+    }
+
+    /**
+     * Applies the Pauli X (NOT) gate to the target qubit
+     * @param target The qubit to apply the gate to
+     */
+    public void pauliX(int target) {
+        applyGate(Gates.pauliX(), target);
+    }
+
+    /**
+     * Applies the controlled NOT gate
+     * @param control The control qubit
+     * @param target The qubit which is flipped when control is |1&gt;
+     */
+    public void cnot(int control, int target) {
+        applyControlledGate(Gates.pauliX(), control, target);
+    }
+
+    /**
+     * Samples measurements of the whole register without collapsing the
+     * state. The shots are sorted and matched against the cumulative
+     * distribution in one sequential sweep over the store.
+     * @param shots The number of measurements to sample
+     * @param random The source of randomness for the measurements
+     * @return the measured basis state index of each shot, in random order
+     */
+    public long[] sample(int shots, Random random) {
+
+        double[] targets = new double[shots];
+        for (int i = 0; i < shots; i++) {
+            targets[i] = random.nextDouble();
+        }
+        Arrays.sort(targets);
+
+        long[] outcomes = new long[shots];
+        double cumulative = 0;
+        int shot = 0;
+        long size = store.size();
+
+        for (long offset = 0; offset < size && shot < shots; offset += chunkSize) {
+            store.read(offset, lowReal, lowImag, 0, chunkSize);
+            for (int i = 0; i < chunkSize && shot < shots; i++) {
+                cumulative += lowReal[i] * lowReal[i] + lowImag[i] * lowImag[i];
+                while (shot < shots && targets[shot] < cumulative) {
+                    outcomes[shot++] = offset + i;
+                }
+            }
+        }
+
+        // Rounding can leave the last few targets just above the total
+        while (shot < shots) {
+            outcomes[shot++] = size - 1;
+        }
+
+        // Shuffle so that the order of shots is not sorted by outcome
+        for (int i = shots - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long swap = outcomes[i];
+            outcomes[i] = outcomes[j];
+            outcomes[j] = swap;
+        }
+
+        return outcomes;
+
+    }
+
+    /**
+     * Applies the gate to the target, controlled on the control qubit unless it is negative
+     */
+    private void apply(ComplexMatrix gate, int control, int target) {
+
+        checkQubit(target);
+        if (gate.getRows() != 2 || gate.getColumns() != 2) {
+            throw new InvalidParameterException("Expected a 2x2 gate");
+        }
+
+        long size = store.size();
+
+        if (target < chunkQubits) {
+
+            // Every amplitude pair lives within one chunk
+            for (long offset = 0; offset < size; offset += chunkSize) {
+
+                if (control >= chunkQubits && (offset & (1L << control)) == 0) {
+                    continue;
+                }
+
+                store.read(offset, lowReal, lowImag, 0, chunkSize);
+                if (control >= 0 && control < chunkQubits) {
+                    chunk.applyControlledGate(gate, control, target);
+                } else {
+                    chunk.applyGate(gate, target);
+                }
+                store.write(offset, lowReal, lowImag, 0, chunkSize);
+
+            }
+
+        } else {
+
+            // Pair up chunks whose indices differ only in the target bit
+            long stride = 1L << target;
+            for (long block = 0; block < size; block += stride << 1) {
+                for (long offset = block; offset < block + stride; offset += chunkSize) {
+
+                    if (control >= chunkQubits && (offset & (1L << control)) == 0) {
+                        continue;
+                    }
+
+                    store.read(offset, lowReal, lowImag, 0, chunkSize);
+                    store.read(offset + stride, highReal, highImag, 0, chunkSize);
+                    int controlMask = control >= 0 && control < chunkQubits ? 1 << control : 0;
+                    applyAcrossChunks(gate, controlMask);
+                    store.write(offset, lowReal, lowImag, 0, chunkSize);
+                    store.write(offset + stride, highReal, highImag, 0, chunkSize);
+
+                }
+            }
+
+        }
+
+    }
+
+    /**
+     * Applies the gate to each pair (low[i], high[i]), skipping the pairs
+     * whose index does not have every bit of controlMask set
+     */
+    private void applyAcrossChunks(ComplexMatrix gate, int controlMask) {
+
+        double[] gRe = gate.getRealParts();
+        double[] gIm = gate.getImaginaryParts();
+
+        for (int i = 0; i < chunkSize; i++) {
+
+            if ((i & controlMask) != controlMask) {
+                continue;
+            }
+
+            double re0 = lowReal[i];
+            double im0 = lowImag[i];
+            double re1 = highReal[i];
+            double im1 = highImag[i];
+
+            lowReal[i] = gRe[0] * re0 - gIm[0] * im0 + gRe[1] * re1 - gIm[1] * im1;
+            lowImag[i] = gRe[0] * im0 + gIm[0] * re0 + gRe[1] * im1 + gIm[1] * re1;
+            highReal[i] = gRe[2] * re0 - gIm[2] * im0 + gRe[3] * re1 - gIm[3] * im1;
+            highImag[i] = gRe[2] * im0 + gIm[2] * re0 + gRe[3] * im1 + gIm[3] * re1;
+
+        }
+
+    }
+
+    /**
+     * Makes sure the given qubit is within the register
+     */
+    private void checkQubit(int qubit) {
+        if (qubit < 0 || qubit >= qubits) {
+            throw new InvalidParameterException("Qubit " + qubit + " is outside of the " +
+                    qubits + " qubit register");
+        }
+    }
+
+}
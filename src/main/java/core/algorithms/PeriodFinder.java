@@ -0,0 +1,19 @@
+package core.algorithms;
+
+/**
+ * A sub-routine which finds the period r of f(x) = X^x mod N, i.e. the
+ * smallest r &gt; 0 with X^r = 1 mod N. This is the step of Shor's algorithm
+ * which is either simulated on a quantum register or computed classically.
+ * @version 0.1
+ */
+public interface PeriodFinder {
+
+    /**
+     * Finds the period of f(x) = X^x mod N
+     * @param X the X to use in calculating r, coprime to N
+     * @param N the modulus of the function above
+     * @return the period of the function above
+     */
+    int findPeriod(int X, int N);
+
+}
@@ -0,0 +1,1122 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+import core.util.PrimeSieve;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The self-initialising quadratic sieve (SIQS), for factoring numbers of
+ * 40 to 100 digits, past the reach of ECM when their factors are balanced.
+ *
+ * The sieve collects relations (Ax + B)^2 = A g(x) mod N, where g(x) =
+ * Ax^2 + 2Bx + C factors over a base of small primes p for which kN is a
+ * square mod p (k is a small multiplier chosen by the Knuth-Schroeppel
+ * function). Each A is a product of s primes of the factor base, which
+ * gives 2^(s-1) values of B, and the roots of every polynomial follow from
+ * those of the one before by an addition per prime (the self-initialising
+ * part). The interval [-M, M) is sieved in blocks of SIEVE_BLOCK bytes, so
+ * that the sieve stays in the L1 cache; each thread works on its own A with
+ * its own block and root arrays, which are reused for every polynomial.
+ * Relations with one prime beyond the factor base (below a bound) are kept
+ * and paired when that prime turns up again.
+ *
+ * Once there are more relations than primes, a set whose product is a
+ * square is found over GF(2): structured Gaussian elimination drops the
+ * relations with a prime no other has and merges the pairs which are the
+ * only ones with some prime, and the much smaller matrix left is reduced
+ * densely. Each dependency gives X^2 = Y^2 mod N, and gcd(X - Y, N) is a
+ * factor of N half of the time.
+ *
+ * A sieve factors one number, and keeps the statistics of its run.
+ * @version 0.1
+ */
+public class QuadraticSieve {
+
+    /**
+     * The smallest number the sieve takes
+     */
+    public static final int MIN_BITS = 64;
+
+    /**
+     * The bytes of a sieve block, the size of an L1 data cache
+     */
+    public static final int SIEVE_BLOCK = 1 << 15;
+
+    /**
+     * The number of relations collected beyond the size of the factor base
+     */
+    public static final int EXTRA_RELATIONS = 96;
+
+    /**
+     * The factor base primes below this are not sieved, as they take the
+     * longest and add the least; the threshold makes up for them
+     */
+    private static final int SMALL_PRIME_LIMIT = 40;
+
+    /**
+     * The multipliers tried by the Knuth-Schroeppel function: the odd squarefree numbers below 75
+     */
+    private static final int[] MULTIPLIERS = {
+            1, 3, 5, 7, 11, 13, 15, 17, 19, 21, 23, 29, 31, 33, 35, 37, 39, 41, 43, 47, 51, 53, 55, 57, 59, 61,
+            65, 67, 69, 71, 73
+    };
+
+    /**
+     * By the bits of kN: the size of the factor base, the large prime bound
+     * as a multiple of its largest prime, and the number of sieve blocks
+     * over [-M, M). Sizes between rows are interpolated.
+     */
+    private static final int[][] PARAMETERS = {
+            {64, 100, 40, 2},
+            {128, 450, 40, 2},
+            {183, 2000, 40, 2},
+            {200, 3000, 50, 2},
+            {212, 5400, 50, 6},
+            {233, 10000, 100, 6},
+            {249, 27000, 100, 6},
+            {266, 50000, 100, 6},
+            {283, 55000, 80, 6},
+            {298, 60000, 80, 18},
+            {315, 80000, 150, 18},
+            {332, 100000, 150, 18}
+    };
+
+    /**
+     * The prime the primes of A are chosen around, for as many polynomials
+     * per A as possible without sieving with too few primes
+     */
+    private static final double IDEAL_A_PRIME = 2000;
+
+    /**
+     * The most dependencies tried before collecting more relations
+     */
+    private static final int MAX_DEPENDENCIES = 64;
+
+    /**
+     * The number of times more relations are collected when no dependency gives a factor
+     */
+    private static final int MAX_RETRIES = 3;
+
+    private final BigInteger N;
+
+    private int multiplier;
+    private BigInteger kN;
+
+    /**
+     * The factor base: index 0 stands for -1 and index 1 for 2, then the
+     * odd primes p with kN a square mod p, with sqrt(kN) mod p and the
+     * rounded log2 p they add to the sieve
+     */
+    private int[] primes;
+    private int[] sqrtKN;
+    private byte[] logs;
+    private int firstSieved;
+
+    private int M;
+    private int blocks;
+    private long largePrimeBound;
+    private int threshold;
+    private int s;
+    private int[] qCandidates;
+
+    private final Object lock = new Object();
+    private final List<Relation> relations = new ArrayList<Relation>();
+    private final Map<Long, Relation> partials = new HashMap<Long, Relation>();
+    private final Set<BigInteger> usedA = ConcurrentHashMap.newKeySet();
+    private volatile int target;
+    private int fullRelations;
+    private int combinedRelations;
+    private long polynomials;
+    private long sievingNanos;
+    private long linearAlgebraNanos;
+    private boolean verbose;
+    private long lastReport;
+
+    /**
+     * Creates a sieve for one number
+     * @param N An odd composite of at least MIN_BITS bits, which is not a perfect power
+     */
+    public QuadraticSieve(BigInteger N) {
+
+        if (N.bitLength() < MIN_BITS) {
+            throw new InvalidParameterException("N = " + N + " is too small for the quadratic sieve");
+        }
+        if (!N.testBit(0)) {
+            throw new InvalidParameterException("N = " + N + " is even");
+        }
+        this.N = N;
+
+    }
+
+    /**
+     * Looks for a non-trivial factor of N
+     * @param threads The number of threads to sieve with
+     * @param verbose Prints out the progress of the sieve if set to True
+     * @return a factor d with 1 &lt; d &lt; N, or null if none was found, as when N is a prime or a prime power
+     */
+    public BigInteger findFactor(int threads, boolean verbose) {
+
+        if (threads < 1) {
+            throw new InvalidParameterException("Expected at least one thread, got " + threads);
+        }
+        this.verbose = verbose;
+        multiplier = chooseMultiplier(N);
+        kN = N.multiply(BigInteger.valueOf(multiplier));
+        chooseParameters();
+        BigInteger factor = buildFactorBase();
+        if (factor != null) {
+            return factor;
+        }
+        chooseAPrimes();
+        if (verbose) {
+            System.out.println("Sieving " + N.toString().length() + " digits with k = " + multiplier + ", " +
+                    primes.length + " primes up to " + primes[primes.length - 1] + ", M = " + M +
+                    ", threshold " + threshold + ", " + s + " primes in A");
+        }
+
+        target = primes.length + EXTRA_RELATIONS;
+        for (int retry = 0; retry <= MAX_RETRIES; retry++) {
+
+            long start = System.nanoTime();
+            sieve(threads);
+            sievingNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            List<Relation> found;
+            synchronized (lock) {
+                found = new ArrayList<Relation>(relations);
+            }
+            factor = combine(found);
+            linearAlgebraNanos += System.nanoTime() - start;
+            if (factor != null) {
+                if (verbose) {
+                    System.out.println("Found factor " + factor + " after " + getSievingMillis() + "ms of sieving, " +
+                            getRelationsPerSecond() + " relations/s, and " + getLinearAlgebraMillis() +
+                            "ms of linear algebra");
+                }
+                return factor;
+            }
+            target += EXTRA_RELATIONS;
+
+        }
+        return null;
+
+    }
+
+    /**
+     * @return the multiplier k of N
+     */
+    public int getMultiplier() {
+        return multiplier;
+    }
+
+    /**
+     * @return the number of primes of the factor base, with -1
+     */
+    public int getFactorBaseSize() {
+        return primes == null ? 0 : primes.length;
+    }
+
+    /**
+     * @return the length 2M of the interval each polynomial is sieved over
+     */
+    public int getSieveInterval() {
+        return 2 * M;
+    }
+
+    /**
+     * @return the number of relations found over the factor base alone
+     */
+    public int getFullRelations() {
+        synchronized (lock) {
+            return fullRelations;
+        }
+    }
+
+    /**
+     * @return the number of relations made from two which share a large prime
+     */
+    public int getCombinedRelations() {
+        synchronized (lock) {
+            return combinedRelations;
+        }
+    }
+
+    /**
+     * @return the number of relations with a large prime still waiting for another
+     */
+    public int getPartialRelations() {
+        synchronized (lock) {
+            return partials.size();
+        }
+    }
+
+    /**
+     * @return the number of polynomials sieved
+     */
+    public long getPolynomials() {
+        synchronized (lock) {
+            return polynomials;
+        }
+    }
+
+    /**
+     * @return the time spent sieving, in milliseconds
+     */
+    public long getSievingMillis() {
+        return sievingNanos / 1000000;
+    }
+
+    /**
+     * @return the time spent finding dependencies and square roots, in milliseconds
+     */
+    public long getLinearAlgebraMillis() {
+        return linearAlgebraNanos / 1000000;
+    }
+
+    /**
+     * @return the relations, full and combined, found per second of sieving
+     */
+    public double getRelationsPerSecond() {
+        synchronized (lock) {
+            return sievingNanos == 0 ? 0 : relations.size() * 1e9 / sievingNanos;
+        }
+    }
+
+    /**
+     * Chooses the multiplier k which makes kN a square modulo the most small
+     * primes, by the Knuth-Schroeppel function
+     */
+    static int chooseMultiplier(BigInteger N) {
+
+        int[] oddPrimes = PrimeSieve.primesUpTo(1000);
+        int best = 1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int k : MULTIPLIERS) {
+
+            BigInteger kN = N.multiply(BigInteger.valueOf(k));
+            double score = -0.5 * Math.log(k);
+            int mod8 = kN.intValue() & 7;
+            score += mod8 == 1 ? 2 * Math.log(2) : mod8 == 5 ? Math.log(2) : 0.5 * Math.log(2);
+            for (int i = 1; i < oddPrimes.length; i++) {
+                int p = oddPrimes[i];
+                if (k % p != 0 && legendre(kN.mod(BigInteger.valueOf(p)).intValue(), p) == 1) {
+                    score += 2 * Math.log(p) / (p - 1);
+                }
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                best = k;
+            }
+
+        }
+        return best;
+
+    }
+
+    /**
+     * Chooses the size of the factor base and of the interval, and the
+     * large prime bound, by interpolating PARAMETERS
+     */
+    private void chooseParameters() {
+
+        int bits = kN.bitLength();
+        int row = 0;
+        while (row < PARAMETERS.length - 2 && PARAMETERS[row + 1][0] <= bits) {
+            row++;
+        }
+        int[] low = PARAMETERS[row];
+        int[] high = PARAMETERS[row + 1];
+        double t = Math.max(0, Math.min(1.5, (bits - low[0]) / (double) (high[0] - low[0])));
+        int size = (int) Math.round(low[1] + t * (high[1] - low[1]));
+        int largeMultiple = (int) Math.round(low[2] + t * (high[2] - low[2]));
+
+        primes = new int[size];
+        blocks = t < 1 ? low[3] : high[3];
+        M = blocks * SIEVE_BLOCK / 2;
+        largePrimeBound = largeMultiple;
+
+    }
+
+    /**
+     * Finds the primes of the factor base, with the square roots of kN
+     * modulo them
+     * @return a prime factor of N met on the way, or null
+     */
+    private BigInteger buildFactorBase() {
+
+        int size = primes.length;
+        sqrtKN = new int[size];
+        logs = new byte[size];
+        primes[0] = -1;
+        primes[1] = 2;
+        sqrtKN[1] = 1;
+        logs[1] = 1;
+
+        int count = 2;
+        for (int limit = 16 * size; count < size; limit *= 2) {
+            int[] table = PrimeSieve.primesUpTo(limit);
+            count = 2;
+            for (int i = 1; i < table.length && count < size; i++) {
+                int p = table[i];
+                int residue = kN.mod(BigInteger.valueOf(p)).intValue();
+                if (residue == 0) {
+                    if (N.mod(BigInteger.valueOf(p)).signum() == 0) {
+                        return BigInteger.valueOf(p);
+                    }
+                    // p divides the multiplier
+                    continue;
+                }
+                if (legendre(residue, p) == 1) {
+                    primes[count] = p;
+                    sqrtKN[count] = sqrtMod(residue, p);
+                    logs[count] = (byte) Math.round(Math.log(p) / Math.log(2));
+                    count++;
+                }
+            }
+        }
+
+        firstSieved = 2;
+        while (firstSieved < size && primes[firstSieved] < SMALL_PRIME_LIMIT) {
+            firstSieved++;
+        }
+        largePrimeBound *= primes[size - 1];
+
+        // g(x) is at most M sqrt(kN / 2) over the interval; it must lose all
+        // but a large prime, and the small primes which are not sieved
+        double log2g = Math.log(M) / Math.log(2) + (kN.bitLength() - 1) / 2.0;
+        double small = 1;
+        for (int i = 2; i < firstSieved; i++) {
+            small += 2 * Math.log(primes[i]) / Math.log(2) / (primes[i] - 1);
+        }
+        threshold = (int) Math.min(255, Math.max(1,
+                Math.round(log2g - Math.log(largePrimeBound) / Math.log(2) - small)));
+        return null;
+
+    }
+
+    /**
+     * Chooses the number s of primes in A, and the window of the factor base
+     * to take them from, so that A is about sqrt(2 kN) / M
+     */
+    private void chooseAPrimes() {
+
+        double logTarget = 0.5 * (Math.log(2) + log(kN)) - Math.log(M);
+        s = Math.max(1, (int) Math.round(logTarget / Math.log(IDEAL_A_PRIME)));
+        while (s < 20 && Math.exp(logTarget / s) > primes[primes.length - 1] / 2.0) {
+            s++;
+        }
+        double ideal = Math.exp(logTarget / s);
+
+        int low = firstSieved;
+        while (low < primes.length - 1 && primes[low] < ideal / 2) {
+            low++;
+        }
+        int high = low;
+        while (high < primes.length && primes[high] <= ideal * 2) {
+            high++;
+        }
+        // At least enough primes for many different As
+        while (high - low < 4 * s + 16 && (low > firstSieved || high < primes.length)) {
+            low = Math.max(firstSieved, low - 1);
+            high = Math.min(primes.length, high + 1);
+        }
+        qCandidates = new int[] {low, high};
+
+    }
+
+    /**
+     * Sieves with a worker per thread until target relations have been found
+     */
+    private void sieve(int threads) {
+
+        synchronized (lock) {
+            if (relations.size() >= target) {
+                return;
+            }
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "quadratic-sieve");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            SplittableRandom random = new SplittableRandom(N.longValue() ^ target);
+            List<Future<?>> workers = new ArrayList<Future<?>>();
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(new Worker(random.split())));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A sieve worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+    }
+
+    /**
+     * Adds a relation, pairing it with the one of the same large prime if it has one
+     * @return whether enough relations have been found
+     */
+    private boolean add(Relation relation) {
+
+        synchronized (lock) {
+            if (relation.largePrime == 1) {
+                relations.add(relation);
+                fullRelations++;
+            } else {
+                Relation other = partials.remove(relation.largePrime);
+                if (other == null) {
+                    partials.put(relation.largePrime, relation);
+                } else if (!other.y.equals(relation.y)) {
+                    int[] factors = Arrays.copyOf(other.factors, other.factors.length + relation.factors.length);
+                    System.arraycopy(relation.factors, 0, factors, other.factors.length, relation.factors.length);
+                    relations.add(new Relation(other.y.multiply(relation.y).mod(N), factors,
+                            relation.largePrime));
+                    combinedRelations++;
+                }
+            }
+            if (verbose && System.currentTimeMillis() - lastReport >= 1000) {
+                lastReport = System.currentTimeMillis();
+                System.out.println("" + relations.size() + " of " + target + " relations (" + fullRelations +
+                        " full, " + combinedRelations + " combined, " + partials.size() + " partial) from " +
+                        polynomials + " polynomials");
+            }
+            return relations.size() >= target;
+        }
+
+    }
+
+    /**
+     * Looks for a factor from the dependencies between the relations
+     * @return a factor, or null if every dependency was trivial
+     */
+    private BigInteger combine(List<Relation> found) {
+
+        List<int[]> columns = new ArrayList<int[]>(found.size());
+        int[] parity = new int[primes.length];
+        for (Relation relation : found) {
+            for (int index : relation.factors) {
+                parity[index] ^= 1;
+            }
+            int[] odd = new int[relation.factors.length];
+            int count = 0;
+            for (int index : relation.factors) {
+                if (parity[index] == 1) {
+                    odd[count++] = index;
+                    parity[index] = 0;
+                }
+            }
+            odd = Arrays.copyOf(odd, count);
+            Arrays.sort(odd);
+            columns.add(odd);
+        }
+
+        for (int[] dependency : findDependencies(columns, primes.length, MAX_DEPENDENCIES)) {
+
+            int[] exponents = new int[primes.length];
+            BigInteger Y = BigInteger.ONE;
+            BigInteger X = BigInteger.ONE;
+            for (int index : dependency) {
+                Relation relation = found.get(index);
+                Y = Y.multiply(relation.y).mod(N);
+                X = X.multiply(BigInteger.valueOf(relation.largePrime)).mod(N);
+                for (int factor : relation.factors) {
+                    exponents[factor]++;
+                }
+            }
+            for (int i = 1; i < primes.length; i++) {
+                if (exponents[i] > 0) {
+                    X = X.multiply(BigInteger.valueOf(primes[i]).modPow(BigInteger.valueOf(exponents[i] / 2), N))
+                            .mod(N);
+                }
+            }
+
+            BigInteger factor = Y.subtract(X).gcd(N);
+            if (!factor.equals(BigInteger.ONE) && !factor.equals(N)) {
+                return factor;
+            }
+
+        }
+        return null;
+
+    }
+
+    /**
+     * Finds sets of columns over GF(2) which add up to zero, by structured
+     * Gaussian elimination and then dense elimination of what is left
+     * @param columns The rows set in each column, in increasing order
+     * @param rows The number of rows
+     * @param max The most dependencies to return
+     * @return the dependencies, each the indices of its columns in increasing order
+     */
+    static List<int[]> findDependencies(List<int[]> columns, int rows, int max) {
+
+        int n = columns.size();
+        int[][] cols = columns.toArray(new int[n][]);
+        int[][] history = new int[n][];
+        boolean[] alive = new boolean[n];
+        for (int c = 0; c < n; c++) {
+            history[c] = new int[] {c};
+            alive[c] = true;
+        }
+
+        int[] count = new int[rows];
+        int[] first = new int[rows];
+        int[] second = new int[rows];
+        boolean[] touched = new boolean[n];
+        for (boolean changed = true; changed; ) {
+
+            changed = false;
+            Arrays.fill(count, 0);
+            for (int c = 0; c < n; c++) {
+                if (!alive[c]) {
+                    continue;
+                }
+                for (int r : cols[c]) {
+                    if (count[r] == 0) {
+                        first[r] = c;
+                    } else if (count[r] == 1) {
+                        second[r] = c;
+                    }
+                    count[r]++;
+                }
+            }
+
+            // A row set in one column only: that column is in no dependency
+            for (int r = 0; r < rows; r++) {
+                if (count[r] == 1 && alive[first[r]]) {
+                    alive[first[r]] = false;
+                    changed = true;
+                }
+            }
+
+            // A row set in two columns: any dependency has both or neither, so they merge
+            Arrays.fill(touched, false);
+            for (int r = 0; r < rows; r++) {
+                int a = first[r];
+                int b = second[r];
+                if (count[r] == 2 && alive[a] && alive[b] && !touched[a] && !touched[b]) {
+                    cols[b] = xor(cols[a], cols[b]);
+                    history[b] = xor(history[a], history[b]);
+                    alive[a] = false;
+                    touched[a] = true;
+                    touched[b] = true;
+                    changed = true;
+                }
+            }
+
+        }
+
+        // The dense matrix of the columns and rows left, one bit set per row
+        int[] denseRow = new int[rows];
+        Arrays.fill(denseRow, -1);
+        List<Integer> denseColumns = new ArrayList<Integer>();
+        int height = 0;
+        for (int c = 0; c < n; c++) {
+            if (!alive[c]) {
+                continue;
+            }
+            denseColumns.add(c);
+            for (int r : cols[c]) {
+                if (denseRow[r] < 0) {
+                    denseRow[r] = height++;
+                }
+            }
+        }
+        int width = denseColumns.size();
+        int words = (width + 63) >>> 6;
+        long[][] matrix = new long[height][words];
+        for (int j = 0; j < width; j++) {
+            for (int r : cols[denseColumns.get(j)]) {
+                matrix[denseRow[r]][j >>> 6] |= 1L << j;
+            }
+        }
+
+        // Reduced row echelon form
+        int[] pivotColumn = new int[height];
+        boolean[] isPivot = new boolean[width];
+        int rank = 0;
+        for (int j = 0; j < width && rank < height; j++) {
+            int word = j >>> 6;
+            long bit = 1L << j;
+            int pivot = rank;
+            while (pivot < height && (matrix[pivot][word] & bit) == 0) {
+                pivot++;
+            }
+            if (pivot == height) {
+                continue;
+            }
+            long[] row = matrix[pivot];
+            matrix[pivot] = matrix[rank];
+            matrix[rank] = row;
+            for (int i = 0; i < height; i++) {
+                if (i != rank && (matrix[i][word] & bit) != 0) {
+                    long[] other = matrix[i];
+                    for (int w = 0; w < words; w++) {
+                        other[w] ^= row[w];
+                    }
+                }
+            }
+            pivotColumn[rank++] = j;
+            isPivot[j] = true;
+        }
+
+        // Each free column, with the pivot columns of the rows it is set in
+        List<int[]> dependencies = new ArrayList<int[]>();
+        for (int j = 0; j < width && dependencies.size() < max; j++) {
+            if (isPivot[j]) {
+                continue;
+            }
+            int[] dependency = history[denseColumns.get(j)];
+            for (int i = 0; i < rank; i++) {
+                if ((matrix[i][j >>> 6] & (1L << j)) != 0) {
+                    dependency = xor(dependency, history[denseColumns.get(pivotColumn[i])]);
+                }
+            }
+            if (dependency.length > 0) {
+                dependencies.add(dependency);
+            }
+        }
+        return dependencies;
+
+    }
+
+    /**
+     * Returns the symmetric difference of two sorted sets
+     */
+    private static int[] xor(int[] a, int[] b) {
+
+        int[] result = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                result[k++] = a[i++];
+            } else if (a[i] > b[j]) {
+                result[k++] = b[j++];
+            } else {
+                i++;
+                j++;
+            }
+        }
+        while (i < a.length) {
+            result[k++] = a[i++];
+        }
+        while (j < b.length) {
+            result[k++] = b[j++];
+        }
+        return Arrays.copyOf(result, k);
+
+    }
+
+    /**
+     * A relation y^2 = (product of the factors) * largePrime^2 mod N, or
+     * y^2 = (product of the factors) * largePrime when it waits for another
+     * with the same large prime. The factors are indices into the factor
+     * base, as many times as they divide.
+     */
+    private static final class Relation {
+
+        final BigInteger y;
+        final int[] factors;
+        final long largePrime;
+
+        Relation(BigInteger y, int[] factors, long largePrime) {
+            this.y = y;
+            this.factors = factors;
+            this.largePrime = largePrime;
+        }
+
+    }
+
+    /**
+     * Sieves polynomials of its own As until the sieve has enough relations.
+     * Its arrays are sized once, and reused for every polynomial.
+     */
+    private final class Worker implements Runnable {
+
+        private final SplittableRandom random;
+        private final byte[] block = new byte[SIEVE_BLOCK];
+        private final int[] root1 = new int[primes.length];
+        private final int[] root2 = new int[primes.length];
+        private final int[] next1 = new int[primes.length];
+        private final int[] next2 = new int[primes.length];
+        private final int[] inverseA = new int[primes.length];
+        private final int[][] deltas = new int[s][primes.length];
+        private final boolean[] dividesA = new boolean[primes.length];
+        private final int[] aPrimes = new int[s];
+        private final BigInteger[] bTerms = new BigInteger[s];
+        private final int[] gammas = new int[s];
+        private final int[] factors = new int[1024];
+        private int factorCount;
+
+        private BigInteger A;
+        private BigInteger B;
+        private BigInteger C;
+
+        Worker(SplittableRandom random) {
+            this.random = random;
+        }
+
+        @Override
+        public void run() {
+
+            while (!Thread.currentThread().isInterrupted()) {
+                newA();
+                int family = 1 << (s - 1);
+                for (int i = 0; i < family; i++) {
+                    if (i > 0) {
+                        nextB(i);
+                    }
+                    if (sievePolynomial()) {
+                        return;
+                    }
+                }
+            }
+
+        }
+
+        /**
+         * Chooses a new A, and the roots of its first polynomial
+         */
+        private void newA() {
+
+            int low = qCandidates[0];
+            int high = qCandidates[1];
+            double logTarget = 0.5 * (Math.log(2) + log(kN)) - Math.log(M);
+            do {
+
+                Arrays.fill(dividesA, false);
+                double logA = 0;
+                for (int l = 0; l < s - 1; l++) {
+                    int index;
+                    do {
+                        index = random.nextInt(low, high);
+                    } while (dividesA[index]);
+                    dividesA[index] = true;
+                    aPrimes[l] = index;
+                    logA += Math.log(primes[index]);
+                }
+                // The last prime brings A closest to its target
+                double last = Math.exp(logTarget - logA);
+                int index = Arrays.binarySearch(primes, firstSieved, primes.length, (int) Math.min(last,
+                        Integer.MAX_VALUE));
+                index = Math.max(firstSieved, Math.min(primes.length - 1, index < 0 ? -index - 1 : index));
+                while (dividesA[index] && index + 1 < primes.length) {
+                    index++;
+                }
+                while (dividesA[index]) {
+                    index--;
+                }
+                dividesA[index] = true;
+                aPrimes[s - 1] = index;
+
+                A = BigInteger.ONE;
+                for (int l = 0; l < s; l++) {
+                    A = A.multiply(BigInteger.valueOf(primes[aPrimes[l]]));
+                }
+
+            } while (!usedA.add(A));
+
+            // B_l = (A / q_l) gamma_l, with B_l^2 = kN mod q_l and B_l = 0 mod every other q
+            B = BigInteger.ZERO;
+            for (int l = 0; l < s; l++) {
+                int q = primes[aPrimes[l]];
+                BigInteger quotient = A.divide(BigInteger.valueOf(q));
+                long gamma = (long) sqrtKN[aPrimes[l]] * inverse(quotient.mod(BigInteger.valueOf(q)).intValue(), q)
+                        % q;
+                if (gamma > q / 2) {
+                    gamma = q - gamma;
+                }
+                gammas[l] = (int) gamma;
+                bTerms[l] = quotient.multiply(BigInteger.valueOf(gamma));
+                B = B.add(bTerms[l]);
+            }
+            C = B.multiply(B).subtract(kN).divide(A);
+
+            for (int i = 2; i < primes.length; i++) {
+                if (dividesA[i]) {
+                    continue;
+                }
+                int p = primes[i];
+                long a = 1;
+                for (int l = 0; l < s; l++) {
+                    a = a * (primes[aPrimes[l]] % p) % p;
+                }
+                int inverse = inverse((int) a, p);
+                inverseA[i] = inverse;
+                long b = 0;
+                for (int l = 0; l < s; l++) {
+                    // B_l mod p, as the product of the other primes of A and gamma_l
+                    long term = gammas[l] % p;
+                    for (int j = 0; j < s; j++) {
+                        if (j != l) {
+                            term = term * (primes[aPrimes[j]] % p) % p;
+                        }
+                    }
+                    b += term;
+                    deltas[l][i] = (int) (2 * term * inverse % p);
+                }
+                setRoots(i, p, inverse, (int) (b % p));
+            }
+
+        }
+
+        /**
+         * Sets the sieve offsets of the roots of g mod p, (+-sqrt(kN) - B) / A + M
+         */
+        private void setRoots(int i, int p, long inverse, int b) {
+            long shift = M % p;
+            root1[i] = (int) ((inverse * ((sqrtKN[i] - b + p) % p) + shift) % p);
+            root2[i] = (int) ((inverse * ((2L * p - sqrtKN[i] - b) % p) + shift) % p);
+        }
+
+        /**
+         * Moves to polynomial i of the family of A by a Gray code, which
+         * changes the sign of a single B_l
+         */
+        private void nextB(int i) {
+
+            int l = Integer.numberOfTrailingZeros(i);
+            boolean negative = (((i ^ (i >>> 1)) >>> l) & 1) == 1;
+            BigInteger step = bTerms[l].shiftLeft(1);
+            B = negative ? B.subtract(step) : B.add(step);
+            C = B.multiply(B).subtract(kN).divide(A);
+
+            int[] delta = deltas[l];
+            for (int j = 2; j < primes.length; j++) {
+                int p = primes[j];
+                // B + e 2 B_l moves the roots by -e 2 B_l / A
+                int d = negative ? delta[j] : p - delta[j];
+                int r1 = root1[j] + d;
+                int r2 = root2[j] + d;
+                root1[j] = r1 >= p ? r1 - p : r1;
+                root2[j] = r2 >= p ? r2 - p : r2;
+            }
+
+        }
+
+        /**
+         * Sieves the current polynomial over [-M, M), block by block
+         * @return whether the sieve has enough relations
+         */
+        private boolean sievePolynomial() {
+
+            for (int i = firstSieved; i < primes.length; i++) {
+                next1[i] = root1[i];
+                next2[i] = root2[i];
+            }
+            synchronized (lock) {
+                polynomials++;
+                if (relations.size() >= target) {
+                    return true;
+                }
+            }
+
+            for (int b = 0; b < blocks; b++) {
+
+                Arrays.fill(block, (byte) 0);
+                for (int i = firstSieved; i < primes.length; i++) {
+                    if (dividesA[i]) {
+                        continue;
+                    }
+                    int p = primes[i];
+                    byte log = logs[i];
+                    int position = next1[i];
+                    for (; position < SIEVE_BLOCK; position += p) {
+                        block[position] += log;
+                    }
+                    next1[i] = position - SIEVE_BLOCK;
+                    position = next2[i];
+                    for (; position < SIEVE_BLOCK; position += p) {
+                        block[position] += log;
+                    }
+                    next2[i] = position - SIEVE_BLOCK;
+                }
+
+                for (int j = 0; j < SIEVE_BLOCK; j++) {
+                    if ((block[j] & 0xFF) >= threshold) {
+                        Relation relation = trialDivide(b * SIEVE_BLOCK + j);
+                        if (relation != null && add(relation)) {
+                            return true;
+                        }
+                    }
+                }
+
+            }
+            return false;
+
+        }
+
+        /**
+         * Factors g(x) at the sieve offset j = x + M over the factor base
+         * @return the relation, or null if g(x) has more than a large prime left
+         */
+        private Relation trialDivide(int j) {
+
+            long x = j - (long) M;
+            BigInteger X = BigInteger.valueOf(x);
+            BigInteger value = A.multiply(X).add(B.shiftLeft(1)).multiply(X).add(C);
+            factorCount = 0;
+            for (int l = 0; l < s; l++) {
+                factors[factorCount++] = aPrimes[l];
+            }
+            if (value.signum() < 0) {
+                factors[factorCount++] = 0;
+                value = value.negate();
+            }
+            if (value.signum() == 0) {
+                return null;
+            }
+            int twos = value.getLowestSetBit();
+            for (int t = 0; t < twos; t++) {
+                factors[factorCount++] = 1;
+            }
+            value = value.shiftRight(twos);
+
+            long rest = value.bitLength() < Long.SIZE - 1 ? value.longValue() : -1;
+            for (int i = 2; i < primes.length; i++) {
+                int p = primes[i];
+                if (!dividesA[i]) {
+                    int offset = j % p;
+                    if (offset != root1[i] && offset != root2[i]) {
+                        continue;
+                    }
+                }
+                if (rest < 0) {
+                    BigInteger prime = BigInteger.valueOf(p);
+                    BigInteger[] division = value.divideAndRemainder(prime);
+                    while (division[1].signum() == 0) {
+                        factors[factorCount++] = i;
+                        value = division[0];
+                        division = value.divideAndRemainder(prime);
+                    }
+                    if (value.bitLength() < Long.SIZE - 1) {
+                        rest = value.longValue();
+                    }
+                } else {
+                    while (rest % p == 0) {
+                        factors[factorCount++] = i;
+                        rest /= p;
+                    }
+                }
+            }
+
+            if (rest < 0 || rest >= largePrimeBound) {
+                return null;
+            }
+            BigInteger y = A.multiply(X).add(B).mod(N);
+            return new Relation(y, Arrays.copyOf(factors, factorCount), rest);
+
+        }
+
+    }
+
+    /**
+     * Returns the natural log of a positive number of any size
+     */
+    private static double log(BigInteger n) {
+        int shift = Math.max(0, n.bitLength() - 62);
+        return Math.log(n.shiftRight(shift).doubleValue()) + shift * Math.log(2);
+    }
+
+    /**
+     * Returns the Legendre symbol (a / p) of an odd prime p, as 1, p - 1 or 0
+     */
+    private static long legendre(int a, int p) {
+        return powMod(a, (p - 1) / 2, p);
+    }
+
+    /**
+     * Returns base^exponent mod p
+     */
+    private static long powMod(long base, long exponent, int p) {
+        long result = 1;
+        base %= p;
+        for (; exponent > 0; exponent >>= 1) {
+            if ((exponent & 1) == 1) {
+                result = result * base % p;
+            }
+            base = base * base % p;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a square root of a quadratic residue mod an odd prime, by Tonelli-Shanks
+     */
+    static int sqrtMod(int a, int p) {
+
+        if ((p & 3) == 3) {
+            return (int) powMod(a, (p + 1) / 4, p);
+        }
+        int q = p - 1;
+        int e = Integer.numberOfTrailingZeros(q);
+        q >>= e;
+        int z = 2;
+        while (legendre(z, p) != p - 1) {
+            z++;
+        }
+        long c = powMod(z, q, p);
+        long r = powMod(a, (q + 1) / 2, p);
+        long t = powMod(a, q, p);
+        int m = e;
+        while (t != 1) {
+            int i = 0;
+            for (long t2 = t; t2 != 1; t2 = t2 * t2 % p) {
+                i++;
+            }
+            long b = c;
+            for (int k = 0; k < m - i - 1; k++) {
+                b = b * b % p;
+            }
+            r = r * b % p;
+            c = b * b % p;
+            t = t * c % p;
+            m = i;
+        }
+        return (int) r;
+
+    }
+
+    /**
+     * Returns the inverse of a mod p, for a not divisible by p
+     */
+    private static int inverse(int a, int p) {
+        int t = 0;
+        int newT = 1;
+        int r = p;
+        int newR = ((a % p) + p) % p;
+        while (newR != 0) {
+            int quotient = r / newR;
+            int swap = t - quotient * newT;
+            t = newT;
+            newT = swap;
+            swap = r - quotient * newR;
+            r = newR;
+            newR = swap;
+        }
+        return t < 0 ? t + p : t;
+    }
+
+}
@@ -0,0 +1,551 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The quantum Fourier transform of a register of consecutive qubits,
+ * applied to a state held in primitive arrays as an in-place radix-2 FFT.
+ * The circuit of Hadamards and controlled phases costs m^2 / 2 sweeps over
+ * the 2^n amplitudes for an m qubit register; the FFT costs m / 2 + 1.
+ *
+ * With qubit low as the least significant bit of the register value x,
+ * the transform maps |x&gt; to sum_y e^(2 pi i x y / 2^m) |y&gt; / sqrt(2^m),
+ * and its inverse uses e^(-2 pi i x y / 2^m). The other qubits of the
+ * state are left alone, so each setting of them is transformed separately.
+ *
+ * The FFT is the decimation-in-frequency one, whose stages go from the
+ * highest bit of the register to the lowest, and whose output is in
+ * bit-reversed order (the swaps at the end of the circuit):
+ *
+ * 1. The stages on bits at or above BLOCK_BITS each sweep the whole state,
+ *    so they are done two at a time as radix-4 butterflies. Their twiddle
+ *    factors come from two small tables per register size, whose product
+ *    gives any power of e^(2 pi i / 2^m).
+ * 2. The stages on bits below BLOCK_BITS only mix amplitudes within an
+ *    aligned block of 2^BLOCK_BITS, which fits in the L1 cache, so every
+ *    one of them is applied to a block before moving to the next, with
+ *    twiddle factors from a table shared by every register size.
+ * 3. A last sweep undoes the bit reversal and scales by 1 / sqrt(2^m),
+ *    swapping tiles of amplitudes so that it reads whole cache lines.
+ *
+ * Each sweep touches disjoint amplitudes for disjoint index ranges, so
+ * given a pool they are split across it like the gate kernels of
+ * StateVectorSimulator.
+ * @version 0.1
+ */
+public final class QuantumFourierTransform {
+
+    /**
+     * log2 of the number of amplitudes which the low stages are applied to
+     * at a time; 2^11 amplitudes take 32 KB of real and imaginary parts
+     */
+    public static final int BLOCK_BITS = 11;
+
+    /**
+     * The number of bits at each end of the register value which the bit
+     * reversal swaps as a tile, 2^5 x 2^5 amplitudes
+     */
+    static final int TILE_BITS = 5;
+
+    /**
+     * e^(i pi t / h) for h = 2^s &lt; 2^BLOCK_BITS and t &lt; h, at index h + t,
+     * so that the twiddle factors of each low stage are contiguous
+     */
+    private static final double[] LOW_REAL = new double[1 << BLOCK_BITS];
+    private static final double[] LOW_IMAG = new double[1 << BLOCK_BITS];
+
+    static {
+        for (int h = 1; h < 1 << BLOCK_BITS; h <<= 1) {
+            for (int t = 0; t < h; t++) {
+                LOW_REAL[h + t] = Math.cos(Math.PI * t / h);
+                LOW_IMAG[h + t] = Math.sin(Math.PI * t / h);
+            }
+        }
+    }
+
+    /**
+     * The twiddle tables of each register size, built when first needed
+     */
+    private static final Twiddles[] TWIDDLES = new Twiddles[StateVectorSimulator.MAX_QUBITS + 1];
+
+    private QuantumFourierTransform() {
+    }
+
+    /**
+     * Applies the quantum Fourier transform to the qubits low, ..., low + count - 1
+     * @param real The real parts of the 2^n amplitudes
+     * @param imag The imaginary parts of the 2^n amplitudes
+     * @param low The qubit which is the least significant bit of the register
+     * @param count The number of qubits in the register, m
+     * @param pool The pool to split the sweeps across, or null to run on the calling thread
+     */
+    public static void transform(double[] real, double[] imag, int low, int count, ForkJoinPool pool) {
+        apply(real, imag, low, count, 1, pool);
+    }
+
+    /**
+     * Applies the inverse quantum Fourier transform to the qubits low, ..., low + count - 1
+     * @param real The real parts of the 2^n amplitudes
+     * @param imag The imaginary parts of the 2^n amplitudes
+     * @param low The qubit which is the least significant bit of the register
+     * @param count The number of qubits in the register, m
+     * @param pool The pool to split the sweeps across, or null to run on the calling thread
+     */
+    public static void inverse(double[] real, double[] imag, int low, int count, ForkJoinPool pool) {
+        apply(real, imag, low, count, -1, pool);
+    }
+
+    /**
+     * Exchanges two qubits of a state, by swapping the amplitudes whose bits
+     * for the two qubits differ
+     * @param real The real parts of the 2^n amplitudes
+     * @param imag The imaginary parts of the 2^n amplitudes
+     * @param qubit1 The first qubit
+     * @param qubit0 The second qubit
+     * @param pool The pool to split the sweep across, or null to run on the calling thread
+     */
+    public static void swapQubits(double[] real, double[] imag, int qubit1, int qubit0, ForkJoinPool pool) {
+
+        int low = Math.min(qubit1, qubit0);
+        int high = Math.max(qubit1, qubit0);
+        if (low < 0 || high >= Integer.numberOfTrailingZeros(real.length) || low == high) {
+            throw new InvalidParameterException("Cannot swap qubits " + qubit1 + " and " + qubit0);
+        }
+
+        int lowBit = 1 << low;
+        int highBit = 1 << high;
+        run(pool, real.length >> 2, (from, to) -> {
+            for (int k = from; k < to; k++) {
+                int i0 = StateVectorSimulator.insertZeroBit(StateVectorSimulator.insertZeroBit(k, low), high);
+                int i1 = i0 | lowBit;
+                int i2 = i0 | highBit;
+                double re = real[i1];
+                double im = imag[i1];
+                real[i1] = real[i2];
+                imag[i1] = imag[i2];
+                real[i2] = re;
+                imag[i2] = im;
+            }
+        });
+
+    }
+
+    /**
+     * Returns the number of times the transform of the given qubits reads
+     * and writes every amplitude, for throughput reporting
+     * @param low The qubit which is the least significant bit of the register
+     * @param count The number of qubits in the register
+     * @return the number of sweeps over the state
+     */
+    static int sweeps(int low, int count) {
+        int lowStages = lowStages(low, count);
+        return (count - lowStages + 1) / 2 + (lowStages > 0 ? 1 : 0) + 1;
+    }
+
+    /**
+     * Returns the number of stages on qubits below BLOCK_BITS
+     */
+    private static int lowStages(int low, int count) {
+        return Math.max(0, Math.min(count, BLOCK_BITS - low));
+    }
+
+    /**
+     * Runs the stages of the FFT with twiddle factors e^(sign 2 pi i k / 2^m)
+     */
+    private static void apply(double[] real, double[] imag, int low, int count, int sign, ForkJoinPool pool) {
+
+        int qubits = Integer.numberOfTrailingZeros(real.length);
+        if (real.length != imag.length || Integer.bitCount(real.length) != 1) {
+            throw new InvalidParameterException("Expected real and imaginary parts of a power of two length");
+        }
+        if (low < 0 || count < 1 || low + count > qubits) {
+            throw new InvalidParameterException("Qubits " + low + " to " + (low + count - 1) +
+                    " are outside of the " + qubits + " qubit register");
+        }
+
+        // Stage s pairs amplitudes whose bit low + s differs; the low stages stay within a block
+        int lowStages = lowStages(low, count);
+        int s = count - 1;
+        if (s >= lowStages) {
+            Twiddles twiddles = twiddles(count);
+            if (((s - lowStages) & 1) == 0) {
+                int stage = s;
+                run(pool, real.length >> 1, (from, to) -> radix2(real, imag, low, stage, sign, twiddles, from, to));
+                s--;
+            }
+            for (; s > lowStages; s -= 2) {
+                int stage = s;
+                run(pool, real.length >> 2, (from, to) -> radix4(real, imag, low, stage, sign, twiddles, from, to));
+            }
+        }
+
+        if (lowStages > 0) {
+            int blockBits = Math.min(BLOCK_BITS, qubits);
+            run(pool, real.length >> blockBits, (from, to) -> {
+                for (int block = from; block < to; block++) {
+                    lowStages(real, imag, block << blockBits, 1 << blockBits, low, lowStages, sign);
+                }
+            });
+        }
+
+        double scale = 1 / Math.sqrt(1 << count);
+        if (count >= 2 * TILE_BITS) {
+            run(pool, real.length >> (low + 2 * TILE_BITS), (from, to) ->
+                    reverse(real, imag, low, count, scale, from, to));
+        } else {
+            run(pool, real.length, (from, to) -> reverseSmall(real, imag, low, count, scale, from, to));
+        }
+
+    }
+
+    /**
+     * Applies stage s as radix-2 butterflies to the pairs with index in [from, to)
+     */
+    private static void radix2(double[] real, double[] imag, int low, int s, int sign, Twiddles twiddles,
+                               int from, int to) {
+
+        int distance = 1 << (low + s);
+        int tMask = (1 << s) - 1;
+        int shift = twiddles.qubits - 1 - s;
+
+        for (int k = from; k < to; k++) {
+
+            int i0 = StateVectorSimulator.insertZeroBit(k, low + s);
+            int i1 = i0 | distance;
+
+            // w = e^(sign i pi t / 2^s) for the register bits below s
+            int t = (i0 >>> low & tMask) << shift;
+            double wRe = twiddles.real(t);
+            double wIm = sign * twiddles.imag(t);
+
+            double uRe = real[i0], uIm = imag[i0];
+            double vRe = real[i1], vIm = imag[i1];
+            double dRe = uRe - vRe, dIm = uIm - vIm;
+            real[i0] = uRe + vRe;
+            imag[i0] = uIm + vIm;
+            real[i1] = dRe * wRe - dIm * wIm;
+            imag[i1] = dRe * wIm + dIm * wRe;
+
+        }
+
+    }
+
+    /**
+     * Applies stages s and s - 1 together as radix-4 butterflies to the
+     * quadruples with index in [from, to). With w the twiddle factor of
+     * stage s, stage s - 1 uses w^2, and the pairs of stage s whose bit
+     * s - 1 is set use w times e^(sign i pi / 2) = sign * i.
+     */
+    private static void radix4(double[] real, double[] imag, int low, int s, int sign, Twiddles twiddles,
+                               int from, int to) {
+
+        int high = 1 << (low + s);
+        int half = 1 << (low + s - 1);
+        int tMask = (1 << (s - 1)) - 1;
+        int shift = twiddles.qubits - 1 - s;
+
+        for (int k = from; k < to; k++) {
+
+            int i0 = StateVectorSimulator.insertZeroBit(StateVectorSimulator.insertZeroBit(k, low + s - 1), low + s);
+            int i1 = i0 | half;
+            int i2 = i0 | high;
+            int i3 = i2 | half;
+
+            int t = (i0 >>> low & tMask) << shift;
+            double wRe = twiddles.real(t);
+            double wIm = sign * twiddles.imag(t);
+            double w2Re = wRe * wRe - wIm * wIm;
+            double w2Im = 2 * wRe * wIm;
+
+            double x0Re = real[i0], x0Im = imag[i0];
+            double x1Re = real[i1], x1Im = imag[i1];
+            double x2Re = real[i2], x2Im = imag[i2];
+            double x3Re = real[i3], x3Im = imag[i3];
+
+            // Stage s: (x0, x2) with w, and (x1, x3) with sign * i * w
+            double a0Re = x0Re + x2Re, a0Im = x0Im + x2Im;
+            double a1Re = x1Re + x3Re, a1Im = x1Im + x3Im;
+            double dRe = x0Re - x2Re, dIm = x0Im - x2Im;
+            double a2Re = dRe * wRe - dIm * wIm;
+            double a2Im = dRe * wIm + dIm * wRe;
+            dRe = -sign * (x1Im - x3Im);
+            dIm = sign * (x1Re - x3Re);
+            double a3Re = dRe * wRe - dIm * wIm;
+            double a3Im = dRe * wIm + dIm * wRe;
+
+            // Stage s - 1: (a0, a1) and (a2, a3), both with w^2
+            real[i0] = a0Re + a1Re;
+            imag[i0] = a0Im + a1Im;
+            dRe = a0Re - a1Re;
+            dIm = a0Im - a1Im;
+            real[i1] = dRe * w2Re - dIm * w2Im;
+            imag[i1] = dRe * w2Im + dIm * w2Re;
+            real[i2] = a2Re + a3Re;
+            imag[i2] = a2Im + a3Im;
+            dRe = a2Re - a3Re;
+            dIm = a2Im - a3Im;
+            real[i3] = dRe * w2Re - dIm * w2Im;
+            imag[i3] = dRe * w2Im + dIm * w2Re;
+
+        }
+
+    }
+
+    /**
+     * Applies stages stages - 1, ..., 0 to the block of amplitudes
+     * [start, start + size), in which every pair of those stages lies. The
+     * stages are taken two at a time as in radix4, and an odd last stage 0,
+     * whose twiddle factors are all 1, on its own.
+     */
+    private static void lowStages(double[] real, double[] imag, int start, int size, int low, int stages,
+                                  int sign) {
+
+        int end = start + size;
+        int s = stages - 1;
+        for (; s > 0; s -= 2) {
+
+            int h = 1 << s;
+            int half = h << low >> 1;
+            for (int group = start; group < end; group += half << 2) {
+                for (int j = 0; j < half; j++) {
+
+                    int i0 = group + j;
+                    int i1 = i0 + half;
+                    int i2 = i1 + half;
+                    int i3 = i2 + half;
+                    int t = h + (j >>> low);
+                    double wRe = LOW_REAL[t];
+                    double wIm = sign * LOW_IMAG[t];
+                    double w2Re = wRe * wRe - wIm * wIm;
+                    double w2Im = 2 * wRe * wIm;
+
+                    double x0Re = real[i0], x0Im = imag[i0];
+                    double x1Re = real[i1], x1Im = imag[i1];
+                    double x2Re = real[i2], x2Im = imag[i2];
+                    double x3Re = real[i3], x3Im = imag[i3];
+
+                    double a0Re = x0Re + x2Re, a0Im = x0Im + x2Im;
+                    double a1Re = x1Re + x3Re, a1Im = x1Im + x3Im;
+                    double dRe = x0Re - x2Re, dIm = x0Im - x2Im;
+                    double a2Re = dRe * wRe - dIm * wIm;
+                    double a2Im = dRe * wIm + dIm * wRe;
+                    dRe = -sign * (x1Im - x3Im);
+                    dIm = sign * (x1Re - x3Re);
+                    double a3Re = dRe * wRe - dIm * wIm;
+                    double a3Im = dRe * wIm + dIm * wRe;
+
+                    real[i0] = a0Re + a1Re;
+                    imag[i0] = a0Im + a1Im;
+                    dRe = a0Re - a1Re;
+                    dIm = a0Im - a1Im;
+                    real[i1] = dRe * w2Re - dIm * w2Im;
+                    imag[i1] = dRe * w2Im + dIm * w2Re;
+                    real[i2] = a2Re + a3Re;
+                    imag[i2] = a2Im + a3Im;
+                    dRe = a2Re - a3Re;
+                    dIm = a2Im - a3Im;
+                    real[i3] = dRe * w2Re - dIm * w2Im;
+                    imag[i3] = dRe * w2Im + dIm * w2Re;
+
+                }
+            }
+
+        }
+
+        if (s == 0) {
+            int distance = 1 << low;
+            for (int group = start; group < end; group += distance << 1) {
+                for (int i0 = group; i0 < group + distance; i0++) {
+                    int i1 = i0 + distance;
+                    double uRe = real[i0], uIm = imag[i0];
+                    double vRe = real[i1], vIm = imag[i1];
+                    real[i0] = uRe + vRe;
+                    imag[i0] = uIm + vIm;
+                    real[i1] = uRe - vRe;
+                    imag[i1] = uIm - vIm;
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Moves each amplitude from its bit-reversed register value to its own,
+     * scaling it, for the amplitudes in the tiles with index in [from, to).
+     *
+     * Splitting the register value into a high, middle and low part of
+     * TILE_BITS, count - 2 TILE_BITS and TILE_BITS bits, the partner of
+     * (a, b, c) is (reverse c, reverse b, reverse a). Tile (o, b) holds the
+     * values (a, b, c) for every a and c, with the qubits outside the
+     * register set to o; its partners all lie in tile (o, reverse b). So
+     * swapping a tile with its partner tile only touches 2^(TILE_BITS + 1)
+     * runs of 2^TILE_BITS values, rather than a cache line per amplitude.
+     * Each pair of tiles is swapped by the one with the smaller b, so ranges
+     * can be run concurrently.
+     */
+    private static void reverse(double[] real, double[] imag, int low, int count, double scale, int from, int to) {
+
+        int middleBits = count - 2 * TILE_BITS;
+        int side = 1 << TILE_BITS;
+        int runLength = 1 << low;
+        int aShift = low + count - TILE_BITS;
+        int outerShift = low + count;
+
+        for (int tile = from; tile < to; tile++) {
+
+            int b = tile & ((1 << middleBits) - 1);
+            int reversedB = middleBits == 0 ? 0 : Integer.reverse(b) >>> (32 - middleBits);
+            if (reversedB < b) {
+                continue;
+            }
+            int outer = (tile >>> middleBits) << outerShift;
+            int tileBase = outer | b << (low + TILE_BITS);
+            int partnerBase = outer | reversedB << (low + TILE_BITS);
+
+            for (int a = 0; a < side; a++) {
+                int reversedA = Integer.reverse(a) >>> (32 - TILE_BITS);
+                for (int c = 0; c < side; c++) {
+
+                    int reversedC = Integer.reverse(c) >>> (32 - TILE_BITS);
+                    int i = tileBase | a << aShift | c << low;
+                    int j = partnerBase | reversedC << aShift | reversedA << low;
+                    if (reversedB == b && j < i) {
+                        continue;
+                    }
+                    for (int l = 0; l < runLength; l++) {
+                        double re = real[i + l];
+                        double im = imag[i + l];
+                        real[i + l] = real[j + l] * scale;
+                        imag[i + l] = imag[j + l] * scale;
+                        if (j != i) {
+                            real[j + l] = re * scale;
+                            imag[j + l] = im * scale;
+                        }
+                    }
+
+                }
+            }
+
+        }
+
+    }
+
+    /**
+     * Moves each amplitude with index in [from, to) from its bit-reversed
+     * register value to its own, scaling it, one amplitude at a time, for
+     * registers too small to tile. Each pair is swapped by the smaller of
+     * its indices, so ranges can be run concurrently.
+     */
+    private static void reverseSmall(double[] real, double[] imag, int low, int count, double scale,
+                                     int from, int to) {
+
+        int field = ((1 << count) - 1) << low;
+        for (int i = from; i < to; i++) {
+
+            int j = (i & ~field) | Integer.reverse(i >>> low) >>> (32 - count) << low;
+            if (j < i) {
+                continue;
+            }
+            double re = real[i];
+            double im = imag[i];
+            real[i] = real[j] * scale;
+            imag[i] = imag[j] * scale;
+            if (j != i) {
+                real[j] = re * scale;
+                imag[j] = im * scale;
+            }
+
+        }
+
+    }
+
+    /**
+     * Runs the kernel over [0, count), across the pool if there is one
+     */
+    private static void run(ForkJoinPool pool, int count, StateVectorSimulator.RangeKernel kernel) {
+
+        if (pool == null || pool.getParallelism() == 1) {
+            kernel.apply(0, count);
+        } else {
+            pool.invoke(new StateVectorSimulator.RangeTask(kernel, 0, count));
+        }
+
+    }
+
+    /**
+     * Returns the twiddle tables of a register of the given size, building
+     * them the first time. A race builds identical tables, so either is kept.
+     */
+    private static Twiddles twiddles(int qubits) {
+
+        Twiddles twiddles = TWIDDLES[qubits];
+        if (twiddles == null) {
+            twiddles = new Twiddles(qubits);
+            TWIDDLES[qubits] = twiddles;
+        }
+        return twiddles;
+
+    }
+
+    /**
+     * The powers e^(2 pi i k / 2^m) for k &lt; 2^(m - 1), stored as a table
+     * of the low fineBits bits of k and a table of the rest, which take
+     * about 2^(m / 2) entries each instead of 2^(m - 1)
+     */
+    private static final class Twiddles {
+
+        private final int qubits;
+        private final int fineBits;
+        private final int fineMask;
+        private final double[] fineReal;
+        private final double[] fineImag;
+        private final double[] coarseReal;
+        private final double[] coarseImag;
+
+        private Twiddles(int qubits) {
+
+            this.qubits = qubits;
+            this.fineBits = qubits / 2;
+            this.fineMask = (1 << fineBits) - 1;
+
+            int fine = 1 << fineBits;
+            int coarse = 1 << Math.max(0, qubits - 1 - fineBits);
+            double angle = 2 * Math.PI / (1L << qubits);
+            fineReal = new double[fine];
+            fineImag = new double[fine];
+            for (int k = 0; k < fine; k++) {
+                fineReal[k] = Math.cos(angle * k);
+                fineImag[k] = Math.sin(angle * k);
+            }
+            coarseReal = new double[coarse];
+            coarseImag = new double[coarse];
+            for (int k = 0; k < coarse; k++) {
+                coarseReal[k] = Math.cos(angle * ((long) k << fineBits));
+                coarseImag[k] = Math.sin(angle * ((long) k << fineBits));
+            }
+
+        }
+
+        /**
+         * @return the real part of e^(2 pi i k / 2^m)
+         */
+        double real(int k) {
+            int fine = k & fineMask;
+            int coarse = k >>> fineBits;
+            return coarseReal[coarse] * fineReal[fine] - coarseImag[coarse] * fineImag[fine];
+        }
+
+        /**
+         * @return the imaginary part of e^(2 pi i k / 2^m)
+         */
+        double imag(int k) {
+            int fine = k & fineMask;
+            int coarse = k >>> fineBits;
+            return coarseReal[coarse] * fineImag[fine] + coarseImag[coarse] * fineReal[fine];
+        }
+
+    }
+
+}
@@ -0,0 +1,319 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+import core.util.ContinuedFraction;
+import core.util.LongMontgomery;
+import core.util.Mathematics;
+import core.util.OrderFinding;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntSupplier;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * A collection of simulated quantum implementations of quantum algorithms
+ * (for example, Shor's algorithm with a period-finding circuit that is
+ * simulated gate by gate on a sparse quantum register, rather than
+ * computed classically)
+ * @version 0.7
+ */
+public class QuantumImpl {
+
+    /**
+     * The largest counting register that period finding will simulate
+     */
+    public static final int MAX_COUNTING_QUBITS = 24;
+
+    /**
+     * The largest counting register that sparse period finding will simulate,
+     * whose 2^t amplitudes are held in a hash map
+     */
+    public static final int MAX_SPARSE_COUNTING_QUBITS = 22;
+
+    /**
+     * The number of times the period-finding circuit is run before giving up
+     */
+    public static final int MAX_ATTEMPTS = 32;
+
+    /**
+     * Computes the prime factors of N using Shor's algorithm, with the period
+     * finding circuit simulated on a sparse quantum register (see
+     * findPeriodSparse)
+     * @param N The integer N to find the prime factors of
+     * @param verbose Prints out steps and calculations if set to True
+     * @return the prime factors of N
+     */
+    public static List<Integer> shorsPrimeFactorization(int N, boolean verbose) {
+
+        Random random = new Random();
+        return ClassicalImpl.shorsPrimeFactorization(N, verbose, (x, n) -> findPeriodSparse(x, n, random));
+
+    }
+
+    /**
+     * Computes the prime factors of N using Shor's algorithm, simulating the
+     * period finding of the given number of random X values concurrently on
+     * the executor (see ClassicalImpl.shorsPrimeFactorization). Each trial
+     * measures with its own thread's ThreadLocalRandom.
+     * @param N The integer N to find the prime factors of
+     * @param verbose Prints out steps and calculations if set to True
+     * @param executor The executor to run the trials on
+     * @param trials The number of X values tried concurrently
+     * @return the prime factors of N
+     */
+    public static List<Integer> shorsPrimeFactorization(int N, boolean verbose, ExecutorService executor, int trials) {
+
+        return ClassicalImpl.shorsPrimeFactorization(N, verbose,
+                (x, n) -> findPeriodSparse(x, n, ThreadLocalRandom.current()), executor, trials);
+
+    }
+
+    /**
+     * Returns the number of counting qubits used to find a period modulo N,
+     * which is the smallest t with 2^t &gt;= N^2
+     * @param N The modulus, at least 2
+     * @return the size of the counting register
+     */
+    public static int countingQubits(int N) {
+
+        if (N < 2) {
+            throw new InvalidParameterException("N must be at least 2 to have a counting register");
+        }
+        return 64 - Long.numberOfLeadingZeros((long) N * N - 1);
+
+    }
+
+    /**
+     * Finds the period r of f(x) = X^x mod N from the measurements of a
+     * dense counting register. Only the end of the period-finding circuit
+     * is simulated; the work register is never held:
+     *
+     * 1. The state left by the modular exponentiation and the measurement
+     *    of the work register is computed classically: f(x0) is evaluated
+     *    for a uniformly random x0, and the counting register of t qubits
+     *    (2^t &gt;= N^2) is set to the uniform superposition over
+     *    {x : f(x) = f(x0)}.
+     * 2. The inverse quantum Fourier transform is applied to the counting
+     *    register, which is then measured, giving c with c / 2^t close to
+     *    s / r.
+     * 3. r is recovered as the denominator of a convergent of the continued
+     *    fraction of c / 2^t, checking candidates against X^r = 1 mod N.
+     *
+     * See findPeriodSparse for the simulation of the whole circuit.
+     *
+     * @param X the X to use in calculating r
+     * @param N the modulus of the function above
+     * @param random The source of randomness for the measurements
+     * @return the period of the function above
+     */
+    public static int findPeriod(int X, int N, Random random) {
+
+        int reduced = checkAndReduce(X, N);
+        int qubits = countingQubits(N);
+        if (qubits > MAX_COUNTING_QUBITS) {
+            throw new InvalidParameterException("N = " + N + " needs " + qubits +
+                    " counting qubits, more than the " + MAX_COUNTING_QUBITS + " that can be simulated");
+        }
+
+        StateVectorSimulator register = new StateVectorSimulator(qubits);
+        return periodFromMeasurements(reduced, N, qubits, () -> {
+            prepareCountingRegister(register, reduced, N, random);
+            OrderFinding.checkInterrupted();
+            inverseQft(register);
+            return register.sample(1, random)[0];
+        });
+
+    }
+
+    /**
+     * Finds the period r of f(x) = X^x mod N by simulating the whole
+     * period-finding circuit, work register included, on a sparse state:
+     *
+     * 1. Put a counting register of t qubits (2^t &gt;= N^2) into a uniform
+     *    superposition with Hadamards, and the work register into |1&gt;.
+     * 2. Multiply the work register by X^x for counting register value x,
+     *    which is a permutation of the basis states, applied by rewriting
+     *    the index of each of the 2^t amplitudes.
+     * 3. Measure the work register, leaving about 2^t / r amplitudes.
+     * 4. Apply the inverse quantum Fourier transform to the counting
+     *    register, measure it and recover r as in findPeriod.
+     *
+     * At most 2^t amplitudes are ever non-zero out of the 2^(t + w) of the
+     * register (w the bits of N), so N can go beyond the dense register
+     * limit of StateVectorSimulator.MAX_QUBITS qubits.
+     * @param X the X to use in calculating r
+     * @param N the modulus of the function above
+     * @param random The source of randomness for the measurements
+     * @return the period of the function above
+     */
+    public static int findPeriodSparse(int X, int N, Random random) {
+
+        int reduced = checkAndReduce(X, N);
+        int qubits = countingQubits(N);
+        if (qubits > MAX_SPARSE_COUNTING_QUBITS) {
+            throw new InvalidParameterException("N = " + N + " needs " + qubits +
+                    " counting qubits, more than the " + MAX_SPARSE_COUNTING_QUBITS + " that can be simulated");
+        }
+        int workQubits = 32 - Integer.numberOfLeadingZeros(N);
+        long countingMask = (1L << qubits) - 1;
+
+        // |x>|y> -> |x>|y X^x mod N>, a permutation since X is invertible mod N
+        LongMontgomery.FixedBase powers = (N & 1) == 1 ? new LongMontgomery(N).fixedBase(reduced) : null;
+        LongUnaryOperator exponentiation = key -> {
+            long x = key & countingMask;
+            long y = key >>> qubits;
+            long power = powers != null ? powers.pow(x) : OrderFinding.powMod(reduced, x, N);
+            return y >= N ? key : x | y * power % N << qubits;
+        };
+
+        return periodFromMeasurements(reduced, N, qubits, () -> {
+
+            SparseStateSimulator register = new SparseStateSimulator(qubits + workQubits);
+            for (int i = 0; i < qubits; i++) {
+                register.hadamard(i);
+            }
+            register.pauliX(qubits);
+            register.permute(exponentiation);
+            OrderFinding.checkInterrupted();
+            register.measure(qubits, workQubits, random);
+            register.inverseQft(0, qubits);
+            return (int) register.measure(0, qubits, random);
+
+        });
+
+    }
+
+    /**
+     * Applies the inverse quantum Fourier transform to the whole register as
+     * an FFT, with qubit 0 as the least significant bit. This maps
+     * sum_y e^(2 pi i x y / 2^n) |y&gt; / sqrt(2^n) back to |x&gt;.
+     * @param register The register to transform
+     */
+    public static void inverseQft(StateVectorSimulator register) {
+        register.inverseQft();
+    }
+
+    /**
+     * Applies the inverse quantum Fourier transform to the whole register
+     * gate by gate, as the circuit of swaps, controlled phases and
+     * Hadamards, which takes n^2 / 2 sweeps of the register against the
+     * n / 2 + 1 of inverseQft
+     * @param register The register to transform
+     */
+    public static void inverseQftByGates(StateVectorSimulator register) {
+
+        int qubits = register.getQubitCount();
+
+        for (int i = 0; i < qubits / 2; i++) {
+            register.swap(i, qubits - 1 - i);
+        }
+
+        for (int j = 0; j < qubits; j++) {
+            for (int k = 0; k < j; k++) {
+                register.controlledPhase(k, j, -Math.PI / (1 << (j - k)));
+            }
+            register.hadamard(j);
+        }
+
+    }
+
+    /**
+     * Validates X and N like OrderFinding does, and reduces X mod N
+     */
+    private static int checkAndReduce(int X, int N) {
+
+        if (X == 0 || N < 2) {
+            throw new InvalidParameterException("X must be nonzero and N must be at least 2");
+        }
+        int reduced = Math.floorMod(X, N);
+        if (Mathematics.greatestCommonDenominator(reduced, N) > 1) {
+            throw new InvalidParameterException("X and N do not have a period in x^r mod N");
+        }
+        return reduced;
+
+    }
+
+    /**
+     * Runs the period-finding circuit until the continued fraction of a
+     * measurement c / 2^t gives the period: the denominators of its
+     * convergents are candidates for r, or for a divisor of r. Throws an
+     * IllegalStateException if MAX_ATTEMPTS runs do not find it, which a
+     * correct simulation makes vanishingly unlikely. Stops with a
+     * CancellationException before any run once the thread is interrupted.
+     */
+    static int periodFromMeasurements(int X, int N, int qubits, IntSupplier circuit) {
+
+        long candidate = 1;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+
+            OrderFinding.checkInterrupted();
+            int measured = circuit.getAsInt();
+            ContinuedFraction convergents = new ContinuedFraction(measured, 1L << qubits);
+            while (convergents.hasNext()) {
+
+                long denominator = convergents.next().getDenominator();
+                if (denominator >= N) {
+                    break;
+                }
+
+                if (OrderFinding.powMod(X, denominator, N) == 1) {
+                    return (int) denominator;
+                }
+
+                // Measurements of s / r with gcd(s, r) > 1 only give a divisor of r
+                long combined = OrderFinding.lcm(candidate, denominator);
+                if (combined < N && OrderFinding.powMod(X, combined, N) == 1) {
+                    return (int) combined;
+                }
+                if (combined < N) {
+                    candidate = combined;
+                }
+
+            }
+
+        }
+
+        throw new IllegalStateException("No period of " + X + "^r mod " + N + " found in " +
+                MAX_ATTEMPTS + " runs of the period-finding circuit");
+
+    }
+
+    /**
+     * Writes the state of the counting register after the modular
+     * exponentiation and the measurement of the work register into the
+     * register, computing it classically rather than by simulating them
+     */
+    private static void prepareCountingRegister(StateVectorSimulator register, int X, int N, Random random) {
+
+        int dimension = register.getDimension();
+
+        // Measuring the work register gives f(x0) for a uniformly random x0
+        int measuredValue = (int) OrderFinding.powMod(X, random.nextInt(dimension), N);
+
+        // Evaluate f(x) for every x with one multiplication per step
+        int matches = 0;
+        long value = 1;
+        for (int x = 0; x < dimension; x++) {
+            if (value == measuredValue) {
+                matches++;
+            }
+            value = value * X % N;
+        }
+
+        double amplitude = 1 / Math.sqrt(matches);
+        double[] real = register.getState().getRealParts();
+        double[] imag = register.getState().getImaginaryParts();
+
+        value = 1;
+        for (int x = 0; x < dimension; x++) {
+            real[x] = value == measuredValue ? amplitude : 0;
+            imag[x] = 0;
+            value = value * X % N;
+        }
+
+    }
+
+}
@@ -0,0 +1,202 @@
+package core.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * The outcome counts of a batch of measurement shots, keeping only the
+ * outcomes which occurred: a sorted array of basis state indices and a
+ * parallel array of their counts. This stays small when the shots are few
+ * compared to the 2^n possible outcomes, unlike a dense array of counts or
+ * a list of bitstrings. Histograms are immutable.
+ * @version 0.1
+ */
+public final class ShotHistogram {
+
+    private final int[] outcomes;
+    private final long[] counts;
+    private final long shots;
+
+    /**
+     * Creates a histogram, taking ownership of the arrays
+     * @param outcomes The distinct outcomes, in increasing order
+     * @param counts The count of each outcome, all positive
+     */
+    ShotHistogram(int[] outcomes, long[] counts) {
+
+        this.outcomes = outcomes;
+        this.counts = counts;
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        this.shots = total;
+
+    }
+
+    /**
+     * Counts a batch of outcomes. Counting uses a dense array when there
+     * are few possible outcomes compared to shots, and sorting otherwise.
+     * @param samples The sampled outcomes, which may be reordered
+     * @param dimension The number of possible outcomes
+     * @return the histogram of the samples
+     */
+    static ShotHistogram count(int[] samples, int dimension) {
+
+        if (dimension <= 4L * samples.length) {
+            long[] dense = new long[dimension];
+            for (int sample : samples) {
+                dense[sample]++;
+            }
+            return fromDense(dense);
+        }
+
+        Arrays.sort(samples);
+        int distinct = 0;
+        for (int i = 0; i < samples.length; i++) {
+            if (i == 0 || samples[i] != samples[i - 1]) {
+                distinct++;
+            }
+        }
+        int[] outcomes = new int[distinct];
+        long[] counts = new long[distinct];
+        int next = -1;
+        for (int i = 0; i < samples.length; i++) {
+            if (i == 0 || samples[i] != samples[i - 1]) {
+                outcomes[++next] = samples[i];
+            }
+            counts[next]++;
+        }
+        return new ShotHistogram(outcomes, counts);
+
+    }
+
+    /**
+     * Creates a histogram from a count for every possible outcome
+     * @param dense The count of each outcome, indexed by outcome
+     * @return the histogram of the non-zero counts
+     */
+    static ShotHistogram fromDense(long[] dense) {
+
+        int distinct = 0;
+        for (long count : dense) {
+            if (count > 0) {
+                distinct++;
+            }
+        }
+        int[] outcomes = new int[distinct];
+        long[] counts = new long[distinct];
+        int next = 0;
+        for (int i = 0; i < dense.length; i++) {
+            if (dense[i] > 0) {
+                outcomes[next] = i;
+                counts[next++] = dense[i];
+            }
+        }
+        return new ShotHistogram(outcomes, counts);
+
+    }
+
+    /**
+     * Combines the counts of two histograms
+     * @param other The histogram to add to this one
+     * @return the new histogram with the shots of both
+     */
+    public ShotHistogram merge(ShotHistogram other) {
+
+        int[] mergedOutcomes = new int[outcomes.length + other.outcomes.length];
+        long[] mergedCounts = new long[mergedOutcomes.length];
+        int i = 0, j = 0, next = 0;
+        while (i < outcomes.length || j < other.outcomes.length) {
+            if (j == other.outcomes.length || (i < outcomes.length && outcomes[i] < other.outcomes[j])) {
+                mergedOutcomes[next] = outcomes[i];
+                mergedCounts[next++] = counts[i++];
+            } else if (i == outcomes.length || other.outcomes[j] < outcomes[i]) {
+                mergedOutcomes[next] = other.outcomes[j];
+                mergedCounts[next++] = other.counts[j++];
+            } else {
+                mergedOutcomes[next] = outcomes[i];
+                mergedCounts[next++] = counts[i++] + other.counts[j++];
+            }
+        }
+        return new ShotHistogram(Arrays.copyOf(mergedOutcomes, next), Arrays.copyOf(mergedCounts, next));
+
+    }
+
+    /**
+     * @return the total number of shots
+     */
+    public long getShots() {
+        return shots;
+    }
+
+    /**
+     * @return the number of distinct outcomes which occurred
+     */
+    public int size() {
+        return outcomes.length;
+    }
+
+    /**
+     * @return the distinct outcomes which occurred, in increasing order
+     */
+    public int[] getOutcomes() {
+        return outcomes.clone();
+    }
+
+    /**
+     * @return the count of each outcome of getOutcomes()
+     */
+    public long[] getCounts() {
+        return counts.clone();
+    }
+
+    /**
+     * Returns the number of shots which measured the given outcome
+     * @param outcome The index of a basis state
+     * @return the count of the outcome, 0 if it never occurred
+     */
+    public long getCount(int outcome) {
+        int index = Arrays.binarySearch(outcomes, outcome);
+        return index < 0 ? 0 : counts[index];
+    }
+
+    /**
+     * Returns the fraction of shots which measured the given outcome
+     * @param outcome The index of a basis state
+     * @return the frequency of the outcome, between 0 and 1
+     */
+    public double getFrequency(int outcome) {
+        return shots == 0 ? 0 : getCount(outcome) / (double) shots;
+    }
+
+    /**
+     * @return the outcome with the highest count (the lowest such outcome on ties), or -1 if there are no shots
+     */
+    public int getMostFrequent() {
+        int best = -1;
+        long bestCount = 0;
+        for (int i = 0; i < outcomes.length; i++) {
+            if (counts[i] > bestCount) {
+                best = outcomes[i];
+                bestCount = counts[i];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return a description of the histogram, such as "{0=503, 3=497}"
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < outcomes.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(outcomes[i]).append('=').append(counts[i]);
+        }
+        return builder.append('}').toString();
+    }
+
+}
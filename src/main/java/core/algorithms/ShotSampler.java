@@ -0,0 +1,272 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Draws measurement shots from a fixed distribution over basis states,
+ * such as the final state of a simulation. A Walker alias table is built
+ * once in O(2^n) (Vose's method), after which each shot costs two random
+ * numbers and one table lookup, rather than a scan or binary search of
+ * cumulative probabilities.
+ *
+ * Each column of the table packs its threshold, as a 32-bit fraction, and
+ * its alias into one long, so a shot touches one cache line of a table
+ * which for large registers is far bigger than the cache. The rounding of
+ * the thresholds shifts each probability by less than 2^-32 / 2^n.
+ *
+ * Large batches are drawn in chunks of CHUNK_SIZE shots, spread across a
+ * ForkJoinPool and counted into a ShotHistogram. Chunk i draws from its
+ * own generator, seeded from the i-th value of a generator with the given
+ * seed, so a batch only depends on the seed and not on the pool.
+ * @version 0.1
+ */
+public class ShotSampler {
+
+    /**
+     * The number of shots drawn by one task of a parallel batch
+     */
+    public static final int CHUNK_SIZE = 1 << 16;
+
+    /**
+     * The columns of the alias table: the probability of keeping the
+     * column's own outcome, as a fraction of 2^32, in the high 32 bits,
+     * and the outcome which fills the rest of the column in the low 32
+     */
+    private final long[] table;
+
+    /**
+     * Builds a sampler over the given (not necessarily normalised) weights
+     * @param probabilities The non-negative weight of each outcome
+     */
+    public ShotSampler(double[] probabilities) {
+
+        int n = probabilities.length;
+        if (n == 0) {
+            throw new InvalidParameterException("Cannot sample from an empty distribution");
+        }
+        double total = 0;
+        for (double p : probabilities) {
+            if (!(p >= 0) || Double.isInfinite(p)) {
+                throw new InvalidParameterException("Probabilities must be finite and non-negative, got " + p);
+            }
+            total += p;
+        }
+        if (total == 0) {
+            throw new InvalidParameterException("Cannot sample from a distribution of total weight 0");
+        }
+
+        double[] threshold = new double[n];
+        int[] alias = new int[n];
+
+        // Columns below and above the average height, as stacks of outcome indices
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0, largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            threshold[i] = probabilities[i] * n / total;
+            if (threshold[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        // Top up each short column from a tall one, which shrinks by the same amount
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[largeCount - 1];
+            alias[less] = more;
+            threshold[more] -= 1 - threshold[less];
+            if (threshold[more] < 1) {
+                largeCount--;
+                small[smallCount++] = more;
+            }
+        }
+
+        // What remains is full up to rounding
+        while (largeCount > 0) {
+            int more = large[--largeCount];
+            threshold[more] = 1;
+            alias[more] = more;
+        }
+        while (smallCount > 0) {
+            int less = small[--smallCount];
+            threshold[less] = 1;
+            alias[less] = less;
+        }
+
+        table = new long[n];
+        for (int i = 0; i < n; i++) {
+            long fraction = Math.min((long) (threshold[i] * 0x1p32), 0xFFFFFFFFL);
+            table[i] = fraction << 32 | alias[i];
+        }
+
+    }
+
+    /**
+     * Builds a sampler over the measurement outcomes of a register
+     * @param simulator The register in its final state
+     * @return the new sampler
+     */
+    public static ShotSampler of(StateVectorSimulator simulator) {
+        return new ShotSampler(simulator.getProbabilities());
+    }
+
+    /**
+     * Builds a sampler over the measurement outcomes of a density matrix
+     * @param simulator The register in its final state
+     * @return the new sampler
+     */
+    public static ShotSampler of(DensityMatrixSimulator simulator) {
+        double[] probabilities = simulator.getProbabilities();
+        for (int i = 0; i < probabilities.length; i++) {
+            // Rounding can leave the diagonal slightly negative
+            probabilities[i] = Math.max(probabilities[i], 0);
+        }
+        return new ShotSampler(probabilities);
+    }
+
+    /**
+     * @return the number of possible outcomes
+     */
+    public int getDimension() {
+        return table.length;
+    }
+
+    /**
+     * Draws one shot
+     * @param random The source of randomness
+     * @return the index of the measured basis state
+     */
+    public int sample(SplittableRandom random) {
+        int column = random.nextInt(table.length);
+        long entry = table[column];
+        return (random.nextInt() & 0xFFFFFFFFL) < entry >>> 32 ? column : (int) entry;
+    }
+
+    /**
+     * Draws a batch of shots
+     * @param shots The number of shots to draw
+     * @param random The source of randomness
+     * @return the measured basis state index of each shot
+     */
+    public int[] sample(int shots, SplittableRandom random) {
+        int[] outcomes = new int[shots];
+        for (int i = 0; i < shots; i++) {
+            outcomes[i] = sample(random);
+        }
+        return outcomes;
+    }
+
+    /**
+     * Draws a batch of shots in parallel on the common pool
+     * @param shots The number of shots to draw
+     * @param seed The seed for the randomness of the batch
+     * @return the histogram of the outcomes
+     */
+    public ShotHistogram histogram(long shots, long seed) {
+        return histogram(shots, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Draws a batch of shots in parallel
+     * @param shots The number of shots to draw
+     * @param seed The seed for the randomness of the batch
+     * @param pool The pool to draw the shots on
+     * @return the histogram of the outcomes
+     */
+    public ShotHistogram histogram(long shots, long seed, ForkJoinPool pool) {
+
+        if (shots < 0) {
+            throw new InvalidParameterException("Number of shots must be non-negative, got " + shots);
+        }
+        long chunks = (shots + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        if (chunks > Integer.MAX_VALUE) {
+            throw new InvalidParameterException("Too many shots: " + shots);
+        }
+        if (chunks == 0) {
+            return new ShotHistogram(new int[0], new long[0]);
+        }
+
+        long[] seeds = new long[(int) chunks];
+        SplittableRandom seeder = new SplittableRandom(seed);
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = seeder.nextLong();
+        }
+        // A few tasks per worker, each counting several chunks into one histogram
+        int leafChunks = (int) Math.max(1, chunks / (4L * pool.getParallelism()));
+        return pool.invoke(new ChunkTask(seeds, shots, leafChunks, 0, seeds.length));
+
+    }
+
+    /**
+     * Draws the shots of the chunks [from, to), splitting the range in
+     * halves until at most leafChunks are left. Since counts are integers,
+     * how the range is split does not change the histogram.
+     */
+    private final class ChunkTask extends RecursiveTask<ShotHistogram> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long[] seeds;
+        private final long shots;
+        private final int leafChunks;
+        private final int from;
+        private final int to;
+
+        ChunkTask(long[] seeds, long shots, int leafChunks, int from, int to) {
+            this.seeds = seeds;
+            this.shots = shots;
+            this.leafChunks = leafChunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ShotHistogram compute() {
+
+            if (to - from > leafChunks) {
+                int middle = (from + to) >>> 1;
+                ChunkTask left = new ChunkTask(seeds, shots, leafChunks, from, middle);
+                left.fork();
+                ShotHistogram right = new ChunkTask(seeds, shots, leafChunks, middle, to).compute();
+                return left.join().merge(right);
+            }
+
+            long first = (long) from * CHUNK_SIZE;
+            long count = Math.min((long) to * CHUNK_SIZE, shots) - first;
+            int dimension = table.length;
+
+            // Count into a dense array when it is not much larger than the shots
+            if (dimension <= 4 * count) {
+                long[] dense = new long[dimension];
+                for (int chunk = from; chunk < to; chunk++) {
+                    SplittableRandom random = new SplittableRandom(seeds[chunk]);
+                    long size = Math.min(CHUNK_SIZE, shots - (long) chunk * CHUNK_SIZE);
+                    for (long i = 0; i < size; i++) {
+                        dense[sample(random)]++;
+                    }
+                }
+                return ShotHistogram.fromDense(dense);
+            }
+
+            int[] samples = new int[(int) count];
+            int next = 0;
+            for (int chunk = from; chunk < to; chunk++) {
+                SplittableRandom random = new SplittableRandom(seeds[chunk]);
+                int size = (int) Math.min(CHUNK_SIZE, shots - (long) chunk * CHUNK_SIZE);
+                for (int i = 0; i < size; i++) {
+                    samples[next++] = sample(random);
+                }
+            }
+            return ShotHistogram.count(samples, dimension);
+
+        }
+
+    }
+
+}
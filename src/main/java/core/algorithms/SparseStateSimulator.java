@@ -0,0 +1,787 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+import core.util.ComplexMatrix;
+import core.util.ComplexVector;
+import core.util.DoubleComplex;
+import core.util.LongComplexMap;
+import core.util.LongIntMap;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * A simulator for registers of up to 63 qubits whose states have few
+ * non-zero amplitudes, such as those made by classical reversible circuits
+ * (modular exponentiation, for one) from a small superposition. Only the
+ * non-zero amplitudes are held, in a LongComplexMap from basis state index
+ * to amplitude, so memory grows with their number rather than with 2^n.
+ *
+ * Gates are applied according to their shape:
+ *
+ * 1. Diagonal gates (Z, S, T, phases) multiply amplitudes in place.
+ * 2. Permutation gates (X, CNOT, Toffoli, SWAP, and any classical
+ *    reversible function through permute()) rewrite keys, so they never
+ *    change the number of amplitudes.
+ * 3. Other gates mix the amplitudes of each pair (or quadruple) of basis
+ *    states, writing every one once, so amplitudes that cancel are dropped.
+ *
+ * A gate of the third kind can fill in the state. Once more than
+ * getDensityThreshold() of the 2^n amplitudes are non-zero, a register of
+ * at most getMaxDenseQubits() qubits moves to a StateVectorSimulator,
+ * whose array kernels are faster when most amplitudes are there anyway,
+ * and every later operation is run by it.
+ *
+ * Qubit 0 is the least significant bit of a basis state index, as in
+ * StateVectorSimulator.
+ * @version 0.1
+ */
+public class SparseStateSimulator {
+
+    /**
+     * The largest register whose basis states fit in a long
+     */
+    public static final int MAX_QUBITS = 63;
+
+    /**
+     * The default fraction of non-zero amplitudes above which the register
+     * becomes dense; a sparse amplitude takes about three times the memory
+     * of a dense one
+     */
+    public static final double DEFAULT_DENSITY_THRESHOLD = 0.125;
+
+    /**
+     * The default largest register which becomes dense, 2^26 amplitudes in 1 GB
+     */
+    public static final int DEFAULT_MAX_DENSE_QUBITS = 26;
+
+    /**
+     * The probability below which an amplitude is treated as zero and dropped
+     */
+    public static final double ZERO = 1e-26;
+
+    private final int qubits;
+
+    /**
+     * The non-zero amplitudes while the register is sparse, and the map the
+     * next gate writes into; both are null once the register is dense
+     */
+    private LongComplexMap amplitudes;
+    private LongComplexMap spare;
+
+    /**
+     * The register once it has become dense
+     */
+    private StateVectorSimulator dense;
+
+    private double densityThreshold = DEFAULT_DENSITY_THRESHOLD;
+    private int maxDenseQubits = DEFAULT_MAX_DENSE_QUBITS;
+
+    /**
+     * Creates a register of the given number of qubits in the state |0...0&gt;
+     * @param qubits The number of qubits in the register
+     */
+    public SparseStateSimulator(int qubits) {
+
+        if (qubits < 1 || qubits > MAX_QUBITS) {
+            throw new InvalidParameterException("Number of qubits must be between 1 and " + MAX_QUBITS);
+        }
+
+        this.qubits = qubits;
+        this.amplitudes = new LongComplexMap(16);
+        this.spare = new LongComplexMap(16);
+        this.amplitudes.add(0, 1, 0);
+
+    }
+
+    /**
+     * @return the number of qubits in the register
+     */
+    public int getQubitCount() {
+        return qubits;
+    }
+
+    /**
+     * @return true if the register has moved to a dense state vector
+     */
+    public boolean isDense() {
+        return dense != null;
+    }
+
+    /**
+     * Returns the number of non-zero amplitudes, which while the register is
+     * sparse is the number held
+     * @return the number of basis states with a non-zero amplitude
+     */
+    public long getNonZeroCount() {
+
+        if (dense == null) {
+            return amplitudes.size();
+        }
+        long count = 0;
+        for (int i = 0; i < dense.getDimension(); i++) {
+            if (dense.getProbability(i) >= ZERO) {
+                count++;
+            }
+        }
+        return count;
+
+    }
+
+    /**
+     * Sets when the register moves to a dense state vector
+     * @param maxQubits The largest register which may become dense, at most
+     *                  StateVectorSimulator.MAX_QUBITS; 0 to stay sparse
+     * @param density The fraction of non-zero amplitudes above which it does
+     */
+    public void setDenseFallback(int maxQubits, double density) {
+
+        if (maxQubits < 0 || maxQubits > StateVectorSimulator.MAX_QUBITS || density <= 0 || density > 1) {
+            throw new InvalidParameterException("Expected at most " + StateVectorSimulator.MAX_QUBITS +
+                    " qubits and a density in (0, 1]");
+        }
+        this.maxDenseQubits = maxQubits;
+        this.densityThreshold = density;
+
+    }
+
+    /**
+     * @return the fraction of non-zero amplitudes above which the register becomes dense
+     */
+    public double getDensityThreshold() {
+        return densityThreshold;
+    }
+
+    /**
+     * @return the largest register which becomes dense
+     */
+    public int getMaxDenseQubits() {
+        return maxDenseQubits;
+    }
+
+    /**
+     * Returns the amplitude of the given basis state
+     * @param index The index of the basis state
+     * @return the amplitude of the basis state
+     */
+    public DoubleComplex getAmplitude(long index) {
+
+        checkIndex(index);
+        if (dense != null) {
+            return dense.getAmplitude((int) index);
+        }
+        int slot = amplitudes.find(index);
+        return slot < 0 ? DoubleComplex.ZERO : new DoubleComplex(amplitudes.realAt(slot), amplitudes.imagAt(slot));
+
+    }
+
+    /**
+     * Returns the probability of measuring the given basis state
+     * @param index The index of the basis state
+     * @return the probability of the basis state
+     */
+    public double getProbability(long index) {
+
+        checkIndex(index);
+        if (dense != null) {
+            return dense.getProbability((int) index);
+        }
+        int slot = amplitudes.find(index);
+        return slot < 0 ? 0 : probabilityAt(amplitudes, slot);
+
+    }
+
+    /**
+     * Returns a copy of the state as a dense vector, for registers small
+     * enough to have one
+     * @return the state vector of 2^n amplitudes
+     */
+    public ComplexVector toStateVector() {
+
+        if (qubits > StateVectorSimulator.MAX_QUBITS) {
+            throw new InvalidParameterException("A register of " + qubits + " qubits has no dense state vector");
+        }
+        if (dense != null) {
+            return dense.getState().copy();
+        }
+        ComplexVector state = new ComplexVector(1 << qubits);
+        for (int slot = 0; slot < amplitudes.getSlotCount(); slot++) {
+            if (amplitudes.isUsed(slot)) {
+                state.set((int) amplitudes.keyAt(slot), amplitudes.realAt(slot), amplitudes.imagAt(slot));
+            }
+        }
+        return state;
+
+    }
+
+    /**
+     * Applies a single-qubit gate to the target qubit
+     * @param gate The 2x2 matrix of the gate
+     * @param target The qubit to apply the gate to
+     */
+    public void applyGate(ComplexMatrix gate, int target) {
+
+        checkQubit(target);
+        if (dense != null) {
+            dense.applyGate(gate, target);
+        } else {
+            applySingle(gate, 0, target);
+        }
+
+    }
+
+    /**
+     * Applies a single-qubit gate to the target qubit, conditioned on the
+     * control qubit being |1&gt;
+     * @param gate The 2x2 matrix of the gate
+     * @param control The control qubit
+     * @param target The qubit to apply the gate to
+     */
+    public void applyControlledGate(ComplexMatrix gate, int control, int target) {
+
+        checkQubits(control, target);
+        if (dense != null) {
+            dense.applyControlledGate(gate, control, target);
+        } else {
+            applySingle(gate, 1L << control, target);
+        }
+
+    }
+
+    /**
+     * Applies a two-qubit gate. The rows and columns of the gate are
+     * indexed by 2 * q1 + q0, where q1 and q0 are the values of qubit1
+     * and qubit0 respectively.
+     * @param gate The 4x4 matrix of the gate
+     * @param qubit1 The qubit which is the most significant bit of the gate basis
+     * @param qubit0 The qubit which is the least significant bit of the gate basis
+     */
+    public void applyTwoQubitGate(ComplexMatrix gate, int qubit1, int qubit0) {
+
+        checkQubits(qubit1, qubit0);
+        checkGate(gate, 4);
+        if (dense != null) {
+            dense.applyTwoQubitGate(gate, qubit1, qubit0);
+            return;
+        }
+
+        double[] mRe = gate.getRealParts();
+        double[] mIm = gate.getImaginaryParts();
+        long bit1 = 1L << qubit1;
+        long bit0 = 1L << qubit0;
+        long[] members = new long[4];
+        double[] re = new double[4];
+        double[] im = new double[4];
+
+        spare.clear();
+        for (int slot = 0; slot < amplitudes.getSlotCount(); slot++) {
+
+            if (!amplitudes.isUsed(slot)) {
+                continue;
+            }
+
+            // Each quadruple is written once, from the first of its members which is held
+            long key = amplitudes.keyAt(slot);
+            long group = key & ~bit1 & ~bit0;
+            members[0] = group;
+            members[1] = group | bit0;
+            members[2] = group | bit1;
+            members[3] = group | bit1 | bit0;
+            boolean first = true;
+            for (int j = 0; j < 4; j++) {
+                int found = members[j] == key ? slot : amplitudes.find(members[j]);
+                if (found >= 0 && members[j] < key) {
+                    first = false;
+                    break;
+                }
+                re[j] = found < 0 ? 0 : amplitudes.realAt(found);
+                im[j] = found < 0 ? 0 : amplitudes.imagAt(found);
+            }
+            if (!first) {
+                continue;
+            }
+
+            for (int r = 0; r < 4; r++) {
+                double sumRe = 0;
+                double sumIm = 0;
+                for (int c = 0; c < 4; c++) {
+                    sumRe += mRe[4 * r + c] * re[c] - mIm[4 * r + c] * im[c];
+                    sumIm += mRe[4 * r + c] * im[c] + mIm[4 * r + c] * re[c];
+                }
+                put(spare, members[r], sumRe, sumIm);
+            }
+
+        }
+        swapMaps();
+        checkDensity();
+
+    }
+
+    /**
+     * Applies the Hadamard gate to the target qubit
+     * @param target The qubit to apply the gate to
+     */
+    public void hadamard(int target) {
+        applyGate(Gates.hadamard(), target);
+    }
+
+    /**
+     * Applies the Pauli X (NOT) gate to the target qubit
+     * @param target The qubit to apply the gate to
+     */
+    public void pauliX(int target) {
+        applyGate(Gates.pauliX(), target);
+    }
+
+    /**
+     * Applies the Pauli Z gate to the target qubit
+     * @param target The qubit to apply the gate to
+     */
+    public void pauliZ(int target) {
+        applyGate(Gates.pauliZ(), target);
+    }
+
+    /**
+     * Applies the phase shift diag(1, e^(i theta)) to the target qubit
+     * @param target The qubit to apply the gate to
+     * @param radians The phase theta
+     */
+    public void phase(int target, double radians) {
+        applyGate(Gates.phase(radians), target);
+    }
+
+    /**
+     * Applies the controlled NOT gate
+     * @param control The control qubit
+     * @param target The qubit which is flipped when control is |1&gt;
+     */
+    public void cnot(int control, int target) {
+        applyControlledGate(Gates.pauliX(), control, target);
+    }
+
+    /**
+     * Applies the Toffoli gate, which flips the target when both controls are |1&gt;
+     * @param control1 The first control qubit
+     * @param control0 The second control qubit
+     * @param target The qubit which is flipped
+     */
+    public void toffoli(int control1, int control0, int target) {
+
+        checkQubits(control1, control0);
+        checkQubits(control1, target);
+        checkQubits(control0, target);
+        long controls = 1L << control1 | 1L << control0;
+        long bit = 1L << target;
+        permute(key -> (key & controls) == controls ? key ^ bit : key);
+
+    }
+
+    /**
+     * Applies the controlled phase shift, which multiplies |11&gt; by e^(i theta)
+     * @param control The control qubit
+     * @param target The target qubit
+     * @param radians The phase theta
+     */
+    public void controlledPhase(int control, int target, double radians) {
+        applyControlledGate(Gates.phase(radians), control, target);
+    }
+
+    /**
+     * Swaps the states of two qubits
+     * @param qubit1 The first qubit
+     * @param qubit0 The second qubit
+     */
+    public void swap(int qubit1, int qubit0) {
+
+        checkQubits(qubit1, qubit0);
+        permute(key -> ((key >>> qubit1 ^ key >>> qubit0) & 1) == 0 ? key : key ^ (1L << qubit1 | 1L << qubit0));
+
+    }
+
+    /**
+     * Applies a classical reversible gate, which maps each basis state |i&gt;
+     * to |permutation(i)&gt;, by rewriting the key of every amplitude
+     * @param permutation A bijection of the basis state indices [0, 2^n)
+     */
+    public void permute(LongUnaryOperator permutation) {
+
+        if (dense != null) {
+            dense.permute(i -> (int) permutation.applyAsLong(i));
+            return;
+        }
+
+        spare.clear();
+        for (int slot = 0; slot < amplitudes.getSlotCount(); slot++) {
+            if (amplitudes.isUsed(slot)) {
+                long key = permutation.applyAsLong(amplitudes.keyAt(slot));
+                checkIndex(key);
+                spare.add(key, amplitudes.realAt(slot), amplitudes.imagAt(slot));
+            }
+        }
+        if (spare.size() != amplitudes.size()) {
+            throw new InvalidParameterException("Not a permutation: two basis states map to the same one");
+        }
+        swapMaps();
+
+    }
+
+    /**
+     * Applies the quantum Fourier transform to the qubits low, ..., low + count - 1,
+     * mapping |x&gt; to sum_y e^(2 pi i x y / 2^m) |y&gt; / sqrt(2^m) (see QuantumFourierTransform)
+     * @param low The qubit which is the least significant bit of the register
+     * @param count The number of qubits in the register, m
+     */
+    public void qft(int low, int count) {
+        fourier(low, count, false);
+    }
+
+    /**
+     * Applies the inverse quantum Fourier transform to the qubits low, ..., low + count - 1
+     * @param low The qubit which is the least significant bit of the register
+     * @param count The number of qubits in the register, m
+     */
+    public void inverseQft(int low, int count) {
+        fourier(low, count, true);
+    }
+
+    /**
+     * Measures a single qubit in the computational basis, collapsing
+     * and renormalizing the state accordingly
+     * @param target The qubit to measure
+     * @param random The source of randomness for the measurement
+     * @return the measured value, 0 or 1
+     */
+    public int measure(int target, Random random) {
+
+        checkQubit(target);
+        if (dense != null) {
+            return dense.measure(target, random);
+        }
+
+        long bit = 1L << target;
+        double probabilityOne = 0;
+        for (int slot = 0; slot < amplitudes.getSlotCount(); slot++) {
+            if (amplitudes.isUsed(slot) && (amplitudes.keyAt(slot) & bit) != 0) {
+                probabilityOne += probabilityAt(amplitudes, slot);
+            }
+        }
+
+        int outcome = random.nextDouble() < probabilityOne ? 1 : 0;
+        double scale = 1 / Math.sqrt(outcome == 1 ? probabilityOne : 1 - probabilityOne);
+
+        spare.clear();
+        for (int slot = 0; slot < amplitudes.getSlotCount(); slot++) {
+            if (amplitudes.isUsed(slot) && ((amplitudes.keyAt(slot) & bit) != 0) == (outcome == 1)) {
+                spare.add(amplitudes.keyAt(slot), amplitudes.realAt(slot) * scale, amplitudes.imagAt(slot) * scale);
+            }
+        }
+        swapMaps();
+        return outcome;
+
+    }
+
+    /**
+     * Measures the qubits low, ..., low + count - 1 in the computational
+     * basis, one at a time, collapsing the state accordingly
+     * @param low The qubit which is the least significant bit of the register
+     * @param count The number of qubits in the register
+     * @param random The source of randomness for the measurements
+     * @return the measured value of the register
+     */
+    public long measure(int low, int count, Random random) {
+
+        checkRegister(low, count);
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value |= (long) measure(low + i, random) << i;
+        }
+        return value;
+
+    }
+
+    /**
+     * Samples measurements of the whole register without collapsing the state
+     * @param shots The number of measurements to sample
+     * @param random The source of randomness for the measurements
+     * @return the measured basis state index of each shot
+     */
+    public long[] sample(int shots, Random random) {
+
+        long[] outcomes = new long[shots];
+        if (dense != null) {
+            int[] sampled = dense.sample(shots, random);
+            for (int shot = 0; shot < shots; shot++) {
+                outcomes[shot] = sampled[shot];
+            }
+            return outcomes;
+        }
+
+        // Cumulative distribution over the held amplitudes, searched once per shot
+        long[] keys = new long[amplitudes.size()];
+        double[] cumulative = new double[amplitudes.size()];
+        int count = 0;
+        double total = 0;
+        for (int slot = 0; slot < amplitudes.getSlotCount(); slot++) {
+            if (amplitudes.isUsed(slot)) {
+                total += probabilityAt(amplitudes, slot);
+                keys[count] = amplitudes.keyAt(slot);
+                cumulative[count++] = total;
+            }
+        }
+
+        for (int shot = 0; shot < shots; shot++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            outcomes[shot] = keys[Math.min(index, count - 1)];
+        }
+        return outcomes;
+
+    }
+
+    /**
+     * Applies the 2x2 gate [[a, b], [c, d]] to the target qubit of the basis
+     * states with every control bit set, by the shape of the gate
+     */
+    private void applySingle(ComplexMatrix gate, long controls, int target) {
+
+        checkGate(gate, 2);
+        double[] gRe = gate.getRealParts();
+        double[] gIm = gate.getImaginaryParts();
+        double aRe = gRe[0], aIm = gIm[0], bRe = gRe[1], bIm = gIm[1];
+        double cRe = gRe[2], cIm = gIm[2], dRe = gRe[3], dIm = gIm[3];
+        long bit = 1L << target;
+        boolean hasOffDiagonal = bRe != 0 || bIm != 0 || cRe != 0 || cIm != 0;
+        boolean hasDiagonal = aRe != 0 || aIm != 0 || dRe != 0 || dIm != 0;
+
+        if (!hasOffDiagonal) {
+            // A diagonal gate multiplies each amplitude by a or d in place
+            for (int slot = 0; slot < amplitudes.getSlotCount(); slot++) {
+                if (amplitudes.isUsed(slot) && (amplitudes.keyAt(slot) & controls) == controls) {
+                    boolean one = (amplitudes.keyAt(slot) & bit) != 0;
+                    double re = amplitudes.realAt(slot);
+                    double im = amplitudes.imagAt(slot);
+                    double mRe = one ? dRe : aRe;
+                    double mIm = one ? dIm : aIm;
+                    amplitudes.setAt(slot, mRe * re - mIm * im, mRe * im + mIm * re);
+                }
+            }
+            return;
+        }
+
+        spare.clear();
+        for (int slot = 0; slot < amplitudes.getSlotCount(); slot++) {
+
+            if (!amplitudes.isUsed(slot)) {
+                continue;
+            }
+            long key = amplitudes.keyAt(slot);
+            double re = amplitudes.realAt(slot);
+            double im = amplitudes.imagAt(slot);
+            if ((key & controls) != controls) {
+                spare.add(key, re, im);
+                continue;
+            }
+
+            if (!hasDiagonal) {
+                // A gate [[0, b], [c, 0]] moves each amplitude to the other half of its pair
+                double mRe = (key & bit) != 0 ? bRe : cRe;
+                double mIm = (key & bit) != 0 ? bIm : cIm;
+                spare.add(key ^ bit, mRe * re - mIm * im, mRe * im + mIm * re);
+                continue;
+            }
+
+            // Each pair is written once, from its |0> half if that is held
+            int partner = amplitudes.find(key ^ bit);
+            if ((key & bit) != 0 && partner >= 0) {
+                continue;
+            }
+            double re0 = re, im0 = im, re1 = 0, im1 = 0;
+            if ((key & bit) != 0) {
+                re1 = re;
+                im1 = im;
+                re0 = 0;
+                im0 = 0;
+            } else if (partner >= 0) {
+                re1 = amplitudes.realAt(partner);
+                im1 = amplitudes.imagAt(partner);
+            }
+            long key0 = key & ~bit;
+            put(spare, key0, aRe * re0 - aIm * im0 + bRe * re1 - bIm * im1,
+                    aRe * im0 + aIm * re0 + bRe * im1 + bIm * re1);
+            put(spare, key0 | bit, cRe * re0 - cIm * im0 + dRe * re1 - dIm * im1,
+                    cRe * im0 + cIm * re0 + dRe * im1 + dIm * re1);
+
+        }
+        swapMaps();
+        if (hasDiagonal) {
+            checkDensity();
+        }
+
+    }
+
+    /**
+     * Applies the FFT to the register in every group of basis states which
+     * agree outside it. Each group held is gathered into a dense buffer of
+     * 2^m amplitudes, transformed, and its non-zero amplitudes written back.
+     */
+    private void fourier(int low, int count, boolean inverse) {
+
+        checkRegister(low, count);
+        if (dense != null) {
+            int[] register = new int[count];
+            for (int i = 0; i < count; i++) {
+                register[i] = low + i;
+            }
+            if (inverse) {
+                dense.inverseQft(register);
+            } else {
+                dense.qft(register);
+            }
+            return;
+        }
+        if (count > StateVectorSimulator.MAX_QUBITS) {
+            throw new InvalidParameterException("Cannot transform a register of more than " +
+                    StateVectorSimulator.MAX_QUBITS + " qubits");
+        }
+
+        int size = 1 << count;
+        long field = (size - 1L) << low;
+        double[] re = new double[size];
+        double[] im = new double[size];
+        LongIntMap done = new LongIntMap(amplitudes.size());
+
+        spare.clear();
+        for (int slot = 0; slot < amplitudes.getSlotCount(); slot++) {
+
+            if (!amplitudes.isUsed(slot)) {
+                continue;
+            }
+            long group = amplitudes.keyAt(slot) & ~field;
+            if (!done.putIfAbsent(group, 0)) {
+                continue;
+            }
+
+            for (int x = 0; x < size; x++) {
+                int found = amplitudes.find(group | (long) x << low);
+                re[x] = found < 0 ? 0 : amplitudes.realAt(found);
+                im[x] = found < 0 ? 0 : amplitudes.imagAt(found);
+            }
+            if (inverse) {
+                QuantumFourierTransform.inverse(re, im, 0, count, null);
+            } else {
+                QuantumFourierTransform.transform(re, im, 0, count, null);
+            }
+            for (int y = 0; y < size; y++) {
+                put(spare, group | (long) y << low, re[y], im[y]);
+            }
+
+        }
+        swapMaps();
+        checkDensity();
+
+    }
+
+    /**
+     * Writes an amplitude into the map unless it is zero
+     */
+    private static void put(LongComplexMap map, long key, double re, double im) {
+        if (re * re + im * im >= ZERO) {
+            map.add(key, re, im);
+        }
+    }
+
+    private static double probabilityAt(LongComplexMap map, int slot) {
+        double re = map.realAt(slot);
+        double im = map.imagAt(slot);
+        return re * re + im * im;
+    }
+
+    /**
+     * Makes the map the last gate wrote into the state, keeping the old one for the next
+     */
+    private void swapMaps() {
+        LongComplexMap written = spare;
+        spare = amplitudes;
+        amplitudes = written;
+    }
+
+    /**
+     * Moves the register to a dense state vector if enough of it is non-zero
+     */
+    private void checkDensity() {
+
+        if (qubits > maxDenseQubits || amplitudes.size() <= densityThreshold * (1L << qubits)) {
+            return;
+        }
+
+        dense = new StateVectorSimulator(qubits);
+        double[] real = dense.getState().getRealParts();
+        double[] imag = dense.getState().getImaginaryParts();
+        real[0] = 0;
+        for (int slot = 0; slot < amplitudes.getSlotCount(); slot++) {
+            if (amplitudes.isUsed(slot)) {
+                int index = (int) amplitudes.keyAt(slot);
+                real[index] = amplitudes.realAt(slot);
+                imag[index] = amplitudes.imagAt(slot);
+            }
+        }
+        amplitudes = null;
+        spare = null;
+
+    }
+
+    /**
+     * Makes sure the given qubit is within the register
+     */
+    private void checkQubit(int qubit) {
+        if (qubit < 0 || qubit >= qubits) {
+            throw new InvalidParameterException("Qubit " + qubit + " is outside of the " +
+                    qubits + " qubit register");
+        }
+    }
+
+    /**
+     * Makes sure the given qubits are distinct and within the register
+     */
+    private void checkQubits(int first, int second) {
+        checkQubit(first);
+        checkQubit(second);
+        if (first == second) {
+            throw new InvalidParameterException("A two-qubit gate needs two distinct qubits");
+        }
+    }
+
+    /**
+     * Makes sure the qubits low, ..., low + count - 1 are within the register
+     */
+    private void checkRegister(int low, int count) {
+        if (count < 1) {
+            throw new InvalidParameterException("A register needs at least one qubit");
+        }
+        checkQubit(low);
+        checkQubit(low + count - 1);
+    }
+
+    /**
+     * Makes sure the basis state index is within the register
+     */
+    private void checkIndex(long index) {
+        if (index < 0 || (qubits < 63 && index >>> qubits != 0)) {
+            throw new InvalidParameterException("Basis state " + index + " is outside of the " +
+                    qubits + " qubit register");
+        }
+    }
+
+    /**
+     * Makes sure the gate is a square matrix of the given size
+     */
+    private static void checkGate(ComplexMatrix gate, int size) {
+        if (gate.getRows() != size || gate.getColumns() != size) {
+            throw new InvalidParameterException("Expected a " + size + "x" + size + " gate");
+        }
+    }
+
+}
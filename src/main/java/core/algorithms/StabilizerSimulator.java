@@ -0,0 +1,433 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A stabilizer (Clifford) simulator using the tableau of Aaronson and
+ * Gottesman ("Improved simulation of stabilizer circuits", 2004). An n
+ * qubit stabilizer state is described by n destabilizer and n stabilizer
+ * generators, each a Pauli string stored as an X bit and a Z bit per qubit
+ * plus a sign. Gates cost O(n) and measurements O(n^2), with memory
+ * O(n^2) bits instead of the 2^n amplitudes of a state vector, so circuits
+ * of thousands of qubits are cheap as long as they only use Clifford gates.
+ *
+ * Rows are packed 64 qubits to a long, so multiplying two generators
+ * (the rowsum of the paper, including its phase) is done a word at a time.
+ * Row 2n is scratch space for deterministic measurements.
+ * @version 0.1
+ */
+public class StabilizerSimulator {
+
+    private final int qubits;
+
+    /**
+     * The number of longs per row
+     */
+    private final int words;
+
+    /**
+     * The X and Z bits of the 2n + 1 rows, row-major, words longs per row
+     */
+    private final long[] x;
+    private final long[] z;
+
+    /**
+     * The sign of each row, true for -1
+     */
+    private final boolean[] sign;
+
+    /**
+     * Creates a register of the given number of qubits in the state |0...0&gt;,
+     * whose destabilizers are X_i and stabilizers Z_i
+     * @param qubits The number of qubits in the register
+     */
+    public StabilizerSimulator(int qubits) {
+
+        if (qubits < 1) {
+            throw new InvalidParameterException("Number of qubits must be positive");
+        }
+
+        this.qubits = qubits;
+        this.words = (qubits + 63) >>> 6;
+        this.x = new long[(2 * qubits + 1) * words];
+        this.z = new long[(2 * qubits + 1) * words];
+        this.sign = new boolean[2 * qubits + 1];
+
+        for (int i = 0; i < qubits; i++) {
+            x[i * words + (i >>> 6)] = 1L << i;
+            z[(qubits + i) * words + (i >>> 6)] = 1L << i;
+        }
+
+    }
+
+    private StabilizerSimulator(StabilizerSimulator other) {
+        this.qubits = other.qubits;
+        this.words = other.words;
+        this.x = other.x.clone();
+        this.z = other.z.clone();
+        this.sign = other.sign.clone();
+    }
+
+    /**
+     * @return an independent copy of this register
+     */
+    public StabilizerSimulator copy() {
+        return new StabilizerSimulator(this);
+    }
+
+    /**
+     * @return the number of qubits in the register
+     */
+    public int getQubitCount() {
+        return qubits;
+    }
+
+    /**
+     * Applies each gate of the list in order
+     * @param gates The gates to apply
+     */
+    public void apply(List<CliffordGate> gates) {
+        for (CliffordGate gate : gates) {
+            gate.applyTo(this);
+        }
+    }
+
+    /**
+     * Applies the Hadamard gate, which exchanges X and Z
+     * @param target The qubit to apply the gate to
+     */
+    public void hadamard(int target) {
+
+        checkQubit(target);
+        int word = target >>> 6;
+        long mask = 1L << target;
+        for (int row = 0; row < 2 * qubits; row++) {
+            int index = row * words + word;
+            long xBit = x[index] & mask;
+            long zBit = z[index] & mask;
+            sign[row] ^= (xBit & zBit) != 0;
+            x[index] ^= xBit ^ zBit;
+            z[index] ^= xBit ^ zBit;
+        }
+
+    }
+
+    /**
+     * Applies the phase gate S = diag(1, i), which maps X to Y
+     * @param target The qubit to apply the gate to
+     */
+    public void phase(int target) {
+
+        checkQubit(target);
+        int word = target >>> 6;
+        long mask = 1L << target;
+        for (int row = 0; row < 2 * qubits; row++) {
+            int index = row * words + word;
+            long xBit = x[index] & mask;
+            sign[row] ^= (xBit & z[index]) != 0;
+            z[index] ^= xBit;
+        }
+
+    }
+
+    /**
+     * Applies the inverse phase gate diag(1, -i), as S^3
+     * @param target The qubit to apply the gate to
+     */
+    public void phaseDagger(int target) {
+        pauliZ(target);
+        phase(target);
+    }
+
+    /**
+     * Applies the Pauli X gate, which negates the generators containing Z or Y
+     * @param target The qubit to apply the gate to
+     */
+    public void pauliX(int target) {
+        conjugateByPauli(target, false, true);
+    }
+
+    /**
+     * Applies the Pauli Y gate, which negates the generators containing X or Z
+     * @param target The qubit to apply the gate to
+     */
+    public void pauliY(int target) {
+        conjugateByPauli(target, true, true);
+    }
+
+    /**
+     * Applies the Pauli Z gate, which negates the generators containing X or Y
+     * @param target The qubit to apply the gate to
+     */
+    public void pauliZ(int target) {
+        conjugateByPauli(target, true, false);
+    }
+
+    /**
+     * Applies the controlled NOT gate
+     * @param control The control qubit
+     * @param target The qubit which is flipped when control is |1&gt;
+     */
+    public void cnot(int control, int target) {
+
+        checkQubits(control, target);
+        int controlWord = control >>> 6;
+        int targetWord = target >>> 6;
+        int controlShift = control & 63;
+        int targetShift = target & 63;
+
+        for (int row = 0; row < 2 * qubits; row++) {
+            int base = row * words;
+            long xa = (x[base + controlWord] >>> controlShift) & 1;
+            long za = (z[base + controlWord] >>> controlShift) & 1;
+            long xb = (x[base + targetWord] >>> targetShift) & 1;
+            long zb = (z[base + targetWord] >>> targetShift) & 1;
+            sign[row] ^= (xa & zb & (xb ^ za ^ 1)) != 0;
+            x[base + targetWord] ^= xa << targetShift;
+            z[base + controlWord] ^= zb << controlShift;
+        }
+
+    }
+
+    /**
+     * Applies the controlled Z gate, as H CNOT H on the target
+     * @param control The control qubit
+     * @param target The target qubit
+     */
+    public void cz(int control, int target) {
+        hadamard(target);
+        cnot(control, target);
+        hadamard(target);
+    }
+
+    /**
+     * Swaps the states of two qubits
+     * @param qubit1 The first qubit
+     * @param qubit0 The second qubit
+     */
+    public void swap(int qubit1, int qubit0) {
+
+        checkQubits(qubit1, qubit0);
+        for (int row = 0; row < 2 * qubits; row++) {
+            swapBits(x, row * words, qubit1, qubit0);
+            swapBits(z, row * words, qubit1, qubit0);
+        }
+
+    }
+
+    /**
+     * Returns true if measuring the qubit would give a certain outcome, i.e.
+     * no stabilizer generator anticommutes with Z on it
+     * @param target The qubit to check
+     * @return true if the measurement outcome is deterministic
+     */
+    public boolean isDeterministic(int target) {
+        checkQubit(target);
+        return findAnticommuting(target) < 0;
+    }
+
+    /**
+     * Measures a qubit in the computational basis, collapsing the state
+     * @param target The qubit to measure
+     * @param random The source of randomness for a random outcome
+     * @return the measured value, 0 or 1
+     */
+    public int measure(int target, Random random) {
+
+        checkQubit(target);
+        int word = target >>> 6;
+        long mask = 1L << target;
+        int p = findAnticommuting(target);
+
+        if (p >= 0) {
+
+            // Random outcome: every other row which anticommutes is multiplied by row p
+            for (int row = 0; row < 2 * qubits; row++) {
+                if (row != p && (x[row * words + word] & mask) != 0) {
+                    rowMultiply(row, p);
+                }
+            }
+
+            // The destabilizer becomes the old stabilizer, which becomes +-Z_target
+            copyRow(p, p - qubits);
+            clearRow(p);
+            z[p * words + word] = mask;
+            boolean outcome = random.nextBoolean();
+            sign[p] = outcome;
+            return outcome ? 1 : 0;
+
+        }
+
+        // Deterministic outcome: the product of the stabilizers picked out by the destabilizers
+        int scratch = 2 * qubits;
+        clearRow(scratch);
+        for (int i = 0; i < qubits; i++) {
+            if ((x[i * words + word] & mask) != 0) {
+                rowMultiply(scratch, i + qubits);
+            }
+        }
+        return sign[scratch] ? 1 : 0;
+
+    }
+
+    /**
+     * Measures every qubit, collapsing the state
+     * @param random The source of randomness for random outcomes
+     * @return the outcomes packed into longs, qubit q being bit (q % 64) of word q / 64
+     */
+    public long[] measureAll(Random random) {
+
+        long[] outcomes = new long[words];
+        for (int q = 0; q < qubits; q++) {
+            if (measure(q, random) == 1) {
+                outcomes[q >>> 6] |= 1L << q;
+            }
+        }
+        return outcomes;
+
+    }
+
+    /**
+     * Runs the gates on a new register of the given size, then measures
+     * every qubit the given number of times, each shot on a fresh copy of
+     * the tableau after the gates
+     * @param qubits The number of qubits of the register
+     * @param gates The gates to apply, in order
+     * @param shots The number of shots
+     * @param random The source of randomness for the measurements
+     * @return the outcomes of each shot, packed as in measureAll
+     */
+    public static long[][] sample(int qubits, List<CliffordGate> gates, int shots, Random random) {
+
+        if (shots < 0) {
+            throw new InvalidParameterException("Number of shots must be non-negative");
+        }
+
+        StabilizerSimulator prepared = new StabilizerSimulator(qubits);
+        prepared.apply(gates);
+
+        long[][] samples = new long[shots][];
+        for (int shot = 0; shot < shots; shot++) {
+            samples[shot] = prepared.copy().measureAll(random);
+        }
+        return samples;
+
+    }
+
+    /**
+     * Returns the first stabilizer row with an X or Y on the target, or -1
+     */
+    private int findAnticommuting(int target) {
+        int word = target >>> 6;
+        long mask = 1L << target;
+        for (int row = qubits; row < 2 * qubits; row++) {
+            if ((x[row * words + word] & mask) != 0) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Replaces row h by the product of rows i and h (the rowsum of the
+     * paper), tracking the power of i that the Pauli products contribute.
+     * Per qubit the product of the Pauli in row i by the one in row h
+     * contributes i^g with g in {-1, 0, 1}; the bits where g = 1 and
+     * g = -1 are found for 64 qubits at once and counted.
+     */
+    private void rowMultiply(int h, int i) {
+
+        int hBase = h * words;
+        int iBase = i * words;
+        long total = 0;
+
+        for (int w = 0; w < words; w++) {
+
+            long x1 = x[iBase + w], z1 = z[iBase + w];
+            long x2 = x[hBase + w], z2 = z[hBase + w];
+
+            // Row i has Y (x1 z1), X (x1 !z1) or Z (!x1 z1) on each qubit
+            long y = x1 & z1;
+            long xOnly = x1 & ~z1;
+            long zOnly = ~x1 & z1;
+            long plus = (y & z2 & ~x2) | (xOnly & x2 & z2) | (zOnly & x2 & ~z2);
+            long minus = (y & x2 & ~z2) | (xOnly & z2 & ~x2) | (zOnly & x2 & z2);
+            total += Long.bitCount(plus) - Long.bitCount(minus);
+
+            x[hBase + w] = x1 ^ x2;
+            z[hBase + w] = z1 ^ z2;
+
+        }
+
+        // The product of two commuting generators is always +-1, so the sum is 0 or 2 mod 4
+        total += (sign[h] ? 2 : 0) + (sign[i] ? 2 : 0);
+        sign[h] = Math.floorMod(total, 4) == 2;
+
+    }
+
+    /**
+     * Negates every row whose Pauli on the target anticommutes with the
+     * applied Pauli: those with an X part if flipOnX, a Z part if flipOnZ
+     * (but not both parts, since Y commutes with itself)
+     */
+    private void conjugateByPauli(int target, boolean flipOnX, boolean flipOnZ) {
+
+        checkQubit(target);
+        int word = target >>> 6;
+        long mask = 1L << target;
+        for (int row = 0; row < 2 * qubits; row++) {
+            boolean hasX = (x[row * words + word] & mask) != 0;
+            boolean hasZ = (z[row * words + word] & mask) != 0;
+            sign[row] ^= (flipOnX && hasX) ^ (flipOnZ && hasZ);
+        }
+
+    }
+
+    private void copyRow(int from, int to) {
+        System.arraycopy(x, from * words, x, to * words, words);
+        System.arraycopy(z, from * words, z, to * words, words);
+        sign[to] = sign[from];
+    }
+
+    private void clearRow(int row) {
+        for (int w = 0; w < words; w++) {
+            x[row * words + w] = 0;
+            z[row * words + w] = 0;
+        }
+        sign[row] = false;
+    }
+
+    private static void swapBits(long[] bits, int base, int a, int b) {
+        long bitA = (bits[base + (a >>> 6)] >>> a) & 1;
+        long bitB = (bits[base + (b >>> 6)] >>> b) & 1;
+        if (bitA != bitB) {
+            bits[base + (a >>> 6)] ^= 1L << a;
+            bits[base + (b >>> 6)] ^= 1L << b;
+        }
+    }
+
+    /**
+     * Makes sure the given qubit is within the register
+     */
+    private void checkQubit(int qubit) {
+        if (qubit < 0 || qubit >= qubits) {
+            throw new InvalidParameterException("Qubit " + qubit + " is outside of the " +
+                    qubits + " qubit register");
+        }
+    }
+
+    /**
+     * Makes sure the given qubits are distinct and within the register
+     */
+    private void checkQubits(int first, int second) {
+        checkQubit(first);
+        checkQubit(second);
+        if (first == second) {
+            throw new InvalidParameterException("A two-qubit gate needs two distinct qubits");
+        }
+    }
+
+}
@@ -0,0 +1,746 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+import core.util.ComplexArrays;
+import core.util.ComplexMatrix;
+import core.util.ComplexVector;
+import core.util.DoubleComplex;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A state-vector simulator for a register of n qubits. The 2^n amplitudes
+ * are held in two primitive arrays (real and imaginary parts), and gates
+ * are applied by strided in-place updates of the affected amplitude pairs
+ * (or quadruples), so the full 2^n x 2^n operator is never built.
+ *
+ * Qubit 0 is the least significant bit of a basis state index, so the
+ * basis state |q_(n-1) ... q_1 q_0&gt; has index sum(q_k * 2^k).
+ *
+ * Every gate touches disjoint blocks of amplitudes, so for registers of at
+ * least getParallelThreshold() qubits the updates are split across a
+ * ForkJoinPool. Smaller registers are updated on the calling thread.
+ *
+ * The quantum Fourier transform of any set of qubits is applied as one
+ * operation, an FFT (see QuantumFourierTransform), rather than gate by gate,
+ * and any classical reversible gate as one permutation of the amplitudes.
+ * @version 0.4
+ */
+public class StateVectorSimulator {
+
+    /**
+     * The largest register that fits in a pair of Java arrays
+     */
+    public static final int MAX_QUBITS = 30;
+
+    /**
+     * The default register size from which gates are applied in parallel
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 14;
+
+    /**
+     * The number of amplitude pairs below which a parallel task is not split further
+     */
+    private static final int MIN_TASK_SIZE = 1 << 12;
+
+    /**
+     * The number of qubits in the register
+     */
+    private final int qubits;
+
+    /**
+     * The real parts of the 2^n amplitudes
+     */
+    private final double[] real;
+
+    /**
+     * The imaginary parts of the 2^n amplitudes
+     */
+    private final double[] imag;
+
+    /**
+     * The number of amplitudes written by gates so far, for throughput reporting
+     */
+    private long amplitudeUpdates;
+
+    /**
+     * The pool which parallel gate applications run on
+     */
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * The register size from which gates are applied in parallel
+     */
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    /**
+     * Creates a register of the given number of qubits in the state |0...0&gt;
+     * @param qubits The number of qubits in the register
+     */
+    public StateVectorSimulator(int qubits) {
+
+        if (qubits < 1 || qubits > MAX_QUBITS) {
+            throw new InvalidParameterException("Number of qubits must be between 1 and " + MAX_QUBITS);
+        }
+
+        this.qubits = qubits;
+        this.real = new double[1 << qubits];
+        this.imag = new double[1 << qubits];
+        this.real[0] = 1;
+
+    }
+
+    /**
+     * Creates a simulator over the given state. The vector is not copied, so
+     * gates applied by the simulator update it in place.
+     * @param state The initial state, whose length must be a power of two
+     */
+    public StateVectorSimulator(ComplexVector state) {
+
+        int length = state.length();
+        if (length < 2 || Integer.bitCount(length) != 1) {
+            throw new InvalidParameterException("State length must be a power of two, got " + length);
+        }
+
+        this.qubits = Integer.numberOfTrailingZeros(length);
+        this.real = state.getRealParts();
+        this.imag = state.getImaginaryParts();
+
+    }
+
+    /**
+     * @return the number of qubits in the register
+     */
+    public int getQubitCount() {
+        return qubits;
+    }
+
+    /**
+     * @return the number of amplitudes in the register, 2^n
+     */
+    public int getDimension() {
+        return real.length;
+    }
+
+    /**
+     * Returns a view of the state of the register (not a copy)
+     * @return the state vector
+     */
+    public ComplexVector getState() {
+        return new ComplexVector(real, imag);
+    }
+
+    /**
+     * Returns the amplitude of the given basis state
+     * @param index The index of the basis state
+     * @return the amplitude of the basis state
+     */
+    public DoubleComplex getAmplitude(int index) {
+        return new DoubleComplex(real[index], imag[index]);
+    }
+
+    /**
+     * Returns the probability of measuring the given basis state
+     * @param index The index of the basis state
+     * @return the probability of the basis state
+     */
+    public double getProbability(int index) {
+        return real[index] * real[index] + imag[index] * imag[index];
+    }
+
+    /**
+     * @return the probabilities of measuring each basis state
+     */
+    public double[] getProbabilities() {
+        double[] probabilities = new double[real.length];
+        ComplexArrays.magnitudesSquared(real, imag, probabilities);
+        return probabilities;
+    }
+
+    /**
+     * Returns the number of amplitudes written by gates since this simulator
+     * was created, which divided by wall-clock time gives gate throughput
+     * @return the number of amplitude updates performed
+     */
+    public long getAmplitudeUpdates() {
+        return amplitudeUpdates;
+    }
+
+    /**
+     * Sets the pool which gates are applied on for large registers. A pool
+     * with a parallelism of 1 makes the simulator single-threaded.
+     * @param pool The pool to run parallel gate applications on
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @return the pool which gates are applied on for large registers
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Sets the number of qubits from which gates are applied in parallel.
+     * Registers smaller than this are always updated on the calling thread,
+     * since splitting them costs more than it saves.
+     * @param qubits The smallest register size to parallelize
+     */
+    public void setParallelThreshold(int qubits) {
+        this.parallelThreshold = qubits;
+    }
+
+    /**
+     * @return the smallest register size which is updated in parallel
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Resets the register to the basis state |0...0&gt;
+     */
+    public void reset() {
+        Arrays.fill(real, 0);
+        Arrays.fill(imag, 0);
+        real[0] = 1;
+    }
+
+    /**
+     * Applies a single-qubit gate to the target qubit
+     * @param gate The 2x2 matrix of the gate
+     * @param target The qubit to apply the gate to
+     */
+    public void applyGate(ComplexMatrix gate, int target) {
+
+        checkGate(gate, 2);
+        checkQubit(target);
+
+        double[] gRe = gate.getRealParts();
+        double[] gIm = gate.getImaginaryParts();
+        double aRe = gRe[0], aIm = gIm[0], bRe = gRe[1], bIm = gIm[1];
+        double cRe = gRe[2], cIm = gIm[2], dRe = gRe[3], dIm = gIm[3];
+        run((from, to) -> applySingle(target, aRe, aIm, bRe, bIm, cRe, cIm, dRe, dIm, from, to),
+                real.length >> 1);
+        amplitudeUpdates += real.length;
+
+    }
+
+    /**
+     * Applies a single-qubit gate to the target qubit, conditioned on the
+     * control qubit being |1&gt;
+     * @param gate The 2x2 matrix of the gate
+     * @param control The control qubit
+     * @param target The qubit to apply the gate to
+     */
+    public void applyControlledGate(ComplexMatrix gate, int control, int target) {
+
+        checkGate(gate, 2);
+        checkQubits(control, target);
+
+        double[] gRe = gate.getRealParts();
+        double[] gIm = gate.getImaginaryParts();
+        double aRe = gRe[0], aIm = gIm[0], bRe = gRe[1], bIm = gIm[1];
+        double cRe = gRe[2], cIm = gIm[2], dRe = gRe[3], dIm = gIm[3];
+        run((from, to) -> applyControlled(control, target, aRe, aIm, bRe, bIm, cRe, cIm, dRe, dIm, from, to),
+                real.length >> 2);
+        amplitudeUpdates += real.length >> 1;
+
+    }
+
+    /**
+     * Applies a two-qubit gate. The rows and columns of the gate are
+     * indexed by 2 * q1 + q0, where q1 and q0 are the values of qubit1
+     * and qubit0 respectively.
+     * @param gate The 4x4 matrix of the gate
+     * @param qubit1 The qubit which is the most significant bit of the gate basis
+     * @param qubit0 The qubit which is the least significant bit of the gate basis
+     */
+    public void applyTwoQubitGate(ComplexMatrix gate, int qubit1, int qubit0) {
+
+        checkGate(gate, 4);
+        checkQubits(qubit1, qubit0);
+
+        double[] mRe = gate.getRealParts().clone();
+        double[] mIm = gate.getImaginaryParts().clone();
+        run((from, to) -> applyTwo(qubit1, qubit0, mRe, mIm, from, to), real.length >> 2);
+        amplitudeUpdates += real.length;
+
+    }
+
+    /**
+     * Applies the Hadamard gate to the target qubit
+     * @param target The qubit to apply the gate to
+     */
+    public void hadamard(int target) {
+        applyGate(Gates.hadamard(), target);
+    }
+
+    /**
+     * Applies the Pauli X (NOT) gate to the target qubit
+     * @param target The qubit to apply the gate to
+     */
+    public void pauliX(int target) {
+        applyGate(Gates.pauliX(), target);
+    }
+
+    /**
+     * Applies the Pauli Y gate to the target qubit
+     * @param target The qubit to apply the gate to
+     */
+    public void pauliY(int target) {
+        applyGate(Gates.pauliY(), target);
+    }
+
+    /**
+     * Applies the Pauli Z gate to the target qubit
+     * @param target The qubit to apply the gate to
+     */
+    public void pauliZ(int target) {
+        applyGate(Gates.pauliZ(), target);
+    }
+
+    /**
+     * Applies the phase shift diag(1, e^(i theta)) to the target qubit
+     * @param target The qubit to apply the gate to
+     * @param radians The phase theta
+     */
+    public void phase(int target, double radians) {
+        applyGate(Gates.phase(radians), target);
+    }
+
+    /**
+     * Applies the controlled NOT gate
+     * @param control The control qubit
+     * @param target The qubit which is flipped when control is |1&gt;
+     */
+    public void cnot(int control, int target) {
+        applyControlledGate(Gates.pauliX(), control, target);
+    }
+
+    /**
+     * Applies the controlled phase shift, which multiplies |11&gt; by e^(i theta)
+     * @param control The control qubit
+     * @param target The target qubit
+     * @param radians The phase theta
+     */
+    public void controlledPhase(int control, int target, double radians) {
+        applyControlledGate(Gates.phase(radians), control, target);
+    }
+
+    /**
+     * Swaps the states of two qubits
+     * @param qubit1 The first qubit
+     * @param qubit0 The second qubit
+     */
+    public void swap(int qubit1, int qubit0) {
+        applyTwoQubitGate(Gates.swap(), qubit1, qubit0);
+    }
+
+    /**
+     * Applies the quantum Fourier transform to the given qubits, which map
+     * |x&gt; to sum_y e^(2 pi i x y / 2^m) |y&gt; / sqrt(2^m), as an FFT
+     * @param qubits The m qubits of the register to transform, with the least
+     *               significant bit of x first; none for the whole register
+     */
+    public void qft(int... qubits) {
+        fourier(false, qubits);
+    }
+
+    /**
+     * Applies the inverse quantum Fourier transform to the given qubits, which
+     * maps sum_y e^(2 pi i x y / 2^m) |y&gt; / sqrt(2^m) back to |x&gt;, as an FFT
+     * @param qubits The m qubits of the register to transform, with the least
+     *               significant bit of x first; none for the whole register
+     */
+    public void inverseQft(int... qubits) {
+        fourier(true, qubits);
+    }
+
+    /**
+     * Applies a classical reversible gate, which maps each basis state |i&gt;
+     * to |permutation(i)&gt;. Each cycle of the permutation is followed in
+     * place, with one bit per amplitude recording which have been moved.
+     * @param permutation A bijection of the basis state indices [0, 2^n)
+     */
+    public void permute(IntUnaryOperator permutation) {
+
+        long[] moved = new long[(real.length + 63) >>> 6];
+        for (int start = 0; start < real.length; start++) {
+
+            if ((moved[start >>> 6] & 1L << start) != 0) {
+                continue;
+            }
+
+            // Carry the amplitude of i to permutation(i) until the cycle closes
+            double re = real[start];
+            double im = imag[start];
+            int i = start;
+            do {
+                int next = permutation.applyAsInt(i);
+                if (next < 0 || next >= real.length || (moved[next >>> 6] & 1L << next) != 0) {
+                    throw new InvalidParameterException("Not a permutation: " + i + " maps to " + next);
+                }
+                moved[next >>> 6] |= 1L << next;
+                double nextRe = real[next];
+                double nextIm = imag[next];
+                real[next] = re;
+                imag[next] = im;
+                re = nextRe;
+                im = nextIm;
+                i = next;
+            } while (i != start);
+
+        }
+        amplitudeUpdates += real.length;
+
+    }
+
+    /**
+     * Measures a single qubit in the computational basis, collapsing
+     * and renormalizing the state accordingly
+     * @param target The qubit to measure
+     * @param random The source of randomness for the measurement
+     * @return the measured value, 0 or 1
+     */
+    public int measure(int target, Random random) {
+
+        checkQubit(target);
+        int bit = 1 << target;
+
+        double probabilityOne = 0;
+        for (int i = 0; i < real.length; i++) {
+            if ((i & bit) != 0) {
+                probabilityOne += real[i] * real[i] + imag[i] * imag[i];
+            }
+        }
+
+        int outcome = random.nextDouble() < probabilityOne ? 1 : 0;
+        double scale = 1 / Math.sqrt(outcome == 1 ? probabilityOne : 1 - probabilityOne);
+
+        for (int i = 0; i < real.length; i++) {
+            if (((i & bit) != 0) == (outcome == 1)) {
+                real[i] *= scale;
+                imag[i] *= scale;
+            } else {
+                real[i] = 0;
+                imag[i] = 0;
+            }
+        }
+
+        return outcome;
+
+    }
+
+    /**
+     * Samples measurements of the whole register without collapsing the state
+     * @param shots The number of measurements to sample
+     * @param random The source of randomness for the measurements
+     * @return the measured basis state index of each shot
+     */
+    public int[] sample(int shots, Random random) {
+
+        // Cumulative distribution, searched once per shot
+        double[] cumulative = getProbabilities();
+        for (int i = 1; i < cumulative.length; i++) {
+            cumulative[i] += cumulative[i - 1];
+        }
+        double total = cumulative[cumulative.length - 1];
+
+        int[] outcomes = new int[shots];
+        for (int shot = 0; shot < shots; shot++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            outcomes[shot] = Math.min(index, cumulative.length - 1);
+        }
+
+        return outcomes;
+
+    }
+
+    /**
+     * Applies the FFT to a set of qubits. The FFT needs consecutive qubits
+     * in order, so any others are first swapped into place (at their
+     * lowest position if they are consecutive in some other order, at
+     * qubit 0 if not) and swapped back afterwards, which costs a sweep per
+     * swap rather than the m^2 / 2 sweeps of the circuit.
+     */
+    private void fourier(boolean inverse, int... register) {
+
+        if (register.length == 0) {
+            register = new int[qubits];
+            for (int i = 0; i < qubits; i++) {
+                register[i] = i;
+            }
+        }
+
+        int lowest = Integer.MAX_VALUE;
+        int highest = -1;
+        int used = 0;
+        for (int qubit : register) {
+            checkQubit(qubit);
+            if ((used & 1 << qubit) != 0) {
+                throw new InvalidParameterException("Qubit " + qubit + " appears twice in the register");
+            }
+            used |= 1 << qubit;
+            lowest = Math.min(lowest, qubit);
+            highest = Math.max(highest, qubit);
+        }
+        int low = highest - lowest == register.length - 1 ? lowest : 0;
+
+        // Swap each qubit of the register into position, tracking which qubit is where
+        ForkJoinPool parallel = qubits < parallelThreshold || pool.getParallelism() == 1 ? null : pool;
+        int[] at = new int[qubits];
+        for (int i = 0; i < qubits; i++) {
+            at[i] = i;
+        }
+        int[] swaps = new int[register.length];
+        for (int j = 0; j < register.length; j++) {
+            int position = low + j;
+            int from = position;
+            while (at[from] != register[j]) {
+                from++;
+            }
+            swaps[j] = from;
+            if (from != position) {
+                QuantumFourierTransform.swapQubits(real, imag, position, from, parallel);
+                at[from] = at[position];
+                at[position] = register[j];
+                amplitudeUpdates += real.length >> 1;
+            }
+        }
+
+        if (inverse) {
+            QuantumFourierTransform.inverse(real, imag, low, register.length, parallel);
+        } else {
+            QuantumFourierTransform.transform(real, imag, low, register.length, parallel);
+        }
+        amplitudeUpdates += (long) real.length * QuantumFourierTransform.sweeps(low, register.length);
+
+        for (int j = register.length - 1; j >= 0; j--) {
+            if (swaps[j] != low + j) {
+                QuantumFourierTransform.swapQubits(real, imag, low + j, swaps[j], parallel);
+                amplitudeUpdates += real.length >> 1;
+            }
+        }
+
+    }
+
+    /**
+     * Runs the kernel over the index range [0, count), splitting the range
+     * across the pool if the register is large enough
+     */
+    private void run(RangeKernel kernel, int count) {
+
+        if (qubits < parallelThreshold || pool.getParallelism() == 1 || count <= MIN_TASK_SIZE) {
+            kernel.apply(0, count);
+        } else {
+            pool.invoke(new RangeTask(kernel, 0, count));
+        }
+
+    }
+
+    /**
+     * A gate kernel which updates the amplitudes for an index range [from, to)
+     */
+    interface RangeKernel {
+        void apply(int from, int to);
+    }
+
+    /**
+     * Splits a kernel's index range in halves until the pieces are small
+     * enough to run directly. Since different indices touch disjoint
+     * amplitudes, the pieces can run concurrently without synchronization.
+     */
+    static final class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final RangeKernel kernel;
+        private final int from;
+        private final int to;
+
+        RangeTask(RangeKernel kernel, int from, int to) {
+            this.kernel = kernel;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (to - from <= MIN_TASK_SIZE) {
+                kernel.apply(from, to);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask(kernel, from, middle), new RangeTask(kernel, middle, to));
+
+        }
+
+    }
+
+    /**
+     * Applies the 2x2 matrix [[a, b], [c, d]] to the amplitude pairs with
+     * pair index in [from, to). Pair k is the two indices obtained by
+     * inserting a 0 and a 1 bit at the target position of k.
+     */
+    void applySingle(int target, double aRe, double aIm, double bRe, double bIm,
+                     double cRe, double cIm, double dRe, double dIm, int from, int to) {
+
+        int stride = 1 << target;
+        int lowMask = stride - 1;
+
+        for (int k = from; k < to; k++) {
+
+            int i0 = ((k & ~lowMask) << 1) | (k & lowMask);
+            int i1 = i0 | stride;
+
+            double re0 = real[i0];
+            double im0 = imag[i0];
+            double re1 = real[i1];
+            double im1 = imag[i1];
+
+            real[i0] = aRe * re0 - aIm * im0 + bRe * re1 - bIm * im1;
+            imag[i0] = aRe * im0 + aIm * re0 + bRe * im1 + bIm * re1;
+            real[i1] = cRe * re0 - cIm * im0 + dRe * re1 - dIm * im1;
+            imag[i1] = cRe * im0 + cIm * re0 + dRe * im1 + dIm * re1;
+
+        }
+
+    }
+
+    /**
+     * Applies the 2x2 matrix [[a, b], [c, d]] to the target qubit of the
+     * amplitudes whose control bit is set, for quadruple index in [from, to)
+     */
+    void applyControlled(int control, int target, double aRe, double aIm, double bRe, double bIm,
+                         double cRe, double cIm, double dRe, double dIm, int from, int to) {
+
+        int controlBit = 1 << control;
+        int targetBit = 1 << target;
+        int low = Math.min(control, target);
+        int high = Math.max(control, target);
+
+        for (int k = from; k < to; k++) {
+
+            int i0 = insertZeroBit(insertZeroBit(k, low), high) | controlBit;
+            int i1 = i0 | targetBit;
+
+            double re0 = real[i0];
+            double im0 = imag[i0];
+            double re1 = real[i1];
+            double im1 = imag[i1];
+
+            real[i0] = aRe * re0 - aIm * im0 + bRe * re1 - bIm * im1;
+            imag[i0] = aRe * im0 + aIm * re0 + bRe * im1 + bIm * re1;
+            real[i1] = cRe * re0 - cIm * im0 + dRe * re1 - dIm * im1;
+            imag[i1] = cRe * im0 + cIm * re0 + dRe * im1 + dIm * re1;
+
+        }
+
+    }
+
+    /**
+     * Applies the 4x4 matrix m (row-major) to the amplitude quadruples with
+     * quadruple index in [from, to)
+     */
+    void applyTwo(int qubit1, int qubit0, double[] mRe, double[] mIm, int from, int to) {
+
+        int bit1 = 1 << qubit1;
+        int bit0 = 1 << qubit0;
+        int low = Math.min(qubit1, qubit0);
+        int high = Math.max(qubit1, qubit0);
+
+        // The entries are held in locals, since fused circuits make this the hot loop
+        double m00r = mRe[0], m01r = mRe[1], m02r = mRe[2], m03r = mRe[3];
+        double m10r = mRe[4], m11r = mRe[5], m12r = mRe[6], m13r = mRe[7];
+        double m20r = mRe[8], m21r = mRe[9], m22r = mRe[10], m23r = mRe[11];
+        double m30r = mRe[12], m31r = mRe[13], m32r = mRe[14], m33r = mRe[15];
+        double m00i = mIm[0], m01i = mIm[1], m02i = mIm[2], m03i = mIm[3];
+        double m10i = mIm[4], m11i = mIm[5], m12i = mIm[6], m13i = mIm[7];
+        double m20i = mIm[8], m21i = mIm[9], m22i = mIm[10], m23i = mIm[11];
+        double m30i = mIm[12], m31i = mIm[13], m32i = mIm[14], m33i = mIm[15];
+
+        for (int k = from; k < to; k++) {
+
+            int i0 = insertZeroBit(insertZeroBit(k, low), high);
+            int i1 = i0 | bit0;
+            int i2 = i0 | bit1;
+            int i3 = i2 | bit0;
+
+            double a0r = real[i0], a0i = imag[i0];
+            double a1r = real[i1], a1i = imag[i1];
+            double a2r = real[i2], a2i = imag[i2];
+            double a3r = real[i3], a3i = imag[i3];
+
+            real[i0] = m00r * a0r - m00i * a0i + m01r * a1r - m01i * a1i
+                    + m02r * a2r - m02i * a2i + m03r * a3r - m03i * a3i;
+            imag[i0] = m00r * a0i + m00i * a0r + m01r * a1i + m01i * a1r
+                    + m02r * a2i + m02i * a2r + m03r * a3i + m03i * a3r;
+            real[i1] = m10r * a0r - m10i * a0i + m11r * a1r - m11i * a1i
+                    + m12r * a2r - m12i * a2i + m13r * a3r - m13i * a3i;
+            imag[i1] = m10r * a0i + m10i * a0r + m11r * a1i + m11i * a1r
+                    + m12r * a2i + m12i * a2r + m13r * a3i + m13i * a3r;
+            real[i2] = m20r * a0r - m20i * a0i + m21r * a1r - m21i * a1i
+                    + m22r * a2r - m22i * a2i + m23r * a3r - m23i * a3i;
+            imag[i2] = m20r * a0i + m20i * a0r + m21r * a1i + m21i * a1r
+                    + m22r * a2i + m22i * a2r + m23r * a3i + m23i * a3r;
+            real[i3] = m30r * a0r - m30i * a0i + m31r * a1r - m31i * a1i
+                    + m32r * a2r - m32i * a2i + m33r * a3r - m33i * a3i;
+            imag[i3] = m30r * a0i + m30i * a0r + m31r * a1i + m31i * a1r
+                    + m32r * a2i + m32i * a2r + m33r * a3i + m33i * a3r;
+
+        }
+
+    }
+
+    /**
+     * Inserts a zero bit into value at the given position, shifting the
+     * higher bits up by one
+     */
+    static int insertZeroBit(int value, int position) {
+        int lowMask = (1 << position) - 1;
+        return ((value & ~lowMask) << 1) | (value & lowMask);
+    }
+
+    /**
+     * Makes sure the given qubit is within the register
+     */
+    private void checkQubit(int qubit) {
+        if (qubit < 0 || qubit >= qubits) {
+            throw new InvalidParameterException("Qubit " + qubit + " is outside of the " +
+                    qubits + " qubit register");
+        }
+    }
+
+    /**
+     * Makes sure the given qubits are distinct and within the register
+     */
+    private void checkQubits(int first, int second) {
+        checkQubit(first);
+        checkQubit(second);
+        if (first == second) {
+            throw new InvalidParameterException("A two-qubit gate needs two distinct qubits");
+        }
+    }
+
+    /**
+     * Makes sure the gate is a square matrix of the given size
+     */
+    private static void checkGate(ComplexMatrix gate, int size) {
+        if (gate.getRows() != size || gate.getColumns() != size) {
+            throw new InvalidParameterException("Expected a " + size + "x" + size + " gate");
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+import core.util.ComplexMatrix;
+import core.util.ComplexVector;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A quantum trajectory: a state vector of 2^n amplitudes on which noise
+ * channels act by picking one of their Kraus operators at random. Applying
+ * channel {K_k} to |psi&gt; picks K_k with probability p_k = ||K_k psi||^2
+ * and leaves K_k |psi&gt; / sqrt(p_k). Averaged over many trajectories,
+ * |psi&gt;&lt;psi| converges to the density matrix of DensityMatrixSimulator,
+ * at a cost of 2^n rather than 4^n memory per run.
+ *
+ * Each trajectory is sequential, since independent trajectories are the
+ * natural unit of parallelism; the register is never split across threads.
+ * @version 0.1
+ */
+public class TrajectorySimulator {
+
+    private final StateVectorSimulator register;
+    private final SplittableRandom random;
+
+    /**
+     * Creates a trajectory in the state |0...0&gt;
+     * @param qubits The number of qubits in the register
+     * @param random The source of randomness for picking Kraus operators
+     */
+    public TrajectorySimulator(int qubits, SplittableRandom random) {
+        this.register = new StateVectorSimulator(qubits);
+        this.register.setParallelThreshold(Integer.MAX_VALUE);
+        this.random = random;
+    }
+
+    /**
+     * Returns the register of the trajectory, to which gates are applied directly
+     * @return the state vector of the trajectory
+     */
+    public StateVectorSimulator getRegister() {
+        return register;
+    }
+
+    /**
+     * Resets the register to the state |0...0&gt;
+     */
+    public void reset() {
+        register.reset();
+    }
+
+    /**
+     * Applies a noise channel to the target qubit by picking one of its
+     * Kraus operators. The probabilities of all operators come from one
+     * sweep over the amplitudes, since ||K psi||^2 only depends on the
+     * 2x2 matrix K^dagger K and three sums over the amplitude pairs of
+     * the target.
+     * @param channel The channel to apply
+     * @param target The qubit to apply the channel to
+     * @return the index of the Kraus operator which was applied
+     */
+    public int applyChannel(NoiseChannel channel, int target) {
+
+        if (target < 0 || target >= register.getQubitCount()) {
+            throw new InvalidParameterException("Qubit " + target + " is outside of a register of " +
+                    register.getQubitCount());
+        }
+        List<ComplexMatrix> operators = channel.getKrausOperators();
+        if (operators.size() == 1) {
+            register.applyGate(operators.get(0), target);
+            return 0;
+        }
+
+        // |a|^2, |b|^2 and conj(a) b summed over the pairs (a, b) of amplitudes with target 0 and 1
+        ComplexVector state = register.getState();
+        double[] re = state.getRealParts();
+        double[] im = state.getImaginaryParts();
+        int bit = 1 << target;
+        double zeros = 0, ones = 0, crossRe = 0, crossIm = 0;
+        for (int i = 0; i < re.length; i++) {
+            if ((i & bit) == 0) {
+                int j = i | bit;
+                zeros += re[i] * re[i] + im[i] * im[i];
+                ones += re[j] * re[j] + im[j] * im[j];
+                crossRe += re[i] * re[j] + im[i] * im[j];
+                crossIm += re[i] * im[j] - im[i] * re[j];
+            }
+        }
+
+        double[] probabilities = new double[operators.size()];
+        for (int k = 0; k < probabilities.length; k++) {
+            ComplexMatrix m = operators.get(k).adjoint().multiply(operators.get(k));
+            double[] mRe = m.getRealParts();
+            double[] mIm = m.getImaginaryParts();
+            // <psi| M |psi> for the Hermitian M, using M10 = conj(M01)
+            probabilities[k] = mRe[0] * zeros + mRe[3] * ones + 2 * (mRe[1] * crossRe - mIm[1] * crossIm);
+        }
+
+        // Rounding can leave u past the last operator, so fall back to the last one which can occur
+        double u = random.nextDouble() * (zeros + ones);
+        int chosen = -1;
+        for (int k = 0; k < probabilities.length; k++) {
+            if (probabilities[k] > 0) {
+                chosen = k;
+                if (u < probabilities[k]) {
+                    break;
+                }
+                u -= probabilities[k];
+            }
+        }
+        double probability = probabilities[chosen];
+
+        ComplexMatrix operator = operators.get(chosen);
+        double scale = 1 / Math.sqrt(probability);
+        double[] kRe = operator.getRealParts().clone();
+        double[] kIm = operator.getImaginaryParts().clone();
+        for (int i = 0; i < kRe.length; i++) {
+            kRe[i] *= scale;
+            kIm[i] *= scale;
+        }
+        register.applyGate(new ComplexMatrix(2, 2, kRe, kIm), target);
+        return chosen;
+
+    }
+
+}
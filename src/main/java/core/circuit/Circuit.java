@@ -0,0 +1,281 @@
+package core.circuit;
+
+import core.algorithms.Gates;
+import core.algorithms.StateVectorSimulator;
+import core.expection.InvalidParameterException;
+import core.util.ComplexMatrix;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A quantum circuit over a fixed number of qubits: an ordered list of
+ * operations, built up with the gate methods (each of which returns the
+ * circuit, so calls can be chained) and run on a StateVectorSimulator.
+ * Building a circuit first, rather than applying gates to a simulator
+ * directly, allows it to be optimised (see CircuitOptimizer).
+ * @version 0.1
+ */
+public class Circuit {
+
+    private final int qubits;
+    private final List<Operation> operations = new ArrayList<Operation>();
+
+    /**
+     * Creates an empty circuit
+     * @param qubits The number of qubits of the circuit
+     */
+    public Circuit(int qubits) {
+
+        if (qubits < 1 || qubits > StateVectorSimulator.MAX_QUBITS) {
+            throw new InvalidParameterException("Number of qubits must be between 1 and " +
+                    StateVectorSimulator.MAX_QUBITS);
+        }
+        this.qubits = qubits;
+
+    }
+
+    /**
+     * @return the number of qubits of the circuit
+     */
+    public int getQubitCount() {
+        return qubits;
+    }
+
+    /**
+     * @return the operations of the circuit, in order, as an unmodifiable list
+     */
+    public List<Operation> getOperations() {
+        return Collections.unmodifiableList(operations);
+    }
+
+    /**
+     * @return the number of operations in the circuit
+     */
+    public int size() {
+        return operations.size();
+    }
+
+    /**
+     * Appends an operation to the circuit
+     * @param operation The operation to append
+     * @return this circuit
+     */
+    public Circuit add(Operation operation) {
+
+        if (operation.getHighestQubit() >= qubits) {
+            throw new InvalidParameterException(operation + " is outside of a circuit of " + qubits + " qubits");
+        }
+        operations.add(operation);
+        return this;
+
+    }
+
+    /**
+     * Appends every operation of another circuit of the same size
+     * @param other The circuit to append
+     * @return this circuit
+     */
+    public Circuit append(Circuit other) {
+
+        if (other.qubits != qubits) {
+            throw new InvalidParameterException("Cannot append a circuit of " + other.qubits +
+                    " qubits to one of " + qubits);
+        }
+        operations.addAll(other.operations);
+        return this;
+
+    }
+
+    /**
+     * Appends a single-qubit gate
+     * @param gate The 2x2 matrix of the gate
+     * @param target The qubit to apply the gate to
+     * @return this circuit
+     */
+    public Circuit gate(ComplexMatrix gate, int target) {
+        return add(Operation.single(gate, target));
+    }
+
+    /**
+     * Appends a controlled single-qubit gate
+     * @param gate The 2x2 matrix of the gate
+     * @param control The control qubit
+     * @param target The qubit to apply the gate to
+     * @return this circuit
+     */
+    public Circuit controlledGate(ComplexMatrix gate, int control, int target) {
+        return add(Operation.controlled(gate, control, target));
+    }
+
+    /**
+     * Appends a two-qubit gate over the basis |qubit1 qubit0&gt;
+     * @param gate The 4x4 matrix of the gate
+     * @param qubit1 The qubit which is the most significant bit of the gate basis
+     * @param qubit0 The qubit which is the least significant bit of the gate basis
+     * @return this circuit
+     */
+    public Circuit twoQubitGate(ComplexMatrix gate, int qubit1, int qubit0) {
+        return add(Operation.twoQubit(gate, qubit1, qubit0));
+    }
+
+    /**
+     * @param target The qubit to apply the Hadamard gate to
+     * @return this circuit
+     */
+    public Circuit hadamard(int target) {
+        return gate(Gates.hadamard(), target);
+    }
+
+    /**
+     * @param target The qubit to apply the Pauli X gate to
+     * @return this circuit
+     */
+    public Circuit pauliX(int target) {
+        return gate(Gates.pauliX(), target);
+    }
+
+    /**
+     * @param target The qubit to apply the Pauli Y gate to
+     * @return this circuit
+     */
+    public Circuit pauliY(int target) {
+        return gate(Gates.pauliY(), target);
+    }
+
+    /**
+     * @param target The qubit to apply the Pauli Z gate to
+     * @return this circuit
+     */
+    public Circuit pauliZ(int target) {
+        return gate(Gates.pauliZ(), target);
+    }
+
+    /**
+     * @param target The qubit to apply the S gate to
+     * @return this circuit
+     */
+    public Circuit s(int target) {
+        return gate(Gates.s(), target);
+    }
+
+    /**
+     * @param target The qubit to apply the T gate to
+     * @return this circuit
+     */
+    public Circuit t(int target) {
+        return gate(Gates.t(), target);
+    }
+
+    /**
+     * @param target The qubit to apply the phase shift diag(1, e^(i theta)) to
+     * @param radians The phase theta
+     * @return this circuit
+     */
+    public Circuit phase(int target, double radians) {
+        return gate(Gates.phase(radians), target);
+    }
+
+    /**
+     * @param target The qubit to rotate about the X axis
+     * @param radians The angle of rotation
+     * @return this circuit
+     */
+    public Circuit rotationX(int target, double radians) {
+        return gate(Gates.rotationX(radians), target);
+    }
+
+    /**
+     * @param target The qubit to rotate about the Y axis
+     * @param radians The angle of rotation
+     * @return this circuit
+     */
+    public Circuit rotationY(int target, double radians) {
+        return gate(Gates.rotationY(radians), target);
+    }
+
+    /**
+     * @param target The qubit to rotate about the Z axis
+     * @param radians The angle of rotation
+     * @return this circuit
+     */
+    public Circuit rotationZ(int target, double radians) {
+        return gate(Gates.rotationZ(radians), target);
+    }
+
+    /**
+     * @param control The control qubit
+     * @param target The qubit which is flipped when control is |1&gt;
+     * @return this circuit
+     */
+    public Circuit cnot(int control, int target) {
+        return controlledGate(Gates.pauliX(), control, target);
+    }
+
+    /**
+     * @param control The control qubit
+     * @param target The qubit whose |1&gt; is negated when control is |1&gt;
+     * @return this circuit
+     */
+    public Circuit cz(int control, int target) {
+        return controlledGate(Gates.pauliZ(), control, target);
+    }
+
+    /**
+     * @param control The control qubit
+     * @param target The target qubit
+     * @param radians The phase theta applied to |11&gt;
+     * @return this circuit
+     */
+    public Circuit controlledPhase(int control, int target, double radians) {
+        return controlledGate(Gates.phase(radians), control, target);
+    }
+
+    /**
+     * @param qubit1 The first qubit
+     * @param qubit0 The second qubit
+     * @return this circuit
+     */
+    public Circuit swap(int qubit1, int qubit0) {
+        return twoQubitGate(Gates.swap(), qubit1, qubit0);
+    }
+
+    /**
+     * Applies every operation of the circuit to the register, in order
+     * @param simulator A register with at least as many qubits as the circuit
+     */
+    public void applyTo(StateVectorSimulator simulator) {
+
+        if (simulator.getQubitCount() < qubits) {
+            throw new InvalidParameterException("A register of " + simulator.getQubitCount() +
+                    " qubits cannot run a circuit of " + qubits);
+        }
+        for (Operation operation : operations) {
+            operation.applyTo(simulator);
+        }
+
+    }
+
+    /**
+     * Runs the circuit on a new register in the state |0...0&gt;
+     * @return the register after the circuit
+     */
+    public StateVectorSimulator simulate() {
+
+        StateVectorSimulator simulator = new StateVectorSimulator(qubits);
+        applyTo(simulator);
+        return simulator;
+
+    }
+
+    /**
+     * Returns an equivalent circuit with fewer operations, using the default
+     * CircuitOptimizer
+     * @return the optimised circuit
+     */
+    public Circuit optimize() {
+        return new CircuitOptimizer().optimize(this);
+    }
+
+}
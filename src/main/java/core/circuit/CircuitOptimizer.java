@@ -0,0 +1,190 @@
+package core.circuit;
+
+import core.util.ComplexMatrix;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rewrites a circuit into an equivalent one with fewer operations, since
+ * every operation costs a full sweep over the 2^n amplitudes of the
+ * register. Each operation is moved back through the operations before it
+ * for as long as the two commute (they act on disjoint qubits, or both are
+ * diagonal), until it meets one it can be combined with. This is done in
+ * two phases:
+ *
+ * 1. Operations on the same qubits are combined: single-qubit gates fuse
+ *    into one 2x2 gate, gates on the same pair into one 4x4 gate, and a
+ *    combination which is the identity is dropped, which cancels inverse
+ *    pairs such as H H or CNOT CNOT.
+ * 2. Operations whose qubits together number two are merged into one 4x4
+ *    gate on that pair, so a run of gates on a pair of qubits, including
+ *    the single-qubit gates on either of them, becomes one block. This
+ *    comes second so that it does not hide inverse pairs inside blocks.
+ *
+ * Each phase is repeated until the circuit stops shrinking, since a
+ * cancellation can bring new neighbours together.
+ * @version 0.1
+ */
+public class CircuitOptimizer {
+
+    /**
+     * The default tolerance for a matrix entry to count as zero (or one)
+     */
+    public static final double DEFAULT_EPSILON = 1e-10;
+
+    private final double epsilon;
+
+    /**
+     * Creates an optimizer with the default tolerance
+     */
+    public CircuitOptimizer() {
+        this(DEFAULT_EPSILON);
+    }
+
+    /**
+     * Creates an optimizer with the given tolerance
+     * @param epsilon The largest entry error treated as zero when testing for
+     *                diagonal and identity matrices
+     */
+    public CircuitOptimizer(double epsilon) {
+        this.epsilon = epsilon;
+    }
+
+    /**
+     * Returns an optimised copy of the circuit, which leaves the register in
+     * the same state (up to rounding) as the original
+     * @param circuit The circuit to optimise, which is not modified
+     * @return the optimised circuit
+     */
+    public Circuit optimize(Circuit circuit) {
+
+        List<Operation> operations = new ArrayList<Operation>(circuit.getOperations());
+        for (boolean merge : new boolean[] {false, true}) {
+            int before;
+            do {
+                before = operations.size();
+                operations = pass(operations, merge);
+            } while (operations.size() < before);
+        }
+
+        Circuit optimized = new Circuit(circuit.getQubitCount());
+        for (Operation operation : operations) {
+            optimized.add(operation);
+        }
+        return optimized;
+
+    }
+
+    /**
+     * Moves each operation back to the first operation it can be combined
+     * with, and combines them. Without merging, only operations on exactly
+     * the same qubits can be combined.
+     */
+    private List<Operation> pass(List<Operation> operations, boolean merge) {
+
+        List<Operation> result = new ArrayList<Operation>(operations.size());
+        for (Operation operation : operations) {
+
+            boolean diagonal = operation.isDiagonal(epsilon);
+            int partner = -1;
+            for (int i = result.size() - 1; i >= 0; i--) {
+
+                Operation previous = result.get(i);
+                if (disjoint(previous, operation)) {
+                    continue;
+                }
+                int combinedQubits = union(previous, operation).length;
+                if (merge ? combinedQubits <= 2
+                        : combinedQubits == operation.getQubitCount() && combinedQubits == previous.getQubitCount()) {
+                    partner = i;
+                    break;
+                }
+                if (!(diagonal && previous.isDiagonal(epsilon))) {
+                    break;
+                }
+
+            }
+
+            if (partner < 0) {
+                result.add(operation);
+                continue;
+            }
+
+            Operation combined = combine(result.get(partner), operation);
+            if (isIdentity(combined)) {
+                result.remove(partner);
+            } else {
+                result.set(partner, combined);
+            }
+
+        }
+        return result;
+
+    }
+
+    /**
+     * Combines the first operation followed by the second into one operation
+     */
+    private static Operation combine(Operation first, Operation second) {
+
+        int[] qubits = union(first, second);
+        if (qubits.length == 1) {
+            return Operation.single(second.getMatrix().multiply(first.getMatrix()), qubits[0]);
+        }
+
+        // Gates with the same control stay controlled, which only sweeps half of the register
+        if (first.getKind() == Operation.Kind.CONTROLLED && second.getKind() == Operation.Kind.CONTROLLED
+                && first.getQubits()[0] == second.getQubits()[0]) {
+            int[] controlled = first.getQubits();
+            return Operation.controlled(second.getMatrix().multiply(first.getMatrix()), controlled[0], controlled[1]);
+        }
+
+        // Keep the qubit order of a two-qubit operand, so a lone block keeps its basis
+        int[] pair = first.getQubitCount() == 2 ? first.getQubits()
+                : second.getQubitCount() == 2 ? second.getQubits() : qubits;
+        ComplexMatrix matrix = second.toTwoQubitMatrix(pair[0], pair[1])
+                .multiply(first.toTwoQubitMatrix(pair[0], pair[1]));
+        return Operation.twoQubit(matrix, pair[0], pair[1]);
+
+    }
+
+    private boolean isIdentity(Operation operation) {
+        ComplexMatrix matrix = operation.getMatrix();
+        return matrix.valueEquals(ComplexMatrix.identity(matrix.getRows()), epsilon);
+    }
+
+    private static boolean disjoint(Operation a, Operation b) {
+        for (int q : a.getQubits()) {
+            if (b.actsOn(q)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the distinct qubits of both operations, those of a first
+     */
+    private static int[] union(Operation a, Operation b) {
+
+        int[] qubits = new int[a.getQubitCount() + b.getQubitCount()];
+        int count = 0;
+        for (Operation operation : new Operation[] {a, b}) {
+            for (int q : operation.getQubits()) {
+                boolean seen = false;
+                for (int i = 0; i < count; i++) {
+                    seen |= qubits[i] == q;
+                }
+                if (!seen) {
+                    qubits[count++] = q;
+                }
+            }
+        }
+        int[] result = new int[count];
+        System.arraycopy(qubits, 0, result, 0, count);
+        return result;
+
+    }
+
+}
@@ -0,0 +1,203 @@
+package core.circuit;
+
+import core.algorithms.DensityMatrixSimulator;
+import core.algorithms.NoiseChannel;
+import core.algorithms.TrajectorySimulator;
+import core.expection.InvalidParameterException;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Gate noise for running circuits: after every operation, a channel is
+ * applied to each qubit the operation acted on, one channel for
+ * single-qubit operations and one for two-qubit operations. A circuit can
+ * then be run exactly on a density matrix (4^n memory), or estimated by
+ * averaging quantum trajectories (2^n memory each), which run in parallel.
+ * @version 0.1
+ */
+public class NoiseModel {
+
+    /**
+     * The number of trajectories below which a parallel task is not split further
+     */
+    private static final int MIN_TASK_SIZE = 4;
+
+    private final NoiseChannel singleQubit;
+    private final NoiseChannel twoQubit;
+
+    /**
+     * Creates a noise model
+     * @param singleQubit The channel applied after single-qubit operations, or null for none
+     * @param twoQubit The channel applied to both qubits after two-qubit operations, or null for none
+     */
+    public NoiseModel(NoiseChannel singleQubit, NoiseChannel twoQubit) {
+        this.singleQubit = singleQubit;
+        this.twoQubit = twoQubit;
+    }
+
+    /**
+     * Creates a noise model which applies the same channel after every operation
+     * @param channel The channel applied to each qubit of every operation
+     * @return the new noise model
+     */
+    public static NoiseModel uniform(NoiseChannel channel) {
+        return new NoiseModel(channel, channel);
+    }
+
+    /**
+     * @return the channel applied after single-qubit operations, or null for none
+     */
+    public NoiseChannel getSingleQubitChannel() {
+        return singleQubit;
+    }
+
+    /**
+     * @return the channel applied to both qubits after two-qubit operations, or null for none
+     */
+    public NoiseChannel getTwoQubitChannel() {
+        return twoQubit;
+    }
+
+    /**
+     * Runs the noisy circuit exactly on a new density matrix in the state |0...0&gt;&lt;0...0|
+     * @param circuit The circuit to run
+     * @return the register after the circuit
+     */
+    public DensityMatrixSimulator simulateDensityMatrix(Circuit circuit) {
+
+        if (circuit.getQubitCount() > DensityMatrixSimulator.MAX_QUBITS) {
+            throw new InvalidParameterException("A density matrix holds at most " +
+                    DensityMatrixSimulator.MAX_QUBITS + " qubits, got " + circuit.getQubitCount());
+        }
+        DensityMatrixSimulator simulator = new DensityMatrixSimulator(circuit.getQubitCount());
+        for (Operation operation : circuit.getOperations()) {
+            operation.applyTo(simulator);
+            NoiseChannel channel = channelFor(operation);
+            if (channel != null) {
+                for (int q : operation.getQubits()) {
+                    simulator.applyChannel(channel, q);
+                }
+            }
+        }
+        return simulator;
+
+    }
+
+    /**
+     * Estimates the measurement probabilities of the noisy circuit by
+     * averaging quantum trajectories on the common pool
+     * @param circuit The circuit to run
+     * @param trajectories The number of trajectories to average
+     * @param seed The seed for the randomness of the trajectories
+     * @return the estimated probability of each basis state
+     */
+    public double[] simulateTrajectories(Circuit circuit, int trajectories, long seed) {
+        return simulateTrajectories(circuit, trajectories, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Estimates the measurement probabilities of the noisy circuit by
+     * averaging quantum trajectories, which are split across the pool.
+     * Trajectory i draws from its own generator, seeded from the i-th
+     * value of a generator with the given seed, so the estimate only
+     * depends on the seed and not on how the work was scheduled.
+     * @param circuit The circuit to run
+     * @param trajectories The number of trajectories to average
+     * @param seed The seed for the randomness of the trajectories
+     * @param pool The pool to run the trajectories on
+     * @return the estimated probability of each basis state
+     */
+    public double[] simulateTrajectories(Circuit circuit, int trajectories, long seed, ForkJoinPool pool) {
+
+        if (trajectories < 1) {
+            throw new InvalidParameterException("Number of trajectories must be positive, got " + trajectories);
+        }
+        long[] seeds = new long[trajectories];
+        SplittableRandom seeder = new SplittableRandom(seed);
+        for (int i = 0; i < trajectories; i++) {
+            seeds[i] = seeder.nextLong();
+        }
+
+        double[] probabilities = pool.invoke(new TrajectoryTask(circuit, seeds, 0, trajectories));
+        for (int i = 0; i < probabilities.length; i++) {
+            probabilities[i] /= trajectories;
+        }
+        return probabilities;
+
+    }
+
+    /**
+     * Runs one trajectory of the noisy circuit
+     */
+    private void runTrajectory(Circuit circuit, TrajectorySimulator trajectory) {
+
+        for (Operation operation : circuit.getOperations()) {
+            operation.applyTo(trajectory.getRegister());
+            NoiseChannel channel = channelFor(operation);
+            if (channel != null) {
+                for (int q : operation.getQubits()) {
+                    trajectory.applyChannel(channel, q);
+                }
+            }
+        }
+
+    }
+
+    private NoiseChannel channelFor(Operation operation) {
+        return operation.getQubitCount() == 1 ? singleQubit : twoQubit;
+    }
+
+    /**
+     * Sums the final probabilities of the trajectories [from, to), splitting
+     * the range in halves until the pieces are small enough to run directly
+     */
+    private final class TrajectoryTask extends RecursiveTask<double[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Circuit circuit;
+        private final long[] seeds;
+        private final int from;
+        private final int to;
+
+        TrajectoryTask(Circuit circuit, long[] seeds, int from, int to) {
+            this.circuit = circuit;
+            this.seeds = seeds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[] compute() {
+
+            if (to - from > MIN_TASK_SIZE) {
+                int middle = (from + to) >>> 1;
+                TrajectoryTask left = new TrajectoryTask(circuit, seeds, from, middle);
+                left.fork();
+                double[] sum = new TrajectoryTask(circuit, seeds, middle, to).compute();
+                double[] other = left.join();
+                for (int i = 0; i < sum.length; i++) {
+                    sum[i] += other[i];
+                }
+                return sum;
+            }
+
+            double[] sum = new double[1 << circuit.getQubitCount()];
+            for (int t = from; t < to; t++) {
+                TrajectorySimulator trajectory =
+                        new TrajectorySimulator(circuit.getQubitCount(), new SplittableRandom(seeds[t]));
+                runTrajectory(circuit, trajectory);
+                double[] probabilities = trajectory.getRegister().getProbabilities();
+                for (int i = 0; i < sum.length; i++) {
+                    sum[i] += probabilities[i];
+                }
+            }
+            return sum;
+
+        }
+
+    }
+
+}
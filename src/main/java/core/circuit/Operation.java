@@ -0,0 +1,279 @@
+package core.circuit;
+
+import core.algorithms.DensityMatrixSimulator;
+import core.algorithms.Gates;
+import core.algorithms.StateVectorSimulator;
+import core.expection.InvalidParameterException;
+import core.util.ComplexMatrix;
+
+import java.util.Arrays;
+
+/**
+ * A single gate application in a circuit: a 2x2 gate on one qubit, a 2x2
+ * gate on one qubit controlled by another, or a 4x4 gate on a pair of
+ * qubits. Operations are immutable; the matrix is copied on the way in and
+ * must not be modified by callers of getMatrix().
+ * @version 0.2
+ */
+public final class Operation {
+
+    /**
+     * The shape of an operation, which decides the simulator kernel used
+     */
+    public enum Kind {
+
+        /**
+         * A 2x2 gate on qubits[0]
+         */
+        SINGLE,
+
+        /**
+         * A 2x2 gate on qubits[1], applied when qubits[0] is |1&gt;
+         */
+        CONTROLLED,
+
+        /**
+         * A 4x4 gate over the basis |qubits[0] qubits[1]&gt;
+         */
+        TWO_QUBIT
+
+    }
+
+    private final Kind kind;
+    private final ComplexMatrix matrix;
+    private final int[] qubits;
+
+    private Operation(Kind kind, ComplexMatrix matrix, int... qubits) {
+        this.kind = kind;
+        this.matrix = matrix;
+        this.qubits = qubits;
+    }
+
+    /**
+     * Creates a single-qubit operation
+     * @param gate The 2x2 matrix of the gate
+     * @param target The qubit to apply the gate to
+     * @return the new operation
+     */
+    public static Operation single(ComplexMatrix gate, int target) {
+        checkGate(gate, 2);
+        checkQubits(target);
+        return new Operation(Kind.SINGLE, gate.copy(), target);
+    }
+
+    /**
+     * Creates a controlled single-qubit operation
+     * @param gate The 2x2 matrix of the gate
+     * @param control The control qubit
+     * @param target The qubit to apply the gate to
+     * @return the new operation
+     */
+    public static Operation controlled(ComplexMatrix gate, int control, int target) {
+        checkGate(gate, 2);
+        checkQubits(control, target);
+        return new Operation(Kind.CONTROLLED, gate.copy(), control, target);
+    }
+
+    /**
+     * Creates a two-qubit operation, whose rows and columns are indexed by
+     * 2 * q1 + q0 (as in StateVectorSimulator.applyTwoQubitGate)
+     * @param gate The 4x4 matrix of the gate
+     * @param qubit1 The qubit which is the most significant bit of the gate basis
+     * @param qubit0 The qubit which is the least significant bit of the gate basis
+     * @return the new operation
+     */
+    public static Operation twoQubit(ComplexMatrix gate, int qubit1, int qubit0) {
+        checkGate(gate, 4);
+        checkQubits(qubit1, qubit0);
+        return new Operation(Kind.TWO_QUBIT, gate.copy(), qubit1, qubit0);
+    }
+
+    /**
+     * @return the shape of this operation
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the matrix of this operation (2x2, or 4x4 for TWO_QUBIT), which must not be modified
+     */
+    public ComplexMatrix getMatrix() {
+        return matrix;
+    }
+
+    /**
+     * @return the qubits this operation acts on, control first for CONTROLLED
+     */
+    public int[] getQubits() {
+        return qubits.clone();
+    }
+
+    /**
+     * @return the number of qubits this operation acts on, 1 or 2
+     */
+    public int getQubitCount() {
+        return qubits.length;
+    }
+
+    /**
+     * @return the highest qubit this operation acts on
+     */
+    public int getHighestQubit() {
+        return qubits.length == 1 ? qubits[0] : Math.max(qubits[0], qubits[1]);
+    }
+
+    /**
+     * @param qubit A qubit of the register
+     * @return true if this operation acts on the qubit
+     */
+    public boolean actsOn(int qubit) {
+        for (int q : qubits) {
+            if (q == qubit) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the matrix of this operation is diagonal, in which
+     * case it commutes with every other diagonal operation
+     * @param epsilon The largest off-diagonal magnitude treated as zero
+     * @return true if this operation is diagonal in the computational basis
+     */
+    public boolean isDiagonal(double epsilon) {
+
+        int size = matrix.getRows();
+        double[] re = matrix.getRealParts();
+        double[] im = matrix.getImaginaryParts();
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                if (r != c && (Math.abs(re[r * size + c]) >= epsilon || Math.abs(im[r * size + c]) >= epsilon)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+
+    }
+
+    /**
+     * Returns the 4x4 matrix of this operation over the basis |qubit1 qubit0&gt;,
+     * where the qubits of this operation must be among the two given
+     * @param qubit1 The qubit which is the most significant bit of the basis
+     * @param qubit0 The qubit which is the least significant bit of the basis
+     * @return the new 4x4 matrix
+     */
+    public ComplexMatrix toTwoQubitMatrix(int qubit1, int qubit0) {
+
+        if (!actsOnly(qubit1, qubit0)) {
+            throw new InvalidParameterException(this + " does not act only on qubits " + qubit1 + " and " + qubit0);
+        }
+
+        switch (kind) {
+            case SINGLE:
+                // The gate qubit's index is the high bit when it is qubit1
+                return qubits[0] == qubit1
+                        ? matrix.kronecker(ComplexMatrix.identity(2))
+                        : ComplexMatrix.identity(2).kronecker(matrix);
+            case CONTROLLED:
+                ComplexMatrix block = ComplexMatrix.identity(4);
+                for (int r = 0; r < 2; r++) {
+                    for (int c = 0; c < 2; c++) {
+                        block.set(2 + r, 2 + c, matrix.get(r, c));
+                    }
+                }
+                return qubits[0] == qubit1 ? block : swapped(block);
+            default:
+                return qubits[0] == qubit1 ? matrix.copy() : swapped(matrix);
+        }
+
+    }
+
+    /**
+     * Applies this operation to the register, with the kernel for its shape
+     * @param simulator The register to apply the operation to
+     */
+    public void applyTo(StateVectorSimulator simulator) {
+
+        switch (kind) {
+            case SINGLE:
+                simulator.applyGate(matrix, qubits[0]);
+                break;
+            case CONTROLLED:
+                simulator.applyControlledGate(matrix, qubits[0], qubits[1]);
+                break;
+            default:
+                simulator.applyTwoQubitGate(matrix, qubits[0], qubits[1]);
+        }
+
+    }
+
+    /**
+     * Applies this operation to a density matrix, with the kernel for its shape
+     * @param simulator The register to apply the operation to
+     */
+    public void applyTo(DensityMatrixSimulator simulator) {
+
+        switch (kind) {
+            case SINGLE:
+                simulator.applyGate(matrix, qubits[0]);
+                break;
+            case CONTROLLED:
+                simulator.applyControlledGate(matrix, qubits[0], qubits[1]);
+                break;
+            default:
+                simulator.applyTwoQubitGate(matrix, qubits[0], qubits[1]);
+        }
+
+    }
+
+    /**
+     * @return a description of the operation, such as "CONTROLLED(0, 1)"
+     */
+    @Override
+    public String toString() {
+        String qubitList = Arrays.toString(qubits);
+        return kind + "(" + qubitList.substring(1, qubitList.length() - 1) + ")";
+    }
+
+    /**
+     * Returns true if every qubit of this operation is one of the two given
+     */
+    private boolean actsOnly(int qubit1, int qubit0) {
+        for (int q : qubits) {
+            if (q != qubit1 && q != qubit0) {
+                return false;
+            }
+        }
+        return qubit1 != qubit0;
+    }
+
+    /**
+     * Exchanges the roles of the two qubits of a 4x4 matrix, SWAP * M * SWAP
+     */
+    private static ComplexMatrix swapped(ComplexMatrix gate) {
+        ComplexMatrix swap = Gates.swap();
+        return swap.multiply(gate).multiply(swap);
+    }
+
+    private static void checkGate(ComplexMatrix gate, int size) {
+        if (gate.getRows() != size || gate.getColumns() != size) {
+            throw new InvalidParameterException("Expected a " + size + "x" + size + " gate, got " +
+                    gate.getRows() + "x" + gate.getColumns());
+        }
+    }
+
+    private static void checkQubits(int... qubits) {
+        for (int q : qubits) {
+            if (q < 0) {
+                throw new InvalidParameterException("Qubit indices must be non-negative, got " + q);
+            }
+        }
+        if (qubits.length == 2 && qubits[0] == qubits[1]) {
+            throw new InvalidParameterException("A two-qubit operation needs two distinct qubits");
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package core.util;
+
+import java.io.Closeable;
+
+/**
+ * Storage for the amplitudes of a quantum register, addressed by a long
+ * basis state index so that registers larger than a Java array can be
+ * held. Simulators page amplitudes in and out of the store in large
+ * contiguous chunks through read() and write(), which lets implementations
+ * keep the amplitudes off the heap (or on disk) while still being accessed
+ * sequentially.
+ * @version 0.1
+ */
+public interface AmplitudeStore extends Closeable {
+
+    /**
+     * @return the number of amplitudes in this store
+     */
+    long size();
+
+    /**
+     * @param index The index of the amplitude
+     * @return the real part of the amplitude at index
+     */
+    double getReal(long index);
+
+    /**
+     * @param index The index of the amplitude
+     * @return the imaginary part of the amplitude at index
+     */
+    double getImaginary(long index);
+
+    /**
+     * Sets the amplitude at the given index
+     * @param index The index of the amplitude
+     * @param real The new real part
+     * @param imag The new imaginary part
+     */
+    void set(long index, double real, double imag);
+
+    /**
+     * Copies length amplitudes starting at the given store offset into the arrays
+     * @param offset The index of the first amplitude to read
+     * @param real The array to copy the real parts into
+     * @param imag The array to copy the imaginary parts into
+     * @param arrayOffset The first array index to write to
+     * @param length The number of amplitudes to read
+     */
+    void read(long offset, double[] real, double[] imag, int arrayOffset, int length);
+
+    /**
+     * Copies length amplitudes from the arrays into the store, starting at the given offset
+     * @param offset The index of the first amplitude to write
+     * @param real The array to copy the real parts from
+     * @param imag The array to copy the imaginary parts from
+     * @param arrayOffset The first array index to read from
+     * @param length The number of amplitudes to write
+     */
+    void write(long offset, double[] real, double[] imag, int arrayOffset, int length);
+
+    /**
+     * Sets every amplitude in the store to zero
+     */
+    void clear();
+
+}
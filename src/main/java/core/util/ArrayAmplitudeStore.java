@@ -0,0 +1,77 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+
+import java.util.Arrays;
+
+/**
+ * An amplitude store backed by two primitive arrays on the heap. This is
+ * the fastest store, but it is limited to 2^30 amplitudes and to the
+ * heap given to the JVM.
+ * @version 0.1
+ */
+public class ArrayAmplitudeStore implements AmplitudeStore {
+
+    private final double[] real;
+    private final double[] imag;
+
+    /**
+     * Creates a store of the given number of amplitudes, all zero
+     * @param size The number of amplitudes
+     */
+    public ArrayAmplitudeStore(int size) {
+
+        if (size < 0) {
+            throw new InvalidParameterException("Store size cannot be negative");
+        }
+
+        this.real = new double[size];
+        this.imag = new double[size];
+
+    }
+
+    @Override
+    public long size() {
+        return real.length;
+    }
+
+    @Override
+    public double getReal(long index) {
+        return real[(int) index];
+    }
+
+    @Override
+    public double getImaginary(long index) {
+        return imag[(int) index];
+    }
+
+    @Override
+    public void set(long index, double real, double imag) {
+        this.real[(int) index] = real;
+        this.imag[(int) index] = imag;
+    }
+
+    @Override
+    public void read(long offset, double[] real, double[] imag, int arrayOffset, int length) {
+        System.arraycopy(this.real, (int) offset, real, arrayOffset, length);
+        System.arraycopy(this.imag, (int) offset, imag, arrayOffset, length);
+    }
+
+    @Override
+    public void write(long offset, double[] real, double[] imag, int arrayOffset, int length) {
+        System.arraycopy(real, arrayOffset, this.real, (int) offset, length);
+        System.arraycopy(imag, arrayOffset, this.imag, (int) offset, length);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(real, 0);
+        Arrays.fill(imag, 0);
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release, the arrays are garbage collected
+    }
+
+}
@@ -0,0 +1,276 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * An amplitude store which keeps its amplitudes outside of the Java heap,
+ * either in direct buffers or in a memory-mapped scratch file. Real and
+ * imaginary parts are kept in separate regions, and each region is split
+ * into segments of at most 2^SEGMENT_BITS doubles, since a single buffer
+ * cannot exceed 2 GB.
+ *
+ * A mapped store can be larger than physical memory; the operating system
+ * pages it in and out, which is efficient as long as it is accessed in
+ * large sequential chunks (as PagedStateVectorSimulator does).
+ * @version 0.1
+ */
+public class BufferAmplitudeStore implements AmplitudeStore {
+
+    /**
+     * log2 of the number of doubles in a segment (2^26 doubles is 512 MB)
+     */
+    static final int SEGMENT_BITS = 26;
+
+    private final int segmentBits;
+    private final int segmentMask;
+    private final long size;
+    private final DoubleBuffer[] real;
+    private final DoubleBuffer[] imag;
+
+    /**
+     * The backing scratch file, or null if the store lives in direct buffers
+     */
+    private final Path file;
+
+    private BufferAmplitudeStore(int segmentBits, long size, DoubleBuffer[] real, DoubleBuffer[] imag, Path file) {
+        this.segmentBits = segmentBits;
+        this.segmentMask = (1 << segmentBits) - 1;
+        this.size = size;
+        this.real = real;
+        this.imag = imag;
+        this.file = file;
+    }
+
+    /**
+     * Creates a store of the given size in direct (off-heap) buffers. The
+     * memory is limited by -XX:MaxDirectMemorySize rather than the heap.
+     * @param size The number of amplitudes
+     * @return the new store, with all amplitudes zero
+     */
+    public static BufferAmplitudeStore allocateDirect(long size) {
+        return allocateDirect(size, SEGMENT_BITS);
+    }
+
+    /**
+     * Creates a direct store split into segments of 2^segmentBits doubles
+     */
+    static BufferAmplitudeStore allocateDirect(long size, int segmentBits) {
+
+        checkSize(size);
+        int segments = segmentCount(size, segmentBits);
+        DoubleBuffer[] real = new DoubleBuffer[segments];
+        DoubleBuffer[] imag = new DoubleBuffer[segments];
+
+        for (int s = 0; s < segments; s++) {
+            int length = segmentLength(size, s, segmentBits);
+            real[s] = ByteBuffer.allocateDirect(length * 8).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+            imag[s] = ByteBuffer.allocateDirect(length * 8).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        }
+
+        return new BufferAmplitudeStore(segmentBits, size, real, imag, null);
+
+    }
+
+    /**
+     * Creates a store of the given size in a new memory-mapped scratch file
+     * in the given directory. The file is deleted when the store is closed.
+     * @param directory The directory to create the scratch file in
+     * @param size The number of amplitudes
+     * @return the new store, with all amplitudes zero
+     */
+    public static BufferAmplitudeStore mapScratchFile(Path directory, long size) {
+        return mapScratchFile(directory, size, SEGMENT_BITS);
+    }
+
+    /**
+     * Creates a mapped store split into segments of 2^segmentBits doubles
+     */
+    static BufferAmplitudeStore mapScratchFile(Path directory, long size, int segmentBits) {
+
+        checkSize(size);
+        int segments = segmentCount(size, segmentBits);
+        DoubleBuffer[] real = new DoubleBuffer[segments];
+        DoubleBuffer[] imag = new DoubleBuffer[segments];
+
+        Path file = null;
+        try {
+
+            file = Files.createTempFile(directory, "amplitudes", ".bin");
+            try (RandomAccessFile access = new RandomAccessFile(file.toFile(), "rw");
+                 FileChannel channel = access.getChannel()) {
+
+                // A freshly extended file reads as zeros, and is sparse on most file systems
+                access.setLength(size * 16);
+
+                for (int s = 0; s < segments; s++) {
+                    long position = ((long) s << segmentBits) * 8;
+                    long bytes = segmentLength(size, s, segmentBits) * 8L;
+                    real[s] = channel.map(FileChannel.MapMode.READ_WRITE, position, bytes)
+                            .order(ByteOrder.nativeOrder()).asDoubleBuffer();
+                    imag[s] = channel.map(FileChannel.MapMode.READ_WRITE, size * 8 + position, bytes)
+                            .order(ByteOrder.nativeOrder()).asDoubleBuffer();
+                }
+
+            }
+
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException("Could not map amplitude scratch file", e);
+        }
+
+        return new BufferAmplitudeStore(segmentBits, size, real, imag, file);
+
+    }
+
+    /**
+     * @return true if this store is backed by a memory-mapped file
+     */
+    public boolean isMapped() {
+        return file != null;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public double getReal(long index) {
+        return real[(int) (index >>> segmentBits)].get((int) (index & segmentMask));
+    }
+
+    @Override
+    public double getImaginary(long index) {
+        return imag[(int) (index >>> segmentBits)].get((int) (index & segmentMask));
+    }
+
+    @Override
+    public void set(long index, double real, double imag) {
+        int segment = (int) (index >>> segmentBits);
+        int position = (int) (index & segmentMask);
+        this.real[segment].put(position, real);
+        this.imag[segment].put(position, imag);
+    }
+
+    @Override
+    public void read(long offset, double[] real, double[] imag, int arrayOffset, int length) {
+
+        checkRange(offset, length);
+        while (length > 0) {
+
+            int segment = (int) (offset >>> segmentBits);
+            int position = (int) (offset & segmentMask);
+            int count = Math.min(length, this.real[segment].capacity() - position);
+
+            // Duplicates keep the shared buffers' positions untouched, so reads can run concurrently
+            DoubleBuffer realBuffer = this.real[segment].duplicate();
+            realBuffer.position(position);
+            realBuffer.get(real, arrayOffset, count);
+            DoubleBuffer imagBuffer = this.imag[segment].duplicate();
+            imagBuffer.position(position);
+            imagBuffer.get(imag, arrayOffset, count);
+
+            offset += count;
+            arrayOffset += count;
+            length -= count;
+
+        }
+
+    }
+
+    @Override
+    public void write(long offset, double[] real, double[] imag, int arrayOffset, int length) {
+
+        checkRange(offset, length);
+        while (length > 0) {
+
+            int segment = (int) (offset >>> segmentBits);
+            int position = (int) (offset & segmentMask);
+            int count = Math.min(length, this.real[segment].capacity() - position);
+
+            DoubleBuffer realBuffer = this.real[segment].duplicate();
+            realBuffer.position(position);
+            realBuffer.put(real, arrayOffset, count);
+            DoubleBuffer imagBuffer = this.imag[segment].duplicate();
+            imagBuffer.position(position);
+            imagBuffer.put(imag, arrayOffset, count);
+
+            offset += count;
+            arrayOffset += count;
+            length -= count;
+
+        }
+
+    }
+
+    @Override
+    public void clear() {
+
+        double[] zeros = new double[1 << 16];
+        for (long offset = 0; offset < size; offset += zeros.length) {
+            int length = (int) Math.min(zeros.length, size - offset);
+            write(offset, zeros, zeros, 0, length);
+        }
+
+    }
+
+    /**
+     * Releases the store. A mapped store deletes its scratch file; the
+     * mapping itself is released once the buffers are garbage collected.
+     */
+    @Override
+    public void close() {
+
+        for (int s = 0; s < real.length; s++) {
+            real[s] = null;
+            imag[s] = null;
+        }
+        deleteQuietly(file);
+
+    }
+
+    /**
+     * Makes sure that [offset, offset + length) is inside the store
+     */
+    private void checkRange(long offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > size) {
+            throw new InvalidParameterException("Range [" + offset + ", " + (offset + length) +
+                    ") is outside of a store of size " + size);
+        }
+    }
+
+    private static void checkSize(long size) {
+        if (size < 1) {
+            throw new InvalidParameterException("Store size must be positive");
+        }
+    }
+
+    private static int segmentCount(long size, int segmentBits) {
+        return (int) ((size + (1L << segmentBits) - 1) >>> segmentBits);
+    }
+
+    private static int segmentLength(long size, int segment, int segmentBits) {
+        return (int) Math.min(1L << segmentBits, size - ((long) segment << segmentBits));
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // Best effort, the file lives in a scratch directory anyway
+            }
+        }
+    }
+
+}
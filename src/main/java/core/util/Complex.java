@@ -234,6 +234,15 @@ public class Complex {
         return ApfloatMath.abs(getMagnitude().subtract(Apfloat.ONE)).compareTo(epsilon) == -1;
     }
 
+    /**
+     * Returns a double precision copy of this complex number, for use in
+     * computations that do not need high precision
+     * @return this complex number as a DoubleComplex
+     */
+    public DoubleComplex toDoubleComplex() {
+        return DoubleComplex.fromComplex(this);
+    }
+
     /**
      * Returns a string representation of this complex number
      * @return the number as "a + i * b" where a is the real part, and b is
@@ -0,0 +1,199 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+
+/**
+ * A class of static bulk kernels over arrays of double precision complex
+ * numbers. Complex arrays are stored as two parallel primitive arrays,
+ * one holding the real parts and one holding the imaginary parts, so
+ * that no per-element objects are created.
+ * @version 0.1
+ */
+public class ComplexArrays {
+
+    /**
+     * Packs the given complex numbers into parallel real and imaginary arrays
+     * @param values The complex numbers to pack
+     * @param real The array to write the real parts into
+     * @param imag The array to write the imaginary parts into
+     */
+    public static void pack(DoubleComplex[] values, double[] real, double[] imag) {
+
+        checkLengths(real, imag, values.length);
+        for (int i = 0; i < values.length; i++) {
+            real[i] = values[i].getRealPart();
+            imag[i] = values[i].getImaginaryPart();
+        }
+
+    }
+
+    /**
+     * Unpacks parallel real and imaginary arrays into complex number objects
+     * @param real The real parts
+     * @param imag The imaginary parts
+     * @return the complex numbers real[i] + i * imag[i]
+     */
+    public static DoubleComplex[] unpack(double[] real, double[] imag) {
+
+        checkLengths(real, imag, real.length);
+        DoubleComplex[] values = new DoubleComplex[real.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new DoubleComplex(real[i], imag[i]);
+        }
+        return values;
+
+    }
+
+    /**
+     * Converts high precision complex numbers into parallel double precision arrays
+     * @param values The high precision complex numbers
+     * @param real The array to write the real parts into
+     * @param imag The array to write the imaginary parts into
+     */
+    public static void fromComplex(Complex[] values, double[] real, double[] imag) {
+
+        checkLengths(real, imag, values.length);
+        for (int i = 0; i < values.length; i++) {
+            real[i] = values[i].getRealPart().doubleValue();
+            imag[i] = values[i].getImaginaryPart().doubleValue();
+        }
+
+    }
+
+    /**
+     * Adds (bReal, bImag) into (aReal, aImag) in place, a += b
+     */
+    public static void addInPlace(double[] aReal, double[] aImag, double[] bReal, double[] bImag) {
+
+        checkLengths(aReal, aImag, bReal.length);
+        checkLengths(bReal, bImag, aReal.length);
+        for (int i = 0; i < aReal.length; i++) {
+            aReal[i] += bReal[i];
+            aImag[i] += bImag[i];
+        }
+
+    }
+
+    /**
+     * Multiplies (aReal, aImag) element-wise by (bReal, bImag) in place, a *= b
+     */
+    public static void multiplyInPlace(double[] aReal, double[] aImag, double[] bReal, double[] bImag) {
+
+        checkLengths(aReal, aImag, bReal.length);
+        checkLengths(bReal, bImag, aReal.length);
+        for (int i = 0; i < aReal.length; i++) {
+            double re = aReal[i];
+            double im = aImag[i];
+            aReal[i] = re * bReal[i] - im * bImag[i];
+            aImag[i] = re * bImag[i] + im * bReal[i];
+        }
+
+    }
+
+    /**
+     * Scales every element of the array in place by the complex scalar (sReal + i sImag)
+     */
+    public static void scaleInPlace(double[] real, double[] imag, double sReal, double sImag) {
+
+        checkLengths(real, imag, real.length);
+        for (int i = 0; i < real.length; i++) {
+            double re = real[i];
+            double im = imag[i];
+            real[i] = re * sReal - im * sImag;
+            imag[i] = re * sImag + im * sReal;
+        }
+
+    }
+
+    /**
+     * Computes y += alpha * x in place, where alpha is the complex scalar (aReal + i aImag)
+     */
+    public static void axpy(double aReal, double aImag, double[] xReal, double[] xImag,
+                            double[] yReal, double[] yImag) {
+
+        checkLengths(xReal, xImag, yReal.length);
+        checkLengths(yReal, yImag, xReal.length);
+        for (int i = 0; i < xReal.length; i++) {
+            double re = xReal[i];
+            double im = xImag[i];
+            yReal[i] += aReal * re - aImag * im;
+            yImag[i] += aReal * im + aImag * re;
+        }
+
+    }
+
+    /**
+     * Conjugates every element of the array in place
+     */
+    public static void conjugateInPlace(double[] real, double[] imag) {
+
+        checkLengths(real, imag, real.length);
+        for (int i = 0; i < imag.length; i++) {
+            imag[i] = -imag[i];
+        }
+
+    }
+
+    /**
+     * Computes the inner product &lt;a|b&gt; = sum(conj(a[i]) * b[i]), accumulating
+     * into the given accumulator (which is not reset first)
+     * @return the accumulator, holding the inner product
+     */
+    public static DoubleComplex.Accumulator innerProduct(double[] aReal, double[] aImag,
+                                                         double[] bReal, double[] bImag,
+                                                         DoubleComplex.Accumulator accumulator) {
+
+        checkLengths(aReal, aImag, bReal.length);
+        checkLengths(bReal, bImag, aReal.length);
+
+        double re = 0;
+        double im = 0;
+        for (int i = 0; i < aReal.length; i++) {
+            re += aReal[i] * bReal[i] + aImag[i] * bImag[i];
+            im += aReal[i] * bImag[i] - aImag[i] * bReal[i];
+        }
+
+        return accumulator.add(re, im);
+
+    }
+
+    /**
+     * Computes the squared Euclidean norm sum(|a[i]|^2) of the complex array
+     * @return the squared norm of the array
+     */
+    public static double normSquared(double[] real, double[] imag) {
+
+        checkLengths(real, imag, real.length);
+        double sum = 0;
+        for (int i = 0; i < real.length; i++) {
+            sum += real[i] * real[i] + imag[i] * imag[i];
+        }
+        return sum;
+
+    }
+
+    /**
+     * Writes |a[i]|^2 for every element into the given probabilities array
+     */
+    public static void magnitudesSquared(double[] real, double[] imag, double[] out) {
+
+        checkLengths(real, imag, out.length);
+        for (int i = 0; i < real.length; i++) {
+            out[i] = real[i] * real[i] + imag[i] * imag[i];
+        }
+
+    }
+
+    /**
+     * Makes sure that both arrays have the expected length
+     */
+    private static void checkLengths(double[] real, double[] imag, int length) {
+
+        if (real.length != length || imag.length != length) {
+            throw new InvalidParameterException("Expected arrays of length " + length +
+                    ", got " + real.length + " and " + imag.length);
+        }
+
+    }
+
+}
@@ -0,0 +1,397 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+
+/**
+ * A dense matrix of double precision complex numbers, stored in row-major
+ * order as a structure of arrays: the real and imaginary parts live in two
+ * separate primitive arrays. This class is mutable.
+ * @version 0.2
+ */
+public final class ComplexMatrix {
+
+    /**
+     * The number of rows in the matrix
+     */
+    private final int rows;
+
+    /**
+     * The number of columns in the matrix
+     */
+    private final int columns;
+
+    /**
+     * The real parts of the entries, entry (r, c) at index r * columns + c
+     */
+    private final double[] real;
+
+    /**
+     * The imaginary parts of the entries, entry (r, c) at index r * columns + c
+     */
+    private final double[] imag;
+
+    /**
+     * Creates a zero matrix of the given size
+     * @param rows The number of rows
+     * @param columns The number of columns
+     */
+    public ComplexMatrix(int rows, int columns) {
+
+        if (rows < 0 || columns < 0) {
+            throw new InvalidParameterException("Matrix dimensions cannot be negative");
+        }
+
+        this.rows = rows;
+        this.columns = columns;
+        this.real = new double[rows * columns];
+        this.imag = new double[rows * columns];
+
+    }
+
+    /**
+     * Creates a matrix backed by the given row-major arrays. The arrays are
+     * not copied.
+     * @param rows The number of rows
+     * @param columns The number of columns
+     * @param real The real parts of the entries, in row-major order
+     * @param imag The imaginary parts of the entries, in row-major order
+     */
+    public ComplexMatrix(int rows, int columns, double[] real, double[] imag) {
+
+        if (real.length != rows * columns || imag.length != rows * columns) {
+            throw new InvalidParameterException("Expected " + rows * columns + " entries");
+        }
+
+        this.rows = rows;
+        this.columns = columns;
+        this.real = real;
+        this.imag = imag;
+
+    }
+
+    /**
+     * Creates a matrix from the given rows of complex values, which must all
+     * have the same length; the matrix need not be square
+     * @param values The entries of the matrix, values[row][column]
+     * @return the new matrix
+     */
+    public static ComplexMatrix of(DoubleComplex[][] values) {
+
+        int rows = values.length;
+        int columns = rows == 0 ? 0 : values[0].length;
+        ComplexMatrix matrix = new ComplexMatrix(rows, columns);
+
+        for (int r = 0; r < rows; r++) {
+            if (values[r].length != columns) {
+                throw new InvalidParameterException("All rows must have the same length");
+            }
+            for (int c = 0; c < columns; c++) {
+                matrix.set(r, c, values[r][c]);
+            }
+        }
+
+        return matrix;
+
+    }
+
+    /**
+     * Creates the identity matrix of the given size
+     * @param size The number of rows and columns
+     * @return the identity matrix
+     */
+    public static ComplexMatrix identity(int size) {
+
+        ComplexMatrix matrix = new ComplexMatrix(size, size);
+        for (int i = 0; i < size; i++) {
+            matrix.real[i * size + i] = 1;
+        }
+        return matrix;
+
+    }
+
+    /**
+     * @return the number of rows in this matrix
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return the number of columns in this matrix
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the backing row-major array of real parts (not a copy)
+     * @return the real parts of the entries
+     */
+    public double[] getRealParts() {
+        return real;
+    }
+
+    /**
+     * Returns the backing row-major array of imaginary parts (not a copy)
+     * @return the imaginary parts of the entries
+     */
+    public double[] getImaginaryParts() {
+        return imag;
+    }
+
+    /**
+     * Returns the entry at the given row and column
+     * @param row The row of the entry
+     * @param column The column of the entry
+     * @return the entry at (row, column)
+     */
+    public DoubleComplex get(int row, int column) {
+        int index = row * columns + column;
+        return new DoubleComplex(real[index], imag[index]);
+    }
+
+    /**
+     * Sets the entry at the given row and column
+     * @param row The row of the entry
+     * @param column The column of the entry
+     * @param realPart The new real part
+     * @param imaginaryPart The new imaginary part
+     */
+    public void set(int row, int column, double realPart, double imaginaryPart) {
+        int index = row * columns + column;
+        real[index] = realPart;
+        imag[index] = imaginaryPart;
+    }
+
+    /**
+     * Sets the entry at the given row and column
+     * @param row The row of the entry
+     * @param column The column of the entry
+     * @param value The new value
+     */
+    public void set(int row, int column, DoubleComplex value) {
+        set(row, column, value.getRealPart(), value.getImaginaryPart());
+    }
+
+    /**
+     * @return a deep copy of this matrix
+     */
+    public ComplexMatrix copy() {
+        return new ComplexMatrix(rows, columns, real.clone(), imag.clone());
+    }
+
+    /**
+     * Computes the matrix-vector product this * vector
+     * @param vector The vector to multiply
+     * @return the new vector this * vector
+     */
+    public ComplexVector multiply(ComplexVector vector) {
+
+        ComplexVector result = new ComplexVector(rows);
+        multiply(vector, result);
+        return result;
+
+    }
+
+    /**
+     * Computes the matrix-vector product this * vector into the given output
+     * vector, without allocating. The output must not be the input vector.
+     * @param vector The vector to multiply
+     * @param result The vector to write this * vector into
+     */
+    public void multiply(ComplexVector vector, ComplexVector result) {
+
+        if (vector.length() != columns || result.length() != rows) {
+            throw new InvalidParameterException("Cannot multiply a " + rows + "x" + columns +
+                    " matrix by a vector of length " + vector.length());
+        }
+        if (vector == result) {
+            throw new InvalidParameterException("Matrix-vector product cannot be computed in place");
+        }
+
+        double[] xRe = vector.getRealParts();
+        double[] xIm = vector.getImaginaryParts();
+        double[] yRe = result.getRealParts();
+        double[] yIm = result.getImaginaryParts();
+
+        for (int r = 0; r < rows; r++) {
+            double sumRe = 0;
+            double sumIm = 0;
+            int offset = r * columns;
+            for (int c = 0; c < columns; c++) {
+                double aRe = real[offset + c];
+                double aIm = imag[offset + c];
+                sumRe += aRe * xRe[c] - aIm * xIm[c];
+                sumIm += aRe * xIm[c] + aIm * xRe[c];
+            }
+            yRe[r] = sumRe;
+            yIm[r] = sumIm;
+        }
+
+    }
+
+    /**
+     * Computes the matrix product this * other
+     * @param other The matrix on the right of the product
+     * @return the new matrix this * other
+     */
+    public ComplexMatrix multiply(ComplexMatrix other) {
+
+        if (columns != other.rows) {
+            throw new InvalidParameterException("Cannot multiply a " + rows + "x" + columns +
+                    " matrix by a " + other.rows + "x" + other.columns + " matrix");
+        }
+
+        ComplexMatrix result = new ComplexMatrix(rows, other.columns);
+        int n = other.columns;
+
+        // i-k-j loop order, so that the inner loop streams through rows of both matrices
+        for (int i = 0; i < rows; i++) {
+            for (int k = 0; k < columns; k++) {
+                double aRe = real[i * columns + k];
+                double aIm = imag[i * columns + k];
+                if (aRe == 0 && aIm == 0) {
+                    continue;
+                }
+                int bOffset = k * n;
+                int cOffset = i * n;
+                for (int j = 0; j < n; j++) {
+                    double bRe = other.real[bOffset + j];
+                    double bIm = other.imag[bOffset + j];
+                    result.real[cOffset + j] += aRe * bRe - aIm * bIm;
+                    result.imag[cOffset + j] += aRe * bIm + aIm * bRe;
+                }
+            }
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Computes the Kronecker (tensor) product this (x) other
+     * @param other The matrix on the right of the product
+     * @return the new matrix of size (rows * other.rows) x (columns * other.columns)
+     */
+    public ComplexMatrix kronecker(ComplexMatrix other) {
+
+        int resultColumns = columns * other.columns;
+        ComplexMatrix result = new ComplexMatrix(rows * other.rows, resultColumns);
+
+        for (int r1 = 0; r1 < rows; r1++) {
+            for (int c1 = 0; c1 < columns; c1++) {
+                double aRe = real[r1 * columns + c1];
+                double aIm = imag[r1 * columns + c1];
+                for (int r2 = 0; r2 < other.rows; r2++) {
+                    int offset = (r1 * other.rows + r2) * resultColumns + c1 * other.columns;
+                    int otherOffset = r2 * other.columns;
+                    for (int c2 = 0; c2 < other.columns; c2++) {
+                        double bRe = other.real[otherOffset + c2];
+                        double bIm = other.imag[otherOffset + c2];
+                        result.real[offset + c2] = aRe * bRe - aIm * bIm;
+                        result.imag[offset + c2] = aRe * bIm + aIm * bRe;
+                    }
+                }
+            }
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Computes the adjoint (conjugate transpose) of this matrix
+     * @return the new matrix which is the adjoint of this one
+     */
+    public ComplexMatrix adjoint() {
+
+        ComplexMatrix result = new ComplexMatrix(columns, rows);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                result.real[c * rows + r] = real[r * columns + c];
+                result.imag[c * rows + r] = -imag[r * columns + c];
+            }
+        }
+        return result;
+
+    }
+
+    /**
+     * Computes the entrywise complex conjugate of this matrix
+     * @return the new matrix which is the conjugate of this one
+     */
+    public ComplexMatrix conjugate() {
+
+        ComplexMatrix result = copy();
+        for (int i = 0; i < result.imag.length; i++) {
+            result.imag[i] = -result.imag[i];
+        }
+        return result;
+
+    }
+
+    /**
+     * @return the Frobenius norm of this matrix
+     */
+    public double norm() {
+        return Math.sqrt(ComplexArrays.normSquared(real, imag));
+    }
+
+    /**
+     * Returns true if this matrix is unitary, i.e. U * U^dagger is the identity,
+     * up to a tolerance of epsilon on every entry
+     * @param epsilon The amount of error allowable
+     * @return true if this matrix is unitary
+     */
+    public boolean isUnitary(double epsilon) {
+        return rows == columns && multiply(adjoint()).valueEquals(identity(rows), epsilon);
+    }
+
+    /**
+     * Returns true if every entry of the other matrix is within epsilon of
+     * the matching entry of this matrix
+     * @param other The matrix to compare to
+     * @param epsilon The amount of error allowable
+     * @return if the matrices are equal up to epsilon
+     */
+    public boolean valueEquals(ComplexMatrix other, double epsilon) {
+
+        if (other.rows != rows || other.columns != columns) {
+            return false;
+        }
+
+        for (int i = 0; i < real.length; i++) {
+            if (Math.abs(real[i] - other.real[i]) >= epsilon ||
+                    Math.abs(imag[i] - other.imag[i]) >= epsilon) {
+                return false;
+            }
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Returns a string representation of this matrix, one row per line
+     * @return the entries as rows of "(a, b)"
+     */
+    @Override
+    public String toString() {
+
+        StringBuilder builder = new StringBuilder();
+        for (int r = 0; r < rows; r++) {
+            builder.append('[');
+            for (int c = 0; c < columns; c++) {
+                if (c > 0) {
+                    builder.append(", ");
+                }
+                int index = r * columns + c;
+                builder.append('(').append(real[index]).append(", ").append(imag[index]).append(')');
+            }
+            builder.append("]\n");
+        }
+        return builder.toString();
+
+    }
+
+}
@@ -0,0 +1,269 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+
+/**
+ * A dense vector of double precision complex numbers, stored as a structure
+ * of arrays: the real and imaginary parts live in two separate primitive
+ * arrays. Unlike Complex and DoubleComplex this class is mutable, so that
+ * simulators can update it in place.
+ * @version 0.1
+ */
+public final class ComplexVector {
+
+    /**
+     * The real parts of the entries
+     */
+    private final double[] real;
+
+    /**
+     * The imaginary parts of the entries
+     */
+    private final double[] imag;
+
+    /**
+     * Creates a zero vector of the given length
+     * @param length The number of entries in the vector
+     */
+    public ComplexVector(int length) {
+
+        if (length < 0) {
+            throw new InvalidParameterException("Vector length cannot be negative");
+        }
+
+        this.real = new double[length];
+        this.imag = new double[length];
+
+    }
+
+    /**
+     * Creates a vector backed by the given arrays. The arrays are not copied,
+     * so changes to them are visible through this vector and vice versa.
+     * @param real The real parts of the entries
+     * @param imag The imaginary parts of the entries
+     */
+    public ComplexVector(double[] real, double[] imag) {
+
+        if (real.length != imag.length) {
+            throw new InvalidParameterException("Real and imaginary parts must have the same length");
+        }
+
+        this.real = real;
+        this.imag = imag;
+
+    }
+
+    /**
+     * Creates a vector holding the given complex values
+     * @param values The entries of the vector
+     * @return the new vector
+     */
+    public static ComplexVector of(DoubleComplex... values) {
+
+        ComplexVector vector = new ComplexVector(values.length);
+        ComplexArrays.pack(values, vector.real, vector.imag);
+        return vector;
+
+    }
+
+    /**
+     * Creates the standard basis vector e_index of the given length
+     * @param length The number of entries in the vector
+     * @param index The entry which is set to one
+     * @return the basis vector
+     */
+    public static ComplexVector basis(int length, int index) {
+
+        ComplexVector vector = new ComplexVector(length);
+        vector.real[index] = 1;
+        return vector;
+
+    }
+
+    /**
+     * @return the number of entries in this vector
+     */
+    public int length() {
+        return real.length;
+    }
+
+    /**
+     * Returns the backing array of real parts (not a copy)
+     * @return the real parts of the entries
+     */
+    public double[] getRealParts() {
+        return real;
+    }
+
+    /**
+     * Returns the backing array of imaginary parts (not a copy)
+     * @return the imaginary parts of the entries
+     */
+    public double[] getImaginaryParts() {
+        return imag;
+    }
+
+    /**
+     * Returns the entry at the given index
+     * @param index The index of the entry
+     * @return the entry at index
+     */
+    public DoubleComplex get(int index) {
+        return new DoubleComplex(real[index], imag[index]);
+    }
+
+    /**
+     * Sets the entry at the given index
+     * @param index The index of the entry
+     * @param realPart The new real part
+     * @param imaginaryPart The new imaginary part
+     */
+    public void set(int index, double realPart, double imaginaryPart) {
+        real[index] = realPart;
+        imag[index] = imaginaryPart;
+    }
+
+    /**
+     * Sets the entry at the given index
+     * @param index The index of the entry
+     * @param value The new value
+     */
+    public void set(int index, DoubleComplex value) {
+        set(index, value.getRealPart(), value.getImaginaryPart());
+    }
+
+    /**
+     * @return a deep copy of this vector
+     */
+    public ComplexVector copy() {
+        return new ComplexVector(real.clone(), imag.clone());
+    }
+
+    /**
+     * Computes the inner product &lt;this|other&gt;, which conjugates this vector
+     * @param other The vector on the right of the inner product
+     * @return the inner product of the two vectors
+     */
+    public DoubleComplex innerProduct(ComplexVector other) {
+        return ComplexArrays.innerProduct(real, imag, other.real, other.imag,
+                new DoubleComplex.Accumulator()).toDoubleComplex();
+    }
+
+    /**
+     * @return the squared Euclidean norm of this vector
+     */
+    public double normSquared() {
+        return ComplexArrays.normSquared(real, imag);
+    }
+
+    /**
+     * @return the Euclidean norm of this vector
+     */
+    public double norm() {
+        return Math.sqrt(normSquared());
+    }
+
+    /**
+     * Scales this vector in place so that it has unit norm
+     * @return this vector
+     */
+    public ComplexVector normalize() {
+
+        double norm = norm();
+        if (norm == 0) {
+            throw new UnsupportedOperationException("Cannot normalize the zero vector");
+        }
+
+        ComplexArrays.scaleInPlace(real, imag, 1 / norm, 0);
+        return this;
+
+    }
+
+    /**
+     * Multiplies this vector in place by the given scalar
+     * @param scalar The complex scalar
+     * @return this vector
+     */
+    public ComplexVector scale(DoubleComplex scalar) {
+        ComplexArrays.scaleInPlace(real, imag, scalar.getRealPart(), scalar.getImaginaryPart());
+        return this;
+    }
+
+    /**
+     * Adds the other vector to this vector in place
+     * @param other The vector to add
+     * @return this vector
+     */
+    public ComplexVector add(ComplexVector other) {
+        ComplexArrays.addInPlace(real, imag, other.real, other.imag);
+        return this;
+    }
+
+    /**
+     * Computes the Kronecker (tensor) product this (x) other. The entry
+     * i * other.length() + j of the result is this[i] * other[j].
+     * @param other The vector on the right of the product
+     * @return the new vector of length this.length() * other.length()
+     */
+    public ComplexVector kronecker(ComplexVector other) {
+
+        int otherLength = other.length();
+        ComplexVector result = new ComplexVector(length() * otherLength);
+
+        for (int i = 0; i < length(); i++) {
+            double aRe = real[i];
+            double aIm = imag[i];
+            int offset = i * otherLength;
+            for (int j = 0; j < otherLength; j++) {
+                result.real[offset + j] = aRe * other.real[j] - aIm * other.imag[j];
+                result.imag[offset + j] = aRe * other.imag[j] + aIm * other.real[j];
+            }
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Returns true if every entry of the other vector is within epsilon of
+     * the matching entry of this vector
+     * @param other The vector to compare to
+     * @param epsilon The amount of error allowable
+     * @return if the vectors are equal up to epsilon
+     */
+    public boolean valueEquals(ComplexVector other, double epsilon) {
+
+        if (other.length() != length()) {
+            return false;
+        }
+
+        for (int i = 0; i < length(); i++) {
+            if (Math.abs(real[i] - other.real[i]) >= epsilon ||
+                    Math.abs(imag[i] - other.imag[i]) >= epsilon) {
+                return false;
+            }
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Returns a string representation of this vector
+     * @return the entries as "[(a, b), ...]"
+     */
+    @Override
+    public String toString() {
+
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < length(); i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append('(').append(real[i]).append(", ").append(imag[i]).append(')');
+        }
+        return builder.append(']').toString();
+
+    }
+
+}
@@ -0,0 +1,154 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The simple continued fraction of an exact rational a / b, expanded
+ * lazily: each call to next() computes one more term by a step of Euclid's
+ * algorithm on a and b, and returns the convergent p_k / q_k it gives, with
+ *
+ *     p_k = a_k p_(k-1) + p_(k-2),   q_k = a_k q_(k-1) + q_(k-2)
+ *
+ * No high precision division is needed, and a caller looking for a
+ * particular convergent (such as the first whose denominator reaches N,
+ * in Shor's post-processing of a measurement c / 2^t) can stop as soon as
+ * it has it, without the rest of the expansion being computed. Since the
+ * convergents of a / b never exceed a and b in numerator and denominator,
+ * they cannot overflow.
+ * @version 0.1
+ */
+public final class ContinuedFraction implements Iterator<ContinuedFraction.Convergent> {
+
+    /**
+     * A term of a continued fraction with the convergent up to it
+     */
+    public static final class Convergent {
+
+        private final long term;
+        private final long numerator;
+        private final long denominator;
+
+        Convergent(long term, long numerator, long denominator) {
+            this.term = term;
+            this.numerator = numerator;
+            this.denominator = denominator;
+        }
+
+        /**
+         * @return the term a_k of the continued fraction
+         */
+        public long getTerm() {
+            return term;
+        }
+
+        /**
+         * @return the numerator p_k of the convergent
+         */
+        public long getNumerator() {
+            return numerator;
+        }
+
+        /**
+         * @return the denominator q_k of the convergent, which is always positive
+         */
+        public long getDenominator() {
+            return denominator;
+        }
+
+        /**
+         * @return a description of the convergent, such as "22/7"
+         */
+        @Override
+        public String toString() {
+            return numerator + "/" + denominator;
+        }
+
+    }
+
+    /**
+     * What remains to be expanded, as the fraction remainder / divisor
+     */
+    private long remainder;
+    private long divisor;
+
+    /**
+     * The last two convergents, p_(k-1) / q_(k-1) and p_(k-2) / q_(k-2)
+     */
+    private long numerator = 1;
+    private long denominator = 0;
+    private long previousNumerator = 0;
+    private long previousDenominator = 1;
+
+    /**
+     * Starts the expansion of numerator / denominator
+     * @param numerator The numerator a, which must be non-negative
+     * @param denominator The denominator b, which must be positive
+     */
+    public ContinuedFraction(long numerator, long denominator) {
+
+        if (numerator < 0 || denominator <= 0) {
+            throw new InvalidParameterException("Expected a non-negative numerator and a positive denominator, got " +
+                    numerator + "/" + denominator);
+        }
+        this.remainder = numerator;
+        this.divisor = denominator;
+
+    }
+
+    /**
+     * Returns the convergents of numerator / denominator as a lazy stream
+     * @param numerator The numerator a, which must be non-negative
+     * @param denominator The denominator b, which must be positive
+     * @return the stream of convergents, in order
+     */
+    public static Stream<Convergent> convergents(long numerator, long denominator) {
+        Spliterator<Convergent> spliterator = Spliterators.spliteratorUnknownSize(
+                new ContinuedFraction(numerator, denominator),
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * @return true if the expansion has more terms, false once the last
+     *         convergent (which equals a / b) has been returned
+     */
+    @Override
+    public boolean hasNext() {
+        return divisor != 0;
+    }
+
+    /**
+     * Computes the next term of the expansion
+     * @return the next term with its convergent
+     */
+    @Override
+    public Convergent next() {
+
+        if (divisor == 0) {
+            throw new NoSuchElementException("The continued fraction has no more terms");
+        }
+
+        long term = remainder / divisor;
+        long rest = remainder - term * divisor;
+        remainder = divisor;
+        divisor = rest;
+
+        long nextNumerator = term * numerator + previousNumerator;
+        long nextDenominator = term * denominator + previousDenominator;
+        previousNumerator = numerator;
+        previousDenominator = denominator;
+        numerator = nextNumerator;
+        denominator = nextDenominator;
+
+        return new Convergent(term, numerator, denominator);
+
+    }
+
+}
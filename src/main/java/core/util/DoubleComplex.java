@@ -0,0 +1,461 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+import org.apfloat.Apfloat;
+
+/**
+ * An immutable, double precision representation of a complex number.
+ * This is the fast counterpart of the high precision Complex class: all
+ * arithmetic is done on IEEE doubles, so it should be used wherever
+ * 20-digit precision is not required (for example, simulation amplitudes).
+ * Use toComplex() and fromComplex() to move between the two representations.
+ * @version 0.1
+ */
+public final class DoubleComplex {
+
+    /**
+     * The complex number 0
+     */
+    public static final DoubleComplex ZERO = new DoubleComplex(0, 0);
+
+    /**
+     * The complex number 1
+     */
+    public static final DoubleComplex ONE = new DoubleComplex(1, 0);
+
+    /**
+     * The imaginary unit i
+     */
+    public static final DoubleComplex I = new DoubleComplex(0, 1);
+
+    /**
+     * A default value of epsilon for error tolerance
+     */
+    public static final double EPSILON = 0.0000001;
+
+    /**
+     * The real part of this complex number
+     */
+    private final double real;
+
+    /**
+     * The imaginary part of this complex number
+     */
+    private final double imaginary;
+
+    /**
+     * Creates a complex number from the given real and imaginary parts
+     * @param realPart The real part of the complex number
+     * @param imaginaryPart The imaginary part of this complex number
+     */
+    public DoubleComplex(double realPart, double imaginaryPart) {
+        this.real = realPart;
+        this.imaginary = imaginaryPart;
+    }
+
+    /**
+     * Creates a complex number of magnitude r and phase theta
+     * @param magnitude The magnitude of the complex number
+     * @param radians The phase of the complex number, in radians
+     * @return the complex number r * e^(i * theta)
+     */
+    public static DoubleComplex fromPolar(double magnitude, double radians) {
+        return new DoubleComplex(magnitude * Math.cos(radians), magnitude * Math.sin(radians));
+    }
+
+    /**
+     * Creates a double precision copy of the given high precision complex
+     * number. Any digits beyond double precision are lost.
+     * @param complex The high precision complex number to convert
+     * @return the double precision equivalent of complex
+     */
+    public static DoubleComplex fromComplex(Complex complex) {
+        return new DoubleComplex(complex.getRealPart().doubleValue(),
+                complex.getImaginaryPart().doubleValue());
+    }
+
+    /**
+     * Converts this number into a high precision complex number, which
+     * can then be used where more than double precision is required
+     * @return the high precision equivalent of this complex number
+     */
+    public Complex toComplex() {
+        return new Complex(new Apfloat(real, Complex.MAX_PRECISION),
+                new Apfloat(imaginary, Complex.MAX_PRECISION));
+    }
+
+    /**
+     * Returns the real part of this complex number
+     * @return the real part of this complex number
+     */
+    public double getRealPart() {
+        return real;
+    }
+
+    /**
+     * Returns the imaginary part of this complex number
+     * @return the imaginary part of this complex number
+     */
+    public double getImaginaryPart() {
+        return imaginary;
+    }
+
+    /**
+     * Returns the magnitude of this complex number
+     * @return the magnitude of this complex number
+     */
+    public double getMagnitude() {
+        return Math.hypot(real, imaginary);
+    }
+
+    /**
+     * Returns the squared magnitude of this complex number, which avoids
+     * the square root (for example, when computing probabilities)
+     * @return the squared magnitude of this complex number
+     */
+    public double getMagnitudeSquared() {
+        return real * real + imaginary * imaginary;
+    }
+
+    /**
+     * Returns the phase of this complex number, or the
+     * angle of the vector in the complex plane. Returns
+     * NaN if phase is undefined (for example, the point)
+     * @return the phase of this complex number
+     */
+    public double getPhase() {
+
+        if (real == 0 && imaginary == 0) {
+            return Double.NaN;
+        }
+
+        return Math.atan2(imaginary, real);
+
+    }
+
+    /**
+     * Returns the normalized version of this complex number.
+     * Throws UnsupportedOperationException if this vector is
+     * simply a point
+     * @return the normalized complex number
+     */
+    public DoubleComplex getNormalized() throws UnsupportedOperationException {
+
+        double magnitude = getMagnitude();
+        if (magnitude == 0) {
+            throw new UnsupportedOperationException("Cannot normalize a point");
+        }
+
+        return new DoubleComplex(real / magnitude, imaginary / magnitude);
+
+    }
+
+    /**
+     * Returns the complex conjugate of this complex number
+     * @return the complex conjugate
+     */
+    public DoubleComplex getConjugate() {
+        return new DoubleComplex(real, -imaginary);
+    }
+
+    /**
+     * Adds this complex number to another complex number, returning
+     * the result
+     * @param other The complex number to add to this one
+     * @return The new complex number which is this + other
+     */
+    public DoubleComplex add(DoubleComplex other) {
+        return new DoubleComplex(real + other.real, imaginary + other.imaginary);
+    }
+
+    /**
+     * Subtracts another complex number from this complex number, returning
+     * the result
+     * @param other The complex number to subtract from this one
+     * @return The new complex number which is this - other
+     */
+    public DoubleComplex subtract(DoubleComplex other) {
+        return new DoubleComplex(real - other.real, imaginary - other.imaginary);
+    }
+
+    /**
+     * Multiplies this complex number by another complex number, returning
+     * the result
+     * @param other The complex number to multiply this complex number by
+     * @return The new complex number which is this * other
+     */
+    public DoubleComplex multiply(DoubleComplex other) {
+        return new DoubleComplex(real * other.real - imaginary * other.imaginary,
+                real * other.imaginary + imaginary * other.real);
+    }
+
+    /**
+     * Multiplies this complex number by a real scalar, returning the result
+     * @param scalar The real number to multiply this complex number by
+     * @return The new complex number which is this * scalar
+     */
+    public DoubleComplex multiply(double scalar) {
+        return new DoubleComplex(real * scalar, imaginary * scalar);
+    }
+
+    /**
+     * Divides this complex number by another complex number, returning
+     * the result
+     * @param other The complex number to divide this complex number by
+     * @return The new complex number which is this / other
+     */
+    public DoubleComplex divide(DoubleComplex other) {
+
+        // Make sure to not divide by zero
+        if (other.valueEquals(ZERO, EPSILON)) {
+            throw new InvalidParameterException("Cannot divide by zero");
+        }
+
+        double denominator = other.getMagnitudeSquared();
+        return new DoubleComplex((real * other.real + imaginary * other.imaginary) / denominator,
+                (imaginary * other.real - real * other.imaginary) / denominator);
+
+    }
+
+    /**
+     * Computes the result of this complex to the exp power; a negative power
+     * is the reciprocal of the positive one, which may be as large as a
+     * double allows
+     * @param exp The power to raise this complex number to
+     * @return The new complex number which is this ^ exp
+     * @throws InvalidParameterException if exp is negative and the power is
+     *         zero, or its reciprocal is not finite
+     */
+    public DoubleComplex exponentiate(int exp) {
+
+        // Square and multiply, using primitives to avoid intermediate objects;
+        // the power is held in a long so that -Integer.MIN_VALUE fits
+        long power = Math.abs((long) exp);
+        double resultReal = 1;
+        double resultImag = 0;
+        double baseReal = real;
+        double baseImag = imaginary;
+
+        while (power > 0) {
+            if ((power & 1) == 1) {
+                double newReal = resultReal * baseReal - resultImag * baseImag;
+                resultImag = resultReal * baseImag + resultImag * baseReal;
+                resultReal = newReal;
+            }
+            double newBaseReal = baseReal * baseReal - baseImag * baseImag;
+            baseImag = 2 * baseReal * baseImag;
+            baseReal = newBaseReal;
+            power >>= 1;
+        }
+
+        if (exp >= 0) {
+            return new DoubleComplex(resultReal, resultImag);
+        }
+
+        // The reciprocal conj(z) / |z|^2, since divide() rejects anything within EPSILON of zero
+        double magnitudeSquared = resultReal * resultReal + resultImag * resultImag;
+        double reciprocalReal = resultReal / magnitudeSquared;
+        double reciprocalImag = -resultImag / magnitudeSquared;
+        if (magnitudeSquared == 0 || !Double.isFinite(reciprocalReal) || !Double.isFinite(reciprocalImag)) {
+            throw new InvalidParameterException("Cannot raise " + this + " to the power " + exp +
+                    ", whose reciprocal is not finite");
+        }
+        return new DoubleComplex(reciprocalReal, reciprocalImag);
+
+    }
+
+    /**
+     * Computes the result of this complex squared
+     * @return The new complex number which is this ^ 2
+     */
+    public DoubleComplex square() {
+        return new DoubleComplex(real * real - imaginary * imaginary, 2 * real * imaginary);
+    }
+
+    /**
+     * Rotate this complex number in the complex plane by the given
+     * amount in radians
+     * @param radians The angle to rotate this vector by counterclockwise
+     * @return The new complex number, rotated by radians
+     */
+    public DoubleComplex rotate(double radians) {
+
+        double cos = Math.cos(radians);
+        double sin = Math.sin(radians);
+        return new DoubleComplex(real * cos - imaginary * sin, real * sin + imaginary * cos);
+
+    }
+
+    /**
+     * Returns true if this complex number is normalized, or has
+     * a magnitude of 1, up to a tolerance of epsilon
+     * @param epsilon The amount of error allowable
+     * @return true if this complex number has magnitude 1
+     */
+    public boolean isNormalized(double epsilon) {
+        return Math.abs(getMagnitude() - 1) < epsilon;
+    }
+
+    /**
+     * A custom equals function that returns equal if
+     * the given complex number has the same real and
+     * imaginary components as this complex number, up to
+     * an error tolerance epsilon
+     * @return if these two complex numbers are equivalent, up to
+     *         the given epsilon
+     */
+    public boolean valueEquals(DoubleComplex other, double epsilon) {
+        return Math.abs(real - other.real) < epsilon &&
+                Math.abs(imaginary - other.imaginary) < epsilon;
+    }
+
+    /**
+     * Returns true if the given object is a DoubleComplex with exactly the
+     * same real and imaginary components
+     * @param other The object to compare to
+     * @return if these two complex numbers are exactly equal
+     */
+    @Override
+    public boolean equals(Object other) {
+
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof DoubleComplex)) {
+            return false;
+        }
+
+        DoubleComplex that = (DoubleComplex) other;
+        return Double.compare(real, that.real) == 0 &&
+                Double.compare(imaginary, that.imaginary) == 0;
+
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(real) + Double.hashCode(imaginary);
+    }
+
+    /**
+     * Returns a string representation of this complex number
+     * @return the number as "(a, b)" where a is the real part, and b is
+     *         the imaginary part
+     */
+    @Override
+    public String toString() {
+        return "(" + real + ", " + imaginary + ")";
+    }
+
+    /**
+     * A mutable complex accumulator, used to sum up products (for example in
+     * an inner product) without allocating a new object for every term
+     */
+    public static final class Accumulator {
+
+        private double real;
+        private double imaginary;
+
+        /**
+         * Creates an accumulator starting at zero
+         */
+        public Accumulator() {
+        }
+
+        /**
+         * Adds the given complex value to this accumulator
+         * @param realPart The real part of the value to add
+         * @param imaginaryPart The imaginary part of the value to add
+         * @return this accumulator
+         */
+        public Accumulator add(double realPart, double imaginaryPart) {
+            real += realPart;
+            imaginary += imaginaryPart;
+            return this;
+        }
+
+        /**
+         * Adds the given complex number to this accumulator
+         * @param value The value to add
+         * @return this accumulator
+         */
+        public Accumulator add(DoubleComplex value) {
+            return add(value.real, value.imaginary);
+        }
+
+        /**
+         * Adds the product (aReal + i aImag) * (bReal + i bImag) to this accumulator
+         * @return this accumulator
+         */
+        public Accumulator addProduct(double aReal, double aImag, double bReal, double bImag) {
+            real += aReal * bReal - aImag * bImag;
+            imaginary += aReal * bImag + aImag * bReal;
+            return this;
+        }
+
+        /**
+         * Adds the product a * b to this accumulator
+         * @param a The first factor
+         * @param b The second factor
+         * @return this accumulator
+         */
+        public Accumulator addProduct(DoubleComplex a, DoubleComplex b) {
+            return addProduct(a.real, a.imaginary, b.real, b.imaginary);
+        }
+
+        /**
+         * Multiplies this accumulator in place by the given complex value
+         * @param realPart The real part of the factor
+         * @param imaginaryPart The imaginary part of the factor
+         * @return this accumulator
+         */
+        public Accumulator multiply(double realPart, double imaginaryPart) {
+            double newReal = real * realPart - imaginary * imaginaryPart;
+            imaginary = real * imaginaryPart + imaginary * realPart;
+            real = newReal;
+            return this;
+        }
+
+        /**
+         * Multiplies this accumulator in place by the given complex number
+         * @param value The factor
+         * @return this accumulator
+         */
+        public Accumulator multiply(DoubleComplex value) {
+            return multiply(value.real, value.imaginary);
+        }
+
+        /**
+         * Resets this accumulator to zero so that it can be reused
+         * @return this accumulator
+         */
+        public Accumulator reset() {
+            real = 0;
+            imaginary = 0;
+            return this;
+        }
+
+        /**
+         * @return the real part of the accumulated value
+         */
+        public double getRealPart() {
+            return real;
+        }
+
+        /**
+         * @return the imaginary part of the accumulated value
+         */
+        public double getImaginaryPart() {
+            return imaginary;
+        }
+
+        /**
+         * Returns an immutable snapshot of the accumulated value
+         * @return the accumulated value
+         */
+        public DoubleComplex toDoubleComplex() {
+            return new DoubleComplex(real, imaginary);
+        }
+
+    }
+
+}
@@ -0,0 +1,345 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+import org.apfloat.Apint;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Greatest common divisor kernels. Machine-word operands use the binary
+ * (Stein's) algorithm, which replaces Euclid's divisions by shifts and
+ * subtractions, and strips whole runs of zero bits at once with
+ * numberOfTrailingZeros. Arbitrary precision operands use Lehmer's
+ * algorithm, which runs Euclid's algorithm on the leading 62 bits of the
+ * operands in single precision and applies the accumulated 2x2 cofactor
+ * matrix to the full operands once per ~30 bits of progress, updating
+ * them in place rather than allocating a quotient and remainder per step.
+ * @version 0.1
+ */
+public class Gcd {
+
+    /**
+     * Cofactors stay below this bound, so that a cofactor times a 32-bit
+     * limb fits in a long
+     */
+    private static final long COFACTOR_LIMIT = 1L << 31;
+
+    /**
+     * The number of leading bits used for the single precision steps
+     */
+    private static final int LEADING_BITS = 62;
+
+    private static final long LIMB_MASK = 0xFFFFFFFFL;
+
+    /**
+     * Computes the gcd of |a| and |b| with the binary algorithm
+     * @param a The first number
+     * @param b The second number
+     * @return the greatest common divisor, 0 only if both are 0
+     */
+    public static int gcd(int a, int b) {
+
+        a = Math.abs(a);
+        b = Math.abs(b);
+        if (a == 0 || b == 0) {
+            return a | b;
+        }
+        int shift = Integer.numberOfTrailingZeros(a | b);
+        a >>>= Integer.numberOfTrailingZeros(a);
+        do {
+            b >>>= Integer.numberOfTrailingZeros(b);
+            if (a > b) {
+                int swap = a;
+                a = b;
+                b = swap;
+            }
+            b -= a;
+        } while (b != 0);
+        return a << shift;
+
+    }
+
+    /**
+     * Computes the gcd of |a| and |b| with the binary algorithm
+     * @param a The first number
+     * @param b The second number
+     * @return the greatest common divisor, 0 only if both are 0
+     */
+    public static long gcd(long a, long b) {
+
+        a = Math.abs(a);
+        b = Math.abs(b);
+        if (a == 0 || b == 0) {
+            return a | b;
+        }
+        int shift = Long.numberOfTrailingZeros(a | b);
+        a >>>= Long.numberOfTrailingZeros(a);
+        do {
+            b >>>= Long.numberOfTrailingZeros(b);
+            if (a > b) {
+                long swap = a;
+                a = b;
+                b = swap;
+            }
+            b -= a;
+        } while (b != 0);
+        return a << shift;
+
+    }
+
+    /**
+     * Computes gcd(values[i], n) for every i, as when testing many
+     * candidates against one modulus in a factoring pipeline
+     * @param values The numbers to take the gcd of with n
+     * @param n The common operand
+     * @return the new array of greatest common divisors
+     */
+    public static long[] gcd(long[] values, long n) {
+        long[] result = new long[values.length];
+        gcd(values, n, result);
+        return result;
+    }
+
+    /**
+     * Computes gcd(values[i], n) for every i into result, without
+     * allocating. The power of two in n is split off once for the batch.
+     * @param values The numbers to take the gcd of with n
+     * @param n The common operand
+     * @param result The array to write the greatest common divisors to,
+     *               which may be values itself
+     */
+    public static void gcd(long[] values, long n, long[] result) {
+
+        if (result.length < values.length) {
+            throw new InvalidParameterException("Result array of length " + result.length +
+                    " cannot hold " + values.length + " values");
+        }
+        n = Math.abs(n);
+        if (n == 0) {
+            for (int i = 0; i < values.length; i++) {
+                result[i] = Math.abs(values[i]);
+            }
+            return;
+        }
+
+        int nTwos = Long.numberOfTrailingZeros(n);
+        long nOdd = n >>> nTwos;
+        for (int i = 0; i < values.length; i++) {
+
+            long b = Math.abs(values[i]);
+            if (b == 0) {
+                result[i] = n;
+                continue;
+            }
+            int bTwos = Long.numberOfTrailingZeros(b);
+            long a = nOdd;
+            do {
+                b >>>= Long.numberOfTrailingZeros(b);
+                if (a > b) {
+                    long swap = a;
+                    a = b;
+                    b = swap;
+                }
+                b -= a;
+            } while (b != 0);
+            result[i] = a << Math.min(nTwos, bTwos);
+
+        }
+
+    }
+
+    /**
+     * Computes the gcd of |a| and |b| with Lehmer's algorithm, finishing
+     * with the binary algorithm once the operands fit in a long
+     * @param a The first number
+     * @param b The second number
+     * @return the greatest common divisor, 0 only if both are 0
+     */
+    public static BigInteger gcd(BigInteger a, BigInteger b) {
+
+        a = a.abs();
+        b = b.abs();
+        if (a.compareTo(b) < 0) {
+            BigInteger swap = a;
+            a = b;
+            b = swap;
+        }
+        if (b.bitLength() <= LEADING_BITS) {
+            return b.signum() == 0 ? a : BigInteger.valueOf(gcd(b.longValue(), a.mod(b).longValue()));
+        }
+
+        int length = (a.bitLength() + 31) >>> 5;
+        int[] u = toLimbs(a, length);
+        int[] v = toLimbs(b, length);
+        int[] nextU = new int[length];
+        int[] nextV = new int[length];
+        int uLength = length;
+        int vLength = (b.bitLength() + 31) >>> 5;
+
+        while (bitLength(v, vLength) > LEADING_BITS) {
+
+            int shift = bitLength(u, uLength) - LEADING_BITS;
+            long x = leadingBits(u, uLength, shift);
+            long y = leadingBits(v, vLength, shift);
+
+            // Euclid on the leading bits, for as long as its quotients are certain to be those of u and v
+            long A = 1, B = 0, C = 0, D = 1;
+            while (y + C != 0 && y + D != 0) {
+                long q = (x + A) / (y + C);
+                if (q != (x + B) / (y + D) || q >= COFACTOR_LIMIT) {
+                    break;
+                }
+                long nextC = A - q * C;
+                long nextD = B - q * D;
+                if (Math.abs(nextC) >= COFACTOR_LIMIT || Math.abs(nextD) >= COFACTOR_LIMIT) {
+                    break;
+                }
+                A = C;
+                B = D;
+                C = nextC;
+                D = nextD;
+                long nextY = x - q * y;
+                x = y;
+                y = nextY;
+            }
+
+            if (B == 0) {
+                // The first quotient is too large for single precision, so divide in full
+                BigInteger divisor = fromLimbs(v, vLength);
+                BigInteger remainder = fromLimbs(u, uLength).mod(divisor);
+                System.arraycopy(v, 0, u, 0, vLength);
+                Arrays.fill(u, vLength, uLength, 0);
+                uLength = vLength;
+                int[] limbs = toLimbs(remainder, uLength);
+                System.arraycopy(limbs, 0, v, 0, uLength);
+                vLength = trim(v, uLength);
+                continue;
+            }
+
+            // (u, v) <- (A u + B v, C u + D v), which are later remainders of Euclid's algorithm
+            combine(A, u, B, v, uLength, nextU);
+            combine(C, u, D, v, uLength, nextV);
+            int[] swap = u;
+            u = nextU;
+            nextU = swap;
+            swap = v;
+            v = nextV;
+            nextV = swap;
+            uLength = trim(u, uLength);
+            vLength = trim(v, uLength);
+
+        }
+
+        if (vLength == 0) {
+            return fromLimbs(u, uLength);
+        }
+        long small = leadingBits(v, vLength, 0);
+        long remainder = fromLimbs(u, uLength).mod(BigInteger.valueOf(small)).longValue();
+        return BigInteger.valueOf(gcd(small, remainder));
+
+    }
+
+    /**
+     * Computes the gcd of |a| and |b|, in machine words when both fit in a
+     * long and with Lehmer's algorithm otherwise
+     * @param a The first number
+     * @param b The second number
+     * @return the greatest common divisor, 0 only if both are 0
+     */
+    public static Apint gcd(Apint a, Apint b) {
+
+        BigInteger bigA = toBigInteger(a);
+        BigInteger bigB = toBigInteger(b);
+        BigInteger gcd = bigA.bitLength() < 64 && bigB.bitLength() < 64
+                ? BigInteger.valueOf(gcd(bigA.longValue(), bigB.longValue()))
+                : gcd(bigA, bigB);
+        return new Apint(gcd.toString(a.radix()), a.radix());
+
+    }
+
+    /**
+     * Converts a high precision integer through its digit string, which is
+     * far cheaper than Apint.toBigInteger() and new Apint(BigInteger)
+     */
+    private static BigInteger toBigInteger(Apint number) {
+        return new BigInteger(number.toString(), number.radix());
+    }
+
+    /**
+     * Writes x * u + y * v into result, for cofactors x and y of opposite
+     * signs (or zero) whose combination is known to be non-negative
+     */
+    private static void combine(long x, int[] u, long y, int[] v, int length, int[] result) {
+
+        long carry = 0;
+        for (int i = 0; i < length; i++) {
+            long t = x * (u[i] & LIMB_MASK) + y * (v[i] & LIMB_MASK) + carry;
+            result[i] = (int) t;
+            carry = t >> 32;
+        }
+
+    }
+
+    /**
+     * Returns the 62 bits of the number starting at bit shift
+     */
+    private static long leadingBits(int[] limbs, int length, int shift) {
+
+        int index = shift >>> 5;
+        int offset = shift & 31;
+        long low = limb(limbs, length, index);
+        long middle = limb(limbs, length, index + 1);
+        long value = offset == 0
+                ? low | middle << 32
+                : low >>> offset | middle << (32 - offset) | limb(limbs, length, index + 2) << (64 - offset);
+        return value & ((1L << LEADING_BITS) - 1);
+
+    }
+
+    private static long limb(int[] limbs, int length, int index) {
+        return index < length ? limbs[index] & LIMB_MASK : 0;
+    }
+
+    private static int bitLength(int[] limbs, int length) {
+        return length == 0 ? 0 : 32 * length - Integer.numberOfLeadingZeros(limbs[length - 1]);
+    }
+
+    /**
+     * Returns the length of the number without leading zero limbs
+     */
+    private static int trim(int[] limbs, int length) {
+        while (length > 0 && limbs[length - 1] == 0) {
+            length--;
+        }
+        return length;
+    }
+
+    /**
+     * Returns the magnitude of a non-negative number as little-endian 32-bit limbs
+     */
+    private static int[] toLimbs(BigInteger number, int length) {
+
+        int[] limbs = new int[length];
+        byte[] bytes = number.toByteArray();
+        for (int i = 0; i < bytes.length && i < 4 * length; i++) {
+            limbs[i >>> 2] |= (bytes[bytes.length - 1 - i] & 0xFF) << (8 * (i & 3));
+        }
+        return limbs;
+
+    }
+
+    private static BigInteger fromLimbs(int[] limbs, int length) {
+
+        byte[] bytes = new byte[4 * length + 1];
+        for (int i = 0; i < length; i++) {
+            int limb = limbs[i];
+            for (int j = 0; j < 4; j++) {
+                bytes[bytes.length - 1 - 4 * i - j] = (byte) (limb >>> (8 * j));
+            }
+        }
+        return new BigInteger(bytes);
+
+    }
+
+}
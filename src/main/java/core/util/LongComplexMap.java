@@ -0,0 +1,209 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from long keys to complex values, using open addressing with
+ * linear probing over primitive arrays, so that neither keys nor values
+ * are boxed. The map doubles its table whenever it becomes half full.
+ * Entries cannot be removed one at a time; a map is rebuilt instead.
+ *
+ * The entries are visited by slot: every slot below getSlotCount() for
+ * which isUsed() is true holds one entry, whose key and value are read
+ * (and whose value may be changed) through the slot.
+ * @version 0.1
+ */
+public final class LongComplexMap {
+
+    /**
+     * The most slots a map can have
+     */
+    public static final int MAX_SLOTS = 1 << 30;
+
+    private long[] keys;
+    private double[] real;
+    private double[] imag;
+    private boolean[] used;
+    private int mask;
+    private int size;
+
+    /**
+     * Creates a map with room for the given number of entries before it grows
+     * @param expected The number of entries expected
+     */
+    public LongComplexMap(int expected) {
+
+        if (expected < 0 || expected > MAX_SLOTS / 2) {
+            throw new InvalidParameterException("Expected size must be between 0 and 2^29");
+        }
+        allocate(Integer.highestOneBit(Math.max(expected, 1) * 2 - 1) << 1);
+
+    }
+
+    /**
+     * @return the number of entries in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of slots, which bounds the slot indices of entries
+     * @return the number of slots
+     */
+    public int getSlotCount() {
+        return keys.length;
+    }
+
+    /**
+     * @param slot A slot below getSlotCount()
+     * @return true if the slot holds an entry
+     */
+    public boolean isUsed(int slot) {
+        return used[slot];
+    }
+
+    /**
+     * @param slot A slot which holds an entry
+     * @return the key of the entry
+     */
+    public long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * @param slot A slot which holds an entry
+     * @return the real part of the value of the entry
+     */
+    public double realAt(int slot) {
+        return real[slot];
+    }
+
+    /**
+     * @param slot A slot which holds an entry
+     * @return the imaginary part of the value of the entry
+     */
+    public double imagAt(int slot) {
+        return imag[slot];
+    }
+
+    /**
+     * Replaces the value of an entry
+     * @param slot A slot which holds an entry
+     * @param realPart The new real part
+     * @param imaginaryPart The new imaginary part
+     */
+    public void setAt(int slot, double realPart, double imaginaryPart) {
+        real[slot] = realPart;
+        imag[slot] = imaginaryPart;
+    }
+
+    /**
+     * Returns the slot holding the key
+     * @param key The key
+     * @return the slot, or -1 if the key is not in the map
+     */
+    public int find(long key) {
+
+        int slot = slot(key);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+
+    }
+
+    /**
+     * Adds the value to the value of the key, which starts at 0 if the key
+     * is not yet in the map
+     * @param key The key
+     * @param realPart The real part of the value to add
+     * @param imaginaryPart The imaginary part of the value to add
+     */
+    public void add(long key, double realPart, double imaginaryPart) {
+
+        int slot = slot(key);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                real[slot] += realPart;
+                imag[slot] += imaginaryPart;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        used[slot] = true;
+        keys[slot] = key;
+        real[slot] = realPart;
+        imag[slot] = imaginaryPart;
+        if (++size > keys.length >> 1) {
+            grow();
+        }
+
+    }
+
+    /**
+     * Removes every entry from the map, keeping its table
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * Doubles the table and reinserts every entry
+     */
+    private void grow() {
+
+        if (keys.length == MAX_SLOTS) {
+            throw new IllegalStateException("Map is full");
+        }
+
+        long[] oldKeys = keys;
+        double[] oldReal = real;
+        double[] oldImag = imag;
+        boolean[] oldUsed = used;
+        allocate(keys.length << 1);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = slot(oldKeys[i]);
+                while (used[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                used[slot] = true;
+                keys[slot] = oldKeys[i];
+                real[slot] = oldReal[i];
+                imag[slot] = oldImag[i];
+            }
+        }
+
+    }
+
+    private void allocate(int slots) {
+        keys = new long[slots];
+        real = new double[slots];
+        imag = new double[slots];
+        used = new boolean[slots];
+        mask = slots - 1;
+    }
+
+    /**
+     * Spreads the bits of the key (the finalizer of MurmurHash3) and picks a slot
+     */
+    private int slot(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+}
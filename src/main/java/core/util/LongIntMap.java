@@ -0,0 +1,122 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-capacity hash map from long keys to int values, using open
+ * addressing with linear probing over primitive arrays, so that neither
+ * keys nor values are boxed. Entries cannot be removed.
+ * @version 0.1
+ */
+public final class LongIntMap {
+
+    /**
+     * The value returned by get() for a key which is not in the map
+     */
+    public static final int MISSING = Integer.MIN_VALUE;
+
+    private final long[] keys;
+    private final int[] values;
+    private final boolean[] used;
+    private final int mask;
+    private final int capacity;
+    private int size;
+
+    /**
+     * Creates a map which can hold up to the given number of entries
+     * @param capacity The maximum number of entries
+     */
+    public LongIntMap(int capacity) {
+
+        if (capacity < 0 || capacity > (1 << 29)) {
+            throw new InvalidParameterException("Capacity must be between 0 and 2^29");
+        }
+
+        // Keep the load factor at or below 1/2 so probe sequences stay short
+        int slots = Integer.highestOneBit(Math.max(capacity, 1) * 2 - 1) << 1;
+        this.keys = new long[slots];
+        this.values = new int[slots];
+        this.used = new boolean[slots];
+        this.mask = slots - 1;
+        this.capacity = capacity;
+
+    }
+
+    /**
+     * @return the number of entries in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Associates the value with the key. If the key is already present, the
+     * existing value is kept.
+     * @param key The key
+     * @param value The value
+     * @return true if the key was added, false if it was already present
+     */
+    public boolean putIfAbsent(long key, int value) {
+
+        int slot = slot(key);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == capacity) {
+            throw new IllegalStateException("Map is full");
+        }
+
+        used[slot] = true;
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        return true;
+
+    }
+
+    /**
+     * Returns the value associated with the key
+     * @param key The key
+     * @return the value, or MISSING if the key is not in the map
+     */
+    public int get(long key) {
+
+        int slot = slot(key);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+
+    }
+
+    /**
+     * Removes every entry from the map
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * Spreads the bits of the key (the finalizer of MurmurHash3) and picks a slot
+     */
+    private int slot(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+}
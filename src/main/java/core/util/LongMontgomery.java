@@ -0,0 +1,387 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+
+/**
+ * Montgomery modular arithmetic for a fixed odd modulus below 2^63.
+ * Numbers are kept in Montgomery form a * 2^64 mod m, where a product
+ * only needs two 64x64 bit multiplications and no division. Use
+ * toMontgomery() and fromMontgomery() to move in and out of the form;
+ * add, subtract and multiply work on numbers in Montgomery form.
+ *
+ * Powers use a sliding window of WINDOW_BITS bits, whose odd powers are
+ * kept in locals rather than a table, so that no operation allocates. For
+ * many powers of one base, fixedBase() precomputes a table which needs no
+ * squarings at all; for many inverses, batchInverse() takes one inversion
+ * and three multiplications per number.
+ * @version 0.2
+ */
+public final class LongMontgomery {
+
+    /**
+     * The width of the sliding window of pow, whose odd powers 1, 3, 5 and 7 fit in locals
+     */
+    public static final int WINDOW_BITS = 3;
+
+    /**
+     * The odd modulus m
+     */
+    private final long modulus;
+
+    /**
+     * m^-1 mod 2^64
+     */
+    private final long inverse;
+
+    /**
+     * 2^64 mod m, which is 1 in Montgomery form
+     */
+    private final long one;
+
+    /**
+     * 2^128 mod m, used to convert into Montgomery form
+     */
+    private final long rSquared;
+
+    /**
+     * Creates the Montgomery context for the given modulus
+     * @param modulus The odd modulus, 1 &lt; m &lt; 2^63
+     */
+    public LongMontgomery(long modulus) {
+
+        if (modulus <= 1 || (modulus & 1) == 0) {
+            throw new InvalidParameterException("Montgomery arithmetic needs an odd modulus > 1, got " + modulus);
+        }
+
+        this.modulus = modulus;
+
+        // Newton's iteration doubles the number of correct low bits each step; m * m = 1 mod 8
+        long inv = modulus;
+        for (int i = 0; i < 5; i++) {
+            inv *= 2 - modulus * inv;
+        }
+        this.inverse = inv;
+
+        // 2^64 mod m = ((2^64 - 1) mod m + 1) mod m
+        long r = (Long.remainderUnsigned(-1L, modulus) + 1) % modulus;
+        this.one = r;
+
+        // Double 2^64 mod m another 64 times to get 2^128 mod m
+        for (int i = 0; i < 64; i++) {
+            r = addMod(r, r);
+        }
+        this.rSquared = r;
+
+    }
+
+    /**
+     * @return the modulus of this context
+     */
+    public long getModulus() {
+        return modulus;
+    }
+
+    /**
+     * @return 1 in Montgomery form
+     */
+    public long one() {
+        return one;
+    }
+
+    /**
+     * Converts a number into Montgomery form
+     * @param value Any number; negative numbers are taken mod m
+     * @return value * 2^64 mod m
+     */
+    public long toMontgomery(long value) {
+        value %= modulus;
+        if (value < 0) {
+            value += modulus;
+        }
+        return multiply(value, rSquared);
+    }
+
+    /**
+     * Converts a number out of Montgomery form
+     * @param value A number in Montgomery form
+     * @return the number it represents, in [0, m)
+     */
+    public long fromMontgomery(long value) {
+        return reduce(0, value);
+    }
+
+    /**
+     * Multiplies two numbers in Montgomery form
+     * @return a * b in Montgomery form
+     */
+    public long multiply(long a, long b) {
+        return reduce(multiplyHighUnsigned(a, b), a * b);
+    }
+
+    /**
+     * Squares a number in Montgomery form
+     * @return a * a in Montgomery form
+     */
+    public long square(long a) {
+        return multiply(a, a);
+    }
+
+    /**
+     * Adds two numbers in Montgomery form (or two residues in [0, m))
+     * @return a + b mod m
+     */
+    public long add(long a, long b) {
+        return addMod(a, b);
+    }
+
+    /**
+     * Subtracts two numbers in Montgomery form (or two residues in [0, m))
+     * @return a - b mod m
+     */
+    public long subtract(long a, long b) {
+        long difference = a - b;
+        return difference < 0 ? difference + modulus : difference;
+    }
+
+    /**
+     * Raises a number in Montgomery form to a non-negative power
+     * @param base The base, in Montgomery form
+     * @param exponent The exponent, treated as unsigned
+     * @return base ^ exponent in Montgomery form
+     */
+    public long powMontgomery(long base, long exponent) {
+
+        if (Long.compareUnsigned(exponent, 1 << (2 * WINDOW_BITS)) < 0) {
+            // Too few bits to pay for the odd powers
+            long result = one;
+            while (exponent != 0) {
+                if ((exponent & 1) == 1) {
+                    result = multiply(result, base);
+                }
+                base = multiply(base, base);
+                exponent >>>= 1;
+            }
+            return result;
+        }
+
+        long squared = square(base);
+        long base3 = multiply(base, squared);
+        long base5 = multiply(base3, squared);
+        long base7 = multiply(base5, squared);
+
+        long result = one;
+        boolean started = false;
+        for (int bit = 63 - Long.numberOfLeadingZeros(exponent); bit >= 0; ) {
+
+            if (((exponent >>> bit) & 1) == 0) {
+                result = square(result);
+                bit--;
+                continue;
+            }
+
+            // The longest window of at most WINDOW_BITS bits from this one that ends in a 1
+            int low = Math.max(bit - WINDOW_BITS + 1, 0);
+            while (((exponent >>> low) & 1) == 0) {
+                low++;
+            }
+            int window = (int) (exponent >>> low) & ((1 << (bit - low + 1)) - 1);
+            long power = window == 1 ? base : window == 3 ? base3 : window == 5 ? base5 : base7;
+            if (started) {
+                for (int i = bit; i >= low; i--) {
+                    result = square(result);
+                }
+                result = multiply(result, power);
+            } else {
+                result = power;
+                started = true;
+            }
+            bit = low - 1;
+
+        }
+        return result;
+
+    }
+
+    /**
+     * Computes base ^ exponent mod m, for an ordinary (not Montgomery form) base
+     * @param base The base
+     * @param exponent The exponent, treated as unsigned
+     * @return base ^ exponent mod m, in [0, m)
+     */
+    public long pow(long base, long exponent) {
+        return fromMontgomery(powMontgomery(toMontgomery(base), exponent));
+    }
+
+    /**
+     * Inverts a number in Montgomery form, by the extended Euclidean algorithm
+     * @param a A number in Montgomery form
+     * @return a^-1 in Montgomery form, or 0 if a has no inverse (when gcd(a, m) &gt; 1)
+     */
+    public long inverse(long a) {
+
+        long r = modulus;
+        long newR = fromMontgomery(a);
+        long t = 0;
+        long newT = 1;
+        while (newR != 0) {
+            long quotient = r / newR;
+            long swap = t - quotient * newT;
+            t = newT;
+            newT = swap;
+            swap = r - quotient * newR;
+            r = newR;
+            newR = swap;
+        }
+        if (r != 1) {
+            return 0;
+        }
+        return toMontgomery(t < 0 ? t + modulus : t);
+
+    }
+
+    /**
+     * Inverts many numbers in Montgomery form at the cost of one inversion,
+     * by Montgomery's trick: the prefix products are inverted together,
+     * and each inverse is peeled off on the way back
+     * @param values The numbers to invert, in Montgomery form
+     * @param count The number of values to invert, from the start of the array
+     * @param inverses The array to write the inverses to, in Montgomery
+     *                 form, which must not be values itself
+     * @return true if every value was invertible; if not, inverses holds
+     *         no inverses, and the gcd of the product of the values with m
+     *         is a factor of m
+     */
+    public boolean batchInverse(long[] values, int count, long[] inverses) {
+
+        if (count == 0) {
+            return true;
+        }
+        inverses[0] = values[0];
+        for (int i = 1; i < count; i++) {
+            inverses[i] = multiply(inverses[i - 1], values[i]);
+        }
+        long inverse = inverse(inverses[count - 1]);
+        if (inverse == 0) {
+            return false;
+        }
+        for (int i = count - 1; i > 0; i--) {
+            // inverse is (v_0 ... v_i)^-1, and inverses[i - 1] is v_0 ... v_i-1
+            long value = values[i];
+            inverses[i] = multiply(inverse, inverses[i - 1]);
+            inverse = multiply(inverse, value);
+        }
+        inverses[0] = inverse;
+        return true;
+
+    }
+
+    /**
+     * Precomputes the powers of a base needed to raise it to any exponent
+     * with at most 16 multiplications
+     * @param base The base, as an ordinary number
+     * @return the table of powers of the base
+     */
+    public FixedBase fixedBase(long base) {
+        return new FixedBase(toMontgomery(base));
+    }
+
+    /**
+     * Computes a * b mod m for ordinary residues a, b in [0, m)
+     * @return a * b mod m
+     */
+    public long multiplyMod(long a, long b) {
+        // (a * 2^64) * b * 2^-64 = a * b, so only one operand needs converting
+        return multiply(toMontgomery(a), b);
+    }
+
+    /**
+     * Montgomery reduction: returns (high * 2^64 + low) * 2^-64 mod m,
+     * for a 128 bit value below m * 2^64
+     */
+    private long reduce(long high, long low) {
+
+        long q = low * inverse;
+        // low - q * m is 0 mod 2^64, so only the high halves need subtracting
+        long result = high - multiplyHighUnsigned(q, modulus);
+        return result < 0 ? result + modulus : result;
+
+    }
+
+    /**
+     * Adds two residues in [0, m), where the sum may exceed 2^63
+     */
+    private long addMod(long a, long b) {
+        long sum = a + b;
+        return Long.compareUnsigned(sum, modulus) >= 0 ? sum - modulus : sum;
+    }
+
+    /**
+     * The powers base^(j 16^i) of a fixed base, for every hex digit j and
+     * position i of an exponent, so that a power is the product of one
+     * entry per nonzero digit. The table takes 2 KB.
+     */
+    public final class FixedBase {
+
+        private final long[] table = new long[16 * 16];
+
+        private FixedBase(long base) {
+            long power = base;
+            for (int i = 0; i < 16; i++) {
+                table[16 * i] = one;
+                for (int j = 1; j < 16; j++) {
+                    table[16 * i + j] = multiply(table[16 * i + j - 1], power);
+                }
+                power = multiply(table[16 * i + 15], power);
+            }
+        }
+
+        /**
+         * Raises the base to a power
+         * @param exponent The exponent, treated as unsigned
+         * @return base ^ exponent in Montgomery form
+         */
+        public long powMontgomery(long exponent) {
+            long result = one;
+            for (int i = 0; exponent != 0; i++, exponent >>>= 4) {
+                int digit = (int) exponent & 15;
+                if (digit != 0) {
+                    result = multiply(result, table[16 * i + digit]);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Raises the base to a power
+         * @param exponent The exponent, treated as unsigned
+         * @return base ^ exponent mod m, in [0, m)
+         */
+        public long pow(long exponent) {
+            return fromMontgomery(powMontgomery(exponent));
+        }
+
+    }
+
+    /**
+     * Returns the high 64 bits of the unsigned 128 bit product a * b.
+     * (Math.multiplyHigh is not available on Java 8, so this is spelled out.)
+     * @return the high half of a * b, as unsigned numbers
+     */
+    public static long multiplyHighUnsigned(long a, long b) {
+
+        long aLow = a & 0xFFFFFFFFL;
+        long aHigh = a >>> 32;
+        long bLow = b & 0xFFFFFFFFL;
+        long bHigh = b >>> 32;
+
+        long lowLow = aLow * bLow;
+        long highLow = aHigh * bLow;
+        long lowHigh = aLow * bHigh;
+        long highHigh = aHigh * bHigh;
+
+        long middle = (lowLow >>> 32) + (highLow & 0xFFFFFFFFL) + (lowHigh & 0xFFFFFFFFL);
+        return highHigh + (highLow >>> 32) + (lowHigh >>> 32) + (middle >>> 32);
+
+    }
+
+}
@@ -1,19 +1,17 @@
 package core.util;
 
 import core.expection.InvalidParameterException;
-import org.apfloat.Apcomplex;
 import org.apfloat.Apfloat;
 import org.apfloat.Apint;
-import org.apfloat.ApintMath;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.List;
+import java.math.BigInteger;
+import java.util.Arrays;
 
 /**
  * A class of static methods for completing certain mathematical computations
  * @author Aaron Vontell
- * @version 0.3
+ * @version 0.7
  */
 public class Mathematics {
 
@@ -43,6 +41,11 @@ public class Mathematics {
             "092721079750930295532116534498720275596023648066549911988183479775356636980742"+
             "654252786255181841757467289097777279380008164706001614524919217321721477235014");*/
 
+    /**
+     * The largest long, as a high precision integer
+     */
+    private static final Apint LONG_MAX = new Apint(Long.MAX_VALUE);
+
 
     /**
      * Computes the continued fraction for the given number, up to a given number
@@ -53,10 +56,13 @@ public class Mathematics {
      * @param iterations The maximum number of iterations to compute this continued
      *                   fraction for
      * @return the simple continued fraction in abbreviated notation
+     * @see ContinuedFraction for the exact, lazy expansion of a rational
      */
     public static int[] continuedFraction(Apfloat number, int iterations) {
 
-        List<Integer> fraction = new ArrayList<Integer>();
+        // Terms go straight into a primitive array, grown as needed
+        int[] terms = new int[Math.max(1, Math.min(iterations, 16))];
+        int count = 0;
 
         int iter_count = 0;
         while (iter_count < iterations) {
@@ -65,7 +71,10 @@ public class Mathematics {
             int integer = number.intValue();
             Apfloat remainder = number.mod(Apfloat.ONE);
 
-            fraction.add(integer);
+            if (count == terms.length) {
+                terms = Arrays.copyOf(terms, 2 * count);
+            }
+            terms[count++] = integer;
             if(remainder.equals(Apfloat.ZERO)){
                 break;
             }
@@ -74,13 +83,7 @@ public class Mathematics {
 
         }
 
-        // TODO: Gotta be another way... is this too slow?
-        int[] result = new int[fraction.size()];
-        for(int i = 0; i < result.length; i++) {
-            result[i] = fraction.get(i);
-        }
-
-        return result;
+        return Arrays.copyOf(terms, count);
 
     }
 
@@ -116,31 +119,35 @@ public class Mathematics {
 
     /**
      * Computes the greatest common denominator of two positive integers a and b, using
-     * Euclid's algorithm in an iterative approach
-     * More information at https://en.wikipedia.org/wiki/Greatest_common_divisor#Using_Euclid.27s_algorithm
+     * the binary GCD algorithm (see Gcd)
+     * More information at https://en.wikipedia.org/wiki/Binary_GCD_algorithm
      * @param a The first number to compute the GCD with
      * @param b The second number to compute the GCD with
      * @return The greatest common denominator of a and b
      */
     public static int greatestCommonDenominator(int a, int b) {
 
-        while(b != 0) {
-
-            int bTemp = b;
+        return Gcd.gcd(a, b);
 
-            b = a % b;
-            a = bTemp;
+    }
 
-        }
+    /**
+     * Computes the greatest common denominator of two non-negative longs a and b, using
+     * the binary GCD algorithm (see Gcd)
+     * @param a The first number to compute the GCD with
+     * @param b The second number to compute the GCD with
+     * @return The greatest common denominator of a and b
+     */
+    public static long greatestCommonDenominator(long a, long b) {
 
-        return a;
+        return Gcd.gcd(a, b);
 
     }
 
     /**
-     * Computes the greatest common denominator of two positive high precision integers a and b, using
-     * Euclid's algorithm in an iterative approach
-     * More information at https://en.wikipedia.org/wiki/Greatest_common_divisor#Using_Euclid.27s_algorithm
+     * Computes the greatest common denominator of two positive high precision integers a and b,
+     * in machine words when both fit in a long and with Lehmer's algorithm otherwise (see Gcd)
+     * More information at https://en.wikipedia.org/wiki/Lehmer%27s_GCD_algorithm
      * @param a The first high precision integer to compute the GCD with
      * @param b The second high precision integer to compute the GCD with
      * @return The greatest common denominator of a and b
@@ -151,34 +158,49 @@ public class Mathematics {
             throw new InvalidParameterException("N cannot be 0, modulo by 0");
         }
 
-        while(!b.equals(Apint.ZERO)) {
+        return Gcd.gcd(a, b);
 
-            Apint newB = a.mod(b);
-            a = b.add(Apcomplex.ZERO);
-            b = newB;
+    }
 
-        }
+    /**
+     * Finds the period of the function f(x) = X^r mod N, given
+     * N and X
+     * @param X the X to using in calculating r
+     * @param N the modulus of the function above
+     * @return the period of the function above
+     */
+    public static int findPeriodClassically(int X, int N) {
 
-        return a;
+        return (int) findPeriodClassically((long) X, (long) N);
 
     }
 
     /**
      * Finds the period of the function f(x) = X^r mod N, given
-     * N and X
+     * N and X, using Montgomery arithmetic on longs (see OrderFinding)
      * @param X the X to using in calculating r
      * @param N the modulus of the function above
      * @return the period of the function above
+     * @throws InvalidParameterException if the period is past 2^46, too
+     *         large for the bounded search of OrderFinding
      */
-    public static int findPeriodClassically(int X, int N) {
+    public static long findPeriodClassically(long X, long N) {
 
-        return findPeriodClassically(new Apint(X), new Apint(N)).intValue();
+        // Initial check for invalid parameters
+        if(X == 0 || N == 0) {
+            throw new InvalidParameterException("Either X or N was zero");
+        }
+
+        return OrderFinding.findOrder(X, N);
 
     }
 
     /**
      * Finds the period of the function f(x) = X^r mod N, given
-     * N and X, as high precision integers
+     * N and X, as high precision integers. Moduli that fit in 63 bits
+     * are handed to the long implementation, and larger ones to the
+     * bounded search of OrderFinding.findOrder(BigInteger, BigInteger),
+     * which throws an InvalidParameterException for periods past 2^46.
      * @param X the X to using in calculating r
      * @param N the modules of the function above
      * @return The period of the function above
@@ -195,37 +217,50 @@ public class Mathematics {
             throw new InvalidParameterException("X and N do not have a period in x^r mod N");
         }
 
-        Apint period = null;
-        for(Apint r = Apint.ONE; r.compareTo(N) == -1; r = r.add(Apint.ONE)) {
-
-            Apint result = ApintMath.modPow(X, r, N);
-            if (result.equals(Apint.ONE)) {
-                // We found an r!
-                period = r;
-                break;
-            }
-
+        if(N.compareTo(LONG_MAX) <= 0) {
+            return new Apint(findPeriodClassically(X.mod(N).longValue(), N.longValue()));
         }
 
-        return period;
+        // A bounded baby-step giant-step search, which reports orders too large to find
+        return new Apint(OrderFinding.findOrder(X.toBigInteger(), N.toBigInteger()));
 
     }
 
     /**
-     *
-     * Returns true is the given number is prime, or false otherwise
+     * Returns true if the given number is prime, using a deterministic
+     * Miller-Rabin test (see Primality)
      * @param number The number to test for primality
      * @return true if number is prime
      */
     public static boolean isPrime(int number) {
-        //check if n is a multiple of 2
-        if (number%2==0) return false;
-        //if not, then just check the odds
-        for(int i=3;i*i<=number;i+=2) {
-            if(number%i==0)
-                return false;
-        }
-        return true;
+
+        return Primality.isPrime(number);
+
+    }
+
+    /**
+     * Returns true if the given number is prime, using a deterministic
+     * Miller-Rabin test (see Primality)
+     * @param number The number to test for primality
+     * @return true if number is prime
+     */
+    public static boolean isPrime(long number) {
+
+        return Primality.isPrime(number);
+
+    }
+
+    /**
+     * Returns true if the given high precision integer is prime. Numbers
+     * below 2^63 get the deterministic test; larger numbers get the
+     * Baillie-PSW test, which has no known counterexamples.
+     * @param number The number to test for primality
+     * @return true if number is (very probably) prime
+     */
+    public static boolean isPrime(Apint number) {
+
+        return Primality.isProbablePrime(number.toBigInteger());
+
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,456 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Montgomery modular arithmetic for a fixed odd modulus of any size, the
+ * counterpart of LongMontgomery for moduli beyond a long. Numbers are int
+ * arrays of getLimbs() 32 bit limbs, least significant first, kept in
+ * Montgomery form a * 2^(32 limbs) mod m. Products use the coarsely
+ * integrated operand scanning (CIOS) method, which interleaves the
+ * multiplication with the reduction one limb at a time.
+ *
+ * Every operation writes its result into an array of the caller, which may
+ * be one of the operands, and uses the scratch arrays of the instance, so
+ * that nothing allocates past toMontgomery() and fromMontgomery(). That
+ * makes an instance unsafe to share between threads: each thread needs its
+ * own, which is cheap to create.
+ * @version 0.1
+ */
+public final class MultiLimbMontgomery {
+
+    private static final long MASK = 0xFFFFFFFFL;
+
+    /**
+     * The largest width of the sliding window of pow
+     */
+    private static final int MAX_WINDOW_BITS = 5;
+
+    private final BigInteger modulusValue;
+    private final int[] modulus;
+    private final long[] modulusLimbs;
+    private final int limbs;
+
+    /**
+     * -m^-1 mod 2^32
+     */
+    private final int inverse;
+
+    /**
+     * 1 and 2^(64 limbs) mod m, in limbs, for conversions
+     */
+    private final int[] one;
+    private final int[] rSquared;
+    private final int[] unit;
+
+    /**
+     * The running sum of a product, one limb wider than a number
+     */
+    private final int[] scratch;
+
+    /**
+     * The odd powers of the base of pow, created on first use
+     */
+    private int[][] powers;
+    private final int[] accumulator;
+
+    /**
+     * Creates the Montgomery context for the given modulus
+     * @param modulus The odd modulus, m &gt; 1
+     */
+    public MultiLimbMontgomery(BigInteger modulus) {
+
+        if (modulus.compareTo(BigInteger.ONE) <= 0 || !modulus.testBit(0)) {
+            throw new InvalidParameterException("Montgomery arithmetic needs an odd modulus > 1, got " + modulus);
+        }
+
+        this.modulusValue = modulus;
+        this.limbs = (modulus.bitLength() + 31) >>> 5;
+        this.modulus = toLimbs(modulus, limbs);
+        this.modulusLimbs = new long[limbs];
+        for (int i = 0; i < limbs; i++) {
+            this.modulusLimbs[i] = this.modulus[i] & MASK;
+        }
+
+        // Newton's iteration doubles the number of correct low bits each step; m * m = 1 mod 8
+        int m0 = this.modulus[0];
+        int inv = m0;
+        for (int i = 0; i < 4; i++) {
+            inv *= 2 - m0 * inv;
+        }
+        this.inverse = -inv;
+
+        BigInteger r = BigInteger.ONE.shiftLeft(32 * limbs);
+        this.one = toLimbs(r.mod(modulus), limbs);
+        this.rSquared = toLimbs(r.multiply(r).mod(modulus), limbs);
+        this.unit = new int[limbs];
+        this.unit[0] = 1;
+        this.scratch = new int[limbs + 1];
+        this.accumulator = new int[limbs];
+
+    }
+
+    /**
+     * @return the modulus of this context
+     */
+    public BigInteger getModulus() {
+        return modulusValue;
+    }
+
+    /**
+     * @return the number of 32 bit limbs of a number
+     */
+    public int getLimbs() {
+        return limbs;
+    }
+
+    /**
+     * @return a new number, 0
+     */
+    public int[] newNumber() {
+        return new int[limbs];
+    }
+
+    /**
+     * Sets a number to 1 in Montgomery form
+     * @param result The number to set
+     */
+    public void one(int[] result) {
+        System.arraycopy(one, 0, result, 0, limbs);
+    }
+
+    /**
+     * Converts a number into Montgomery form
+     * @param value Any number; negative numbers are taken mod m
+     * @param result The number to write value * 2^(32 limbs) mod m to
+     */
+    public void toMontgomery(BigInteger value, int[] result) {
+        int[] reduced = toLimbs(value.mod(modulusValue), limbs);
+        multiply(reduced, rSquared, result);
+    }
+
+    /**
+     * Converts a number into Montgomery form
+     * @param value Any number; negative numbers are taken mod m
+     * @return value * 2^(32 limbs) mod m, as a new number
+     */
+    public int[] toMontgomery(BigInteger value) {
+        int[] result = newNumber();
+        toMontgomery(value, result);
+        return result;
+    }
+
+    /**
+     * Converts a number out of Montgomery form
+     * @param value A number in Montgomery form
+     * @return the number it represents, in [0, m)
+     */
+    public BigInteger fromMontgomery(int[] value) {
+        int[] result = newNumber();
+        multiply(value, unit, result);
+        return fromLimbs(result);
+    }
+
+    /**
+     * @param value A number in Montgomery form (or a residue)
+     * @return true if it is 0
+     */
+    public boolean isZero(int[] value) {
+        for (int i = 0; i < limbs; i++) {
+            if (value[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Multiplies two numbers in Montgomery form
+     * @param a The first factor
+     * @param b The second factor
+     * @param result The number to write a * b to, which may be a or b
+     */
+    public void multiply(int[] a, int[] b, int[] result) {
+
+        int[] t = scratch;
+        Arrays.fill(t, 0);
+        long[] m = modulusLimbs;
+        int n = limbs;
+
+        for (int i = 0; i < n; i++) {
+
+            // t = (t + a_i b + q m) / 2^32, with q chosen to clear the low limb, in one pass
+            long ai = a[i] & MASK;
+            long sum = (t[0] & MASK) + ai * (b[0] & MASK);
+            long q = ((int) sum * inverse) & MASK;
+            long carry = sum >>> 32;
+            long reduced = (sum & MASK) + q * m[0];
+            long reducedCarry = reduced >>> 32;
+            for (int j = 1; j < n; j++) {
+                sum = (t[j] & MASK) + ai * (b[j] & MASK) + carry;
+                carry = sum >>> 32;
+                reduced = (sum & MASK) + q * m[j] + reducedCarry;
+                reducedCarry = reduced >>> 32;
+                t[j - 1] = (int) reduced;
+            }
+            sum = (t[n] & MASK) + carry + reducedCarry;
+            t[n - 1] = (int) sum;
+            t[n] = (int) (sum >>> 32);
+
+        }
+
+        // t < 2m, so at most one subtraction brings it into [0, m)
+        if (t[n] != 0 || compare(t, modulus) >= 0) {
+            subtractLimbs(t, modulus, result);
+        } else {
+            System.arraycopy(t, 0, result, 0, n);
+        }
+
+    }
+
+    /**
+     * Squares a number in Montgomery form
+     * @param a The number
+     * @param result The number to write a * a to, which may be a
+     */
+    public void square(int[] a, int[] result) {
+        multiply(a, a, result);
+    }
+
+    /**
+     * Adds two numbers in Montgomery form (or two residues in [0, m))
+     * @param result The number to write a + b mod m to, which may be a or b
+     */
+    public void add(int[] a, int[] b, int[] result) {
+
+        long carry = 0;
+        for (int i = 0; i < limbs; i++) {
+            long sum = (a[i] & MASK) + (b[i] & MASK) + carry;
+            result[i] = (int) sum;
+            carry = sum >>> 32;
+        }
+        if (carry != 0 || compare(result, modulus) >= 0) {
+            subtractLimbs(result, modulus, result);
+        }
+
+    }
+
+    /**
+     * Subtracts two numbers in Montgomery form (or two residues in [0, m))
+     * @param result The number to write a - b mod m to, which may be a or b
+     */
+    public void subtract(int[] a, int[] b, int[] result) {
+
+        if (subtractLimbs(a, b, result)) {
+            long carry = 0;
+            for (int i = 0; i < limbs; i++) {
+                long sum = (result[i] & MASK) + (modulus[i] & MASK) + carry;
+                result[i] = (int) sum;
+                carry = sum >>> 32;
+            }
+        }
+
+    }
+
+    /**
+     * Halves a number in Montgomery form (or a residue in [0, m))
+     * @param result The number to write a / 2 mod m to, which may be a
+     */
+    public void halve(int[] a, int[] result) {
+
+        long carry = 0;
+        if ((a[0] & 1) == 1) {
+            // a + m is even
+            for (int i = 0; i < limbs; i++) {
+                long sum = (a[i] & MASK) + (modulus[i] & MASK) + carry;
+                result[i] = (int) sum;
+                carry = sum >>> 32;
+            }
+        } else if (a != result) {
+            System.arraycopy(a, 0, result, 0, limbs);
+        }
+        for (int i = 0; i < limbs - 1; i++) {
+            result[i] = (result[i] >>> 1) | (result[i + 1] << 31);
+        }
+        result[limbs - 1] = (result[limbs - 1] >>> 1) | ((int) carry << 31);
+
+    }
+
+    /**
+     * Raises a number in Montgomery form to a non-negative power, with a
+     * sliding window of up to MAX_WINDOW_BITS bits
+     * @param base The base, in Montgomery form
+     * @param exponent The exponent, at least 0
+     * @param result The number to write base ^ exponent to, which may be base
+     */
+    public void pow(int[] base, BigInteger exponent, int[] result) {
+
+        int bits = exponent.bitLength();
+        if (bits == 0) {
+            one(result);
+            return;
+        }
+        int window = bits > 512 ? MAX_WINDOW_BITS : bits > 128 ? 4 : bits > 24 ? 3 : 1;
+        if (powers == null) {
+            powers = new int[1 << (MAX_WINDOW_BITS - 1)][limbs];
+        }
+
+        // The odd powers base^1, base^3, ..., base^(2^window - 1)
+        int[] squared = accumulator;
+        System.arraycopy(base, 0, powers[0], 0, limbs);
+        square(base, squared);
+        for (int i = 1; i < 1 << (window - 1); i++) {
+            multiply(powers[i - 1], squared, powers[i]);
+        }
+
+        boolean started = false;
+        for (int bit = bits - 1; bit >= 0; ) {
+
+            if (!exponent.testBit(bit)) {
+                square(result, result);
+                bit--;
+                continue;
+            }
+
+            int low = Math.max(bit - window + 1, 0);
+            while (!exponent.testBit(low)) {
+                low++;
+            }
+            int value = 0;
+            for (int i = bit; i >= low; i--) {
+                value = (value << 1) | (exponent.testBit(i) ? 1 : 0);
+                if (started) {
+                    square(result, result);
+                }
+            }
+            if (started) {
+                multiply(result, powers[value >>> 1], result);
+            } else {
+                System.arraycopy(powers[value >>> 1], 0, result, 0, limbs);
+                started = true;
+            }
+            bit = low - 1;
+
+        }
+
+    }
+
+    /**
+     * Computes base ^ exponent mod m, for an ordinary (not Montgomery form) base
+     * @param base The base
+     * @param exponent The exponent, at least 0
+     * @return base ^ exponent mod m, in [0, m)
+     */
+    public BigInteger pow(BigInteger base, BigInteger exponent) {
+        int[] result = toMontgomery(base);
+        pow(result, exponent, result);
+        return fromMontgomery(result);
+    }
+
+    /**
+     * Inverts many numbers in Montgomery form at the cost of one inversion,
+     * by Montgomery's trick: the prefix products are inverted together,
+     * and each inverse is peeled off on the way back
+     * @param values The numbers to invert, in Montgomery form
+     * @param count The number of values to invert, from the start of the array
+     * @param inverses The numbers to write the inverses to, in Montgomery
+     *                 form, none of which may be one of the values
+     * @return true if every value was invertible; if not, inverses holds
+     *         no inverses, and the gcd of the product of the values with m
+     *         is a factor of m
+     */
+    public boolean batchInverse(int[][] values, int count, int[][] inverses) {
+
+        if (count == 0) {
+            return true;
+        }
+        System.arraycopy(values[0], 0, inverses[0], 0, limbs);
+        for (int i = 1; i < count; i++) {
+            multiply(inverses[i - 1], values[i], inverses[i]);
+        }
+
+        // The one inversion: (a 2^k)^-1 in Montgomery form is a^-1 2^k
+        BigInteger product = fromMontgomery(inverses[count - 1]);
+        if (!product.gcd(modulusValue).equals(BigInteger.ONE)) {
+            return false;
+        }
+        int[] inverse = accumulator;
+        toMontgomery(product.modInverse(modulusValue), inverse);
+
+        for (int i = count - 1; i > 0; i--) {
+            multiply(inverse, inverses[i - 1], inverses[i]);
+            multiply(inverse, values[i], inverse);
+        }
+        System.arraycopy(inverse, 0, inverses[0], 0, limbs);
+        return true;
+
+    }
+
+    /**
+     * Returns the gcd of a number, as an ordinary residue or in Montgomery
+     * form, with the modulus (the two forms differ by a power of two,
+     * which is coprime to m)
+     * @param value The number
+     * @return gcd(value, m)
+     */
+    public BigInteger gcd(int[] value) {
+        return Gcd.gcd(fromLimbs(value), modulusValue);
+    }
+
+    /**
+     * Compares two numbers of limbs limbs, as unsigned numbers
+     */
+    private int compare(int[] a, int[] b) {
+        for (int i = limbs - 1; i >= 0; i--) {
+            if (a[i] != b[i]) {
+                return Integer.compareUnsigned(a[i], b[i]);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Subtracts b from a limb by limb
+     * @return true if it borrowed, when a &lt; b
+     */
+    private boolean subtractLimbs(int[] a, int[] b, int[] result) {
+        long borrow = 0;
+        for (int i = 0; i < limbs; i++) {
+            long difference = (a[i] & MASK) - (b[i] & MASK) - borrow;
+            result[i] = (int) difference;
+            borrow = difference >>> 63;
+        }
+        return borrow != 0;
+    }
+
+    /**
+     * Splits a non-negative number into limbs
+     */
+    private static int[] toLimbs(BigInteger value, int limbs) {
+        int[] result = new int[limbs];
+        for (int i = 0; i < limbs; i++) {
+            result[i] = value.shiftRight(32 * i).intValue();
+        }
+        return result;
+    }
+
+    /**
+     * Joins limbs into a non-negative number
+     */
+    private static BigInteger fromLimbs(int[] limbs) {
+        byte[] bytes = new byte[4 * limbs.length + 1];
+        for (int i = 0; i < limbs.length; i++) {
+            int limb = limbs[i];
+            int offset = bytes.length - 4 * i;
+            bytes[offset - 1] = (byte) limb;
+            bytes[offset - 2] = (byte) (limb >>> 8);
+            bytes[offset - 3] = (byte) (limb >>> 16);
+            bytes[offset - 4] = (byte) (limb >>> 24);
+        }
+        return new BigInteger(bytes);
+    }
+
+}
@@ -0,0 +1,408 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Classical algorithms for the multiplicative order of X modulo N (the
+ * period r of f(x) = X^x mod N), specialised for moduli that fit in a long.
+ * All arithmetic modulo the odd part of N is done in Montgomery form; the
+ * order modulo the power of two dividing N is found with bit masks, and
+ * the two are combined with an lcm. Moduli beyond a long are handled by a
+ * baby-step giant-step search with a bounded number of steps, since their
+ * orders are usually far too large to find classically.
+ * @version 0.5
+ */
+public class OrderFinding {
+
+    /**
+     * Moduli below this use the incremental scan, above it baby-step giant-step
+     */
+    public static final long INCREMENTAL_LIMIT = 1 << 16;
+
+    /**
+     * The largest number of baby steps stored, which bounds the memory of
+     * baby-step giant-step: the table rounds 2^22 steps up to 2^23 slots of
+     * 13 bytes (a long key, an int value and a used flag), about 104 MB
+     */
+    public static final int MAX_BABY_STEPS = 1 << 22;
+
+    /**
+     * The largest number of giant steps taken by baby-step giant-step, so
+     * that orders up to MAX_BABY_STEPS * MAX_GIANT_STEPS (2^46) are found
+     * in seconds and larger ones are reported rather than searched for
+     */
+    public static final long MAX_GIANT_STEPS = 1L << 24;
+
+    /**
+     * The number of steps between checks of whether the thread was interrupted
+     */
+    private static final int INTERRUPT_INTERVAL = 1 << 16;
+
+    /**
+     * Finds the order of X modulo N, choosing the strategy by the size of N
+     * @param X the X to use in calculating r
+     * @param N the modulus, N &gt; 0
+     * @return the smallest r &gt; 0 with X^r = 1 mod N
+     */
+    public static long findOrder(long X, long N) {
+        return N < INCREMENTAL_LIMIT ? findOrderIncremental(X, N) : findOrderBabyStepGiantStep(X, N);
+    }
+
+    /**
+     * Finds the order of X modulo N for a modulus of any size. Moduli that
+     * fit in a long are handed to findOrder(long, long); beyond that the
+     * order modulo the odd part of N is found by baby-step giant-step in
+     * multi-limb Montgomery arithmetic, with MAX_BABY_STEPS baby steps and at
+     * most MAX_GIANT_STEPS giant steps. The search stops with a
+     * CancellationException if the thread is interrupted.
+     * @param X the X to use in calculating r
+     * @param N the modulus, N &gt; 0
+     * @return the smallest r &gt; 0 with X^r = 1 mod N
+     * @throws InvalidParameterException if X and N are not coprime, or the
+     *         order is too large for the bounded search
+     */
+    public static BigInteger findOrder(BigInteger X, BigInteger N) {
+
+        if (X.signum() == 0 || N.signum() <= 0) {
+            throw new InvalidParameterException("X must be nonzero and N must be positive");
+        }
+        BigInteger reduced = X.mod(N);
+        if (!reduced.gcd(N).equals(BigInteger.ONE)) {
+            throw new InvalidParameterException("X and N do not have a period in x^r mod N");
+        }
+        if (N.bitLength() < Long.SIZE) {
+            return BigInteger.valueOf(findOrder(reduced.longValue(), N.longValue()));
+        }
+
+        int twos = N.getLowestSetBit();
+        BigInteger odd = N.shiftRight(twos);
+        BigInteger order = odd.equals(BigInteger.ONE) ? BigInteger.ONE : odd.bitLength() < Long.SIZE
+                ? BigInteger.valueOf(findOrder(reduced.mod(odd).longValue(), odd.longValue()))
+                : findOddOrderBabyStepGiantStep(reduced.mod(odd), odd);
+
+        // The order modulo 2^twos is a power of two, found by repeated squaring
+        BigInteger mask = BigInteger.ONE.shiftLeft(twos).subtract(BigInteger.ONE);
+        BigInteger y = reduced.and(mask);
+        int doublings = 0;
+        while (twos > 1 && !y.equals(BigInteger.ONE)) {
+            y = y.multiply(y).and(mask);
+            doublings++;
+        }
+        return order.shiftLeft(Math.max(0, doublings - order.getLowestSetBit()));
+
+    }
+
+    /**
+     * Finds the order of X modulo an odd N beyond a long by baby-step
+     * giant-step, keying the table of baby steps by the low 64 bits of each
+     * power and checking every hit with a full power
+     */
+    private static BigInteger findOddOrderBabyStepGiantStep(BigInteger X, BigInteger N) {
+
+        MultiLimbMontgomery field = new MultiLimbMontgomery(N);
+        int[] one = field.newNumber();
+        field.one(one);
+        int[] x = field.toMontgomery(X);
+        int steps = MAX_BABY_STEPS;
+
+        // Baby steps, which also find any order below the number of steps
+        LongIntMap babySteps = new LongIntMap(steps);
+        int[] y = one.clone();
+        for (int j = 0; j < steps; j++) {
+            if (j > 0 && Arrays.equals(y, one)) {
+                return BigInteger.valueOf(j);
+            }
+            babySteps.putIfAbsent(lowBits(y), j);
+            field.multiply(y, x, y);
+            if ((j & (INTERRUPT_INTERVAL - 1)) == 0) {
+                checkInterrupted();
+            }
+        }
+
+        // Giant steps of size steps, from X^steps
+        int[] giant = y.clone();
+        int[] z = y;
+        int[] check = field.newNumber();
+        for (long i = 1; i <= MAX_GIANT_STEPS; i++) {
+            int j = babySteps.get(lowBits(z));
+            if (j != LongIntMap.MISSING) {
+                BigInteger candidate = BigInteger.valueOf(i * steps - j);
+                field.pow(x, candidate, check);
+                if (Arrays.equals(check, one)) {
+                    return candidate;
+                }
+            }
+            field.multiply(z, giant, z);
+            if ((i & (INTERRUPT_INTERVAL - 1)) == 0) {
+                checkInterrupted();
+            }
+        }
+
+        throw new InvalidParameterException("The order of " + X + " mod " + N + " is more than " +
+                MAX_BABY_STEPS * MAX_GIANT_STEPS + ", too large to find classically");
+
+    }
+
+    /**
+     * Returns the low 64 bits of a multi-limb number, as a key for its table
+     */
+    private static long lowBits(int[] value) {
+        return (long) value[1] << 32 | value[0] & 0xffffffffL;
+    }
+
+    /**
+     * Stops a long search once its thread has been interrupted, such as by
+     * cancelling the Future it runs in. The interrupt status is kept.
+     * @throws CancellationException if the current thread was interrupted
+     */
+    public static void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Interrupted while finding a period");
+        }
+    }
+
+    /**
+     * Finds the order of X modulo N by multiplying by X until reaching 1,
+     * which costs one Montgomery multiplication per step, r steps in total
+     * @param X the X to use in calculating r
+     * @param N the modulus, N &gt; 0
+     * @return the smallest r &gt; 0 with X^r = 1 mod N
+     */
+    public static long findOrderIncremental(long X, long N) {
+
+        X = checkAndReduce(X, N);
+        int twos = Long.numberOfTrailingZeros(N);
+        long odd = N >>> twos;
+
+        long order = 1;
+        if (odd > 1) {
+            LongMontgomery field = new LongMontgomery(odd);
+            long one = field.one();
+            long x = field.toMontgomery(X);
+            long y = x;
+            while (y != one) {
+                y = field.multiply(y, x);
+                order++;
+            }
+        }
+
+        return lcm(order, orderModPowerOfTwo(X, twos));
+
+    }
+
+    /**
+     * Finds the order of X modulo N with Shanks' baby-step giant-step
+     * algorithm in O(sqrt(N)) multiplications. The baby steps X^j for
+     * j &lt; m are stored in a primitive hash table (at most MAX_BABY_STEPS
+     * of them, beyond which the giant steps take longer instead), then the
+     * giant steps X^(i m) are looked up: the first hit X^(i m) = X^j gives
+     * the order i m - j. At most MAX_GIANT_STEPS giant steps are taken, and
+     * the search stops with a CancellationException if the thread is
+     * interrupted.
+     * @param X the X to use in calculating r
+     * @param N the modulus, N &gt; 0
+     * @return the smallest r &gt; 0 with X^r = 1 mod N
+     * @throws InvalidParameterException if X and N are not coprime, or the
+     *         order is too large for the bounded search
+     */
+    public static long findOrderBabyStepGiantStep(long X, long N) {
+
+        X = checkAndReduce(X, N);
+        int twos = Long.numberOfTrailingZeros(N);
+        long odd = N >>> twos;
+
+        long order = 1;
+        if (odd > 1) {
+
+            LongMontgomery field = new LongMontgomery(odd);
+            long one = field.one();
+            long x = field.toMontgomery(X);
+            int steps = (int) Math.min(MAX_BABY_STEPS, (long) Math.ceil(Math.sqrt((double) odd)) + 1);
+
+            // Baby steps, which also find any order below the number of steps
+            LongIntMap babySteps = new LongIntMap(steps);
+            long y = one;
+            order = 0;
+            for (int j = 0; j < steps; j++) {
+                if (j > 0 && y == one) {
+                    order = j;
+                    break;
+                }
+                babySteps.putIfAbsent(y, j);
+                y = field.multiply(y, x);
+                if ((j & (INTERRUPT_INTERVAL - 1)) == 0) {
+                    checkInterrupted();
+                }
+            }
+
+            // Giant steps of size steps; the order is at most odd - 1
+            if (order == 0) {
+                long giant = y;
+                long z = giant;
+                for (long i = 1; order == 0; i++) {
+                    if (i > MAX_GIANT_STEPS) {
+                        throw new InvalidParameterException("The order of " + X + " mod " + N + " is more than " +
+                                MAX_BABY_STEPS * MAX_GIANT_STEPS + ", too large to find classically");
+                    }
+                    int j = babySteps.get(z);
+                    if (j != LongIntMap.MISSING) {
+                        order = i * steps - j;
+                    }
+                    z = field.multiply(z, giant);
+                    if ((i & (INTERRUPT_INTERVAL - 1)) == 0) {
+                        checkInterrupted();
+                    }
+                }
+            }
+
+        }
+
+        return lcm(order, orderModPowerOfTwo(X, twos));
+
+    }
+
+    /**
+     * Finds the order of X modulo N given a known multiple of it, such as
+     * Carmichael's lambda(N) or p - 1 for a prime p. The multiple is factored
+     * by trial division, and each prime factor is divided out of it for as
+     * long as X^(multiple / p) is still 1.
+     * @param X the X to use in calculating r
+     * @param N the modulus, N &gt; 0
+     * @param multiple A positive multiple of the order of X
+     * @return the smallest r &gt; 0 with X^r = 1 mod N
+     */
+    public static long findOrderFromMultiple(long X, long N, long multiple) {
+
+        X = checkAndReduce(X, N);
+        if (multiple <= 0 || powMod(X, multiple, N) != 1 % N) {
+            throw new InvalidParameterException(multiple + " is not a multiple of the order of " + X);
+        }
+
+        // Every power of X below is of the same base, so an odd N gets a table of them
+        LongMontgomery.FixedBase powers = (N & 1) == 1 && N > 1 ? new LongMontgomery(N).fixedBase(X) : null;
+        long order = multiple;
+        long remaining = multiple;
+        for (long p = 2; p * p <= remaining; p += p == 2 ? 1 : 2) {
+            if (remaining % p == 0) {
+                while (remaining % p == 0) {
+                    remaining /= p;
+                }
+                order = reduceByPrime(X, N, powers, order, p);
+            }
+        }
+        if (remaining > 1) {
+            order = reduceByPrime(X, N, powers, order, remaining);
+        }
+
+        return order;
+
+    }
+
+    /**
+     * Computes base^exponent mod N for any modulus N &gt; 0 that fits in a long
+     * @param base The base
+     * @param exponent The non-negative exponent
+     * @param N the modulus
+     * @return base^exponent mod N
+     */
+    public static long powMod(long base, long exponent, long N) {
+
+        base = Math.floorMod(base, N);
+        int twos = Long.numberOfTrailingZeros(N);
+        long odd = N >>> twos;
+
+        if (twos == 0) {
+            return N == 1 ? 0 : new LongMontgomery(N).pow(base, exponent);
+        }
+
+        // Combine the results modulo 2^twos and modulo the odd part with the CRT
+        long mask = twos == 63 ? Long.MAX_VALUE : (1L << twos) - 1;
+        long evenResult = 1;
+        long b = base & mask;
+        for (long e = exponent; e > 0; e >>>= 1) {
+            if ((e & 1) == 1) {
+                evenResult = evenResult * b & mask;
+            }
+            b = b * b & mask;
+        }
+
+        if (odd == 1) {
+            return evenResult;
+        }
+
+        LongMontgomery field = new LongMontgomery(odd);
+        long oddResult = field.pow(base, exponent);
+
+        // result = oddResult + odd * k, with odd * k = evenResult - oddResult mod 2^twos
+        long inverse = odd;
+        for (int i = 0; i < 6; i++) {
+            inverse *= 2 - odd * inverse;
+        }
+        long k = (evenResult - oddResult) * inverse & mask;
+        return oddResult + odd * k;
+
+    }
+
+    /**
+     * Divides the prime p out of the order for as long as X^(order / p) = 1,
+     * with the table of powers of X when there is one
+     */
+    private static long reduceByPrime(long X, long N, LongMontgomery.FixedBase powers, long order, long p) {
+        while (order % p == 0 && (powers != null ? powers.pow(order / p) : powMod(X, order / p, N)) == 1 % N) {
+            order /= p;
+        }
+        return order;
+    }
+
+    /**
+     * Finds the order of an odd X modulo 2^twos, which is a power of two, by
+     * repeated squaring
+     */
+    private static long orderModPowerOfTwo(long X, int twos) {
+
+        if (twos <= 1) {
+            return 1;
+        }
+
+        long mask = twos == 63 ? Long.MAX_VALUE : (1L << twos) - 1;
+        long y = X & mask;
+        long order = 1;
+        while (y != 1) {
+            y = y * y & mask;
+            order <<= 1;
+        }
+        return order;
+
+    }
+
+    /**
+     * Validates X and N like the other period finders, and reduces X mod N
+     */
+    private static long checkAndReduce(long X, long N) {
+
+        if (X == 0 || N <= 0) {
+            throw new InvalidParameterException("X must be nonzero and N must be positive");
+        }
+        if (Mathematics.greatestCommonDenominator(Math.floorMod(X, N), N) > 1) {
+            throw new InvalidParameterException("X and N do not have a period in x^r mod N");
+        }
+        return Math.floorMod(X, N);
+
+    }
+
+    /**
+     * Computes the least common multiple of two positive longs, which must
+     * not overflow
+     * @param a The first number
+     * @param b The second number
+     * @return the least common multiple of a and b
+     */
+    public static long lcm(long a, long b) {
+        return a / Mathematics.greatestCommonDenominator(a, b) * b;
+    }
+
+}
@@ -0,0 +1,352 @@
+package core.util;
+
+import java.math.BigInteger;
+
+/**
+ * Primality tests. Numbers that fit in a long are tested with a
+ * deterministic Miller-Rabin test, using witness sets which are known to
+ * have no strong pseudoprimes below 2^32 and 2^64 respectively. Larger
+ * numbers are tested with the Baillie-PSW test (a strong probable prime test
+ * to base 2 followed by a strong Lucas probable prime test), which has no
+ * known counterexamples. Its Lucas part runs on MultiLimbMontgomery, while
+ * the single exponentiation of the Miller-Rabin part is left to
+ * BigInteger.modPow, which is faster for one large power.
+ * @version 0.2
+ */
+public class Primality {
+
+    /**
+     * Miller-Rabin witnesses that are correct for every n &lt; 4,759,123,141
+     */
+    private static final long[] INT_WITNESSES = {2, 7, 61};
+
+    /**
+     * Miller-Rabin witnesses that are correct for every n &lt; 2^64 (Jim Sinclair)
+     */
+    private static final long[] LONG_WITNESSES = {2, 325, 9375, 28178, 450775, 9780504, 1795265022};
+
+    /**
+     * Small primes used to reject most composites before the expensive tests
+     */
+    private static final int[] SMALL_PRIMES = {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37, 41, 43, 47, 53, 59, 61};
+
+    private static final BigInteger TWO = BigInteger.valueOf(2);
+
+    /**
+     * Returns true if the given int is prime, with a deterministic Miller-Rabin test
+     * @param number The number to test for primality
+     * @return true if number is prime
+     */
+    public static boolean isPrime(int number) {
+
+        if (number < 2) {
+            return false;
+        }
+        for (int p : SMALL_PRIMES) {
+            if (number % p == 0) {
+                return number == p;
+            }
+        }
+        if (number < 67 * 67) {
+            return true;
+        }
+
+        // Products of two residues below 2^31 fit in a long, so no Montgomery form is needed
+        int s = Integer.numberOfTrailingZeros(number - 1);
+        long d = (number - 1) >>> s;
+        for (long witness : INT_WITNESSES) {
+            long x = powModSmall(witness, d, number);
+            if (!passesStrongTest(x, s, number)) {
+                return false;
+            }
+        }
+        return true;
+
+    }
+
+    /**
+     * Returns true if the given long is prime, with a deterministic
+     * Miller-Rabin test in Montgomery arithmetic
+     * @param number The number to test for primality
+     * @return true if number is prime
+     */
+    public static boolean isPrime(long number) {
+
+        if (number <= Integer.MAX_VALUE) {
+            return number >= 2 && isPrime((int) number);
+        }
+        for (int p : SMALL_PRIMES) {
+            if (number % p == 0) {
+                return false;
+            }
+        }
+
+        LongMontgomery field = new LongMontgomery(number);
+        long one = field.one();
+        long minusOne = field.subtract(0, one);
+        int s = Long.numberOfTrailingZeros(number - 1);
+        long d = (number - 1) >>> s;
+
+        for (long witness : LONG_WITNESSES) {
+
+            long a = witness % number;
+            if (a == 0) {
+                continue;
+            }
+
+            long x = field.powMontgomery(field.toMontgomery(a), d);
+            if (x == one || x == minusOne) {
+                continue;
+            }
+
+            boolean composite = true;
+            for (int i = 1; i < s && composite; i++) {
+                x = field.square(x);
+                if (x == minusOne) {
+                    composite = false;
+                } else if (x == one) {
+                    break;
+                }
+            }
+            if (composite) {
+                return false;
+            }
+
+        }
+        return true;
+
+    }
+
+    /**
+     * Returns true if the given number is (very probably) prime. Numbers
+     * below 2^63 get the deterministic long test; larger numbers get the
+     * Baillie-PSW test.
+     * @param number The number to test for primality
+     * @return true if number is a Baillie-PSW probable prime
+     */
+    public static boolean isProbablePrime(BigInteger number) {
+
+        if (number.bitLength() < 64) {
+            return number.signum() > 0 && isPrime(number.longValue());
+        }
+        for (int p : SMALL_PRIMES) {
+            if (number.mod(BigInteger.valueOf(p)).signum() == 0) {
+                return false;
+            }
+        }
+
+        return isStrongProbablePrime(number, TWO) && isStrongLucasProbablePrime(number);
+
+    }
+
+    /**
+     * The Miller-Rabin test of an odd n &gt; 2 to the given base
+     * @param n The odd number to test
+     * @param base The base, 1 &lt; base &lt; n - 1
+     * @return true if n is a strong probable prime to the base
+     */
+    static boolean isStrongProbablePrime(BigInteger n, BigInteger base) {
+
+        BigInteger minusOne = n.subtract(BigInteger.ONE);
+        int s = minusOne.getLowestSetBit();
+        BigInteger x = base.modPow(minusOne.shiftRight(s), n);
+
+        if (x.equals(BigInteger.ONE) || x.equals(minusOne)) {
+            return true;
+        }
+        for (int i = 1; i < s; i++) {
+            x = x.multiply(x).mod(n);
+            if (x.equals(minusOne)) {
+                return true;
+            }
+            if (x.equals(BigInteger.ONE)) {
+                return false;
+            }
+        }
+        return false;
+
+    }
+
+    /**
+     * The strong Lucas probable prime test of an odd n &gt; 2 which is not a
+     * perfect square, with parameters chosen by Selfridge's method A: D is
+     * the first of 5, -7, 9, -11, ... with Jacobi symbol (D / n) = -1, P = 1
+     * and Q = (1 - D) / 4.
+     * @param n The odd number to test
+     * @return true if n is a strong Lucas probable prime
+     */
+    static boolean isStrongLucasProbablePrime(BigInteger n) {
+
+        // A perfect square has no D with (D / n) = -1, so would loop forever
+        if (isPerfectSquare(n)) {
+            return false;
+        }
+
+        long D = 5;
+        while (true) {
+            int jacobi = jacobi(BigInteger.valueOf(D), n);
+            if (jacobi == -1) {
+                break;
+            }
+            if (jacobi == 0 && BigInteger.valueOf(D).abs().compareTo(n) < 0) {
+                return false;
+            }
+            D = D > 0 ? -(D + 2) : -D + 2;
+        }
+
+        // The Lucas sequences run on the Montgomery kernel, which does not allocate per step
+        MultiLimbMontgomery field = new MultiLimbMontgomery(n);
+        int[] bigD = field.toMontgomery(BigInteger.valueOf(D));
+        int[] Q = field.toMontgomery(BigInteger.valueOf((1 - D) / 4));
+
+        // n + 1 = d * 2^s with d odd
+        BigInteger nPlusOne = n.add(BigInteger.ONE);
+        int s = nPlusOne.getLowestSetBit();
+        BigInteger d = nPlusOne.shiftRight(s);
+
+        // Compute U_d, V_d and Q^d with the doubling formulas, from the top bit of d down
+        int[] U = field.newNumber();
+        int[] V = field.newNumber();
+        int[] Qk = Q.clone();
+        int[] temp = field.newNumber();
+        field.one(U);
+        field.one(V);
+        for (int i = d.bitLength() - 2; i >= 0; i--) {
+
+            // U_2k = U_k V_k, V_2k = V_k^2 - 2 Q^k
+            field.multiply(U, V, U);
+            doubleV(field, V, Qk, temp);
+            field.square(Qk, Qk);
+
+            if (d.testBit(i)) {
+                // U_k+1 = (P U_k + V_k) / 2, V_k+1 = (D U_k + P V_k) / 2, with P = 1
+                field.multiply(bigD, U, temp);
+                field.add(temp, V, temp);
+                field.add(U, V, U);
+                field.halve(U, U);
+                field.halve(temp, V);
+                field.multiply(Qk, Q, Qk);
+            }
+
+        }
+
+        if (field.isZero(U) || field.isZero(V)) {
+            return true;
+        }
+        for (int r = 1; r < s; r++) {
+            doubleV(field, V, Qk, temp);
+            if (field.isZero(V)) {
+                return true;
+            }
+            field.square(Qk, Qk);
+        }
+        return false;
+
+    }
+
+    /**
+     * Replaces V_k by V_2k = V_k^2 - 2 Q^k, in Montgomery form
+     */
+    private static void doubleV(MultiLimbMontgomery field, int[] V, int[] Qk, int[] temp) {
+        field.add(Qk, Qk, temp);
+        field.square(V, V);
+        field.subtract(V, temp, V);
+    }
+
+    /**
+     * Computes the Jacobi symbol (a / n) for an odd positive n
+     * @param a The numerator, of any sign
+     * @param n The odd positive denominator
+     * @return -1, 0 or 1
+     */
+    static int jacobi(BigInteger a, BigInteger n) {
+
+        a = a.mod(n);
+        int result = 1;
+        while (a.signum() != 0) {
+
+            int twos = a.getLowestSetBit();
+            a = a.shiftRight(twos);
+            int nMod8 = n.intValue() & 7;
+            if ((twos & 1) == 1 && (nMod8 == 3 || nMod8 == 5)) {
+                result = -result;
+            }
+
+            // Quadratic reciprocity
+            if ((a.intValue() & 3) == 3 && (n.intValue() & 3) == 3) {
+                result = -result;
+            }
+            BigInteger temp = a;
+            a = n.mod(temp);
+            n = temp;
+
+        }
+        return n.equals(BigInteger.ONE) ? result : 0;
+
+    }
+
+    /**
+     * Returns true if n is the square of an integer, using Newton's method
+     * for the integer square root (BigInteger.sqrt is not available on Java 8)
+     */
+    static boolean isPerfectSquare(BigInteger n) {
+
+        if (n.signum() < 0) {
+            return false;
+        }
+        if (n.signum() == 0) {
+            return true;
+        }
+
+        BigInteger x = BigInteger.ONE.shiftLeft((n.bitLength() + 1) / 2);
+        while (true) {
+            BigInteger next = x.add(n.divide(x)).shiftRight(1);
+            if (next.compareTo(x) >= 0) {
+                return x.multiply(x).equals(n);
+            }
+            x = next;
+        }
+
+    }
+
+    /**
+     * Checks the sequence x, x^2, x^4, ... of the Miller-Rabin test for a -1
+     * before a 1, for x = a^d mod n and n - 1 = d * 2^s
+     */
+    private static boolean passesStrongTest(long x, int s, long n) {
+
+        if (x == 1 || x == n - 1) {
+            return true;
+        }
+        for (int i = 1; i < s; i++) {
+            x = x * x % n;
+            if (x == n - 1) {
+                return true;
+            }
+            if (x == 1) {
+                return false;
+            }
+        }
+        return false;
+
+    }
+
+    /**
+     * Computes base^exponent mod n for n &lt; 2^31
+     */
+    private static long powModSmall(long base, long exponent, long n) {
+
+        long result = 1;
+        base %= n;
+        while (exponent > 0) {
+            if ((exponent & 1) == 1) {
+                result = result * base % n;
+            }
+            base = base * base % n;
+            exponent >>= 1;
+        }
+        return result;
+
+    }
+
+}
@@ -0,0 +1,106 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+
+import java.util.Arrays;
+
+/**
+ * Tables of small primes, from a sieve of Eratosthenes over the odd
+ * numbers. The largest table sieved so far is cached, so that factoring
+ * code which asks for the same bounds over and over only sieves once.
+ * @version 0.2
+ */
+public class PrimeSieve {
+
+    /**
+     * The largest table sieved so far, published with its bound in a single
+     * field so that readers never see a table shorter than its bound
+     */
+    private static volatile Table cached = new Table(new int[0], 1);
+
+    /**
+     * Returns every prime up to and including a bound
+     * @param limit The bound, at least 2
+     * @return the primes up to limit, in increasing order, as a new array
+     */
+    public static int[] primesUpTo(int limit) {
+
+        if (limit < 2) {
+            throw new InvalidParameterException("Expected a bound of at least 2, got " + limit);
+        }
+        Table table = cached;
+        if (limit > table.limit) {
+            synchronized (PrimeSieve.class) {
+                table = cached;
+                if (limit > table.limit) {
+                    table = new Table(sieve(limit), limit);
+                    cached = table;
+                }
+            }
+        }
+        int[] primes = table.primes;
+
+        int count = Arrays.binarySearch(primes, limit);
+        return Arrays.copyOf(primes, count >= 0 ? count + 1 : -count - 1);
+
+    }
+
+    /**
+     * Sieves the odd numbers up to limit, where bit i of the table stands for 2i + 1
+     */
+    private static int[] sieve(int limit) {
+
+        int size = (limit - 1) / 2 + 1;
+        long[] composite = new long[(size + 63) >>> 6];
+        for (long i = 1; (2 * i + 1) * (2 * i + 1) <= limit; i++) {
+            if ((composite[(int) (i >>> 6)] & (1L << i)) == 0) {
+                long p = 2 * i + 1;
+                for (long j = (p * p - 1) / 2; j < size; j += p) {
+                    composite[(int) (j >>> 6)] |= 1L << j;
+                }
+            }
+        }
+
+        int[] primes = new int[countPrimes(composite, size)];
+        primes[0] = 2;
+        int count = 1;
+        for (int i = 1; i < size; i++) {
+            if ((composite[i >>> 6] & (1L << i)) == 0) {
+                primes[count++] = 2 * i + 1;
+            }
+        }
+        return primes;
+
+    }
+
+    /**
+     * Counts 2 and the odd numbers below 2 * size left unmarked by the sieve
+     */
+    private static int countPrimes(long[] composite, int size) {
+
+        int count = 1;
+        for (int i = 1; i < size; i++) {
+            if ((composite[i >>> 6] & (1L << i)) == 0) {
+                count++;
+            }
+        }
+        return count;
+
+    }
+
+    /**
+     * The primes up to a bound
+     */
+    private static final class Table {
+
+        private final int[] primes;
+        private final int limit;
+
+        private Table(int[] primes, int limit) {
+            this.primes = primes;
+            this.limit = limit;
+        }
+
+    }
+
+}
@@ -0,0 +1,350 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded, thread-safe cache of computed results, for expensive pure
+ * functions such as factorizations which are requested repeatedly.
+ *
+ * Entries are evicted least recently used first once there are more than
+ * maximumSize of them, and expire a fixed time after they were computed.
+ * Concurrent requests for a key which is being computed are coalesced:
+ * they wait for the one computation in flight instead of starting their
+ * own. The map is only locked to look up and insert entries, never while
+ * a value is computed, so computations of different keys run in parallel.
+ * A computation which throws is not cached; its exception is rethrown to
+ * every request that was waiting on it. A computation which is cancelled,
+ * by a CancellationException or by interrupting its thread, is not
+ * rethrown: the requests waiting on it compute the value themselves.
+ * Waiting on a computation can itself be interrupted. Computations in
+ * flight are never evicted for space.
+ *
+ * A computation must not request its own key from the same cache, which
+ * would wait on itself.
+ * @param <K> The type of the keys, which must implement equals and hashCode
+ * @param <V> The type of the values, which should be immutable since they are shared
+ * @version 0.2
+ */
+public class ResultCache<K, V> {
+
+    /**
+     * A snapshot of the counters of a cache
+     */
+    public static final class Stats {
+
+        private final long hits;
+        private final long misses;
+        private final long coalesced;
+        private final long evictions;
+
+        Stats(long hits, long misses, long coalesced, long evictions) {
+            this.hits = hits;
+            this.misses = misses;
+            this.coalesced = coalesced;
+            this.evictions = evictions;
+        }
+
+        /**
+         * @return the number of requests answered from the cache, including coalesced ones
+         */
+        public long getHitCount() {
+            return hits;
+        }
+
+        /**
+         * @return the number of requests which computed their value
+         */
+        public long getMissCount() {
+            return misses;
+        }
+
+        /**
+         * @return the number of requests which waited on a computation already in flight
+         */
+        public long getCoalescedCount() {
+            return coalesced;
+        }
+
+        /**
+         * @return the number of entries removed for space or because they expired
+         */
+        public long getEvictionCount() {
+            return evictions;
+        }
+
+        /**
+         * @return the fraction of requests which were hits, or 0 if there were none
+         */
+        public double getHitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : hits / (double) requests;
+        }
+
+        /**
+         * Adds the counters of two caches, to report them as one
+         * @param other The counters to add to these
+         * @return the combined counters
+         */
+        public Stats plus(Stats other) {
+            return new Stats(hits + other.hits, misses + other.misses, coalesced + other.coalesced,
+                    evictions + other.evictions);
+        }
+
+        /**
+         * @return a description of the counters
+         */
+        @Override
+        public String toString() {
+            return "Stats[hits=" + hits + ", misses=" + misses + ", coalesced=" + coalesced +
+                    ", evictions=" + evictions + "]";
+        }
+
+    }
+
+    /**
+     * A value, or the future of a value still being computed
+     */
+    private static final class Entry<V> {
+
+        final CompletableFuture<V> future = new CompletableFuture<V>();
+        volatile long computedAt;
+
+    }
+
+    private final int maximumSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    /**
+     * The entries in access order, guarded by the lock of the map itself
+     */
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache
+     * @param maximumSize The largest number of entries kept
+     * @param ttl How long an entry is kept after it was computed, or 0 to keep it until evicted for space
+     * @param unit The unit of ttl
+     */
+    public ResultCache(int maximumSize, long ttl, TimeUnit unit) {
+        this(maximumSize, ttl, unit, System::nanoTime);
+    }
+
+    /**
+     * Creates a cache which reads the time from the given clock, in nanoseconds
+     */
+    ResultCache(int maximumSize, long ttl, TimeUnit unit, LongSupplier clock) {
+
+        if (maximumSize < 1) {
+            throw new InvalidParameterException("Maximum size must be positive, got " + maximumSize);
+        }
+        if (ttl < 0) {
+            throw new InvalidParameterException("Time to live must be non-negative, got " + ttl);
+        }
+        this.maximumSize = maximumSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.clock = clock;
+
+    }
+
+    /**
+     * Returns the value for the key, computing it if it is not cached. If
+     * another thread is already computing it, waits for that result, or
+     * computes it afresh if that computation is cancelled.
+     * @param key The key to look up
+     * @param computation Computes the value of a key which is not cached
+     * @return the value for the key
+     * @throws CancellationException if this thread is interrupted while waiting
+     */
+    public V get(K key, Function<? super K, ? extends V> computation) {
+
+        while (true) {
+
+            Entry<V> entry;
+            boolean owner = false;
+            synchronized (entries) {
+                entry = entries.get(key);
+                if (entry != null && isExpired(entry)) {
+                    entries.remove(key);
+                    evictions.increment();
+                    entry = null;
+                }
+                if (entry == null) {
+                    entry = new Entry<V>();
+                    entries.put(key, entry);
+                    owner = true;
+                    evictForSpace();
+                }
+            }
+
+            if (owner) {
+                misses.increment();
+                return compute(key, entry, computation);
+            }
+
+            hits.increment();
+            if (!entry.future.isDone()) {
+                coalesced.increment();
+            }
+            try {
+                return await(entry.future);
+            } catch (CancellationException e) {
+                if (!entry.future.isCancelled() || Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                // The computation waited on was cancelled, so look the key up again
+                hits.decrement();
+            }
+
+        }
+
+    }
+
+    /**
+     * Returns the value for the key if it is cached and computed
+     * @param key The key to look up
+     * @return the value, or null if it is not cached or still being computed
+     */
+    public V getIfPresent(K key) {
+
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null || !entry.future.isDone() || entry.future.isCompletedExceptionally() || isExpired(entry)) {
+                return null;
+            }
+            return entry.future.getNow(null);
+        }
+
+    }
+
+    /**
+     * Removes the value for the key. A computation in flight still
+     * completes for those waiting on it, but is not kept.
+     * @param key The key to remove
+     */
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Removes every value
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return the number of entries, including computations in flight and expired entries not yet removed
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return a snapshot of the hit, miss, coalescing and eviction counters
+     */
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), coalesced.sum(), evictions.sum());
+    }
+
+    /**
+     * Computes the value of an entry this thread inserted, and completes it
+     * for everyone waiting on it. A failed entry is removed, so that the next
+     * request tries again. A cancelled one is cancelled for those waiting on
+     * it too, rather than failed, so that they try again themselves.
+     */
+    private V compute(K key, Entry<V> entry, Function<? super K, ? extends V> computation) {
+
+        V value;
+        try {
+            value = computation.apply(key);
+        } catch (RuntimeException | Error e) {
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+            if (e instanceof CancellationException || Thread.currentThread().isInterrupted()) {
+                entry.future.cancel(false);
+            } else {
+                entry.future.completeExceptionally(e);
+            }
+            throw e;
+        }
+        entry.computedAt = clock.getAsLong();
+        entry.future.complete(value);
+        return value;
+
+    }
+
+    /**
+     * Waits for a value, rethrowing the exception of a failed computation as
+     * it was thrown. A cancelled computation, or an interrupt of this thread,
+     * throws a CancellationException, with the interrupt status kept.
+     */
+    private static <V> V await(CompletableFuture<V> future) {
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a result");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+
+    }
+
+    /**
+     * Returns true if a computed entry has outlived the time to live.
+     * Computations in flight never expire.
+     */
+    private boolean isExpired(Entry<V> entry) {
+        return ttlNanos > 0 && entry.future.isDone() && clock.getAsLong() - entry.computedAt > ttlNanos;
+    }
+
+    /**
+     * Removes the least recently used computed entries until the cache fits,
+     * which must be called holding the lock of the map. Computations in
+     * flight are kept, so that no one starts the same computation again.
+     */
+    private void evictForSpace() {
+
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maximumSize && iterator.hasNext()) {
+            if (iterator.next().getValue().future.isDone()) {
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+
+    }
+
+}
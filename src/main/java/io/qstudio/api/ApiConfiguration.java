@@ -0,0 +1,57 @@
+package io.qstudio.api;
+
+import core.algorithms.FactorizationCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The beans shared by the API controllers: the cache of factorizations
+ * and the scheduler of jobs, configured from application.properties
+ * @version 0.2
+ */
+@Configuration
+public class ApiConfiguration {
+
+    /**
+     * @param maximumSize The number of factorizations and periods kept
+     * @param ttlMinutes How long a result is kept, in minutes
+     * @return the cache of factorizations shared by every request
+     */
+    @Bean
+    public FactorizationCache factorizationCache(
+            @Value("${qstudio.cache.maximum-size:" + FactorizationCache.DEFAULT_MAXIMUM_SIZE + "}") int maximumSize,
+            @Value("${qstudio.cache.ttl-minutes:" + FactorizationCache.DEFAULT_TTL_MINUTES + "}") long ttlMinutes) {
+        return new FactorizationCache(maximumSize, ttlMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * @param workers The number of jobs run at once, or 0 for one per processor
+     * @param heapBudgetMb The heap running jobs may use together, in megabytes, or 0 for half of the maximum heap
+     * @param offHeapBudgetMb The off-heap memory running jobs may use together, in megabytes
+     * @param tenantRunningLimit The number of jobs of one tenant run at once
+     * @param tenantQueueLimit The number of jobs of one tenant that may wait in the queue
+     * @param maxEstimatedSeconds The longest estimated time of an admitted job, or 0 for no limit
+     * @param starvationSeconds How long the head of the queue waits before it holds back the jobs behind it
+     * @return the scheduler of every job
+     */
+    @Bean(destroyMethod = "shutdown")
+    public JobScheduler jobScheduler(
+            @Value("${qstudio.scheduler.workers:0}") int workers,
+            @Value("${qstudio.scheduler.heap-budget-mb:0}") long heapBudgetMb,
+            @Value("${qstudio.scheduler.off-heap-budget-mb:1024}") long offHeapBudgetMb,
+            @Value("${qstudio.scheduler.tenant-running-limit:2}") int tenantRunningLimit,
+            @Value("${qstudio.scheduler.tenant-queue-limit:100}") int tenantQueueLimit,
+            @Value("${qstudio.scheduler.max-estimated-seconds:0}") long maxEstimatedSeconds,
+            @Value("${qstudio.scheduler.starvation-seconds:60}") long starvationSeconds) {
+
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        long heapBudget = heapBudgetMb > 0 ? heapBudgetMb << 20 : Runtime.getRuntime().maxMemory() / 2;
+        return new JobScheduler(threads, heapBudget, offHeapBudgetMb << 20, tenantRunningLimit, tenantQueueLimit,
+                maxEstimatedSeconds, starvationSeconds, TimeUnit.SECONDS);
+
+    }
+
+}
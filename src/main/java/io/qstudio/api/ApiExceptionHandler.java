@@ -0,0 +1,53 @@
+package io.qstudio.api;
+
+import core.expection.InvalidParameterException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Turns the exceptions of the API controllers into JSON errors of the form
+ * {"error": message}: invalid requests are 400 Bad Request, unknown jobs
+ * are 404 Not Found, and jobs the scheduler does not admit are 413 Payload
+ * Too Large or 429 Too Many Requests (see JobRejectedException)
+ * @version 0.2
+ */
+@RestControllerAdvice(basePackageClasses = ApiExceptionHandler.class)
+public class ApiExceptionHandler {
+
+    /**
+     * @param e A parameter of the request that the core algorithms rejected
+     * @return the error
+     */
+    @ExceptionHandler({InvalidParameterException.class, NumberFormatException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> invalidParameter(RuntimeException e) {
+        return Collections.singletonMap("error", e.getMessage());
+    }
+
+    /**
+     * @param e The job that was not found
+     * @return the error
+     */
+    @ExceptionHandler(JobNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public Map<String, String> jobNotFound(JobNotFoundException e) {
+        return Collections.singletonMap("error", e.getMessage());
+    }
+
+    /**
+     * @param e The reason the job was not admitted
+     * @return the error
+     */
+    @ExceptionHandler(JobRejectedException.class)
+    public ResponseEntity<Map<String, String>> jobRejected(JobRejectedException e) {
+        HttpStatus status = e.isRetryable() ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.PAYLOAD_TOO_LARGE;
+        return ResponseEntity.status(status).body(Collections.singletonMap("error", e.getMessage()));
+    }
+
+}
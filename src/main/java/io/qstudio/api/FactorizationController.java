@@ -0,0 +1,170 @@
+package io.qstudio.api;
+
+import core.algorithms.FactorizationCache;
+import core.algorithms.QuantumImpl;
+import core.expection.InvalidParameterException;
+import core.util.ContinuedFraction;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Factoring with Shor's algorithm and the continued fractions of its
+ * post-processing. Factorizations can take exponential time, so they run
+ * as jobs (see JobController); continued fractions take a logarithmic
+ * number of steps and are answered directly. A running factorization is
+ * stopped by cancelling its job, which interrupts its thread: the order
+ * finding of every trial checks for that interrupt.
+ * @version 0.3
+ */
+@RestController
+@RequestMapping("/api")
+public class FactorizationController {
+
+    /**
+     * The largest number of bits of N factored classically, beyond which
+     * the classical factoring of ClassicalImpl no longer finishes in seconds
+     */
+    public static final int MAX_CLASSICAL_BITS = 128;
+
+    /**
+     * The request body of a factorization
+     */
+    public static class FactorizationRequest {
+
+        private String n;
+        private String method = "classical";
+
+        /**
+         * @return the number to factor, in decimal
+         */
+        public String getN() {
+            return n;
+        }
+
+        /**
+         * @param n The number to factor, in decimal
+         */
+        public void setN(String n) {
+            this.n = n;
+        }
+
+        /**
+         * @return "classical" to find periods classically, or "quantum" to simulate period finding
+         */
+        public String getMethod() {
+            return method;
+        }
+
+        /**
+         * @param method "classical" to find periods classically, or "quantum" to simulate period finding
+         */
+        public void setMethod(String method) {
+            this.method = method;
+        }
+
+    }
+
+    private final JobService jobs;
+    private final FactorizationCache cache;
+
+    /**
+     * @param jobs The service running the factorizations
+     * @param cache The cache of classical factorizations
+     */
+    public FactorizationController(JobService jobs, FactorizationCache cache) {
+        this.jobs = jobs;
+        this.cache = cache;
+    }
+
+    /**
+     * Starts factoring N. The result of the job is the list of prime
+     * factors of N, in decimal strings since they may not fit in a double.
+     * @param request The number to factor and the method to use
+     * @param tenant The client the job runs for
+     * @param priority The priority of the job
+     * @return the queued job
+     */
+    @RequestMapping(value = "/factorizations", method = RequestMethod.POST)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Job factor(@RequestBody FactorizationRequest request,
+                      @RequestHeader(value = "X-Tenant", defaultValue = JobController.DEFAULT_TENANT) String tenant,
+                      @RequestParam(value = "priority", defaultValue = "NORMAL") Job.Priority priority) {
+
+        if (request.getN() == null) {
+            throw new InvalidParameterException("Expected a number n to factor");
+        }
+        BigInteger N = new BigInteger(request.getN().trim());
+        if (N.signum() <= 0) {
+            throw new InvalidParameterException("N = " + N + " has no prime factorization");
+        }
+
+        String method = request.getMethod() == null ? "classical" : request.getMethod();
+        switch (method) {
+            case "classical":
+                if (N.bitLength() > MAX_CLASSICAL_BITS) {
+                    throw new InvalidParameterException("Classical factorization is limited to N of at most " +
+                            MAX_CLASSICAL_BITS + " bits, got " + N.bitLength());
+                }
+                return jobs.submit("factorization", tenant, priority, ResourceEstimate.forClassicalFactorization(N),
+                        progress -> toStrings(N.bitLength() < Long.SIZE ? cache.factor(N.longValueExact()) : cache.factor(N)));
+            case "quantum":
+                if (N.bitLength() >= Integer.SIZE) {
+                    throw new InvalidParameterException("Quantum factorization is only simulated for N that fit in an int");
+                }
+                if (N.intValueExact() > 1 && QuantumImpl.countingQubits(N.intValueExact()) > QuantumImpl.MAX_SPARSE_COUNTING_QUBITS) {
+                    throw new InvalidParameterException("N = " + N + " needs " +
+                            QuantumImpl.countingQubits(N.intValueExact()) + " counting qubits, more than the " +
+                            QuantumImpl.MAX_SPARSE_COUNTING_QUBITS + " that can be simulated");
+                }
+                return jobs.submit("factorization", tenant, priority,
+                        ResourceEstimate.forQuantumFactorization(N.intValueExact()),
+                        progress -> toStrings(QuantumImpl.shorsPrimeFactorization(N.intValueExact(), false)));
+            default:
+                throw new InvalidParameterException("Unknown factorization method " + method +
+                        ", expected classical or quantum");
+        }
+
+    }
+
+    /**
+     * Expands numerator / denominator as a continued fraction
+     * @param numerator The numerator, which must be non-negative
+     * @param denominator The denominator, which must be positive
+     * @param maxDenominator If given, the expansion stops at the first convergent whose
+     *                       denominator reaches it, as in Shor's post-processing
+     * @return the convergents, in order
+     */
+    @RequestMapping(value = "/continued-fractions", method = RequestMethod.GET)
+    public List<ContinuedFraction.Convergent> continuedFraction(@RequestParam("numerator") long numerator,
+                                                                @RequestParam("denominator") long denominator,
+                                                                @RequestParam(value = "maxDenominator", required = false) Long maxDenominator) {
+
+        List<ContinuedFraction.Convergent> convergents = new ArrayList<ContinuedFraction.Convergent>();
+        ContinuedFraction fraction = new ContinuedFraction(numerator, denominator);
+        while (fraction.hasNext()) {
+            ContinuedFraction.Convergent convergent = fraction.next();
+            convergents.add(convergent);
+            if (maxDenominator != null && convergent.getDenominator() >= maxDenominator) {
+                break;
+            }
+        }
+        return convergents;
+
+    }
+
+    private static List<String> toStrings(List<?> factors) {
+        return factors.stream().map(Object::toString).collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,282 @@
+package io.qstudio.api;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * An asynchronous job run by the JobService: its status, progress, and
+ * once it is finished its result or error. Jobs are returned to clients
+ * as JSON through their getters, and notify listeners (such as a stream
+ * of server-sent events) whenever their status changes or their progress
+ * advances by at least PROGRESS_STEP. Each job belongs to a tenant and
+ * has a priority and a ResourceEstimate, which the JobScheduler admits and
+ * orders it by.
+ * @version 0.2
+ */
+public class Job {
+
+    /**
+     * The stages of a job. SUCCEEDED, FAILED and CANCELLED are final.
+     */
+    public enum Status {
+
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED;
+
+        /**
+         * @return true if a job in this status will not change again
+         */
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+        }
+
+    }
+
+    /**
+     * The priorities of jobs, from the first to be run to the last
+     */
+    public enum Priority {
+        HIGH, NORMAL, LOW
+    }
+
+    /**
+     * The smallest advance in progress that is sent to listeners
+     */
+    public static final double PROGRESS_STEP = 0.01;
+
+    private final String id;
+    private final String type;
+    private final String tenant;
+    private final Priority priority;
+    private final ResourceEstimate estimate;
+    private final long submittedAt;
+    private final AtomicReference<Status> status = new AtomicReference<Status>(Status.QUEUED);
+    private final List<Consumer<Job>> listeners = new CopyOnWriteArrayList<Consumer<Job>>();
+    private final JobProgress progressView = new ProgressView();
+
+    private volatile double progress;
+    private volatile double notifiedProgress;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile Object result;
+    private volatile String error;
+    private volatile Future<?> future;
+
+    /**
+     * Creates a queued job
+     * @param id The identifier clients poll the job by
+     * @param type What the job does, such as "factorization"
+     * @param tenant The client the job runs for
+     * @param priority The priority of the job
+     * @param estimate The memory and time the job is expected to need
+     */
+    Job(String id, String type, String tenant, Priority priority, ResourceEstimate estimate) {
+        this.id = id;
+        this.type = type;
+        this.tenant = tenant;
+        this.priority = priority;
+        this.estimate = estimate;
+        this.submittedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * @return the identifier of the job
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return what the job does, such as "factorization"
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return the client the job runs for
+     */
+    public String getTenant() {
+        return tenant;
+    }
+
+    /**
+     * @return the priority of the job
+     */
+    public Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * @return the memory and time the job is expected to need
+     */
+    public ResourceEstimate getEstimate() {
+        return estimate;
+    }
+
+    /**
+     * @return the current stage of the job
+     */
+    public Status getStatus() {
+        return status.get();
+    }
+
+    /**
+     * @return the fraction of the work done, between 0 and 1
+     */
+    public double getProgress() {
+        return progress;
+    }
+
+    /**
+     * @return the result of a job which succeeded, otherwise null
+     */
+    public Object getResult() {
+        return result;
+    }
+
+    /**
+     * @return the message of the error of a job which failed, otherwise null
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * @return when the job was submitted, in milliseconds since the epoch
+     */
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    /**
+     * @return when the job started running, in milliseconds since the epoch, or 0 if it has not
+     */
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * @return when the job finished, in milliseconds since the epoch, or 0 if it has not
+     */
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Registers a listener, called with the job on every change of status
+     * and every advance in progress of at least PROGRESS_STEP. Listeners
+     * are called on the thread that made the change.
+     * @param listener The listener to add
+     */
+    void addListener(Consumer<Job> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener The listener to remove
+     */
+    void removeListener(Consumer<Job> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @param future The future of the task running the job, which is cancelled with the job
+     */
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    /**
+     * Runs the task of the job, unless it was cancelled while queued, and
+     * records its result or error
+     * @param task The work of the job
+     */
+    void run(JobTask task) {
+
+        if (!status.compareAndSet(Status.QUEUED, Status.RUNNING)) {
+            return;
+        }
+        startedAt = System.currentTimeMillis();
+        notifyListeners();
+
+        try {
+            Object value = task.run(progressView);
+            result = value;
+            progress = 1;
+            finish(Status.SUCCEEDED);
+        } catch (RuntimeException | Error e) {
+            // Errors such as running out of memory fail the job rather than leaving it running forever
+            error = e.getMessage() == null ? e.toString() : e.getMessage();
+            finish(Status.FAILED);
+        }
+
+    }
+
+    /**
+     * Cancels the job, interrupting its task if it is running
+     * @return true if the job was cancelled, false if it had already finished
+     */
+    boolean cancel() {
+
+        Status current = status.get();
+        while (!current.isFinished()) {
+            if (status.compareAndSet(current, Status.CANCELLED)) {
+                finishedAt = System.currentTimeMillis();
+                Future<?> running = future;
+                if (running != null) {
+                    running.cancel(true);
+                }
+                notifyListeners();
+                return true;
+            }
+            current = status.get();
+        }
+        return false;
+
+    }
+
+    /**
+     * Moves a running job to a final status, unless it was cancelled meanwhile
+     */
+    private void finish(Status outcome) {
+
+        if (status.compareAndSet(Status.RUNNING, outcome)) {
+            finishedAt = System.currentTimeMillis();
+            notifyListeners();
+        } else {
+            result = null;
+        }
+
+    }
+
+    private void notifyListeners() {
+        notifiedProgress = progress;
+        for (Consumer<Job> listener : listeners) {
+            listener.accept(this);
+        }
+    }
+
+    /**
+     * The progress of the job as seen by its task
+     */
+    private class ProgressView implements JobProgress {
+
+        @Override
+        public void report(double fraction) {
+            progress = Math.max(0, Math.min(1, fraction));
+            if (progress - notifiedProgress >= PROGRESS_STEP) {
+                notifyListeners();
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return status.get() == Status.CANCELLED;
+        }
+
+    }
+
+}
@@ -0,0 +1,71 @@
+package io.qstudio.api;
+
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Polling, streaming and cancelling the asynchronous jobs started by the
+ * other controllers, and the state of the queue they wait in. Jobs are
+ * submitted for the tenant named by the X-Tenant header, with a priority
+ * given by the priority parameter (HIGH, NORMAL or LOW).
+ * @version 0.2
+ */
+@RestController
+@RequestMapping("/api/jobs")
+public class JobController {
+
+    /**
+     * The tenant of requests without an X-Tenant header
+     */
+    public static final String DEFAULT_TENANT = "anonymous";
+
+    private final JobService jobs;
+
+    /**
+     * @param jobs The service running the jobs
+     */
+    public JobController(JobService jobs) {
+        this.jobs = jobs;
+    }
+
+    /**
+     * @return the depth of the queue, the waiting times, and the resources in use
+     */
+    @RequestMapping(method = RequestMethod.GET)
+    public JobScheduler.Stats stats() {
+        return jobs.getStats();
+    }
+
+    /**
+     * @param id The identifier of a job
+     * @return the status, progress and, once finished, result or error of the job
+     */
+    @RequestMapping(value = "/{id}", method = RequestMethod.GET)
+    public Job get(@PathVariable("id") String id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * Cancels a job, unless it has already finished
+     * @param id The identifier of a job
+     * @return the job
+     */
+    @RequestMapping(value = "/{id}", method = RequestMethod.DELETE)
+    public Job cancel(@PathVariable("id") String id) {
+        return jobs.cancel(id);
+    }
+
+    /**
+     * Streams the progress of a job as server-sent events (see JobService.events)
+     * @param id The identifier of a job
+     * @return the stream of events
+     */
+    @RequestMapping(value = "/{id}/events", method = RequestMethod.GET, produces = "text/event-stream")
+    public SseEmitter events(@PathVariable("id") String id) {
+        return jobs.events(id);
+    }
+
+}
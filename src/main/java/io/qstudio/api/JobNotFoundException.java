@@ -0,0 +1,20 @@
+package io.qstudio.api;
+
+/**
+ * Thrown when a client asks for a job that does not exist, or has been
+ * forgotten, which the API reports as 404 Not Found
+ * @version 0.1
+ */
+public class JobNotFoundException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates the exception for the given job
+     * @param id The identifier that was asked for
+     */
+    public JobNotFoundException(String id) {
+        super("No job with id " + id);
+    }
+
+}
@@ -0,0 +1,21 @@
+package io.qstudio.api;
+
+/**
+ * The view of a running job given to its task, to report how far it has
+ * got and to find out whether it should stop early
+ * @version 0.1
+ */
+public interface JobProgress {
+
+    /**
+     * Records the fraction of the work done so far
+     * @param fraction A number between 0 and 1
+     */
+    void report(double fraction);
+
+    /**
+     * @return true if the job was cancelled, in which case its result will be discarded
+     */
+    boolean isCancelled();
+
+}
@@ -0,0 +1,33 @@
+package io.qstudio.api;
+
+/**
+ * Thrown when the JobScheduler does not admit a job: either it could never
+ * run within the configured budgets, which the API reports as 413 Payload
+ * Too Large, or its tenant has too many jobs queued, which is reported as
+ * 429 Too Many Requests since it may be retried later
+ * @version 0.1
+ */
+public class JobRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean retryable;
+
+    /**
+     * Creates the exception
+     * @param message Why the job was rejected
+     * @param retryable True if the same job may be admitted later
+     */
+    public JobRejectedException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+
+    /**
+     * @return true if the same job may be admitted later
+     */
+    public boolean isRetryable() {
+        return retryable;
+    }
+
+}
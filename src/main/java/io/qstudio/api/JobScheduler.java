@@ -0,0 +1,426 @@
+package io.qstudio.api;
+
+import core.expection.InvalidParameterException;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides when jobs run, so that one expensive simulation cannot starve
+ * everyone else. Jobs are admitted by their ResourceEstimate:
+ *
+ * - A job that needs more heap or off-heap memory than the whole budget,
+ *   or longer than the longest allowed time, is rejected outright.
+ * - A tenant with tenantQueueLimit jobs already waiting is turned away
+ *   until some of them have started.
+ * - Otherwise the job is queued, by priority and then in order of
+ *   submission. It starts once a worker is free, its tenant has fewer
+ *   than tenantRunningLimit jobs running, and its memory fits in what the
+ *   running jobs have left of the budgets. Jobs that do not fit yet are
+ *   deferred, and smaller jobs behind them may start first.
+ *
+ * So that large jobs are not deferred forever by a stream of small ones,
+ * once the job at the head of the queue has waited longer than the
+ * starvation timeout, nothing else starts until it fits.
+ *
+ * The state of the queue is guarded by the lock of the scheduler, and
+ * the queue is only looked at when a job is submitted or finishes.
+ * @version 0.1
+ */
+public class JobScheduler {
+
+    /**
+     * A snapshot of the queue and the resources in use
+     */
+    public static final class Stats {
+
+        private final int queued;
+        private final Map<Job.Priority, Integer> queuedByPriority;
+        private final int deferred;
+        private final int running;
+        private final long heapInUse;
+        private final long heapBudget;
+        private final long offHeapInUse;
+        private final long offHeapBudget;
+        private final long started;
+        private final long rejected;
+        private final long averageWaitMillis;
+        private final long longestWaitMillis;
+
+        Stats(int queued, Map<Job.Priority, Integer> queuedByPriority, int deferred, int running,
+              long heapInUse, long heapBudget, long offHeapInUse, long offHeapBudget,
+              long started, long rejected, long averageWaitMillis, long longestWaitMillis) {
+            this.queued = queued;
+            this.queuedByPriority = queuedByPriority;
+            this.deferred = deferred;
+            this.running = running;
+            this.heapInUse = heapInUse;
+            this.heapBudget = heapBudget;
+            this.offHeapInUse = offHeapInUse;
+            this.offHeapBudget = offHeapBudget;
+            this.started = started;
+            this.rejected = rejected;
+            this.averageWaitMillis = averageWaitMillis;
+            this.longestWaitMillis = longestWaitMillis;
+        }
+
+        /**
+         * @return the number of jobs waiting to start
+         */
+        public int getQueued() {
+            return queued;
+        }
+
+        /**
+         * @return the number of jobs waiting to start, by priority
+         */
+        public Map<Job.Priority, Integer> getQueuedByPriority() {
+            return queuedByPriority;
+        }
+
+        /**
+         * @return the number of waiting jobs whose memory does not fit in what is left of the budgets
+         */
+        public int getDeferred() {
+            return deferred;
+        }
+
+        /**
+         * @return the number of jobs running
+         */
+        public int getRunning() {
+            return running;
+        }
+
+        /**
+         * @return the estimated heap memory of the running jobs, in bytes
+         */
+        public long getHeapInUse() {
+            return heapInUse;
+        }
+
+        /**
+         * @return the heap memory that running jobs may use together, in bytes
+         */
+        public long getHeapBudget() {
+            return heapBudget;
+        }
+
+        /**
+         * @return the estimated off-heap memory of the running jobs, in bytes
+         */
+        public long getOffHeapInUse() {
+            return offHeapInUse;
+        }
+
+        /**
+         * @return the off-heap memory that running jobs may use together, in bytes
+         */
+        public long getOffHeapBudget() {
+            return offHeapBudget;
+        }
+
+        /**
+         * @return the number of jobs started since the scheduler was created
+         */
+        public long getStarted() {
+            return started;
+        }
+
+        /**
+         * @return the number of jobs rejected since the scheduler was created
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        /**
+         * @return the average time the started jobs waited in the queue, in milliseconds
+         */
+        public long getAverageWaitMillis() {
+            return averageWaitMillis;
+        }
+
+        /**
+         * @return how long the job that has waited longest has been in the queue, in milliseconds
+         */
+        public long getLongestWaitMillis() {
+            return longestWaitMillis;
+        }
+
+    }
+
+    /**
+     * A job waiting in the queue
+     */
+    private static final class Queued implements Comparable<Queued> {
+
+        final Job job;
+        final JobTask task;
+        final long sequence;
+        final long enqueuedAt;
+
+        Queued(Job job, JobTask task, long sequence, long enqueuedAt) {
+            this.job = job;
+            this.task = task;
+            this.sequence = sequence;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        @Override
+        public int compareTo(Queued other) {
+            int byPriority = job.getPriority().compareTo(other.job.getPriority());
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+
+    }
+
+    private final ExecutorService executor;
+    private final int workers;
+    private final long heapBudget;
+    private final long offHeapBudget;
+    private final int tenantRunningLimit;
+    private final int tenantQueueLimit;
+    private final long maxEstimatedNanos;
+    private final long starvationNanos;
+
+    private final TreeSet<Queued> queue = new TreeSet<Queued>();
+    private final Map<String, Integer> queuedByTenant = new HashMap<String, Integer>();
+    private final Map<String, Integer> runningByTenant = new HashMap<String, Integer>();
+    private long sequence;
+    private int running;
+    private long heapInUse;
+    private long offHeapInUse;
+    private long started;
+    private long rejected;
+    private long totalWaitNanos;
+
+    /**
+     * Creates a scheduler
+     * @param workers The number of jobs run at once
+     * @param heapBudget The heap memory running jobs may use together, in bytes
+     * @param offHeapBudget The off-heap memory running jobs may use together, in bytes
+     * @param tenantRunningLimit The number of jobs of one tenant run at once
+     * @param tenantQueueLimit The number of jobs of one tenant that may wait in the queue
+     * @param maxEstimatedTime The longest estimated time of a job that is admitted, or 0 for no limit
+     * @param starvationTimeout How long the head of the queue waits before it holds back the jobs behind it,
+     *                          or 0 to never hold them back
+     * @param unit The unit of maxEstimatedTime and starvationTimeout
+     */
+    public JobScheduler(int workers, long heapBudget, long offHeapBudget, int tenantRunningLimit, int tenantQueueLimit,
+                        long maxEstimatedTime, long starvationTimeout, TimeUnit unit) {
+
+        if (workers < 1 || tenantRunningLimit < 1 || tenantQueueLimit < 1) {
+            throw new InvalidParameterException("Workers and tenant limits must be positive, got " + workers + ", " +
+                    tenantRunningLimit + " and " + tenantQueueLimit);
+        }
+        if (heapBudget < 0 || offHeapBudget < 0 || maxEstimatedTime < 0 || starvationTimeout < 0) {
+            throw new InvalidParameterException("Budgets and times must be non-negative");
+        }
+        this.executor = Executors.newFixedThreadPool(workers, new WorkerFactory());
+        this.workers = workers;
+        this.heapBudget = heapBudget;
+        this.offHeapBudget = offHeapBudget;
+        this.tenantRunningLimit = tenantRunningLimit;
+        this.tenantQueueLimit = tenantQueueLimit;
+        this.maxEstimatedNanos = unit.toNanos(maxEstimatedTime);
+        this.starvationNanos = unit.toNanos(starvationTimeout);
+
+    }
+
+    /**
+     * Admits a job into the queue, and starts it if it can run now
+     * @param job The job
+     * @param task The work of the job
+     * @throws JobRejectedException if the job is not admitted
+     */
+    public synchronized void submit(Job job, JobTask task) {
+
+        ResourceEstimate estimate = job.getEstimate();
+        if (estimate.getHeapBytes() > heapBudget || estimate.getOffHeapBytes() > offHeapBudget) {
+            rejected++;
+            throw new JobRejectedException("The job needs " + estimate.getHeapBytes() + " bytes of heap and " +
+                    estimate.getOffHeapBytes() + " bytes off the heap, but the budgets are " + heapBudget + " and " +
+                    offHeapBudget, false);
+        }
+        if (maxEstimatedNanos > 0 && estimate.getNanos() > maxEstimatedNanos) {
+            rejected++;
+            throw new JobRejectedException("The job is estimated to take " + estimate.getEstimatedMillis() +
+                    " ms, longer than the limit of " + TimeUnit.NANOSECONDS.toMillis(maxEstimatedNanos) + " ms", false);
+        }
+        int waiting = queuedByTenant.getOrDefault(job.getTenant(), 0);
+        if (waiting >= tenantQueueLimit) {
+            rejected++;
+            throw new JobRejectedException("Tenant " + job.getTenant() + " already has " + waiting +
+                    " jobs waiting", true);
+        }
+
+        queue.add(new Queued(job, task, sequence++, System.nanoTime()));
+        queuedByTenant.put(job.getTenant(), waiting + 1);
+        dispatch();
+
+    }
+
+    /**
+     * Removes a job from the queue, as when it is cancelled before it starts
+     * @param job The job
+     * @return true if the job was waiting in the queue
+     */
+    public synchronized boolean remove(Job job) {
+
+        Iterator<Queued> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            Queued queued = iterator.next();
+            if (queued.job == job) {
+                iterator.remove();
+                decrement(queuedByTenant, job.getTenant());
+                dispatch();
+                return true;
+            }
+        }
+        return false;
+
+    }
+
+    /**
+     * @return a snapshot of the queue and the resources in use
+     */
+    public synchronized Stats getStats() {
+
+        Map<Job.Priority, Integer> byPriority = new EnumMap<Job.Priority, Integer>(Job.Priority.class);
+        for (Job.Priority priority : Job.Priority.values()) {
+            byPriority.put(priority, 0);
+        }
+        int deferred = 0;
+        long now = System.nanoTime();
+        long longestWait = 0;
+        for (Queued queued : queue) {
+            byPriority.merge(queued.job.getPriority(), 1, Integer::sum);
+            if (!fits(queued.job.getEstimate())) {
+                deferred++;
+            }
+            longestWait = Math.max(longestWait, now - queued.enqueuedAt);
+        }
+        long averageWait = started == 0 ? 0 : totalWaitNanos / started;
+
+        return new Stats(queue.size(), byPriority, deferred, running, heapInUse, heapBudget, offHeapInUse,
+                offHeapBudget, started, rejected, TimeUnit.NANOSECONDS.toMillis(averageWait),
+                TimeUnit.NANOSECONDS.toMillis(longestWait));
+
+    }
+
+    /**
+     * Stops the workers, interrupting running jobs
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts the first jobs in the queue that can run, while workers are free
+     */
+    private void dispatch() {
+
+        while (running < workers && !queue.isEmpty()) {
+
+            long now = System.nanoTime();
+            Queued head = queue.first();
+            boolean starving = starvationNanos > 0 && now - head.enqueuedAt > starvationNanos;
+            Queued next = null;
+            Iterator<Queued> iterator = queue.iterator();
+            while (iterator.hasNext()) {
+                Queued queued = iterator.next();
+                if (queued.job.getStatus().isFinished()) {
+                    // Cancelled while it waited
+                    iterator.remove();
+                    decrement(queuedByTenant, queued.job.getTenant());
+                    continue;
+                }
+                boolean tenantFree = runningByTenant.getOrDefault(queued.job.getTenant(), 0) < tenantRunningLimit;
+                if (tenantFree && fits(queued.job.getEstimate())) {
+                    next = queued;
+                    break;
+                }
+                if (queued == head && starving && tenantFree) {
+                    // Hold back everything else until the head fits
+                    break;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+
+            queue.remove(next);
+            start(next, now);
+
+        }
+
+    }
+
+    private void start(Queued queued, long now) {
+
+        Job job = queued.job;
+        ResourceEstimate estimate = job.getEstimate();
+        decrement(queuedByTenant, job.getTenant());
+        runningByTenant.merge(job.getTenant(), 1, Integer::sum);
+        running++;
+        heapInUse += estimate.getHeapBytes();
+        offHeapInUse += estimate.getOffHeapBytes();
+        started++;
+        totalWaitNanos += now - queued.enqueuedAt;
+
+        job.setFuture(executor.submit(() -> {
+            try {
+                job.run(queued.task);
+            } finally {
+                finished(job);
+            }
+        }));
+
+    }
+
+    private synchronized void finished(Job job) {
+
+        ResourceEstimate estimate = job.getEstimate();
+        decrement(runningByTenant, job.getTenant());
+        running--;
+        heapInUse -= estimate.getHeapBytes();
+        offHeapInUse -= estimate.getOffHeapBytes();
+        dispatch();
+
+    }
+
+    private boolean fits(ResourceEstimate estimate) {
+        return heapInUse + estimate.getHeapBytes() <= heapBudget &&
+                offHeapInUse + estimate.getOffHeapBytes() <= offHeapBudget;
+    }
+
+    private static void decrement(Map<String, Integer> counts, String tenant) {
+        counts.computeIfPresent(tenant, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * Creates named daemon worker threads, so that a running job never keeps the JVM alive
+     */
+    private static class WorkerFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "qstudio-job-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
@@ -0,0 +1,170 @@
+package io.qstudio.api;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Runs long jobs, such as simulations and factorizations, through the
+ * JobScheduler, so that request threads only submit work and return a job
+ * ID which clients poll or stream events from. Finished jobs are kept for
+ * clients to collect, up to a limit, past which the ones that finished
+ * first are forgotten.
+ * @version 0.2
+ */
+@Service
+public class JobService {
+
+    /**
+     * How long a stream of job events stays open, in milliseconds
+     */
+    public static final long EVENT_TIMEOUT = 30 * 60 * 1000L;
+
+    private final JobScheduler scheduler;
+    private final int retainedJobs;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<String, Job>();
+
+    /**
+     * Creates a job service
+     * @param scheduler The scheduler that runs the jobs
+     * @param retainedJobs The number of finished jobs kept for clients to collect
+     */
+    public JobService(JobScheduler scheduler, @Value("${qstudio.jobs.retained:1000}") int retainedJobs) {
+        this.scheduler = scheduler;
+        this.retainedJobs = retainedJobs;
+    }
+
+    /**
+     * Queues a job
+     * @param type What the job does, such as "factorization"
+     * @param tenant The client the job runs for
+     * @param priority The priority of the job
+     * @param estimate The memory and time the job is expected to need
+     * @param task The work of the job
+     * @return the queued job
+     * @throws JobRejectedException if the scheduler does not admit the job
+     */
+    public Job submit(String type, String tenant, Job.Priority priority, ResourceEstimate estimate, JobTask task) {
+
+        Job job = new Job(UUID.randomUUID().toString(), type, tenant, priority, estimate);
+        scheduler.submit(job, task);
+        jobs.put(job.getId(), job);
+        forgetFinishedJobs();
+        return job;
+
+    }
+
+    /**
+     * @param id The identifier of a job
+     * @return the job
+     * @throws JobNotFoundException if there is no such job, or it was forgotten
+     */
+    public Job get(String id) {
+
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new JobNotFoundException(id);
+        }
+        return job;
+
+    }
+
+    /**
+     * Cancels a job, interrupting it if it is running. Cancelling a
+     * finished job has no effect.
+     * @param id The identifier of a job
+     * @return the job
+     */
+    public Job cancel(String id) {
+        Job job = get(id);
+        if (job.cancel()) {
+            scheduler.remove(job);
+        }
+        return job;
+    }
+
+    /**
+     * @return the depth of the queue, the waiting times, and the resources in use
+     */
+    public JobScheduler.Stats getStats() {
+        return scheduler.getStats();
+    }
+
+    /**
+     * Opens a stream of server-sent events for a job: a "progress" event
+     * with the job now and on every change, and a final "done" event once
+     * it has finished, after which the stream is closed
+     * @param id The identifier of a job
+     * @return the stream of events
+     */
+    public SseEmitter events(String id) {
+
+        Job job = get(id);
+        SseEmitter emitter = new SseEmitter(EVENT_TIMEOUT);
+        Consumer<Job> listener = new Consumer<Job>() {
+
+            private boolean closed;
+
+            @Override
+            public synchronized void accept(Job changed) {
+                if (closed) {
+                    return;
+                }
+                boolean finished = changed.getStatus().isFinished();
+                try {
+                    emitter.send(SseEmitter.event().name(finished ? "done" : "progress").data(changed));
+                    if (finished) {
+                        closed = true;
+                        emitter.complete();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // The client went away
+                    closed = true;
+                    changed.removeListener(this);
+                }
+            }
+
+        };
+        job.addListener(listener);
+        emitter.onCompletion(() -> job.removeListener(listener));
+        emitter.onTimeout(() -> job.removeListener(listener));
+
+        // The current state, which also closes the stream if the job finished before it was opened
+        listener.accept(job);
+        return emitter;
+
+    }
+
+    /**
+     * Forgets the jobs that finished first while more than retainedJobs have finished
+     */
+    private void forgetFinishedJobs() {
+
+        int finished = 0;
+        for (Job job : jobs.values()) {
+            if (job.getStatus().isFinished()) {
+                finished++;
+            }
+        }
+        while (finished > retainedJobs) {
+            Job oldest = null;
+            for (Job job : jobs.values()) {
+                if (job.getStatus().isFinished() && (oldest == null || job.getFinishedAt() < oldest.getFinishedAt())) {
+                    oldest = job;
+                }
+            }
+            if (oldest == null || jobs.remove(oldest.getId()) == null) {
+                return;
+            }
+            finished--;
+        }
+
+    }
+
+}
@@ -0,0 +1,17 @@
+package io.qstudio.api;
+
+/**
+ * The work of an asynchronous job
+ * @version 0.1
+ */
+@FunctionalInterface
+public interface JobTask {
+
+    /**
+     * Runs the job, on a thread of the JobService
+     * @param progress Where to report progress, and to check for cancellation
+     * @return the result of the job, which is returned to clients as JSON
+     */
+    Object run(JobProgress progress);
+
+}
@@ -0,0 +1,174 @@
+package io.qstudio.api;
+
+import core.algorithms.QuantumImpl;
+import core.util.OrderFinding;
+
+import java.math.BigInteger;
+
+/**
+ * The memory and time a job is expected to need, which the JobScheduler
+ * admits it by. Simulations are estimated from their size: a register of
+ * n qubits holds 2^n amplitudes of 16 bytes, and every gate sweeps over all
+ * of them once. Quantum factorizations are estimated from the sparse
+ * register of one trial, and classical ones from the baby-step table of
+ * the order finding of one trial (see OrderFinding).
+ * @version 0.3
+ */
+public final class ResourceEstimate {
+
+    /**
+     * The bytes of a state vector amplitude: a double real and imaginary part
+     */
+    public static final long BYTES_PER_AMPLITUDE = 16;
+
+    /**
+     * The bytes per amplitude of sampling shots from a register: the
+     * probabilities, the alias table and the work arrays of its construction
+     */
+    public static final long SAMPLING_BYTES_PER_AMPLITUDE = 36;
+
+    /**
+     * The bytes per slot of a sparse register's map: a long key, a double
+     * real and imaginary part, and a used flag
+     */
+    public static final long BYTES_PER_SPARSE_SLOT = 25;
+
+    /**
+     * The memory assumed for any job, for its objects outside of its registers
+     */
+    public static final long BASE_BYTES = 1 << 20;
+
+    /**
+     * The time assumed per amplitude per gate, in nanoseconds
+     */
+    public static final double NANOS_PER_AMPLITUDE = 2;
+
+    /**
+     * The time assumed per shot sampled, in nanoseconds
+     */
+    public static final double NANOS_PER_SHOT = 30;
+
+    /**
+     * The bytes per slot of a baby-step table: a long key, an int value and
+     * a used flag. The table has two slots per baby step, rounded up to a
+     * power of two.
+     */
+    public static final long BYTES_PER_BABY_STEP_SLOT = 13;
+
+    /**
+     * The time assumed per baby or giant step of order finding, in nanoseconds
+     */
+    public static final double NANOS_PER_ORDER_STEP = 100;
+
+    /**
+     * The estimate of a job with no registers and no known running time
+     */
+    public static final ResourceEstimate SMALL = new ResourceEstimate(BASE_BYTES, 0, 0);
+
+    private final long heapBytes;
+    private final long offHeapBytes;
+    private final long nanos;
+
+    /**
+     * Creates an estimate
+     * @param heapBytes The bytes of Java heap the job allocates at most
+     * @param offHeapBytes The bytes of direct or mapped memory the job allocates at most
+     * @param nanos The expected running time, in nanoseconds, or 0 if it is unknown
+     */
+    public ResourceEstimate(long heapBytes, long offHeapBytes, long nanos) {
+        this.heapBytes = heapBytes;
+        this.offHeapBytes = offHeapBytes;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Estimates a circuit run on a StateVectorSimulator
+     * @param qubits The number of qubits of the circuit
+     * @param gates The number of operations of the circuit
+     * @param shots The number of shots sampled from the final state
+     * @return the estimate
+     */
+    public static ResourceEstimate forStateVector(int qubits, int gates, long shots) {
+
+        double dimension = Math.pow(2, qubits);
+        long perAmplitude = BYTES_PER_AMPLITUDE + (shots > 0 ? SAMPLING_BYTES_PER_AMPLITUDE : 0);
+        double nanos = gates * dimension * NANOS_PER_AMPLITUDE + (shots > 0 ? shots * NANOS_PER_SHOT : 0);
+        // Sizes past 2^63 saturate to Long.MAX_VALUE, which no budget admits
+        return new ResourceEstimate((long) (BASE_BYTES + dimension * perAmplitude), 0, (long) nanos);
+
+    }
+
+    /**
+     * Estimates Shor's algorithm with simulated period finding, from the
+     * sparse register of one trial and the O(t^2) gates of its inverse
+     * quantum Fourier transform. The register holds at most 2^t amplitudes,
+     * in two maps which grow to four slots per amplitude.
+     * @param N The number to factor
+     * @return the estimate
+     */
+    public static ResourceEstimate forQuantumFactorization(int N) {
+
+        int qubits = QuantumImpl.countingQubits(N);
+        double dimension = Math.pow(2, qubits);
+        double nanos = qubits * (qubits + 1) / 2 * dimension * NANOS_PER_AMPLITUDE;
+        return new ResourceEstimate((long) (BASE_BYTES + 8 * dimension * BYTES_PER_SPARSE_SLOT), 0, (long) nanos);
+
+    }
+
+    /**
+     * Estimates Shor's algorithm with classical period finding, from the
+     * baby-step giant-step search of one trial. Orders past the bound of the
+     * search are not searched for, so the time is bounded for any N.
+     * @param N The number to factor
+     * @return the estimate
+     */
+    public static ResourceEstimate forClassicalFactorization(BigInteger N) {
+
+        // Half the bits of N for the baby steps, as OrderFinding takes about sqrt(N) of them
+        long steps = N.bitLength() >= Long.SIZE - 1 ? OrderFinding.MAX_BABY_STEPS
+                : Math.min(OrderFinding.MAX_BABY_STEPS, (1L << (N.bitLength() + 1) / 2) + 1);
+        long slots = Long.highestOneBit(2 * steps - 1) << 1;
+        double giantSteps = Math.min(OrderFinding.MAX_GIANT_STEPS, Math.pow(2, N.bitLength()) / steps);
+        return new ResourceEstimate(BASE_BYTES + slots * BYTES_PER_BABY_STEP_SLOT, 0,
+                (long) ((steps + giantSteps) * NANOS_PER_ORDER_STEP));
+
+    }
+
+    /**
+     * @return the bytes of Java heap the job allocates at most
+     */
+    public long getHeapBytes() {
+        return heapBytes;
+    }
+
+    /**
+     * @return the bytes of direct or mapped memory the job allocates at most
+     */
+    public long getOffHeapBytes() {
+        return offHeapBytes;
+    }
+
+    /**
+     * @return the expected running time, in milliseconds, or 0 if it is unknown
+     */
+    public long getEstimatedMillis() {
+        return nanos / 1000000;
+    }
+
+    /**
+     * @return the expected running time, in nanoseconds, or 0 if it is unknown
+     */
+    long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * @return a description of the estimate
+     */
+    @Override
+    public String toString() {
+        return "ResourceEstimate[heap=" + heapBytes + "B, offHeap=" + offHeapBytes + "B, time=" +
+                getEstimatedMillis() + "ms]";
+    }
+
+}
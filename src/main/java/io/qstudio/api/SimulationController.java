@@ -0,0 +1,359 @@
+package io.qstudio.api;
+
+import core.algorithms.ShotHistogram;
+import core.algorithms.ShotSampler;
+import core.algorithms.StateVectorSimulator;
+import core.circuit.Circuit;
+import core.circuit.Operation;
+import core.expection.InvalidParameterException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs circuits submitted as JSON on the state vector simulator, as jobs
+ * (see JobController), since their cost grows as 2^n. A circuit is given as
+ *
+ *     {"qubits": 2, "gates": [{"gate": "h", "qubits": [0]}, {"gate": "cnot", "qubits": [0, 1]}], "shots": 1000}
+ *
+ * where the qubits of a controlled gate list the control first, and the
+ * rotations (phase, rx, ry, rz and cphase) take an "angle" in radians.
+ * Jobs are admitted by the memory and time estimated from the size of the
+ * optimised circuit (see ResourceEstimate.forStateVector).
+ * @version 0.2
+ */
+@RestController
+@RequestMapping("/api/simulations")
+public class SimulationController {
+
+    /**
+     * The largest register whose probabilities are returned in full; larger
+     * registers only return the counts of their shots
+     */
+    public static final int MAX_REPORTED_QUBITS = 10;
+
+    /**
+     * A gate of a submitted circuit
+     */
+    public static class GateRequest {
+
+        private String gate;
+        private int[] qubits;
+        private double angle;
+
+        /**
+         * @return the name of the gate, such as "h" or "cnot"
+         */
+        public String getGate() {
+            return gate;
+        }
+
+        /**
+         * @param gate The name of the gate, such as "h" or "cnot"
+         */
+        public void setGate(String gate) {
+            this.gate = gate;
+        }
+
+        /**
+         * @return the qubits the gate acts on, the control first for controlled gates
+         */
+        public int[] getQubits() {
+            return qubits;
+        }
+
+        /**
+         * @param qubits The qubits the gate acts on, the control first for controlled gates
+         */
+        public void setQubits(int[] qubits) {
+            this.qubits = qubits;
+        }
+
+        /**
+         * @return the angle of a rotation, in radians
+         */
+        public double getAngle() {
+            return angle;
+        }
+
+        /**
+         * @param angle The angle of a rotation, in radians
+         */
+        public void setAngle(double angle) {
+            this.angle = angle;
+        }
+
+    }
+
+    /**
+     * The request body of a simulation
+     */
+    public static class CircuitRequest {
+
+        private int qubits;
+        private List<GateRequest> gates = new ArrayList<GateRequest>();
+        private long shots;
+        private Long seed;
+        private boolean optimize = true;
+
+        /**
+         * @return the number of qubits of the circuit
+         */
+        public int getQubits() {
+            return qubits;
+        }
+
+        /**
+         * @param qubits The number of qubits of the circuit
+         */
+        public void setQubits(int qubits) {
+            this.qubits = qubits;
+        }
+
+        /**
+         * @return the gates of the circuit, in order
+         */
+        public List<GateRequest> getGates() {
+            return gates;
+        }
+
+        /**
+         * @param gates The gates of the circuit, in order
+         */
+        public void setGates(List<GateRequest> gates) {
+            this.gates = gates;
+        }
+
+        /**
+         * @return the number of measurements to sample from the final state, possibly 0
+         */
+        public long getShots() {
+            return shots;
+        }
+
+        /**
+         * @param shots The number of measurements to sample from the final state, possibly 0
+         */
+        public void setShots(long shots) {
+            this.shots = shots;
+        }
+
+        /**
+         * @return the seed of the shots, or null for a random one
+         */
+        public Long getSeed() {
+            return seed;
+        }
+
+        /**
+         * @param seed The seed of the shots, or null for a random one
+         */
+        public void setSeed(Long seed) {
+            this.seed = seed;
+        }
+
+        /**
+         * @return true if the circuit is optimised before it is run
+         */
+        public boolean isOptimize() {
+            return optimize;
+        }
+
+        /**
+         * @param optimize True if the circuit is optimised before it is run
+         */
+        public void setOptimize(boolean optimize) {
+            this.optimize = optimize;
+        }
+
+    }
+
+    /**
+     * The result of a simulation job
+     */
+    public static class SimulationResult {
+
+        private final int qubits;
+        private final double[] probabilities;
+        private final long shots;
+        private final Map<String, Long> counts;
+
+        SimulationResult(int qubits, double[] probabilities, long shots, Map<String, Long> counts) {
+            this.qubits = qubits;
+            this.probabilities = probabilities;
+            this.shots = shots;
+            this.counts = counts;
+        }
+
+        /**
+         * @return the number of qubits of the circuit
+         */
+        public int getQubits() {
+            return qubits;
+        }
+
+        /**
+         * @return the probability of every basis state, or null above MAX_REPORTED_QUBITS
+         */
+        public double[] getProbabilities() {
+            return probabilities;
+        }
+
+        /**
+         * @return the number of shots sampled
+         */
+        public long getShots() {
+            return shots;
+        }
+
+        /**
+         * @return the number of shots of every outcome measured at least once,
+         *         keyed by its bits with qubit 0 last
+         */
+        public Map<String, Long> getCounts() {
+            return counts;
+        }
+
+    }
+
+    private final JobService jobs;
+    private final int maxQubits;
+
+    /**
+     * @param jobs The service running the simulations
+     * @param maxQubits The largest circuit accepted
+     */
+    public SimulationController(JobService jobs, @Value("${qstudio.simulation.max-qubits:30}") int maxQubits) {
+        this.jobs = jobs;
+        this.maxQubits = Math.min(maxQubits, StateVectorSimulator.MAX_QUBITS);
+    }
+
+    /**
+     * Starts running a circuit. The circuit is checked before the job is
+     * queued, so that an invalid circuit is a 400 Bad Request rather than a
+     * failed job.
+     * @param request The circuit, and the number of shots to sample
+     * @param tenant The client the job runs for
+     * @param priority The priority of the job
+     * @return the queued job, whose result is a SimulationResult
+     */
+    @RequestMapping(method = RequestMethod.POST)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Job simulate(@RequestBody CircuitRequest request,
+                        @RequestHeader(value = "X-Tenant", defaultValue = JobController.DEFAULT_TENANT) String tenant,
+                        @RequestParam(value = "priority", defaultValue = "NORMAL") Job.Priority priority) {
+
+        if (request.getQubits() > maxQubits) {
+            throw new InvalidParameterException("Circuits of more than " + maxQubits + " qubits are not accepted, got " +
+                    request.getQubits());
+        }
+        if (request.getShots() < 0) {
+            throw new InvalidParameterException("Number of shots must be non-negative, got " + request.getShots());
+        }
+        Circuit built = toCircuit(request);
+        Circuit circuit = request.isOptimize() ? built.optimize() : built;
+        long seed = request.getSeed() != null ? request.getSeed() : ThreadLocalRandom.current().nextLong();
+
+        ResourceEstimate estimate = ResourceEstimate.forStateVector(circuit.getQubitCount(), circuit.size(),
+                request.getShots());
+        return jobs.submit("simulation", tenant, priority, estimate,
+                progress -> run(circuit, request.getShots(), seed, progress));
+
+    }
+
+    /**
+     * Runs a circuit one operation at a time, reporting progress and
+     * stopping early if the job is cancelled
+     */
+    static SimulationResult run(Circuit circuit, long shots, long seed, JobProgress progress) {
+
+        StateVectorSimulator simulator = new StateVectorSimulator(circuit.getQubitCount());
+        List<Operation> operations = circuit.getOperations();
+        int steps = operations.size() + (shots > 0 ? 1 : 0);
+        for (int i = 0; i < operations.size(); i++) {
+            if (progress.isCancelled()) {
+                throw new CancellationException();
+            }
+            operations.get(i).applyTo(simulator);
+            progress.report((i + 1) / (double) steps);
+        }
+
+        Map<String, Long> counts = new LinkedHashMap<String, Long>();
+        if (shots > 0) {
+            ShotHistogram histogram = ShotSampler.of(simulator).histogram(shots, seed);
+            int[] outcomes = histogram.getOutcomes();
+            long[] frequencies = histogram.getCounts();
+            for (int i = 0; i < outcomes.length; i++) {
+                counts.put(toBits(outcomes[i], circuit.getQubitCount()), frequencies[i]);
+            }
+        }
+        double[] probabilities = circuit.getQubitCount() <= MAX_REPORTED_QUBITS ? simulator.getProbabilities() : null;
+        return new SimulationResult(circuit.getQubitCount(), probabilities, shots, counts);
+
+    }
+
+    /**
+     * Builds the circuit of a request
+     */
+    static Circuit toCircuit(CircuitRequest request) {
+
+        Circuit circuit = new Circuit(request.getQubits());
+        if (request.getGates() == null) {
+            return circuit;
+        }
+        for (GateRequest gate : request.getGates()) {
+            String name = gate.getGate() == null ? "" : gate.getGate().toLowerCase();
+            int[] qubits = gate.getQubits() == null ? new int[0] : gate.getQubits();
+            int expected = name.equals("cnot") || name.equals("cz") || name.equals("cphase") || name.equals("swap")
+                    ? 2 : 1;
+            if (qubits.length != expected) {
+                throw new InvalidParameterException("Gate " + name + " acts on " + expected + " qubits, got " +
+                        qubits.length);
+            }
+            switch (name) {
+                case "h": circuit.hadamard(qubits[0]); break;
+                case "x": circuit.pauliX(qubits[0]); break;
+                case "y": circuit.pauliY(qubits[0]); break;
+                case "z": circuit.pauliZ(qubits[0]); break;
+                case "s": circuit.s(qubits[0]); break;
+                case "t": circuit.t(qubits[0]); break;
+                case "phase": circuit.phase(qubits[0], gate.getAngle()); break;
+                case "rx": circuit.rotationX(qubits[0], gate.getAngle()); break;
+                case "ry": circuit.rotationY(qubits[0], gate.getAngle()); break;
+                case "rz": circuit.rotationZ(qubits[0], gate.getAngle()); break;
+                case "cnot": circuit.cnot(qubits[0], qubits[1]); break;
+                case "cz": circuit.cz(qubits[0], qubits[1]); break;
+                case "cphase": circuit.controlledPhase(qubits[0], qubits[1], gate.getAngle()); break;
+                case "swap": circuit.swap(qubits[0], qubits[1]); break;
+                default: throw new InvalidParameterException("Unknown gate " + gate.getGate());
+            }
+        }
+        return circuit;
+
+    }
+
+    /**
+     * Writes a basis state as its bits, with qubit 0 last
+     */
+    private static String toBits(int outcome, int qubits) {
+        StringBuilder bits = new StringBuilder(Integer.toBinaryString(outcome));
+        while (bits.length() < qubits) {
+            bits.insert(0, '0');
+        }
+        return bits.toString();
+    }
+
+}
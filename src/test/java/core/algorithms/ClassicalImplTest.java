@@ -1,14 +1,24 @@
 package core.algorithms;
 
 import core.expection.InvalidParameterException;
+import core.util.Mathematics;
 import org.apfloat.Apint;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -24,8 +34,6 @@ public class ClassicalImplTest {
     // Tests for Shor's Algorithm with a classical period finding sub-routine
     // Since this algorithm is slightly randomized (in picking X), multiple
     // iterations of each test are run.
-    //
-    // TODO: This currently relies on an inefficient primality test
     // ------------------------------------------------------------------------
 
     /**
@@ -60,6 +68,39 @@ public class ClassicalImplTest {
 
     }
 
+    /**
+     * Tests the prime factorization of the even prime N = 2, which no longer
+     * needs a special case
+     */
+    @Test
+    public void shorsClassicalNisTwo() {
+
+        List<Integer> factors = ClassicalImpl.shorsPrimeFactorization(2, false);
+        assertEquals("Expected one factor", 1, factors.size());
+        assertEquals("Expected factor of 2", 2, factors.get(0).intValue());
+
+    }
+
+    /**
+     * Tests the prime factorization of N = p*q where p and q are beyond the
+     * small primes that the primality test divides out
+     */
+    @Test
+    public void shorsClassicalNisLargerSemiprime() {
+
+        for(int i = 0; i < 5; i++) {
+
+            List<Integer> factors = ClassicalImpl.shorsPrimeFactorization(211*223, false);
+            Collections.sort(factors);
+
+            assertEquals("Expected two factors", 2, factors.size());
+            assertEquals("Expected factor of 211", 211, factors.get(0).intValue());
+            assertEquals("Expected factor of 223", 223, factors.get(1).intValue());
+
+        }
+
+    }
+
     /**
      * Tests the prime factorization of N = p*p, where p is a prime
      */
@@ -164,4 +205,307 @@ public class ClassicalImplTest {
 
     }
 
+    /**
+     * Tests the prime factorization of N=p*q*r with several trials raced on a
+     * thread pool
+     */
+    @Test
+    public void shorsClassicalParallel() {
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for(int i = 0; i < 20; i++) {
+
+                List<Integer> factors = ClassicalImpl.shorsPrimeFactorization(13*23*7, false,
+                        Mathematics::findPeriodClassically, executor, 4);
+
+                Collections.sort(factors);
+                assertEquals("Expected three factors", 3, factors.size());
+                assertEquals("Expected factor of 7", 7, factors.get(0).intValue());
+                assertEquals("Expected factor of 13", 13, factors.get(1).intValue());
+                assertEquals("Expected factor of 23", 23, factors.get(2).intValue());
+
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+    }
+
+    /**
+     * Tests that an exception in a trial is rethrown to the caller. Every
+     * trial picks X = 1, which is coprime to N, so none of them can split N
+     * with a lucky gcd before the period finder is called.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void shorsClassicalParallelTrialFails() {
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            ClassicalImpl.shorsPrimeFactorization(13*23, false, (x, n) -> {
+                throw new IllegalArgumentException("Failing period finder");
+            }, executor, 2, () -> new Random() {
+                @Override
+                public int nextInt(int bound) {
+                    return 0;
+                }
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+
+    }
+
+    /**
+     * Tests that the losing trials of a race stop once they are cancelled.
+     * One trial picks X = 2, and its circuit always measures 0, which never
+     * gives the period, for 32 runs of 100 ms each. The other waits for that
+     * circuit to run and then picks X = 13, which splits N by its gcd.
+     */
+    @Test(timeout = 20000)
+    public void shorsClassicalParallelCancelsLosers() throws Exception {
+
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch stopped = new CountDownLatch(1);
+        AtomicInteger trials = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Integer> factors = ClassicalImpl.shorsPrimeFactorization(13*23, false, (x, n) -> {
+                try {
+                    return QuantumImpl.periodFromMeasurements(x, n, 17, () -> {
+                        running.countDown();
+                        long end = System.nanoTime() + 100000000L;
+                        while (System.nanoTime() < end) {
+                            // A run of the circuit which does not check for interrupts itself
+                        }
+                        return 0;
+                    });
+                } catch (CancellationException e) {
+                    stopped.countDown();
+                    throw e;
+                }
+            }, executor, 2, () -> new Random() {
+                private final boolean loser = trials.getAndIncrement() == 0;
+                @Override
+                public int nextInt(int bound) {
+                    if (loser) {
+                        return 1;
+                    }
+                    try {
+                        running.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return 12;
+                }
+            });
+
+            Collections.sort(factors);
+            assertEquals("Expected factors of 13 and 23", Arrays.asList(13, 23), factors);
+            assertTrue("Expected the losing trial to stop", stopped.await(1, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+    }
+
+    /**
+     * Tests that at least one trial must be run
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void shorsClassicalParallelNoTrials() {
+
+        ClassicalImpl.shorsPrimeFactorization(15, false, Mathematics::findPeriodClassically, null, 0);
+
+    }
+
+    /**
+     * Tests the prime factorization of an int N = p*q with p and q near 2^15,
+     * whose large periods used to overflow the full power X^{r/2}
+     */
+    @Test
+    public void shorsClassicalNisLargeSemiprime() {
+
+        for(int i = 0; i < 5; i++) {
+
+            List<Integer> factors = ClassicalImpl.shorsPrimeFactorization(32749*32719, false);
+            Collections.sort(factors);
+
+            assertEquals("Expected two factors", 2, factors.size());
+            assertEquals("Expected factor of 32719", 32719, factors.get(0).intValue());
+            assertEquals("Expected factor of 32749", 32749, factors.get(1).intValue());
+
+        }
+
+    }
+
+    /**
+     * Tests the prime factorization of a long N = p*q, where p and q are primes
+     * near 10^6 (well beyond the reach of an int)
+     */
+    @Test
+    public void shorsClassicalLongSemiprime() {
+
+        for(int i = 0; i < 5; i++) {
+
+            List<Long> factors = ClassicalImpl.shorsPrimeFactorization(1000003L * 999983L, false);
+            Collections.sort(factors);
+
+            assertEquals("Expected two factors", 2, factors.size());
+            assertEquals("Expected factor of 999983", 999983L, factors.get(0).longValue());
+            assertEquals("Expected factor of 1000003", 1000003L, factors.get(1).longValue());
+
+        }
+
+    }
+
+    /**
+     * Tests the prime factorization of a long N=p*p*q*r
+     */
+    @Test
+    public void shorsClassicalLongComposite() {
+
+        List<Long> factors = ClassicalImpl.shorsPrimeFactorization(7L * 7L * 65537L * 2147483647L, false);
+        Collections.sort(factors);
+
+        assertEquals("Expected four factors", 4, factors.size());
+        assertEquals("Expected factor of 7", 7L, factors.get(0).longValue());
+        assertEquals("Expected factor of 7", 7L, factors.get(1).longValue());
+        assertEquals("Expected factor of 65537", 65537L, factors.get(2).longValue());
+        assertEquals("Expected factor of 2147483647", 2147483647L, factors.get(3).longValue());
+
+    }
+
+    /**
+     * Tests the prime factorization of long prime powers, which no trial of
+     * Shor's algorithm can split unless X happens to share the prime with N
+     */
+    @Test(timeout = 10000)
+    public void shorsClassicalLongPrimePower() {
+
+        List<Long> square = ClassicalImpl.shorsPrimeFactorization(65521L * 65521L, false);
+        assertEquals("Expected 65521 twice", Arrays.asList(65521L, 65521L), square);
+
+        List<Long> cube = ClassicalImpl.shorsPrimeFactorization(1000003L * 1000003L * 1000003L, false);
+        assertEquals("Expected 1000003 three times", Arrays.asList(1000003L, 1000003L, 1000003L), cube);
+
+        // A prime power left over once Shor's algorithm splits off the coprime factors
+        List<Long> mixed = ClassicalImpl.shorsPrimeFactorization(3 * 65521L * 65521L * 65537L, false);
+        Collections.sort(mixed);
+        assertEquals("Expected 3, 65521 twice and 65537", Arrays.asList(3L, 65521L, 65521L, 65537L), mixed);
+
+        List<Integer> ints = ClassicalImpl.shorsPrimeFactorization(40009 * 40009, false);
+        assertEquals("Expected 40009 twice", Arrays.asList(40009, 40009), ints);
+
+    }
+
+    /**
+     * Tests the roots of perfect powers up to the limits of a long
+     */
+    @Test
+    public void testPerfectPowerRoot() {
+
+        assertEquals("Expected 2 as the root of 2^62", 2, ClassicalImpl.perfectPowerRoot(1L << 62));
+        assertEquals("Expected 3 as the root of 3^39", 3, ClassicalImpl.perfectPowerRoot(4052555153018976267L));
+        assertEquals("Expected 6 as the root of 6^2", 6, ClassicalImpl.perfectPowerRoot(36));
+        assertEquals("Expected the largest square root", 3037000499L,
+                ClassicalImpl.perfectPowerRoot(3037000499L * 3037000499L));
+        assertEquals("Expected no root of a square plus one", 3037000499L * 3037000499L + 1,
+                ClassicalImpl.perfectPowerRoot(3037000499L * 3037000499L + 1));
+        assertEquals("Expected no root of 2^63 - 1", Long.MAX_VALUE, ClassicalImpl.perfectPowerRoot(Long.MAX_VALUE));
+        assertEquals("Expected no root of a semiprime", 1000003L * 999983L,
+                ClassicalImpl.perfectPowerRoot(1000003L * 999983L));
+
+    }
+
+    /**
+     * Tests the trivial factorization of a long N = 1
+     */
+    @Test
+    public void shorsClassicalLongTrivial() {
+
+        List<Long> factors = ClassicalImpl.shorsPrimeFactorization(1L, false);
+        assertEquals("Expected one factor", 1, factors.size());
+        assertEquals("Expected factor of 1", 1L, factors.get(0).longValue());
+
+    }
+
+    /**
+     * Tests the prime factorization of BigInteger and Apint N, including a
+     * prime beyond 64 bits
+     */
+    @Test
+    public void shorsClassicalBigInteger() {
+
+        BigInteger mersenne = BigInteger.ONE.shiftLeft(127).subtract(BigInteger.ONE);
+        List<BigInteger> prime = ClassicalImpl.shorsPrimeFactorization(mersenne, false);
+        assertEquals("Expected one factor", 1, prime.size());
+        assertEquals("Expected 2^127 - 1 itself", mersenne, prime.get(0));
+
+        List<BigInteger> factors = ClassicalImpl.shorsPrimeFactorization(BigInteger.valueOf(13*23*7), false);
+        Collections.sort(factors);
+        assertEquals("Expected three factors", 3, factors.size());
+        assertEquals("Expected factor of 7", BigInteger.valueOf(7), factors.get(0));
+        assertEquals("Expected factor of 23", BigInteger.valueOf(23), factors.get(2));
+
+        List<Apint> apints = ClassicalImpl.shorsPrimeFactorization(new Apint(1000003L * 65537L), false);
+        Collections.sort(apints);
+        assertEquals("Expected two factors", 2, apints.size());
+        assertEquals("Expected factor of 65537", new Apint(65537), apints.get(0));
+        assertEquals("Expected factor of 1000003", new Apint(1000003), apints.get(1));
+
+    }
+
+    /**
+     * Tests the prime factorization of a long N = p*q for 30 bit safe primes
+     * p and q, where the period of almost every X is past the bound of
+     * OrderFinding, so that N is split with Pollard's rho instead
+     */
+    @Test(timeout = 60000)
+    public void shorsClassicalLongLargeFactors() {
+
+        List<Long> factors = ClassicalImpl.shorsPrimeFactorization(1073740439L * 1073740127L, false);
+        Collections.sort(factors);
+
+        assertEquals("Expected two factors", 2, factors.size());
+        assertEquals("Expected factor of 1073740127", 1073740127L, factors.get(0).longValue());
+        assertEquals("Expected factor of 1073740439", 1073740439L, factors.get(1).longValue());
+
+    }
+
+    /**
+     * Tests the prime factorization of BigInteger N = p*q for 30 and 33 bit
+     * safe primes, whose periods are past the bound of OrderFinding
+     */
+    @Test(timeout = 120000)
+    public void shorsClassicalBigIntegerLargeFactors() {
+
+        List<BigInteger> factors = ClassicalImpl.shorsPrimeFactorization(
+                BigInteger.valueOf(1073740439L * 1073740127L), false);
+        Collections.sort(factors);
+        assertEquals("Expected two factors", 2, factors.size());
+        assertEquals("Expected factor of 1073740127", BigInteger.valueOf(1073740127L), factors.get(0));
+        assertEquals("Expected factor of 1073740439", BigInteger.valueOf(1073740439L), factors.get(1));
+
+        // Beyond a long, so the period is searched for in multi-limb arithmetic first
+        BigInteger p = BigInteger.valueOf(8589933323L);
+        BigInteger q = BigInteger.valueOf(8589934583L);
+        factors = ClassicalImpl.shorsPrimeFactorization(p.multiply(q), false);
+        Collections.sort(factors);
+        assertEquals("Expected two factors", 2, factors.size());
+        assertEquals("Expected factor of 8589933323", p, factors.get(0));
+        assertEquals("Expected factor of 8589934583", q, factors.get(1));
+
+    }
+
+    /**
+     * Tests that a negative N is rejected
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void shorsClassicalLongNegative() {
+
+        ClassicalImpl.shorsPrimeFactorization(-15L, false);
+
+    }
+
 }
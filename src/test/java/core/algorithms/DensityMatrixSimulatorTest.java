@@ -0,0 +1,224 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+import core.util.ComplexMatrix;
+import core.util.ComplexVector;
+import core.util.DoubleComplex;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the density-matrix simulator, noise channels and quantum trajectories
+ * @version 0.1
+ */
+public class DensityMatrixSimulatorTest {
+
+    private static final double EPSILON = 0.0000000001;
+
+    /**
+     * Tests that gates on a density matrix give |psi&gt;&lt;psi| for the state
+     * psi which the state-vector simulator reaches with the same gates
+     */
+    @Test
+    public void testPureStateMatchesStateVector() {
+
+        StateVectorSimulator vector = new StateVectorSimulator(3);
+        DensityMatrixSimulator density = new DensityMatrixSimulator(3);
+        for (ComplexMatrix gate : new ComplexMatrix[] {Gates.hadamard(), Gates.rotationY(0.7), Gates.t()}) {
+            vector.applyGate(gate, 0);
+            density.applyGate(gate, 0);
+        }
+        vector.applyControlledGate(Gates.rotationX(1.1), 0, 2);
+        density.applyControlledGate(Gates.rotationX(1.1), 0, 2);
+        vector.applyTwoQubitGate(Gates.swap(), 2, 1);
+        density.applyTwoQubitGate(Gates.swap(), 2, 1);
+        vector.applyGate(Gates.s(), 1);
+        density.applyGate(Gates.s(), 1);
+
+        DensityMatrixSimulator expected = new DensityMatrixSimulator(vector.getState());
+        assertTrue("Expected |psi><psi|", expected.getMatrix().valueEquals(density.getMatrix(), EPSILON));
+        assertEquals("Expected a pure state", 1, density.getPurity(), EPSILON);
+        assertEquals("Expected a unit trace", 1, density.getTrace(), EPSILON);
+        for (int i = 0; i < 8; i++) {
+            assertEquals("Expected the probability of " + i, vector.getProbability(i), density.getProbability(i), EPSILON);
+        }
+
+    }
+
+    /**
+     * Tests that amplitude damping moves population from |1&gt; to |0&gt;
+     */
+    @Test
+    public void testAmplitudeDamping() {
+
+        DensityMatrixSimulator density = new DensityMatrixSimulator(2);
+        density.pauliX(1);
+        density.applyChannel(NoiseChannel.amplitudeDamping(0.3), 1);
+        assertEquals("Expected |10> to keep 70%", 0.7, density.getProbability(2), EPSILON);
+        assertEquals("Expected |00> to gain 30%", 0.3, density.getProbability(0), EPSILON);
+
+        density.applyChannel(NoiseChannel.amplitudeDamping(1), 1);
+        assertEquals("Expected full damping to reach |00>", 1, density.getProbability(0), EPSILON);
+        assertEquals("Expected a pure state", 1, density.getPurity(), EPSILON);
+
+    }
+
+    /**
+     * Tests that dephasing shrinks the coherences of |+&gt; by 1 - 2p and
+     * leaves its populations alone
+     */
+    @Test
+    public void testDephasing() {
+
+        DensityMatrixSimulator density = new DensityMatrixSimulator(1);
+        density.hadamard(0);
+        density.applyChannel(NoiseChannel.dephasing(0.1), 0);
+
+        assertEquals("Expected the coherence to shrink", 0.5 * 0.8, density.getEntry(0, 1).getRealPart(), EPSILON);
+        assertEquals("Expected the coherence to shrink", 0.5 * 0.8, density.getEntry(1, 0).getRealPart(), EPSILON);
+        assertEquals("Expected the populations to stay", 0.5, density.getProbability(0), EPSILON);
+        assertEquals("Expected the purity of the mixed state", 0.5 + 2 * 0.16, density.getPurity(), EPSILON);
+
+    }
+
+    /**
+     * Tests that full depolarising noise on every qubit leaves the maximally
+     * mixed state, whatever the state was
+     */
+    @Test
+    public void testDepolarizing() {
+
+        DensityMatrixSimulator density = new DensityMatrixSimulator(2);
+        density.hadamard(0);
+        density.cnot(0, 1);
+        density.applyChannel(NoiseChannel.depolarizing(1), 0);
+        density.applyChannel(NoiseChannel.depolarizing(1), 1);
+
+        ComplexMatrix mixed = ComplexMatrix.identity(4);
+        for (int i = 0; i < 4; i++) {
+            mixed.set(i, i, 0.25, 0);
+        }
+        assertTrue("Expected the maximally mixed state", mixed.valueEquals(density.getMatrix(), EPSILON));
+        assertEquals("Expected the purity 1/4", 0.25, density.getPurity(), EPSILON);
+
+    }
+
+    /**
+     * Tests that a channel applies as sum_k K rho K^dagger, by comparison
+     * with the Kraus sum over a random pure state
+     */
+    @Test
+    public void testChannelMatchesKrausSum() {
+
+        SplittableRandom random = new SplittableRandom(5);
+        ComplexVector state = new ComplexVector(4);
+        for (int i = 0; i < 4; i++) {
+            state.set(i, random.nextDouble() - 0.5, random.nextDouble() - 0.5);
+        }
+        state = state.normalize();
+        NoiseChannel channel = NoiseChannel.amplitudeDamping(0.4);
+
+        // Sum over K of (K on qubit 1) |psi><psi| (K on qubit 1)^dagger
+        ComplexMatrix expected = new ComplexMatrix(4, 4);
+        for (ComplexMatrix operator : channel.getKrausOperators()) {
+            ComplexVector branch = operator.kronecker(ComplexMatrix.identity(2)).multiply(state);
+            for (int r = 0; r < 4; r++) {
+                for (int c = 0; c < 4; c++) {
+                    DoubleComplex term = branch.get(r).multiply(branch.get(c).getConjugate());
+                    DoubleComplex sum = expected.get(r, c).add(term);
+                    expected.set(r, c, sum);
+                }
+            }
+        }
+
+        DensityMatrixSimulator density = new DensityMatrixSimulator(state);
+        density.applyChannel(channel, 1);
+        assertTrue("Expected the Kraus sum", expected.valueEquals(density.getMatrix(), EPSILON));
+        assertEquals("Expected the trace to be preserved", 1, density.getTrace(), EPSILON);
+
+    }
+
+    /**
+     * Tests that a channel can be given by Kraus operators, which must
+     * preserve the trace
+     */
+    @Test
+    public void testCustomChannel() {
+
+        ComplexMatrix flip = Gates.pauliX();
+        NoiseChannel bitFlip = NoiseChannel.of(scale(Gates.identity(), Math.sqrt(0.75)), scale(flip, Math.sqrt(0.25)));
+        DensityMatrixSimulator density = new DensityMatrixSimulator(1);
+        density.applyChannel(bitFlip, 0);
+        assertEquals("Expected a quarter of flips", 0.25, density.getProbability(1), EPSILON);
+
+        try {
+            NoiseChannel.of(scale(flip, 0.5));
+            fail("Expected a channel which does not preserve the trace to be rejected");
+        } catch (InvalidParameterException expected) {
+            // Expected
+        }
+
+    }
+
+    /**
+     * Tests that probabilities outside [0, 1] and qubits outside the
+     * register are rejected
+     */
+    @Test
+    public void testInvalidParameters() {
+
+        try {
+            NoiseChannel.depolarizing(1.5);
+            fail("Expected a probability above 1 to be rejected");
+        } catch (InvalidParameterException expected) {
+            // Expected
+        }
+
+        try {
+            new DensityMatrixSimulator(2).applyChannel(NoiseChannel.dephasing(0.1), 2);
+            fail("Expected a qubit outside of the register to be rejected");
+        } catch (InvalidParameterException expected) {
+            // Expected
+        }
+
+    }
+
+    /**
+     * Tests that a trajectory picks Kraus operators with their probabilities
+     * and keeps the state normalised
+     */
+    @Test
+    public void testTrajectoryChannel() {
+
+        SplittableRandom random = new SplittableRandom(9);
+        int decays = 0;
+        int runs = 2000;
+        for (int run = 0; run < runs; run++) {
+            TrajectorySimulator trajectory = new TrajectorySimulator(2, random);
+            trajectory.getRegister().hadamard(0);
+            int chosen = trajectory.applyChannel(NoiseChannel.amplitudeDamping(0.6), 0);
+            decays += chosen;
+            assertEquals("Expected a normalised state", 1, trajectory.getRegister().getState().normSquared(), EPSILON);
+            if (chosen == 1) {
+                assertEquals("Expected a decay to leave |00>", 1, trajectory.getRegister().getProbability(0), EPSILON);
+            }
+        }
+
+        // A decay happens with probability 0.5 * 0.6
+        assertEquals("Expected about 30% of decays", 0.3, decays / (double) runs, 0.04);
+
+    }
+
+    private static ComplexMatrix scale(ComplexMatrix matrix, double factor) {
+        ComplexMatrix result = matrix.copy();
+        for (int i = 0; i < 4; i++) {
+            result.getRealParts()[i] *= factor;
+            result.getImaginaryParts()[i] *= factor;
+        }
+        return result;
+    }
+
+}
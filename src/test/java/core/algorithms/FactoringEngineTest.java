@@ -0,0 +1,128 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the trial division, rho and ECM factoring engine
+ * @version 0.1
+ */
+public class FactoringEngineTest {
+
+    /**
+     * Tests that the engine agrees with the period finding of ClassicalImpl
+     * on every small number
+     */
+    @Test
+    public void testAgreesWithClassicalImpl() {
+
+        for (int N = 1; N <= 2000; N++) {
+            List<Integer> expected = new ArrayList<Integer>(ClassicalImpl.shorsPrimeFactorization(N, false));
+            Collections.sort(expected);
+            assertEquals("Expected the factors of " + N, expected, FactoringEngine.factor(N));
+        }
+
+    }
+
+    /**
+     * Tests products of primes of every size that fits in a long, which
+     * need trial division, rho, or both
+     */
+    @Test
+    public void testLongs() {
+
+        assertEquals("Expected the factors of the largest int", Collections.singletonList(Integer.MAX_VALUE),
+                FactoringEngine.factor(Integer.MAX_VALUE));
+        assertEquals("Expected a product of small primes", Arrays.asList(2L, 2L, 3L, 1009L, 1009L, 65537L),
+                FactoringEngine.factor(4L * 3 * 1009 * 1009 * 65537));
+        assertEquals("Expected a semiprime of two 31 bit primes", Arrays.asList(2147483629L, 2147483647L),
+                FactoringEngine.factor(2147483629L * 2147483647L));
+        assertEquals("Expected the square of a prime", Arrays.asList(3037000493L, 3037000493L),
+                FactoringEngine.factor(3037000493L * 3037000493L));
+        assertEquals("Expected a large prime", Collections.singletonList(9223372036854775783L),
+                FactoringEngine.factor(9223372036854775783L));
+        assertEquals("Expected the factors of the largest long", Arrays.asList(7L, 7L, 73L, 127L, 337L, 92737L,
+                649657L), FactoringEngine.factor(Long.MAX_VALUE));
+
+    }
+
+    /**
+     * Tests numbers beyond a long, split by rho, by ECM, or as perfect powers
+     */
+    @Test
+    public void testBigIntegers() {
+
+        BigInteger p = new BigInteger("4294967291");
+        BigInteger q = new BigInteger("1000000000039");
+        assertEquals("Expected a semiprime found by rho", Arrays.asList(p, q), FactoringEngine.factor(p.multiply(q)));
+
+        // Two 20 digit primes are beyond the rho budget
+        BigInteger r = new BigInteger("10000000000000000051");
+        BigInteger s = new BigInteger("18446744073709551557");
+        assertEquals("Expected a semiprime found by ECM", Arrays.asList(r, s), FactoringEngine.factor(r.multiply(s)));
+
+        assertEquals("Expected a prime cubed", Arrays.asList(s, s, s), FactoringEngine.factor(s.pow(3)));
+        assertEquals("Expected a product of small primes and a large prime",
+                Arrays.asList(BigInteger.valueOf(2), BigInteger.valueOf(2), BigInteger.valueOf(65537), s),
+                FactoringEngine.factor(s.shiftLeft(2).multiply(BigInteger.valueOf(65537))));
+
+    }
+
+    /**
+     * Tests that a product of two 23 digit primes is split by the quadratic sieve
+     */
+    @Test
+    public void testSieve() {
+
+        Random random = new Random(11);
+        BigInteger p = BigInteger.probablePrime(75, random);
+        BigInteger q = BigInteger.probablePrime(76, random);
+        List<BigInteger> expected = p.compareTo(q) < 0 ? Arrays.asList(p, q) : Arrays.asList(q, p);
+        assertEquals("Expected the two primes", expected, FactoringEngine.factor(p.multiply(q)));
+
+    }
+
+    /**
+     * Tests that ECM finds a factor of a number with no small factors
+     */
+    @Test
+    public void testEcm() {
+
+        BigInteger p = new BigInteger("1000000007");
+        BigInteger q = new BigInteger("170141183460469231731687303715884105727");
+        BigInteger factor = FactoringEngine.ecm(p.multiply(q), 2000, 50, 1);
+        assertEquals("Expected the small factor", p, factor);
+
+    }
+
+    /**
+     * Tests that numbers without a prime factorization are rejected
+     */
+    @Test
+    public void testInvalidNumbers() {
+
+        try {
+            FactoringEngine.factor(0);
+            fail("Expected 0 to be rejected");
+        } catch (InvalidParameterException expected) {
+            // Expected
+        }
+        try {
+            FactoringEngine.factor(BigInteger.valueOf(-6));
+            fail("Expected a negative number to be rejected");
+        } catch (InvalidParameterException expected) {
+            // Expected
+        }
+
+    }
+
+}
@@ -0,0 +1,88 @@
+package core.algorithms;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the cache of factorizations and periods
+ * @version 0.1
+ */
+public class FactorizationCacheTest {
+
+    /**
+     * Tests that a repeated factorization is served from the cache, as the
+     * same unmodifiable list
+     */
+    @Test
+    public void testFactorizationIsCached() {
+
+        FactorizationCache cache = new FactorizationCache(100, 1, TimeUnit.MINUTES);
+        List<Long> first = cache.factor(1000003L * 999983L);
+        List<Long> second = cache.factor(1000003L * 999983L);
+
+        assertSame("Expected the cached list", first, second);
+        assertEquals("Expected the two primes", Arrays.asList(999983L, 1000003L), sorted(first));
+        assertEquals("Expected one miss", 1, cache.getFactorizationStats().getMissCount());
+        assertEquals("Expected one hit", 1, cache.getFactorizationStats().getHitCount());
+
+        try {
+            first.add(2L);
+            fail("Expected the shared list to be unmodifiable");
+        } catch (UnsupportedOperationException expected) {
+            // Expected
+        }
+
+    }
+
+    /**
+     * Tests that BigInteger factorizations and periods are cached by key
+     */
+    @Test
+    public void testBigFactorizationAndPeriod() {
+
+        FactorizationCache cache = new FactorizationCache();
+        BigInteger N = BigInteger.valueOf(211 * 223);
+        assertEquals("Expected two factors", 2, cache.factor(N).size());
+        cache.factor(N);
+
+        assertEquals("Expected the period of 2 mod 15", 4, cache.findPeriod(2, 15));
+        assertEquals("Expected the period of 7 mod 15", 4, cache.findPeriod(7, 15));
+        assertEquals("Expected the period of 2 mod 15 again", 4, cache.findPeriod(2, 15));
+        assertEquals("Expected two period misses", 2, cache.getPeriodStats().getMissCount());
+        assertEquals("Expected one period hit", 1, cache.getPeriodStats().getHitCount());
+        assertEquals("Expected one factorization hit", 1, cache.getFactorizationStats().getHitCount());
+
+        cache.invalidateAll();
+        cache.findPeriod(2, 15);
+        assertEquals("Expected a miss after invalidation", 3, cache.getPeriodStats().getMissCount());
+
+    }
+
+    /**
+     * Tests that periods of bases with the same residue share one entry
+     */
+    @Test
+    public void testPeriodOfReducedBase() {
+
+        FactorizationCache cache = new FactorizationCache();
+        assertEquals("Expected the period of 2 mod 15", 4, cache.findPeriod(2, 15));
+        assertEquals("Expected the period of 17 mod 15", 4, cache.findPeriod(17, 15));
+        assertEquals("Expected the period of -13 mod 15", 4, cache.findPeriod(-13, 15));
+        assertEquals("Expected one period miss", 1, cache.getPeriodStats().getMissCount());
+        assertEquals("Expected two period hits", 2, cache.getPeriodStats().getHitCount());
+
+    }
+
+    private static List<Long> sorted(List<Long> values) {
+        Long[] array = values.toArray(new Long[0]);
+        Arrays.sort(array);
+        return Arrays.asList(array);
+    }
+
+}
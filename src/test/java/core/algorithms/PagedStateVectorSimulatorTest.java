@@ -0,0 +1,123 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+import core.util.AmplitudeStore;
+import core.util.ArrayAmplitudeStore;
+import core.util.BufferAmplitudeStore;
+import core.util.ComplexMatrix;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the state-vector simulator which pages amplitudes
+ * in and out of an amplitude store
+ * @version 0.1
+ */
+public class PagedStateVectorSimulatorTest {
+
+    private static final double EPSILON = 0.0000000001;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Tests gates within and across chunks against the in-memory simulator
+     */
+    @Test
+    public void testMatchesInMemorySimulator() {
+
+        checkAgainstInMemory(new ArrayAmplitudeStore(1 << 6));
+        checkAgainstInMemory(BufferAmplitudeStore.allocateDirect(1 << 6));
+
+    }
+
+    /**
+     * Tests the simulator on a memory-mapped scratch file
+     */
+    @Test
+    public void testMappedStore() throws IOException {
+
+        try (BufferAmplitudeStore store = BufferAmplitudeStore.mapScratchFile(folder.newFolder().toPath(), 1 << 6)) {
+            checkAgainstInMemory(store);
+        }
+
+    }
+
+    /**
+     * Tests that sampling a GHZ state spread over several chunks only
+     * returns |0...0&gt; and |1...1&gt;, in roughly equal amounts
+     */
+    @Test
+    public void testSample() {
+
+        PagedStateVectorSimulator simulator = new PagedStateVectorSimulator(new ArrayAmplitudeStore(1 << 8), 3);
+        simulator.hadamard(7);
+        for (int q = 7; q > 0; q--) {
+            simulator.cnot(q, q - 1);
+        }
+
+        long[] outcomes = simulator.sample(4000, new Random(1));
+        int ones = 0;
+        for (long outcome : outcomes) {
+            assertTrue("Expected |0...0> or |1...1>", outcome == 0 || outcome == 255);
+            if (outcome == 255) {
+                ones++;
+            }
+        }
+        assertEquals("Expected |1...1> half of the time", 0.5, ones / 4000.0, 0.03);
+
+    }
+
+    /**
+     * Tests that stores which are not a power of two are rejected
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testInvalidStoreSize() {
+
+        new PagedStateVectorSimulator(new ArrayAmplitudeStore(12));
+
+    }
+
+    /**
+     * Runs a random circuit with a chunk size of 2^2 amplitudes on a 6 qubit
+     * register, so that every combination of chunk-local and cross-chunk
+     * targets and controls is exercised
+     */
+    private static void checkAgainstInMemory(AmplitudeStore store) {
+
+        Random random = new Random(9);
+        PagedStateVectorSimulator paged = new PagedStateVectorSimulator(store, 2);
+        StateVectorSimulator reference = new StateVectorSimulator(6);
+
+        for (int step = 0; step < 60; step++) {
+
+            ComplexMatrix gate = Gates.rotationY(random.nextDouble()).multiply(Gates.rotationZ(random.nextDouble()));
+            int target = random.nextInt(6);
+            if (random.nextBoolean()) {
+                paged.applyGate(gate, target);
+                reference.applyGate(gate, target);
+            } else {
+                int control = (target + 1 + random.nextInt(5)) % 6;
+                paged.applyControlledGate(gate, control, target);
+                reference.applyControlledGate(gate, control, target);
+            }
+
+        }
+
+        for (int i = 0; i < 64; i++) {
+            assertEquals("Expected matching real part", reference.getAmplitude(i).getRealPart(),
+                    store.getReal(i), EPSILON);
+            assertEquals("Expected matching imaginary part", reference.getAmplitude(i).getImaginaryPart(),
+                    store.getImaginary(i), EPSILON);
+        }
+        assertEquals("Expected matching probability", reference.getProbability(0), paged.getProbability(0), EPSILON);
+
+    }
+
+}
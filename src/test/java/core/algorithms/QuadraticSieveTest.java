@@ -0,0 +1,120 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the self-initialising quadratic sieve
+ * @version 0.1
+ */
+public class QuadraticSieveTest {
+
+    /**
+     * Tests that semiprimes of balanced factors are split, with one and
+     * with several threads, and that the run is reported
+     */
+    @Test
+    public void testFactorsSemiprimes() {
+
+        Random random = new Random(7);
+        for (int bits : new int[] {50, 66}) {
+            for (int threads : new int[] {1, 3}) {
+
+                BigInteger p = BigInteger.probablePrime(bits, random);
+                BigInteger q = BigInteger.probablePrime(bits, random);
+                QuadraticSieve sieve = new QuadraticSieve(p.multiply(q));
+                BigInteger factor = sieve.findFactor(threads, false);
+
+                assertTrue("Expected a factor of " + p.multiply(q) + ", got " + factor,
+                        p.equals(factor) || q.equals(factor));
+                assertTrue("Expected more relations than primes",
+                        sieve.getFullRelations() + sieve.getCombinedRelations() > sieve.getFactorBaseSize());
+                assertTrue("Expected the polynomials to be counted", sieve.getPolynomials() > 0);
+                assertTrue("Expected the relations per second", sieve.getRelationsPerSecond() > 0);
+                assertEquals("Expected whole sieve blocks", 0,
+                        sieve.getSieveInterval() % QuadraticSieve.SIEVE_BLOCK);
+
+            }
+        }
+
+    }
+
+    /**
+     * Tests the square roots modulo primes of both forms, 4k + 1 and 4k + 3
+     */
+    @Test
+    public void testSqrtMod() {
+
+        for (int p : new int[] {3, 5, 13, 17, 41, 43, 65537, 1000003}) {
+            for (long x = 1; x < Math.min(p, 500); x++) {
+                int a = (int) (x * x % p);
+                long root = QuadraticSieve.sqrtMod(a, p);
+                assertEquals("Expected a square root of " + a + " mod " + p, a, root * root % p);
+            }
+        }
+
+    }
+
+    /**
+     * Tests that every dependency found adds up to zero over GF(2), on a
+     * random sparse matrix with more columns than rows
+     */
+    @Test
+    public void testFindDependencies() {
+
+        Random random = new Random(3);
+        int rows = 300;
+        List<int[]> columns = new ArrayList<int[]>();
+        for (int c = 0; c < rows + 20; c++) {
+            int[] column = new int[1 + random.nextInt(6)];
+            for (int i = 0; i < column.length; i++) {
+                // Mostly the first rows, as for the small primes of a factor base
+                column[i] = (int) (rows * Math.pow(random.nextDouble(), 2));
+            }
+            columns.add(Arrays.stream(column).distinct().sorted().toArray());
+        }
+
+        List<int[]> dependencies = QuadraticSieve.findDependencies(columns, rows, 10);
+        assertEquals("Expected the most dependencies asked for", 10, dependencies.size());
+        for (int[] dependency : dependencies) {
+            int[] parity = new int[rows];
+            for (int c : dependency) {
+                for (int r : columns.get(c)) {
+                    parity[r] ^= 1;
+                }
+            }
+            assertTrue("Expected the columns to add up to zero", Arrays.stream(parity).allMatch(bit -> bit == 0));
+        }
+
+    }
+
+    /**
+     * Tests that numbers the sieve is not meant for are rejected
+     */
+    @Test
+    public void testInvalidNumbers() {
+
+        try {
+            new QuadraticSieve(BigInteger.valueOf(1000003L * 999983L));
+            fail("Expected a small number to be rejected");
+        } catch (InvalidParameterException expected) {
+            // Expected
+        }
+        try {
+            new QuadraticSieve(BigInteger.ONE.shiftLeft(80));
+            fail("Expected an even number to be rejected");
+        } catch (InvalidParameterException expected) {
+            // Expected
+        }
+
+    }
+
+}
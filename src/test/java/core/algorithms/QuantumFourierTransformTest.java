@@ -0,0 +1,216 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+import core.util.ComplexVector;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the FFT form of the quantum Fourier transform
+ * @version 0.1
+ */
+public class QuantumFourierTransformTest {
+
+    private static final double EPSILON = 0.0000000001;
+
+    /**
+     * Tests the transform of whole registers against the discrete Fourier
+     * transform, for sizes with only low stages, with an odd number of high
+     * stages and with an even number
+     */
+    @Test
+    public void testWholeRegister() {
+
+        Random random = new Random(3);
+        for (int qubits : new int[] {1, 2, 5, 11, 12, 13}) {
+
+            ComplexVector initial = randomState(qubits, random);
+            int[] register = range(0, qubits);
+
+            StateVectorSimulator simulator = new StateVectorSimulator(initial.copy());
+            simulator.qft();
+            assertTrue("Expected the DFT of " + qubits + " qubits",
+                    fourier(initial, register, 1).valueEquals(simulator.getState(), EPSILON));
+
+            simulator.inverseQft();
+            assertTrue("Expected the inverse to restore " + qubits + " qubits",
+                    initial.valueEquals(simulator.getState(), EPSILON));
+
+        }
+
+    }
+
+    /**
+     * Tests the transform of consecutive qubits which are not the whole
+     * register, including ones entirely above BLOCK_BITS
+     */
+    @Test
+    public void testConsecutiveQubits() {
+
+        Random random = new Random(5);
+        ComplexVector initial = randomState(14, random);
+        int[][] registers = {range(3, 6), range(9, 4), range(12, 2), range(2, 12)};
+
+        for (int[] register : registers) {
+            StateVectorSimulator simulator = new StateVectorSimulator(initial.copy());
+            simulator.inverseQft(register);
+            assertTrue("Expected the inverse DFT of qubits " + register[0] + " to " + register[register.length - 1],
+                    fourier(initial, register, -1).valueEquals(simulator.getState(), EPSILON));
+        }
+
+    }
+
+    /**
+     * Tests the transform of qubits which are out of order or not
+     * consecutive, which are swapped into place and back
+     */
+    @Test
+    public void testScatteredQubits() {
+
+        Random random = new Random(11);
+        ComplexVector initial = randomState(6, random);
+        int[][] registers = {{5, 4, 3}, {1, 4}, {4, 0, 2}, {2, 1}, {5, 3, 1, 0, 4, 2}};
+
+        for (int[] register : registers) {
+            StateVectorSimulator simulator = new StateVectorSimulator(initial.copy());
+            simulator.qft(register);
+            assertTrue("Expected the DFT with qubit " + register[0] + " least significant",
+                    fourier(initial, register, 1).valueEquals(simulator.getState(), EPSILON));
+        }
+
+    }
+
+    /**
+     * Tests that the FFT agrees with the circuit of gates
+     */
+    @Test
+    public void testMatchesCircuit() {
+
+        ComplexVector initial = randomState(7, new Random(13));
+
+        StateVectorSimulator gates = new StateVectorSimulator(initial.copy());
+        QuantumImpl.inverseQftByGates(gates);
+        StateVectorSimulator fft = new StateVectorSimulator(initial.copy());
+        QuantumImpl.inverseQft(fft);
+
+        assertTrue("Expected the same state", gates.getState().valueEquals(fft.getState(), EPSILON));
+
+    }
+
+    /**
+     * Tests that splitting the sweeps across a pool gives the same state
+     */
+    @Test
+    public void testParallel() {
+
+        ComplexVector initial = randomState(16, new Random(17));
+
+        StateVectorSimulator serial = new StateVectorSimulator(initial.copy());
+        serial.setPool(new ForkJoinPool(1));
+        StateVectorSimulator parallel = new StateVectorSimulator(initial.copy());
+        parallel.setPool(new ForkJoinPool(4));
+        parallel.setParallelThreshold(2);
+
+        for (StateVectorSimulator simulator : new StateVectorSimulator[] {serial, parallel}) {
+            simulator.qft();
+            simulator.inverseQft(15, 2, 9, 4);
+        }
+
+        assertTrue("Expected identical states", serial.getState().valueEquals(parallel.getState(), EPSILON));
+
+    }
+
+    /**
+     * Tests that a qubit cannot appear twice in the register
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testRepeatedQubit() {
+
+        new StateVectorSimulator(4).qft(0, 2, 0);
+
+    }
+
+    /**
+     * Tests that the register must lie within the state
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testOutsideRegister() {
+
+        StateVectorSimulator simulator = new StateVectorSimulator(4);
+        QuantumFourierTransform.transform(simulator.getState().getRealParts(),
+                simulator.getState().getImaginaryParts(), 2, 3, null);
+
+    }
+
+    /**
+     * Computes the transform of the register directly from its definition,
+     * sum_x e^(sign 2 pi i x y / 2^m) |x&gt; -&gt; |y&gt; for each setting of the
+     * other qubits
+     */
+    private static ComplexVector fourier(ComplexVector state, int[] register, int sign) {
+
+        int size = 1 << register.length;
+        int mask = 0;
+        for (int qubit : register) {
+            mask |= 1 << qubit;
+        }
+
+        ComplexVector result = new ComplexVector(state.length());
+        for (int i = 0; i < state.length(); i++) {
+
+            int x = value(i, register);
+            double re = state.getRealParts()[i];
+            double im = state.getImaginaryParts()[i];
+            for (int y = 0; y < size; y++) {
+
+                int j = i & ~mask;
+                for (int b = 0; b < register.length; b++) {
+                    j |= (y >>> b & 1) << register[b];
+                }
+                double angle = sign * 2 * Math.PI * ((long) x * y % size) / size;
+                double cos = Math.cos(angle) / Math.sqrt(size);
+                double sin = Math.sin(angle) / Math.sqrt(size);
+                result.getRealParts()[j] += re * cos - im * sin;
+                result.getImaginaryParts()[j] += re * sin + im * cos;
+
+            }
+
+        }
+        return result;
+
+    }
+
+    /**
+     * Reads the value of the register from a basis state index
+     */
+    private static int value(int index, int[] register) {
+        int value = 0;
+        for (int b = 0; b < register.length; b++) {
+            value |= (index >>> register[b] & 1) << b;
+        }
+        return value;
+    }
+
+    private static int[] range(int low, int count) {
+        int[] qubits = new int[count];
+        for (int i = 0; i < count; i++) {
+            qubits[i] = low + i;
+        }
+        return qubits;
+    }
+
+    private static ComplexVector randomState(int qubits, Random random) {
+
+        ComplexVector state = new ComplexVector(1 << qubits);
+        for (int i = 0; i < state.length(); i++) {
+            state.set(i, random.nextGaussian(), random.nextGaussian());
+        }
+        return state.normalize();
+
+    }
+
+}
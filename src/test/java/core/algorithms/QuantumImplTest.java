@@ -0,0 +1,226 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+import core.util.ComplexVector;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the simulated quantum algorithms introduced in the
+ * QuantumImpl class
+ * @version 0.3
+ */
+public class QuantumImplTest {
+
+    private static final double EPSILON = 0.0000000001;
+
+    /**
+     * Simple test for coverage on the class name
+     */
+    @Test
+    public void constructTest() {
+        new QuantumImpl();
+    }
+
+    /**
+     * Tests the size of the counting register, 2^t &gt;= N^2
+     */
+    @Test
+    public void testCountingQubits() {
+
+        assertEquals("Expected 2^8 >= 15^2", 8, QuantumImpl.countingQubits(15));
+        assertEquals("Expected 2^4 >= 4^2", 4, QuantumImpl.countingQubits(4));
+        assertEquals("Expected 2^9 >= 21^2", 9, QuantumImpl.countingQubits(21));
+
+    }
+
+    /**
+     * Tests the gate-by-gate inverse QFT against the discrete Fourier transform
+     */
+    @Test
+    public void testInverseQft() {
+
+        int qubits = 4;
+        int dimension = 1 << qubits;
+        int x = 5;
+
+        // QFT|x> = sum_y e^(2 pi i x y / 2^n) |y> / sqrt(2^n)
+        ComplexVector fourier = new ComplexVector(dimension);
+        for (int y = 0; y < dimension; y++) {
+            double angle = 2 * Math.PI * x * y / dimension;
+            fourier.set(y, Math.cos(angle) / Math.sqrt(dimension), Math.sin(angle) / Math.sqrt(dimension));
+        }
+
+        StateVectorSimulator register = new StateVectorSimulator(fourier);
+        QuantumImpl.inverseQft(register);
+
+        assertTrue("Expected the basis state |5>",
+                ComplexVector.basis(dimension, x).valueEquals(register.getState(), EPSILON));
+
+    }
+
+    /**
+     * Finds periods of x^r mod N by simulating the period-finding circuit
+     */
+    @Test
+    public void testFindPeriod() {
+
+        Random random = new Random(17);
+        for (int i = 0; i < 5; i++) {
+            assertEquals("Expected period of 4", 4, QuantumImpl.findPeriod(3, 5, random));
+            assertEquals("Expected period of 4", 4, QuantumImpl.findPeriod(7, 15, random));
+            assertEquals("Expected period of 6", 6, QuantumImpl.findPeriod(2, 21, random));
+            assertEquals("Expected period of 1", 1, QuantumImpl.findPeriod(1, 21, random));
+        }
+
+    }
+
+    /**
+     * Finds periods of x^r mod N by simulating the whole circuit, work
+     * register included, on a sparse state
+     */
+    @Test
+    public void testFindPeriodSparse() {
+
+        Random random = new Random(19);
+        for (int i = 0; i < 3; i++) {
+            assertEquals("Expected period of 4", 4, QuantumImpl.findPeriodSparse(7, 15, random));
+            assertEquals("Expected period of 6", 6, QuantumImpl.findPeriodSparse(2, 21, random));
+            assertEquals("Expected period of 1", 1, QuantumImpl.findPeriodSparse(1, 21, random));
+            assertEquals("Expected period of 2", 2, QuantumImpl.findPeriodSparse(11, 12, random));
+        }
+
+    }
+
+    /**
+     * Tests the prime factorization of N = p*q with the sparse period finder,
+     * over a register of 17 + 9 qubits
+     */
+    @Test
+    public void shorsSparseNisDistinctSemiprime() {
+
+        Random random = new Random(29);
+        List<Integer> factors = ClassicalImpl.shorsPrimeFactorization(13 * 23, false,
+                (x, n) -> QuantumImpl.findPeriodSparse(x, n, random));
+
+        Collections.sort(factors);
+        assertEquals("Expected two factors", 2, factors.size());
+        assertEquals("Expected factor of 13", 13, factors.get(0).intValue());
+        assertEquals("Expected factor of 23", 23, factors.get(1).intValue());
+
+    }
+
+    /**
+     * Tests that X and N must be coprime
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testFindPeriodNoPeriod() {
+
+        QuantumImpl.findPeriod(3, 9, new Random());
+
+    }
+
+    /**
+     * Tests that N = 1, which has no counting register, is rejected
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testFindPeriodModulusOne() {
+
+        QuantumImpl.findPeriod(1, 1, new Random());
+
+    }
+
+    /**
+     * Tests that measurements which never give the period are reported,
+     * rather than the period being computed classically instead
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testPeriodNotMeasured() {
+
+        QuantumImpl.periodFromMeasurements(7, 15, 8, () -> 0);
+
+    }
+
+    /**
+     * Tests that moduli too large to simulate are rejected
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testFindPeriodTooLarge() {
+
+        QuantumImpl.findPeriod(2, 10007, new Random());
+
+    }
+
+    /**
+     * Tests the prime factorization of N=p*q*r, where p, q, and r are primes,
+     * with a simulated quantum period finder
+     */
+    @Test
+    public void shorsQuantumNisCompositeDistinct() {
+
+        for (int i = 0; i < 5; i++) {
+
+            List<Integer> factors = QuantumImpl.shorsPrimeFactorization(3 * 5 * 7, false);
+
+            assertEquals("Expected three factors", 3, factors.size());
+            Collections.sort(factors);
+            assertEquals("Expected factor of 3", 3, factors.get(0).intValue());
+            assertEquals("Expected factor of 5", 5, factors.get(1).intValue());
+            assertEquals("Expected factor of 7", 7, factors.get(2).intValue());
+
+        }
+
+    }
+
+    /**
+     * Tests the prime factorization of N = p*q, where p and q are primes
+     */
+    @Test
+    public void shorsQuantumNisDistinctSemiprime() {
+
+        for (int i = 0; i < 5; i++) {
+
+            List<Integer> factors = QuantumImpl.shorsPrimeFactorization(13 * 23, false);
+
+            Collections.sort(factors);
+            assertEquals("Expected two factors", 2, factors.size());
+            assertEquals("Expected factor of 13", 13, factors.get(0).intValue());
+            assertEquals("Expected factor of 23", 23, factors.get(1).intValue());
+
+        }
+
+    }
+
+    /**
+     * Tests the prime factorization of N = p*q with simulated trials raced on
+     * a thread pool
+     */
+    @Test
+    public void shorsQuantumParallel() {
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int i = 0; i < 5; i++) {
+
+                List<Integer> factors = QuantumImpl.shorsPrimeFactorization(13 * 23, false, executor, 3);
+
+                Collections.sort(factors);
+                assertEquals("Expected two factors", 2, factors.size());
+                assertEquals("Expected factor of 13", 13, factors.get(0).intValue());
+                assertEquals("Expected factor of 23", 23, factors.get(1).intValue());
+
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+    }
+
+}
@@ -0,0 +1,161 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for alias-table shot sampling and shot histograms
+ * @version 0.1
+ */
+public class ShotSamplerTest {
+
+    /**
+     * Tests that the frequencies of many shots match an uneven distribution,
+     * including outcomes of probability zero which must never occur
+     */
+    @Test
+    public void testFrequenciesMatchDistribution() {
+
+        double[] probabilities = {0.5, 0, 0.125, 0.3, 0, 0.075};
+        ShotSampler sampler = new ShotSampler(probabilities);
+        ShotHistogram histogram = sampler.histogram(1000000, 7);
+
+        assertEquals("Expected every shot to be counted", 1000000, histogram.getShots());
+        assertEquals("Expected four outcomes to occur", 4, histogram.size());
+        for (int i = 0; i < probabilities.length; i++) {
+            assertEquals("Expected the frequency of " + i, probabilities[i], histogram.getFrequency(i), 0.003);
+        }
+        assertEquals("Expected outcome 0 to be the most frequent", 0, histogram.getMostFrequent());
+
+    }
+
+    /**
+     * Tests that weights need not be normalised
+     */
+    @Test
+    public void testUnnormalisedWeights() {
+
+        ShotSampler sampler = new ShotSampler(new double[] {3, 1});
+        int[] shots = sampler.sample(40000, new SplittableRandom(1));
+        int zeros = 0;
+        for (int shot : shots) {
+            zeros += shot == 0 ? 1 : 0;
+        }
+        assertEquals("Expected three quarters of zeros", 0.75, zeros / 40000.0, 0.01);
+
+    }
+
+    /**
+     * Tests that a Bell state only ever measures |00&gt; or |11&gt;, from both
+     * the state vector and the density matrix
+     */
+    @Test
+    public void testBellState() {
+
+        StateVectorSimulator vector = new StateVectorSimulator(2);
+        vector.hadamard(0);
+        vector.cnot(0, 1);
+        DensityMatrixSimulator density = new DensityMatrixSimulator(2);
+        density.hadamard(0);
+        density.cnot(0, 1);
+
+        for (ShotSampler sampler : new ShotSampler[] {ShotSampler.of(vector), ShotSampler.of(density)}) {
+            ShotHistogram histogram = sampler.histogram(100000, 3);
+            assertArrayEquals("Expected only |00> and |11>", new int[] {0, 3}, histogram.getOutcomes());
+            assertEquals("Expected half of the shots on |00>", 0.5, histogram.getFrequency(0), 0.01);
+        }
+
+    }
+
+    /**
+     * Tests that a batch only depends on its seed, not on the parallelism
+     * of the pool, and that a partial last chunk is counted
+     */
+    @Test
+    public void testHistogramIsReproducible() {
+
+        StateVectorSimulator vector = new StateVectorSimulator(12);
+        for (int q = 0; q < 12; q++) {
+            vector.hadamard(q);
+        }
+        ShotSampler sampler = ShotSampler.of(vector);
+        long shots = 3L * ShotSampler.CHUNK_SIZE + 123;
+
+        ShotHistogram serial = sampler.histogram(shots, 11, new ForkJoinPool(1));
+        ShotHistogram parallel = sampler.histogram(shots, 11, new ForkJoinPool(4));
+        assertEquals("Expected every shot to be counted", shots, serial.getShots());
+        assertArrayEquals("Expected the same outcomes", serial.getOutcomes(), parallel.getOutcomes());
+        assertArrayEquals("Expected the same counts", serial.getCounts(), parallel.getCounts());
+
+    }
+
+    /**
+     * Tests that a histogram over many more outcomes than shots only keeps
+     * the outcomes which occurred
+     */
+    @Test
+    public void testSparseHistogram() {
+
+        StateVectorSimulator vector = new StateVectorSimulator(22);
+        for (int q = 0; q < 22; q++) {
+            vector.hadamard(q);
+        }
+        ShotHistogram histogram = ShotSampler.of(vector).histogram(1000, 5);
+
+        assertEquals("Expected every shot to be counted", 1000, histogram.getShots());
+        assertTrue("Expected at most one entry per shot", histogram.size() <= 1000);
+        long total = 0;
+        for (int outcome : histogram.getOutcomes()) {
+            total += histogram.getCount(outcome);
+        }
+        assertEquals("Expected the counts to add up", 1000, total);
+
+    }
+
+    /**
+     * Tests that merging histograms adds the counts of shared outcomes
+     */
+    @Test
+    public void testMerge() {
+
+        ShotHistogram a = ShotHistogram.count(new int[] {5, 1, 5, 9}, 16);
+        ShotHistogram b = ShotHistogram.count(new int[] {9, 2}, 1 << 20);
+        ShotHistogram merged = a.merge(b);
+
+        assertEquals("Expected the merged histogram", "{1=1, 2=1, 5=2, 9=2}", merged.toString());
+        assertEquals("Expected six shots", 6, merged.getShots());
+        assertEquals("Expected no count for 3", 0, merged.getCount(3));
+
+    }
+
+    /**
+     * Tests that invalid distributions and shot counts are rejected
+     */
+    @Test
+    public void testInvalidParameters() {
+
+        double[][] invalid = {{}, {0, 0}, {0.5, -0.1}, {Double.NaN, 1}};
+        for (double[] probabilities : invalid) {
+            try {
+                new ShotSampler(probabilities);
+                fail("Expected an invalid distribution to be rejected");
+            } catch (InvalidParameterException expected) {
+                // Expected
+            }
+        }
+
+        try {
+            new ShotSampler(new double[] {1}).histogram(-1, 0);
+            fail("Expected a negative number of shots to be rejected");
+        } catch (InvalidParameterException expected) {
+            // Expected
+        }
+
+    }
+
+}
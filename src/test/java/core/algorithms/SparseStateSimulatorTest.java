@@ -0,0 +1,249 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+import core.util.ComplexVector;
+import core.util.DoubleComplex;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the sparse state simulator
+ * @version 0.1
+ */
+public class SparseStateSimulatorTest {
+
+    private static final double EPSILON = 0.0000000001;
+
+    /**
+     * Tests that a new register starts in |0...0&gt; with one amplitude
+     */
+    @Test
+    public void testInitialState() {
+
+        SparseStateSimulator simulator = new SparseStateSimulator(50);
+
+        assertEquals("Expected one amplitude", 1, simulator.getNonZeroCount());
+        assertEquals("Expected amplitude 1 for |0...0>", DoubleComplex.ONE, simulator.getAmplitude(0));
+        assertEquals("Expected probability 0 for |0...01>", 0, simulator.getProbability(1), 0);
+
+    }
+
+    /**
+     * Tests every kind of gate against the state-vector simulator, with the
+     * register kept sparse throughout
+     */
+    @Test
+    public void testGatesMatchStateVector() {
+
+        SparseStateSimulator sparse = new SparseStateSimulator(5);
+        sparse.setDenseFallback(0, 1);
+        StateVectorSimulator dense = new StateVectorSimulator(5);
+
+        Random random = new Random(23);
+        for (int step = 0; step < 60; step++) {
+            int a = random.nextInt(5);
+            int b = (a + 1 + random.nextInt(4)) % 5;
+            int c = (b + 1 + random.nextInt(3)) % 5;
+            if (c == a) {
+                c = (c + 1) % 5;
+            }
+            if (c == b) {
+                c = (c + 1) % 5;
+            }
+            double angle = random.nextDouble() * Math.PI;
+            switch (step % 9) {
+                case 0:
+                    sparse.hadamard(a);
+                    dense.hadamard(a);
+                    break;
+                case 1:
+                    sparse.cnot(a, b);
+                    dense.cnot(a, b);
+                    break;
+                case 2:
+                    sparse.controlledPhase(a, b, angle);
+                    dense.controlledPhase(a, b, angle);
+                    break;
+                case 3:
+                    sparse.applyGate(Gates.rotationY(angle), a);
+                    dense.applyGate(Gates.rotationY(angle), a);
+                    break;
+                case 4:
+                    sparse.applyGate(Gates.pauliY(), a);
+                    dense.applyGate(Gates.pauliY(), a);
+                    break;
+                case 5:
+                    sparse.swap(a, b);
+                    dense.swap(a, b);
+                    break;
+                case 6:
+                    int target = c;
+                    sparse.toffoli(a, b, target);
+                    dense.permute(i -> ((i >>> a) & (i >>> b) & 1) == 1 ? i ^ (1 << target) : i);
+                    break;
+                case 7:
+                    sparse.applyTwoQubitGate(Gates.rotationX(angle).kronecker(Gates.hadamard()), a, b);
+                    dense.applyTwoQubitGate(Gates.rotationX(angle).kronecker(Gates.hadamard()), a, b);
+                    break;
+                default:
+                    sparse.applyControlledGate(Gates.rotationZ(angle), a, b);
+                    dense.applyControlledGate(Gates.rotationZ(angle), a, b);
+            }
+        }
+
+        assertFalse("Expected the register to stay sparse", sparse.isDense());
+        assertTrue("Expected the same state", dense.getState().valueEquals(sparse.toStateVector(), EPSILON));
+
+    }
+
+    /**
+     * Tests that amplitudes which cancel are dropped
+     */
+    @Test
+    public void testCancellation() {
+
+        SparseStateSimulator simulator = new SparseStateSimulator(40);
+        simulator.hadamard(7);
+        simulator.hadamard(31);
+        assertEquals("Expected four amplitudes", 4, simulator.getNonZeroCount());
+
+        simulator.hadamard(31);
+        simulator.hadamard(7);
+        assertEquals("Expected one amplitude again", 1, simulator.getNonZeroCount());
+        assertEquals("Expected |0...0>", 1, simulator.getProbability(0), EPSILON);
+
+    }
+
+    /**
+     * Tests a GHZ state across 60 qubits, far beyond a dense state vector
+     */
+    @Test
+    public void testWideRegister() {
+
+        SparseStateSimulator simulator = new SparseStateSimulator(60);
+        simulator.hadamard(0);
+        for (int q = 0; q < 59; q++) {
+            simulator.cnot(q, q + 1);
+        }
+        simulator.phase(59, Math.PI / 2);
+
+        long all = (1L << 60) - 1;
+        assertEquals("Expected two amplitudes", 2, simulator.getNonZeroCount());
+        assertEquals("Expected |0...0> / sqrt(2)", 0.5, simulator.getProbability(0), EPSILON);
+        assertEquals("Expected i |1...1> / sqrt(2)", Math.sqrt(0.5),
+                simulator.getAmplitude(all).getImaginaryPart(), EPSILON);
+
+        int outcome = simulator.measure(42, new Random(1));
+        assertEquals("Expected every qubit to agree", outcome == 1 ? all : 0, simulator.sample(1, new Random())[0]);
+        assertEquals("Expected one amplitude after measuring", 1, simulator.getNonZeroCount());
+
+    }
+
+    /**
+     * Tests a classical reversible gate applied by rewriting keys
+     */
+    @Test
+    public void testPermute() {
+
+        SparseStateSimulator simulator = new SparseStateSimulator(36);
+        simulator.hadamard(0);
+        simulator.hadamard(1);
+
+        // |x>|y> -> |x>|y + 5x mod 2^30>
+        simulator.permute(key -> (key & 63) | ((key >>> 6) + 5 * (key & 63) & (1 << 30) - 1) << 6);
+
+        for (long x = 0; x < 4; x++) {
+            assertEquals("Expected |" + x + ">|" + 5 * x + ">", 0.25,
+                    simulator.getProbability(x | 5 * x << 6), EPSILON);
+        }
+        assertEquals("Expected four amplitudes", 4, simulator.getNonZeroCount());
+
+    }
+
+    /**
+     * Tests that a gate which is not a bijection is rejected
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testPermuteNotBijection() {
+
+        SparseStateSimulator simulator = new SparseStateSimulator(4);
+        simulator.hadamard(0);
+        simulator.permute(key -> 0);
+
+    }
+
+    /**
+     * Tests the FFT of part of a sparse register against the state-vector simulator
+     */
+    @Test
+    public void testFourier() {
+
+        SparseStateSimulator sparse = new SparseStateSimulator(9);
+        sparse.setDenseFallback(0, 1);
+        StateVectorSimulator dense = new StateVectorSimulator(9);
+        for (int q : new int[] {1, 6, 8}) {
+            sparse.hadamard(q);
+            dense.hadamard(q);
+        }
+        sparse.cnot(8, 3);
+        dense.cnot(8, 3);
+
+        sparse.qft(2, 5);
+        dense.qft(2, 3, 4, 5, 6);
+        assertTrue("Expected the same state", dense.getState().valueEquals(sparse.toStateVector(), EPSILON));
+
+        sparse.inverseQft(2, 5);
+        dense.inverseQft(2, 3, 4, 5, 6);
+        assertTrue("Expected the same state", dense.getState().valueEquals(sparse.toStateVector(), EPSILON));
+        assertEquals("Expected the eight amplitudes back", 8, sparse.getNonZeroCount());
+
+    }
+
+    /**
+     * Tests that the register moves to a state vector once it fills in, and
+     * carries on there
+     */
+    @Test
+    public void testDenseFallback() {
+
+        SparseStateSimulator sparse = new SparseStateSimulator(6);
+        StateVectorSimulator dense = new StateVectorSimulator(6);
+        for (int q = 0; q < 3; q++) {
+            sparse.hadamard(q);
+            dense.hadamard(q);
+        }
+        assertFalse("Expected 8 of 64 amplitudes to stay sparse", sparse.isDense());
+
+        sparse.hadamard(3);
+        dense.hadamard(3);
+        assertTrue("Expected 16 of 64 amplitudes to become dense", sparse.isDense());
+
+        sparse.toffoli(0, 1, 5);
+        dense.permute(i -> (i & 3) == 3 ? i ^ 32 : i);
+        sparse.inverseQft(0, 4);
+        dense.inverseQft(0, 1, 2, 3);
+        assertTrue("Expected the same state", dense.getState().valueEquals(sparse.toStateVector(), EPSILON));
+
+    }
+
+    /**
+     * Tests measuring a register of several qubits
+     */
+    @Test
+    public void testMeasureRegister() {
+
+        SparseStateSimulator simulator = new SparseStateSimulator(40);
+        simulator.hadamard(0);
+        simulator.cnot(0, 35);
+        simulator.cnot(0, 37);
+
+        long value = simulator.measure(34, 4, new Random(9));
+        assertTrue("Expected 0 or 0b1010", value == 0 || value == 10);
+        assertEquals("Expected qubit 0 to agree", value == 0 ? 0 : 1, simulator.measure(0, new Random()));
+
+    }
+
+}
@@ -0,0 +1,220 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the stabilizer tableau simulator
+ * @version 0.1
+ */
+public class StabilizerSimulatorTest {
+
+    private static final double EPSILON = 0.0000000001;
+
+    /**
+     * Tests that |0...0&gt; measures deterministically as all zeros, and that
+     * X flips a qubit
+     */
+    @Test
+    public void testDeterministicMeasurement() {
+
+        StabilizerSimulator simulator = new StabilizerSimulator(70);
+        simulator.pauliX(3);
+        simulator.pauliX(66);
+        Random random = new Random(1);
+
+        for (int q = 0; q < 70; q++) {
+            assertTrue("Expected qubit " + q + " to be deterministic", simulator.isDeterministic(q));
+            int expected = q == 3 || q == 66 ? 1 : 0;
+            assertEquals("Expected qubit " + q + " to measure " + expected, expected, simulator.measure(q, random));
+        }
+
+    }
+
+    /**
+     * Tests that the qubits of a large GHZ state always agree, and that both
+     * outcomes occur
+     */
+    @Test
+    public void testGhzState() {
+
+        int qubits = 1000;
+        List<CliffordGate> gates = new ArrayList<CliffordGate>();
+        gates.add(CliffordGate.hadamard(0));
+        for (int q = 1; q < qubits; q++) {
+            gates.add(CliffordGate.cnot(q - 1, q));
+        }
+
+        long[][] samples = StabilizerSimulator.sample(qubits, gates, 20, new Random(2));
+        int ones = 0;
+        for (long[] sample : samples) {
+            long first = sample[0] & 1;
+            ones += first;
+            for (int q = 0; q < qubits; q++) {
+                assertEquals("Expected every qubit to agree", first, (sample[q >>> 6] >>> q) & 1);
+            }
+        }
+        assertTrue("Expected both outcomes in 20 shots", ones > 0 && ones < 20);
+
+    }
+
+    /**
+     * Tests that a measurement collapses the state, so measuring again gives
+     * the same outcome
+     */
+    @Test
+    public void testCollapse() {
+
+        StabilizerSimulator simulator = new StabilizerSimulator(2);
+        simulator.hadamard(0);
+        simulator.cnot(0, 1);
+        assertFalse("Expected a random outcome", simulator.isDeterministic(1));
+
+        Random random = new Random(3);
+        int first = simulator.measure(1, random);
+        assertTrue("Expected the outcome to be fixed now", simulator.isDeterministic(0));
+        assertEquals("Expected the Bell partner to agree", first, simulator.measure(0, random));
+        assertEquals("Expected the same outcome again", first, simulator.measure(1, random));
+
+    }
+
+    /**
+     * Tests random Clifford circuits against the state-vector simulator: a
+     * stabilizer state is a uniform superposition over its support, so every
+     * sampled outcome must have the same nonzero probability, and every
+     * outcome with nonzero probability must be sampled eventually
+     */
+    @Test
+    public void testAgainstStateVector() {
+
+        Random random = new Random(4);
+        for (int trial = 0; trial < 40; trial++) {
+
+            int qubits = 1 + random.nextInt(5);
+            List<CliffordGate> gates = randomCircuit(qubits, 40, random);
+
+            StateVectorSimulator reference = new StateVectorSimulator(qubits);
+            for (CliffordGate gate : gates) {
+                applyToStateVector(gate, reference);
+            }
+            double[] probabilities = reference.getProbabilities();
+
+            Set<Integer> support = new HashSet<Integer>();
+            for (int i = 0; i < probabilities.length; i++) {
+                if (probabilities[i] > EPSILON) {
+                    support.add(i);
+                }
+            }
+
+            Set<Integer> seen = new HashSet<Integer>();
+            for (long[] sample : StabilizerSimulator.sample(qubits, gates, 400, random)) {
+                int outcome = (int) sample[0];
+                assertTrue("Expected outcome " + outcome + " to be possible in trial " + trial,
+                        support.contains(outcome));
+                assertEquals("Expected a uniform distribution over the support", 1.0 / support.size(),
+                        probabilities[outcome], EPSILON);
+                seen.add(outcome);
+            }
+            assertEquals("Expected every possible outcome in trial " + trial, support, seen);
+
+        }
+
+    }
+
+    /**
+     * Tests the signs: the phase and Pauli gates must leave H-basis states
+     * in the right eigenstate, e.g. H S S H |0&gt; = H Z H |0&gt; = |1&gt;
+     */
+    @Test
+    public void testPhases() {
+
+        Random random = new Random(5);
+
+        StabilizerSimulator simulator = new StabilizerSimulator(1);
+        simulator.hadamard(0);
+        simulator.phase(0);
+        simulator.phase(0);
+        simulator.hadamard(0);
+        assertEquals("Expected H S S H |0> = |1>", 1, simulator.measure(0, random));
+
+        simulator = new StabilizerSimulator(1);
+        simulator.hadamard(0);
+        simulator.phase(0);
+        simulator.phaseDagger(0);
+        simulator.hadamard(0);
+        assertEquals("Expected H S Sdg H |0> = |0>", 0, simulator.measure(0, random));
+
+        simulator = new StabilizerSimulator(2);
+        simulator.hadamard(0);
+        simulator.hadamard(1);
+        simulator.pauliX(1);
+        simulator.cz(0, 1);
+        simulator.cz(1, 0);
+        simulator.pauliY(0);
+        simulator.pauliY(0);
+        simulator.hadamard(0);
+        simulator.hadamard(1);
+        assertEquals("Expected qubit 0 to return to |0>", 0, simulator.measure(0, random));
+        assertEquals("Expected qubit 1 to return to |0>", 0, simulator.measure(1, random));
+
+    }
+
+    /**
+     * Tests that gates outside of the register are rejected
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testQubitOutOfRange() {
+
+        new StabilizerSimulator(3).cnot(0, 3);
+
+    }
+
+    private static List<CliffordGate> randomCircuit(int qubits, int length, Random random) {
+
+        List<CliffordGate> gates = new ArrayList<CliffordGate>();
+        for (int i = 0; i < length; i++) {
+            int a = random.nextInt(qubits);
+            int b = qubits > 1 ? (a + 1 + random.nextInt(qubits - 1)) % qubits : -1;
+            int choice = random.nextInt(qubits > 1 ? 9 : 6);
+            switch (choice) {
+                case 0: gates.add(CliffordGate.hadamard(a)); break;
+                case 1: gates.add(CliffordGate.phase(a)); break;
+                case 2: gates.add(CliffordGate.phaseDagger(a)); break;
+                case 3: gates.add(CliffordGate.pauliX(a)); break;
+                case 4: gates.add(CliffordGate.pauliY(a)); break;
+                case 5: gates.add(CliffordGate.pauliZ(a)); break;
+                case 6: gates.add(CliffordGate.cnot(a, b)); break;
+                case 7: gates.add(CliffordGate.cz(a, b)); break;
+                default: gates.add(CliffordGate.swap(a, b));
+            }
+        }
+        return gates;
+
+    }
+
+    private static void applyToStateVector(CliffordGate gate, StateVectorSimulator simulator) {
+
+        int[] q = gate.getQubits();
+        switch (gate.getType()) {
+            case HADAMARD: simulator.hadamard(q[0]); break;
+            case PHASE: simulator.applyGate(Gates.s(), q[0]); break;
+            case PHASE_DAGGER: simulator.applyGate(Gates.s().adjoint(), q[0]); break;
+            case PAULI_X: simulator.pauliX(q[0]); break;
+            case PAULI_Y: simulator.pauliY(q[0]); break;
+            case PAULI_Z: simulator.pauliZ(q[0]); break;
+            case CNOT: simulator.cnot(q[0], q[1]); break;
+            case CZ: simulator.applyControlledGate(Gates.pauliZ(), q[0], q[1]); break;
+            default: simulator.swap(q[0], q[1]);
+        }
+
+    }
+
+}
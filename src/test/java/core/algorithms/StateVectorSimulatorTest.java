@@ -0,0 +1,216 @@
+package core.algorithms;
+
+import core.expection.InvalidParameterException;
+import core.util.ComplexMatrix;
+import core.util.ComplexVector;
+import core.util.DoubleComplex;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the state-vector simulator
+ * @version 0.1
+ */
+public class StateVectorSimulatorTest {
+
+    private static final double EPSILON = 0.0000000001;
+
+    /**
+     * Tests that a new register starts in |0...0&gt;
+     */
+    @Test
+    public void testInitialState() {
+
+        StateVectorSimulator simulator = new StateVectorSimulator(3);
+
+        assertEquals("Expected 8 amplitudes", 8, simulator.getDimension());
+        assertEquals("Expected amplitude 1 for |000>", DoubleComplex.ONE, simulator.getAmplitude(0));
+        assertEquals("Expected probability 0 for |001>", 0, simulator.getProbability(1), 0);
+
+    }
+
+    /**
+     * Tests the creation of a Bell state with H and CNOT
+     */
+    @Test
+    public void testBellState() {
+
+        StateVectorSimulator simulator = new StateVectorSimulator(2);
+        simulator.hadamard(0);
+        simulator.cnot(0, 1);
+
+        double[] probabilities = simulator.getProbabilities();
+        assertArrayEquals("Expected (|00> + |11>) / sqrt(2)", new double[] {0.5, 0, 0, 0.5}, probabilities, EPSILON);
+        assertEquals("Expected 4 + 2 amplitude updates", 6, simulator.getAmplitudeUpdates());
+
+    }
+
+    /**
+     * Tests single-qubit, controlled and two-qubit gates against the full
+     * operator built from Kronecker products
+     */
+    @Test
+    public void testGatesMatchFullOperator() {
+
+        Random random = new Random(7);
+        ComplexVector initial = randomState(3, random);
+        ComplexMatrix identity = ComplexMatrix.identity(2);
+        ComplexMatrix u = Gates.rotationY(0.3).multiply(Gates.rotationZ(1.1));
+
+        // U on qubit 1 of 3 is I (x) U (x) I
+        StateVectorSimulator simulator = new StateVectorSimulator(initial.copy());
+        simulator.applyGate(u, 1);
+        ComplexVector expected = identity.kronecker(u).kronecker(identity).multiply(initial);
+        assertTrue("Expected single-qubit gate to match", expected.valueEquals(simulator.getState(), EPSILON));
+
+        // CNOT with control 2 and target 0 equals the two-qubit gate (2, 0)
+        StateVectorSimulator controlled = new StateVectorSimulator(initial.copy());
+        controlled.cnot(2, 0);
+        StateVectorSimulator twoQubit = new StateVectorSimulator(initial.copy());
+        twoQubit.applyTwoQubitGate(Gates.cnot(), 2, 0);
+        assertTrue("Expected controlled gate to match the 4x4 gate",
+                controlled.getState().valueEquals(twoQubit.getState(), EPSILON));
+
+        // A general 4x4 gate on neighbouring qubits (1, 0) is I (x) G
+        ComplexMatrix g = Gates.swap().multiply(Gates.rotationX(0.7).kronecker(Gates.s()));
+        StateVectorSimulator general = new StateVectorSimulator(initial.copy());
+        general.applyTwoQubitGate(g, 1, 0);
+        ComplexVector expectedGeneral = identity.kronecker(g).multiply(initial);
+        assertTrue("Expected two-qubit gate to match", expectedGeneral.valueEquals(general.getState(), EPSILON));
+
+    }
+
+    /**
+     * Tests that SWAP exchanges the states of two qubits
+     */
+    @Test
+    public void testSwap() {
+
+        StateVectorSimulator simulator = new StateVectorSimulator(3);
+        simulator.pauliX(0);
+        simulator.swap(2, 0);
+
+        assertEquals("Expected |100>", 1, simulator.getProbability(4), EPSILON);
+
+    }
+
+    /**
+     * Tests that measuring one half of a Bell pair collapses the other half
+     */
+    @Test
+    public void testMeasureCollapse() {
+
+        Random random = new Random(3);
+        for (int i = 0; i < 20; i++) {
+
+            StateVectorSimulator simulator = new StateVectorSimulator(2);
+            simulator.hadamard(0);
+            simulator.cnot(0, 1);
+
+            int first = simulator.measure(0, random);
+            int second = simulator.measure(1, random);
+            assertEquals("Expected correlated outcomes", first, second);
+            assertEquals("Expected a normalized state", 1, simulator.getState().norm(), EPSILON);
+
+        }
+
+    }
+
+    /**
+     * Tests that sampling follows the distribution of the state
+     */
+    @Test
+    public void testSample() {
+
+        StateVectorSimulator simulator = new StateVectorSimulator(2);
+        simulator.applyGate(Gates.rotationY(2 * Math.acos(Math.sqrt(0.25))), 1);
+
+        int[] outcomes = simulator.sample(10000, new Random(11));
+        int ones = 0;
+        for (int outcome : outcomes) {
+            assertTrue("Expected only |00> or |10>", outcome == 0 || outcome == 2);
+            if (outcome == 2) {
+                ones++;
+            }
+        }
+        assertEquals("Expected |10> about 75% of the time", 0.75, ones / 10000.0, 0.02);
+
+    }
+
+    /**
+     * Tests that gates applied in parallel give the same state as gates
+     * applied on the calling thread
+     */
+    @Test
+    public void testParallelMatchesSerial() {
+
+        Random random = new Random(5);
+        ComplexVector initial = randomState(16, random);
+
+        StateVectorSimulator serial = new StateVectorSimulator(initial.copy());
+        serial.setPool(new ForkJoinPool(1));
+        StateVectorSimulator parallel = new StateVectorSimulator(initial.copy());
+        parallel.setPool(new ForkJoinPool(4));
+        parallel.setParallelThreshold(2);
+
+        for (StateVectorSimulator simulator : new StateVectorSimulator[] {serial, parallel}) {
+            for (int q = 0; q < 16; q++) {
+                simulator.applyGate(Gates.rotationX(0.1 * q), q);
+                simulator.cnot(q, (q + 5) % 16);
+                simulator.applyTwoQubitGate(Gates.swap(), q, (q + 3) % 16);
+            }
+        }
+
+        assertTrue("Expected identical states", serial.getState().valueEquals(parallel.getState(), EPSILON));
+        assertEquals("Expected identical update counts", serial.getAmplitudeUpdates(), parallel.getAmplitudeUpdates());
+
+    }
+
+    /**
+     * Tests that gates on qubits outside of the register are rejected
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testInvalidQubit() {
+
+        new StateVectorSimulator(2).hadamard(2);
+
+    }
+
+    /**
+     * Tests that a controlled gate needs two distinct qubits
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testSameControlAndTarget() {
+
+        new StateVectorSimulator(2).cnot(1, 1);
+
+    }
+
+    /**
+     * Tests that states must have a power of two length
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testInvalidStateLength() {
+
+        new StateVectorSimulator(new ComplexVector(6));
+
+    }
+
+    /**
+     * Creates a random normalized state of the given number of qubits
+     */
+    private static ComplexVector randomState(int qubits, Random random) {
+
+        ComplexVector state = new ComplexVector(1 << qubits);
+        for (int i = 0; i < state.length(); i++) {
+            state.set(i, random.nextGaussian(), random.nextGaussian());
+        }
+        return state.normalize();
+
+    }
+
+}
@@ -0,0 +1,162 @@
+package core.circuit;
+
+import core.algorithms.Gates;
+import core.algorithms.StateVectorSimulator;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the circuit optimiser
+ * @version 0.1
+ */
+public class CircuitOptimizerTest {
+
+    private static final double EPSILON = 0.000000001;
+
+    /**
+     * Tests that optimised random circuits leave the register in the same
+     * state as the originals, with fewer amplitude updates
+     */
+    @Test
+    public void testRandomCircuitsEquivalent() {
+
+        Random random = new Random(5);
+        for (int trial = 0; trial < 30; trial++) {
+
+            int qubits = 2 + random.nextInt(4);
+            Circuit circuit = randomCircuit(qubits, 60, random);
+            Circuit optimized = circuit.optimize();
+
+            StateVectorSimulator expected = circuit.simulate();
+            StateVectorSimulator actual = optimized.simulate();
+
+            assertTrue("Expected the same state for trial " + trial,
+                    expected.getState().valueEquals(actual.getState(), EPSILON));
+            assertTrue("Expected fewer operations for trial " + trial, optimized.size() < circuit.size());
+            assertTrue("Expected fewer amplitude updates for trial " + trial,
+                    actual.getAmplitudeUpdates() < expected.getAmplitudeUpdates());
+
+        }
+
+    }
+
+    /**
+     * Tests that inverse pairs cancel, also when separated by gates on other qubits
+     */
+    @Test
+    public void testInversePairsCancel() {
+
+        Circuit circuit = new Circuit(3).hadamard(0).pauliX(2).hadamard(0).cnot(1, 2).cnot(1, 2)
+                .s(1).rotationZ(0, 0.4).rotationZ(0, -0.4).gate(Gates.s().adjoint(), 1);
+        Circuit optimized = circuit.optimize();
+
+        assertEquals("Expected only X on qubit 2 to remain", 1, optimized.size());
+        assertEquals("Expected a single-qubit operation", Operation.Kind.SINGLE, optimized.getOperations().get(0).getKind());
+        assertTrue("Expected it to act on qubit 2", optimized.getOperations().get(0).actsOn(2));
+
+    }
+
+    /**
+     * Tests that a run of single-qubit gates fuses into one 2x2 gate
+     */
+    @Test
+    public void testSingleQubitFusion() {
+
+        Circuit circuit = new Circuit(2).hadamard(0).t(0).rotationX(0, 0.7).pauliY(1).s(0).pauliZ(1);
+        Circuit optimized = circuit.optimize();
+
+        assertEquals("Expected one gate per qubit", 2, optimized.size());
+        assertTrue("Expected the same state", circuit.simulate().getState()
+                .valueEquals(optimized.simulate().getState(), EPSILON));
+
+    }
+
+    /**
+     * Tests that gates on a pair of qubits merge into one 4x4 block
+     */
+    @Test
+    public void testTwoQubitMerge() {
+
+        Circuit circuit = new Circuit(3).hadamard(0).cnot(0, 1).rotationY(1, 0.2).cnot(1, 0).swap(0, 1).t(0);
+        Circuit optimized = circuit.optimize();
+
+        assertEquals("Expected a single block", 1, optimized.size());
+        assertEquals("Expected a two-qubit operation", Operation.Kind.TWO_QUBIT,
+                optimized.getOperations().get(0).getKind());
+        assertTrue("Expected the same state", circuit.simulate().getState()
+                .valueEquals(optimized.simulate().getState(), EPSILON));
+
+    }
+
+    /**
+     * Tests that diagonal gates commute past each other to be fused, while a
+     * non-diagonal gate in between blocks them
+     */
+    @Test
+    public void testDiagonalCommutation() {
+
+        // The two gates on (0, 1) meet past the diagonal CZ on (1, 2)
+        Circuit commuting = new Circuit(3).cz(0, 1).cz(1, 2).controlledPhase(0, 1, 0.3);
+        Circuit optimized = commuting.optimize();
+        assertEquals("Expected the gates on (0, 1) to combine", 2, optimized.size());
+        assertEquals("Expected them to stay a controlled gate", Operation.Kind.CONTROLLED,
+                optimized.getOperations().get(0).getKind());
+        assertTrue("Expected the same state", prepared(commuting).getState()
+                .valueEquals(prepared(optimized).getState(), EPSILON));
+
+        // A CNOT on (1, 2) does not commute with them
+        Circuit blocked = new Circuit(3).cz(0, 1).cnot(1, 2).controlledPhase(0, 1, 0.3);
+        assertEquals("Expected the CNOT to keep them apart", 3, blocked.optimize().size());
+
+    }
+
+    /**
+     * Tests that a circuit with nothing to combine is unchanged
+     */
+    @Test
+    public void testNothingToOptimize() {
+
+        Circuit circuit = new Circuit(4).hadamard(0).hadamard(1).hadamard(2).hadamard(3);
+        assertEquals("Expected four gates", 4, circuit.optimize().size());
+
+    }
+
+    /**
+     * Runs the circuit on a random superposition, so diagonal gates have an effect
+     */
+    private static StateVectorSimulator prepared(Circuit circuit) {
+        Circuit full = new Circuit(circuit.getQubitCount());
+        Random random = new Random(3);
+        for (int q = 0; q < circuit.getQubitCount(); q++) {
+            full.rotationY(q, random.nextDouble() * Math.PI).rotationZ(q, random.nextDouble());
+        }
+        StateVectorSimulator simulator = full.simulate();
+        circuit.applyTo(simulator);
+        return simulator;
+    }
+
+    private static Circuit randomCircuit(int qubits, int gates, Random random) {
+
+        Circuit circuit = new Circuit(qubits);
+        for (int i = 0; i < gates; i++) {
+            int a = random.nextInt(qubits);
+            int b = (a + 1 + random.nextInt(qubits - 1)) % qubits;
+            switch (random.nextInt(8)) {
+                case 0: circuit.hadamard(a); break;
+                case 1: circuit.t(a); break;
+                case 2: circuit.rotationX(a, random.nextDouble()); break;
+                case 3: circuit.pauliZ(a); break;
+                case 4: circuit.cnot(a, b); break;
+                case 5: circuit.cz(a, b); break;
+                case 6: circuit.controlledPhase(a, b, random.nextDouble()); break;
+                default: circuit.swap(a, b);
+            }
+        }
+        return circuit;
+
+    }
+
+}
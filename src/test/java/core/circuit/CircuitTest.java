@@ -0,0 +1,106 @@
+package core.circuit;
+
+import core.algorithms.Gates;
+import core.algorithms.StateVectorSimulator;
+import core.expection.InvalidParameterException;
+import core.util.ComplexMatrix;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for circuits and their operations
+ * @version 0.1
+ */
+public class CircuitTest {
+
+    private static final double EPSILON = 0.0000000001;
+
+    /**
+     * Tests that a circuit runs its gates in order, like the simulator directly
+     */
+    @Test
+    public void testSimulateMatchesSimulator() {
+
+        Circuit circuit = new Circuit(3).hadamard(0).cnot(0, 1).rotationY(2, 0.3).swap(2, 0).t(1).cz(1, 2);
+        assertEquals("Expected six operations", 6, circuit.size());
+
+        StateVectorSimulator expected = new StateVectorSimulator(3);
+        expected.hadamard(0);
+        expected.cnot(0, 1);
+        expected.applyGate(Gates.rotationY(0.3), 2);
+        expected.swap(2, 0);
+        expected.applyGate(Gates.t(), 1);
+        expected.applyControlledGate(Gates.pauliZ(), 1, 2);
+
+        assertTrue("Expected the same state", expected.getState().valueEquals(circuit.simulate().getState(), EPSILON));
+
+    }
+
+    /**
+     * Tests the 4x4 form of each kind of operation, in both qubit orders
+     */
+    @Test
+    public void testTwoQubitMatrix() {
+
+        Operation cnot = Operation.controlled(Gates.pauliX(), 1, 0);
+        assertTrue("Expected CNOT with qubit 1 as the control",
+                cnot.toTwoQubitMatrix(1, 0).valueEquals(Gates.cnot(), EPSILON));
+
+        // Swapping the roles of the qubits gives the CNOT controlled by the low qubit
+        ComplexMatrix swap = Gates.swap();
+        assertTrue("Expected CNOT with qubit 0 as the control",
+                cnot.toTwoQubitMatrix(0, 1).valueEquals(swap.multiply(Gates.cnot()).multiply(swap), EPSILON));
+
+        Operation hadamard = Operation.single(Gates.hadamard(), 3);
+        assertTrue("Expected H on the high qubit",
+                hadamard.toTwoQubitMatrix(3, 5).valueEquals(Gates.hadamard().kronecker(Gates.identity()), EPSILON));
+        assertTrue("Expected H on the low qubit",
+                hadamard.toTwoQubitMatrix(5, 3).valueEquals(Gates.identity().kronecker(Gates.hadamard()), EPSILON));
+
+    }
+
+    /**
+     * Tests diagonal detection
+     */
+    @Test
+    public void testIsDiagonal() {
+
+        assertTrue("Expected T to be diagonal", Operation.single(Gates.t(), 0).isDiagonal(EPSILON));
+        assertTrue("Expected CZ to be diagonal", Operation.controlled(Gates.pauliZ(), 0, 1).isDiagonal(EPSILON));
+        assertFalse("Expected H not to be diagonal", Operation.single(Gates.hadamard(), 0).isDiagonal(EPSILON));
+        assertFalse("Expected CNOT not to be diagonal", Operation.controlled(Gates.pauliX(), 0, 1).isDiagonal(EPSILON));
+
+    }
+
+    /**
+     * Tests that operations outside of the circuit are rejected
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testQubitOutOfRange() {
+
+        new Circuit(2).cnot(0, 2);
+
+    }
+
+    /**
+     * Tests that a two-qubit operation needs two distinct qubits
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testSameQubits() {
+
+        Operation.controlled(Gates.pauliX(), 1, 1);
+
+    }
+
+    /**
+     * Tests that gates of the wrong size are rejected
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testWrongGateSize() {
+
+        new Circuit(2).gate(Gates.cnot(), 0);
+
+    }
+
+}
@@ -0,0 +1,84 @@
+package core.circuit;
+
+import core.algorithms.DensityMatrixSimulator;
+import core.algorithms.NoiseChannel;
+import core.expection.InvalidParameterException;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for running circuits under a noise model
+ * @version 0.1
+ */
+public class NoiseModelTest {
+
+    private static final double EPSILON = 0.0000000001;
+
+    /**
+     * Tests that a model without channels gives the noiseless probabilities
+     * on both backends
+     */
+    @Test
+    public void testNoiselessModel() {
+
+        Circuit circuit = new Circuit(3).hadamard(0).cnot(0, 1).rotationY(2, 0.4).cz(1, 2);
+        double[] expected = circuit.simulate().getProbabilities();
+        NoiseModel model = new NoiseModel(null, null);
+
+        assertArrayEquals("Expected the noiseless density matrix", expected,
+                model.simulateDensityMatrix(circuit).getProbabilities(), EPSILON);
+        assertArrayEquals("Expected noiseless trajectories", expected,
+                model.simulateTrajectories(circuit, 3, 1), EPSILON);
+
+    }
+
+    /**
+     * Tests that the average of many trajectories converges to the exact
+     * density-matrix probabilities
+     */
+    @Test
+    public void testTrajectoriesMatchDensityMatrix() {
+
+        Circuit circuit = new Circuit(3).hadamard(0).cnot(0, 1).cnot(1, 2).rotationX(2, 0.9).swap(0, 2);
+        NoiseModel model = new NoiseModel(NoiseChannel.amplitudeDamping(0.2), NoiseChannel.depolarizing(0.1));
+
+        DensityMatrixSimulator density = model.simulateDensityMatrix(circuit);
+        assertEquals("Expected a unit trace", 1, density.getTrace(), EPSILON);
+        assertTrue("Expected a mixed state", density.getPurity() < 0.9);
+
+        double[] exact = density.getProbabilities();
+        double[] estimate = model.simulateTrajectories(circuit, 4000, 17);
+        for (int i = 0; i < exact.length; i++) {
+            assertEquals("Expected the probability of " + i, exact[i], estimate[i], 0.03);
+        }
+
+    }
+
+    /**
+     * Tests that the trajectory estimate only depends on the seed, not on
+     * the parallelism of the pool
+     */
+    @Test
+    public void testTrajectoriesAreReproducible() {
+
+        Circuit circuit = new Circuit(2).hadamard(0).cnot(0, 1).t(1).hadamard(1);
+        NoiseModel model = NoiseModel.uniform(NoiseChannel.dephasing(0.2));
+
+        double[] serial = model.simulateTrajectories(circuit, 100, 3, new ForkJoinPool(1));
+        double[] parallel = model.simulateTrajectories(circuit, 100, 3, new ForkJoinPool(4));
+        assertArrayEquals("Expected the same estimate", serial, parallel, 0);
+
+    }
+
+    /**
+     * Tests that a non-positive number of trajectories is rejected
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testNoTrajectories() {
+        NoiseModel.uniform(NoiseChannel.dephasing(0.2)).simulateTrajectories(new Circuit(1).hadamard(0), 0, 1);
+    }
+
+}
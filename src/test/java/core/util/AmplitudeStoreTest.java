@@ -0,0 +1,119 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the heap, direct and memory-mapped amplitude stores
+ * @version 0.1
+ */
+public class AmplitudeStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Tests single amplitude access and chunked reads and writes on the heap store
+     */
+    @Test
+    public void testArrayStore() {
+
+        checkStore(new ArrayAmplitudeStore(64));
+
+    }
+
+    /**
+     * Tests single amplitude access and chunked reads and writes on a direct buffer store
+     */
+    @Test
+    public void testDirectStore() {
+
+        BufferAmplitudeStore store = BufferAmplitudeStore.allocateDirect(64);
+        assertFalse("Expected a direct store to not be mapped", store.isMapped());
+        checkStore(store);
+
+    }
+
+    /**
+     * Tests a memory-mapped store, and that it removes its scratch file when closed
+     */
+    @Test
+    public void testMappedStore() throws IOException {
+
+        File directory = folder.newFolder();
+        BufferAmplitudeStore store = BufferAmplitudeStore.mapScratchFile(directory.toPath(), 64);
+        assertTrue("Expected a mapped store", store.isMapped());
+        assertEquals("Expected one scratch file", 1, directory.list().length);
+
+        checkStore(store);
+        store.close();
+        assertEquals("Expected the scratch file to be deleted", 0, directory.list().length);
+
+    }
+
+    /**
+     * Tests stores split into several small segments, so that chunked
+     * reads and writes cross segment boundaries
+     */
+    @Test
+    public void testSegmentedStores() throws IOException {
+
+        checkStore(BufferAmplitudeStore.allocateDirect(64, 3));
+        try (BufferAmplitudeStore store = BufferAmplitudeStore.mapScratchFile(folder.newFolder().toPath(), 64, 4)) {
+            checkStore(store);
+        }
+
+    }
+
+    /**
+     * Tests that ranges outside of the store are rejected
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testOutOfRange() {
+
+        BufferAmplitudeStore.allocateDirect(8).read(4, new double[8], new double[8], 0, 8);
+
+    }
+
+    /**
+     * Runs the same checks against any store of 64 amplitudes
+     */
+    private static void checkStore(AmplitudeStore store) {
+
+        assertEquals("Expected 64 amplitudes", 64, store.size());
+        assertEquals("Expected a zero store", 0, store.getReal(63), 0);
+
+        store.set(5, 1.5, -2.5);
+        assertEquals("Expected real part", 1.5, store.getReal(5), 0);
+        assertEquals("Expected imaginary part", -2.5, store.getImaginary(5), 0);
+
+        double[] real = new double[40];
+        double[] imag = new double[40];
+        for (int i = 0; i < 32; i++) {
+            real[8 + i] = i;
+            imag[8 + i] = -i;
+        }
+        store.write(16, real, imag, 8, 32);
+
+        double[] readReal = new double[32];
+        double[] readImag = new double[32];
+        store.read(16, readReal, readImag, 0, 32);
+        for (int i = 0; i < 32; i++) {
+            assertEquals("Expected written real part", i, readReal[i], 0);
+            assertEquals("Expected written imaginary part", -i, readImag[i], 0);
+        }
+        assertEquals("Expected single access to see the chunk write", 31, store.getReal(47), 0);
+
+        store.clear();
+        assertEquals("Expected a cleared store", 0, store.getImaginary(5), 0);
+
+    }
+
+}
@@ -0,0 +1,109 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the bulk kernels over complex arrays
+ * @version 0.1
+ */
+public class ComplexArraysTest {
+
+    private static final double EPSILON = 0.0000000001;
+
+    /**
+     * Simple test for coverage on the class name
+     */
+    @Test
+    public void constructTest() {
+        new ComplexArrays();
+    }
+
+    /**
+     * Tests packing and unpacking complex numbers into parallel arrays
+     */
+    @Test
+    public void testPackUnpack() {
+
+        DoubleComplex[] values = {new DoubleComplex(1, 2), new DoubleComplex(-3, 4)};
+        double[] real = new double[2];
+        double[] imag = new double[2];
+
+        ComplexArrays.pack(values, real, imag);
+        assertArrayEquals("Expected real parts", new double[] {1, -3}, real, 0);
+        assertArrayEquals("Expected imaginary parts", new double[] {2, 4}, imag, 0);
+        assertArrayEquals("Expected round trip", values, ComplexArrays.unpack(real, imag));
+
+        ComplexArrays.fromComplex(new Complex[] {new Complex(5, 6), new Complex(7, 8)}, real, imag);
+        assertArrayEquals("Expected real parts from Complex", new double[] {5, 7}, real, 0);
+        assertArrayEquals("Expected imaginary parts from Complex", new double[] {6, 8}, imag, 0);
+
+    }
+
+    /**
+     * Tests the element-wise kernels against the scalar operations
+     */
+    @Test
+    public void testElementWise() {
+
+        double[] aReal = {1, 2};
+        double[] aImag = {1, -1};
+        double[] bReal = {3, 0};
+        double[] bImag = {1, 1};
+
+        ComplexArrays.multiplyInPlace(aReal, aImag, bReal, bImag);
+        assertArrayEquals("Expected (1+i)(3+i) and (2-i)i", new double[] {2, 1}, aReal, EPSILON);
+        assertArrayEquals("Expected (1+i)(3+i) and (2-i)i", new double[] {4, 2}, aImag, EPSILON);
+
+        ComplexArrays.addInPlace(aReal, aImag, bReal, bImag);
+        assertArrayEquals("Expected sum", new double[] {5, 1}, aReal, EPSILON);
+        assertArrayEquals("Expected sum", new double[] {5, 3}, aImag, EPSILON);
+
+        ComplexArrays.scaleInPlace(aReal, aImag, 0, 1);
+        assertArrayEquals("Expected multiplication by i", new double[] {-5, -3}, aReal, EPSILON);
+        assertArrayEquals("Expected multiplication by i", new double[] {5, 1}, aImag, EPSILON);
+
+        ComplexArrays.axpy(2, 0, bReal, bImag, aReal, aImag);
+        assertArrayEquals("Expected y + 2x", new double[] {1, -3}, aReal, EPSILON);
+        assertArrayEquals("Expected y + 2x", new double[] {7, 3}, aImag, EPSILON);
+
+        ComplexArrays.conjugateInPlace(aReal, aImag);
+        assertArrayEquals("Expected conjugate", new double[] {-7, -3}, aImag, EPSILON);
+
+    }
+
+    /**
+     * Tests the inner product and norm kernels
+     */
+    @Test
+    public void testReductions() {
+
+        double[] aReal = {1, 0};
+        double[] aImag = {0, 1};
+        double[] bReal = {0, 1};
+        double[] bImag = {1, 0};
+
+        DoubleComplex inner = ComplexArrays.innerProduct(aReal, aImag, bReal, bImag,
+                new DoubleComplex.Accumulator()).toDoubleComplex();
+        assertTrue("Expected <a|b> = i - i = 0", DoubleComplex.ZERO.valueEquals(inner, EPSILON));
+        assertEquals("Expected squared norm of 2", 2, ComplexArrays.normSquared(aReal, aImag), EPSILON);
+
+        double[] probabilities = new double[2];
+        ComplexArrays.magnitudesSquared(aReal, aImag, probabilities);
+        assertArrayEquals("Expected probabilities", new double[] {1, 1}, probabilities, EPSILON);
+
+    }
+
+    /**
+     * Tests that mismatched array lengths are rejected
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testMismatchedLengths() {
+
+        ComplexArrays.normSquared(new double[2], new double[3]);
+
+    }
+
+}
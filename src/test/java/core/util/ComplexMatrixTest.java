@@ -0,0 +1,145 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for dense complex vectors and matrices
+ * @version 0.1
+ */
+public class ComplexMatrixTest {
+
+    private static final double EPSILON = 0.0000000001;
+    private static final double ONE_OVER_SQRT_2 = 1 / Math.sqrt(2);
+
+    private static final ComplexMatrix HADAMARD = ComplexMatrix.of(new DoubleComplex[][] {
+            {new DoubleComplex(ONE_OVER_SQRT_2, 0), new DoubleComplex(ONE_OVER_SQRT_2, 0)},
+            {new DoubleComplex(ONE_OVER_SQRT_2, 0), new DoubleComplex(-ONE_OVER_SQRT_2, 0)}
+    });
+
+    private static final ComplexMatrix PAULI_Y = ComplexMatrix.of(new DoubleComplex[][] {
+            {DoubleComplex.ZERO, new DoubleComplex(0, -1)},
+            {DoubleComplex.I, DoubleComplex.ZERO}
+    });
+
+    /**
+     * Tests the matrix-vector product on the Hadamard gate
+     */
+    @Test
+    public void testMatrixVectorProduct() {
+
+        ComplexVector zero = ComplexVector.basis(2, 0);
+        ComplexVector plus = HADAMARD.multiply(zero);
+
+        assertTrue("Expected |+>", ComplexVector.of(new DoubleComplex(ONE_OVER_SQRT_2, 0),
+                new DoubleComplex(ONE_OVER_SQRT_2, 0)).valueEquals(plus, EPSILON));
+        assertTrue("Expected H|+> = |0>", zero.valueEquals(HADAMARD.multiply(plus), EPSILON));
+
+        ComplexVector yZero = PAULI_Y.multiply(zero);
+        assertTrue("Expected Y|0> = i|1>", ComplexVector.of(DoubleComplex.ZERO, DoubleComplex.I)
+                .valueEquals(yZero, EPSILON));
+
+    }
+
+    /**
+     * Tests the matrix product, adjoint and unitarity check
+     */
+    @Test
+    public void testAdjointAndUnitary() {
+
+        assertTrue("Expected H to be unitary", HADAMARD.isUnitary(EPSILON));
+        assertTrue("Expected Y to be unitary", PAULI_Y.isUnitary(EPSILON));
+        assertTrue("Expected Y to be Hermitian", PAULI_Y.adjoint().valueEquals(PAULI_Y, EPSILON));
+        assertTrue("Expected HH = I", HADAMARD.multiply(HADAMARD).valueEquals(ComplexMatrix.identity(2), EPSILON));
+
+        ComplexMatrix notUnitary = ComplexMatrix.identity(2);
+        notUnitary.set(0, 1, 1, 0);
+        assertFalse("Expected a shear to not be unitary", notUnitary.isUnitary(EPSILON));
+        assertFalse("Expected non-square to not be unitary", new ComplexMatrix(2, 3).isUnitary(EPSILON));
+
+        ComplexMatrix rectangular = new ComplexMatrix(2, 3);
+        rectangular.set(1, 2, 1, 2);
+        ComplexMatrix adjoint = rectangular.adjoint();
+        assertEquals("Expected transposed rows", 3, adjoint.getRows());
+        assertEquals("Expected conjugated entry", new DoubleComplex(1, -2), adjoint.get(2, 1));
+
+    }
+
+    /**
+     * Tests the Kronecker product of matrices and vectors
+     */
+    @Test
+    public void testKronecker() {
+
+        ComplexMatrix hh = HADAMARD.kronecker(HADAMARD);
+        assertEquals("Expected 4 rows", 4, hh.getRows());
+        assertEquals("Expected 4 columns", 4, hh.getColumns());
+        assertEquals("Expected entry (3, 3) of H (x) H", 0.5, hh.get(3, 3).getRealPart(), EPSILON);
+        assertEquals("Expected entry (1, 3) of H (x) H", -0.5, hh.get(1, 3).getRealPart(), EPSILON);
+
+        ComplexMatrix iy = ComplexMatrix.identity(2).kronecker(PAULI_Y);
+        assertEquals("Expected Y in the top left block", new DoubleComplex(0, -1), iy.get(0, 1));
+        assertEquals("Expected zero off the diagonal blocks", DoubleComplex.ZERO, iy.get(0, 3));
+
+        // (A (x) B)(u (x) v) = (Au) (x) (Bv)
+        ComplexVector u = ComplexVector.of(new DoubleComplex(1, 2), new DoubleComplex(3, -1));
+        ComplexVector v = ComplexVector.of(new DoubleComplex(0, 1), new DoubleComplex(2, 2));
+        ComplexVector left = HADAMARD.kronecker(PAULI_Y).multiply(u.kronecker(v));
+        ComplexVector right = HADAMARD.multiply(u).kronecker(PAULI_Y.multiply(v));
+        assertTrue("Expected mixed product property", left.valueEquals(right, EPSILON));
+
+    }
+
+    /**
+     * Tests the inner product and norm of vectors
+     */
+    @Test
+    public void testInnerProductAndNorm() {
+
+        ComplexVector u = ComplexVector.of(new DoubleComplex(1, 1), new DoubleComplex(0, 2));
+        ComplexVector v = ComplexVector.of(new DoubleComplex(2, 0), new DoubleComplex(1, 0));
+
+        assertEquals("Expected <u|v> = 2 - 4i", new DoubleComplex(2, -4), u.innerProduct(v));
+        assertEquals("Expected norm sqrt(6)", Math.sqrt(6), u.norm(), EPSILON);
+        assertEquals("Expected unit norm after normalize", 1, u.copy().normalize().norm(), EPSILON);
+        assertEquals("Expected Frobenius norm of H", Math.sqrt(2), HADAMARD.norm(), EPSILON);
+
+    }
+
+    /**
+     * Tests that mismatched dimensions are rejected
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testMismatchedDimensions() {
+
+        HADAMARD.multiply(new ComplexVector(3));
+
+    }
+
+    /**
+     * Tests that rows of different lengths are rejected
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testRaggedRows() {
+
+        ComplexMatrix.of(new DoubleComplex[][] {
+                {DoubleComplex.ONE, DoubleComplex.ZERO},
+                {DoubleComplex.ONE}
+        });
+
+    }
+
+    /**
+     * Tests that the matrix-vector product cannot alias its output
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testInPlaceProduct() {
+
+        ComplexVector vector = ComplexVector.basis(2, 0);
+        HADAMARD.multiply(vector, vector);
+
+    }
+
+}
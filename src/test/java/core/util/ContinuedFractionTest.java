@@ -0,0 +1,140 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+import org.apfloat.Apfloat;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the lazy expansion of rationals into continued fractions
+ * @version 0.1
+ */
+public class ContinuedFractionTest {
+
+    /**
+     * Tests the terms and convergents of 768/1024 = [0; 1, 3]
+     */
+    @Test
+    public void testConvergents() {
+
+        ContinuedFraction fraction = new ContinuedFraction(768, 1024);
+        long[][] expected = {{0, 0, 1}, {1, 1, 1}, {3, 3, 4}};
+        for (long[] convergent : expected) {
+            assertTrue("Expected another term", fraction.hasNext());
+            ContinuedFraction.Convergent next = fraction.next();
+            assertEquals("Expected the term", convergent[0], next.getTerm());
+            assertEquals("Expected the numerator", convergent[1], next.getNumerator());
+            assertEquals("Expected the denominator", convergent[2], next.getDenominator());
+        }
+        assertFalse("Expected the expansion to end", fraction.hasNext());
+
+    }
+
+    /**
+     * Tests that the terms match the high precision expansion of the same
+     * rational, and that the last convergent is the reduced fraction
+     */
+    @Test
+    public void testMatchesHighPrecisionExpansion() {
+
+        long numerator = 1357913579L;
+        long denominator = 1L << 40;
+        int[] expected = Mathematics.continuedFraction(
+                new Apfloat(numerator, 200).divide(new Apfloat(denominator, 200)), 100);
+
+        List<ContinuedFraction.Convergent> convergents =
+                ContinuedFraction.convergents(numerator, denominator).collect(Collectors.toList());
+        assertEquals("Expected as many terms", expected.length, convergents.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals("Expected term " + i, expected[i], convergents.get(i).getTerm());
+        }
+
+        ContinuedFraction.Convergent last = convergents.get(convergents.size() - 1);
+        long gcd = Mathematics.greatestCommonDenominator(numerator, denominator);
+        assertEquals("Expected the reduced numerator", numerator / gcd, last.getNumerator());
+        assertEquals("Expected the reduced denominator", denominator / gcd, last.getDenominator());
+
+    }
+
+    /**
+     * Tests that a caller can stop at the first convergent whose denominator
+     * reaches a bound, as in Shor's post-processing: 13/16 is close to 4/5,
+     * so for N = 8 the last denominator below N is 5
+     */
+    @Test
+    public void testStopEarly() {
+
+        long found = ContinuedFraction.convergents(13, 16)
+                .mapToLong(ContinuedFraction.Convergent::getDenominator)
+                .filter(q -> q < 8)
+                .reduce((a, b) -> b)
+                .getAsLong();
+        assertEquals("Expected the denominator 5", 5, found);
+        assertEquals("Expected 13/16 to print as its last convergent", "13/16",
+                ContinuedFraction.convergents(13, 16).reduce((a, b) -> b).get().toString());
+
+    }
+
+    /**
+     * Tests the expansions of an integer and of zero
+     */
+    @Test
+    public void testIntegers() {
+
+        ContinuedFraction seven = new ContinuedFraction(21, 3);
+        assertEquals("Expected the single term 7", 7, seven.next().getTerm());
+        assertFalse("Expected one term", seven.hasNext());
+
+        ContinuedFraction zero = new ContinuedFraction(0, 5);
+        assertEquals("Expected the single term 0", "0/1", zero.next().toString());
+        assertFalse("Expected one term", zero.hasNext());
+
+    }
+
+    /**
+     * Tests that convergents of the largest longs do not overflow
+     */
+    @Test
+    public void testLargeValues() {
+
+        ContinuedFraction fraction = new ContinuedFraction(Long.MAX_VALUE - 1, Long.MAX_VALUE);
+        ContinuedFraction.Convergent last = null;
+        while (fraction.hasNext()) {
+            last = fraction.next();
+            assertTrue("Expected a positive denominator", last.getDenominator() > 0);
+        }
+        assertEquals("Expected the exact fraction", Long.MAX_VALUE, last.getDenominator());
+
+    }
+
+    /**
+     * Tests that invalid fractions and reading past the end are rejected
+     */
+    @Test
+    public void testInvalidUse() {
+
+        try {
+            new ContinuedFraction(1, 0);
+            fail("Expected a zero denominator to be rejected");
+        } catch (InvalidParameterException expected) {
+            // Expected
+        }
+
+        ContinuedFraction fraction = new ContinuedFraction(1, 2);
+        fraction.next();
+        fraction.next();
+        try {
+            fraction.next();
+            fail("Expected the end of the expansion");
+        } catch (NoSuchElementException expected) {
+            // Expected
+        }
+
+    }
+
+}
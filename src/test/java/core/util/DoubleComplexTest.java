@@ -0,0 +1,170 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the representation of double precision complex numbers
+ * @version 0.1
+ */
+public class DoubleComplexTest {
+
+    // Constants to make references to
+    private static final double EPSILON = 0.0000000001;
+    private static final double ONE_OVER_SQRT_2 = 1 / Math.sqrt(2);
+
+    /**
+     * Tests the creation and methods of a simple complex number
+     */
+    @Test
+    public void testSimpleComplexNumber() {
+
+        DoubleComplex complexNumber = new DoubleComplex(1, 1);
+
+        assertEquals("Real part should equal 1.0", 1.0, complexNumber.getRealPart(), 0);
+        assertEquals("Imaginary part equal 1.0", 1.0, complexNumber.getImaginaryPart(), 0);
+        assertEquals("Expected string representation", "(1.0, 1.0)", complexNumber.toString());
+        assertEquals("Magnitude should be sqrt(2)", Math.sqrt(2), complexNumber.getMagnitude(), EPSILON);
+        assertEquals("Phase should be pi / 4", Math.PI / 4, complexNumber.getPhase(), EPSILON);
+        assertEquals("Expected complex conjugate", new DoubleComplex(1, -1), complexNumber.getConjugate());
+
+        // Test normalization
+        DoubleComplex normalized = complexNumber.getNormalized();
+        assertEquals("Expected real part 1/sqrt(2)", ONE_OVER_SQRT_2, normalized.getRealPart(), EPSILON);
+        assertEquals("Expected imaginary part 1/sqrt(2)", ONE_OVER_SQRT_2, normalized.getImaginaryPart(), EPSILON);
+        assertTrue("Expected normalized", normalized.isNormalized(DoubleComplex.EPSILON));
+
+    }
+
+    /**
+     * Tests the behavior of a zero length vector
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testZeroMagnitudeNumber() {
+
+        DoubleComplex zero = DoubleComplex.ZERO;
+
+        assertTrue("Phase should be undefined", Double.isNaN(zero.getPhase()));
+        assertFalse("Should not be normalized", zero.isNormalized(DoubleComplex.EPSILON));
+        zero.getNormalized();
+
+    }
+
+    /**
+     * Tests add, subtract, multiply, divide, exponentiate, square and rotate
+     */
+    @Test
+    public void testValidOperations() {
+
+        DoubleComplex one = DoubleComplex.ONE;
+        DoubleComplex twoTwo = new DoubleComplex(2, 2);
+        DoubleComplex threeOne = new DoubleComplex(3, 1);
+
+        assertEquals("Added should be 4 + i", new DoubleComplex(4, 1), one.add(threeOne));
+        assertEquals("Subtracted should be -2 - i", new DoubleComplex(-2, -1), one.subtract(threeOne));
+        assertEquals("Multiplied should be 4 + 8i", new DoubleComplex(4, 8), twoTwo.multiply(threeOne));
+        assertTrue("Divided should be 0.8 + 0.4i",
+                new DoubleComplex(0.8, 0.4).valueEquals(twoTwo.divide(threeOne), EPSILON));
+        assertEquals("Exponentiated should be -16 + 16i", new DoubleComplex(-16, 16), twoTwo.exponentiate(3));
+        assertTrue("Exponentiated to -3 should be (-1 - i) / 32",
+                new DoubleComplex(-1.0 / 32, -1.0 / 32).valueEquals(twoTwo.exponentiate(-3), EPSILON));
+        assertEquals("Squared should be 8i", new DoubleComplex(0, 8), twoTwo.square());
+
+        DoubleComplex vector = DoubleComplex.ONE;
+        for (int i = 0; i < 16; i++) {
+            vector = vector.rotate(Math.PI / 2);
+        }
+        assertTrue("Expected rotation back to 1", vector.valueEquals(DoubleComplex.ONE, EPSILON));
+        assertTrue("Expected rotation by pi/2 to i",
+                DoubleComplex.I.valueEquals(DoubleComplex.ONE.rotate(Math.PI / 2), EPSILON));
+
+    }
+
+    /**
+     * Tests division by zero (i.e. an invalid operation)
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testInvalidOperations() {
+
+        new DoubleComplex(2, 2).divide(DoubleComplex.ZERO);
+
+    }
+
+    /**
+     * Tests a negative power of zero, which has no reciprocal
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testNegativePowerOfZero() {
+
+        DoubleComplex.ZERO.exponentiate(-2);
+
+    }
+
+    /**
+     * Tests negative powers of bases close to zero, whose powers are far
+     * below EPSILON but whose reciprocals are ordinary doubles
+     */
+    @Test
+    public void testNegativePowerOfSmallBase() {
+
+        DoubleComplex real = new DoubleComplex(0.1, 0).exponentiate(-8);
+        assertEquals("Expected 0.1^-8 = 1e8", 1e8, real.getRealPart(), 1e8 * EPSILON);
+        assertEquals("Expected no imaginary part", 0, real.getImaginaryPart(), 0);
+
+        // (0.01 + 0.01i)^4 = -4e-8
+        DoubleComplex complex = new DoubleComplex(0.01, 0.01).exponentiate(-4);
+        assertEquals("Expected the real part of -2.5e7", -2.5e7, complex.getRealPart(), 2.5e7 * EPSILON);
+        assertEquals("Expected no imaginary part", 0, complex.getImaginaryPart(), 2.5e7 * EPSILON);
+
+    }
+
+    /**
+     * Tests that a negative power whose reciprocal overflows is rejected
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testNegativePowerOverflows() {
+
+        new DoubleComplex(1e-200, 0).exponentiate(-2);
+
+    }
+
+    /**
+     * Tests the conversion to and from the high precision representation
+     */
+    @Test
+    public void testComplexConversion() {
+
+        Complex precise = new Complex(0.8f, -0.4f);
+        DoubleComplex fast = precise.toDoubleComplex();
+
+        assertEquals("Expected real part 0.8", 0.8, fast.getRealPart(), 0.0000001);
+        assertEquals("Expected imaginary part -0.4", -0.4, fast.getImaginaryPart(), 0.0000001);
+        assertTrue("Expected round trip", precise.valueEquals(fast.toComplex(), Complex.EPSILON));
+
+    }
+
+    /**
+     * Tests the in place accumulator against the immutable operations
+     */
+    @Test
+    public void testAccumulator() {
+
+        DoubleComplex a = new DoubleComplex(1, 2);
+        DoubleComplex b = new DoubleComplex(3, -1);
+
+        DoubleComplex.Accumulator accumulator = new DoubleComplex.Accumulator()
+                .addProduct(a, b)
+                .add(a)
+                .multiply(DoubleComplex.I);
+
+        DoubleComplex expected = a.multiply(b).add(a).multiply(DoubleComplex.I);
+        assertEquals("Expected same value as immutable operations", expected, accumulator.toDoubleComplex());
+
+        accumulator.reset();
+        assertEquals("Expected reset to zero", DoubleComplex.ZERO, accumulator.toDoubleComplex());
+
+    }
+
+}
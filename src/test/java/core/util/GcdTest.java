@@ -0,0 +1,135 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+import org.apfloat.Apint;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the binary and Lehmer gcd kernels
+ * @version 0.1
+ */
+public class GcdTest {
+
+    /**
+     * Tests the binary gcd of ints and longs against BigInteger, including
+     * zero, negative and shared power-of-two operands
+     */
+    @Test
+    public void testBinaryGcd() {
+
+        Random random = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            long a = random.nextLong() >> random.nextInt(64);
+            long b = (random.nextLong() >> random.nextInt(64)) << random.nextInt(8);
+            long expected = BigInteger.valueOf(a).gcd(BigInteger.valueOf(b)).longValue();
+            assertEquals("Expected gcd(" + a + ", " + b + ")", expected, Gcd.gcd(a, b));
+            assertEquals("Expected gcd(" + (int) a + ", " + (int) b + ")",
+                    BigInteger.valueOf((int) a).gcd(BigInteger.valueOf((int) b)).intValue(), Gcd.gcd((int) a, (int) b));
+        }
+        assertEquals("Expected gcd(0, 0) to be 0", 0, Gcd.gcd(0L, 0L));
+        assertEquals("Expected gcd(12, 0) to be 12", 12, Gcd.gcd(12, 0));
+        assertEquals("Expected gcd(2^62, 2^40 * 3)", 1L << 40, Gcd.gcd(1L << 62, 3L << 40));
+
+    }
+
+    /**
+     * Tests the batch gcd against the single gcd, in place and for even moduli
+     */
+    @Test
+    public void testBatchGcd() {
+
+        Random random = new Random(2);
+        long[] values = new long[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(4) == 0 ? 0 : random.nextLong() >>> random.nextInt(40);
+        }
+        for (long n : new long[] {1, 96, 1000003L * 999983L, 3L << 50}) {
+            long[] result = Gcd.gcd(values, n);
+            for (int i = 0; i < values.length; i++) {
+                assertEquals("Expected gcd(" + values[i] + ", " + n + ")", Gcd.gcd(values[i], n), result[i]);
+            }
+        }
+
+        long[] inPlace = values.clone();
+        Gcd.gcd(inPlace, 360, inPlace);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals("Expected the gcd in place", Gcd.gcd(values[i], 360), inPlace[i]);
+        }
+
+    }
+
+    /**
+     * Tests that a result array shorter than the values is rejected
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testBatchGcdShortResult() {
+        Gcd.gcd(new long[] {1, 2}, 3, new long[1]);
+    }
+
+    /**
+     * Tests Lehmer's gcd against BigInteger for operands of many sizes,
+     * with and without a large common factor
+     */
+    @Test
+    public void testLehmerGcd() {
+
+        Random random = new Random(3);
+        for (int i = 0; i < 2000; i++) {
+            BigInteger factor = new BigInteger(random.nextInt(300) + 1, random);
+            BigInteger a = new BigInteger(random.nextInt(1200) + 1, random).multiply(factor);
+            BigInteger b = new BigInteger(random.nextInt(1200) + 1, random).multiply(factor);
+            if (random.nextBoolean()) {
+                b = b.negate();
+            }
+            assertEquals("Expected gcd(" + a + ", " + b + ")", a.gcd(b), Gcd.gcd(a, b));
+        }
+
+    }
+
+    /**
+     * Tests the cases which leave the single precision steps: consecutive
+     * Fibonacci numbers (every quotient is 1), a huge quotient, powers of
+     * two and zero
+     */
+    @Test
+    public void testLehmerEdgeCases() {
+
+        BigInteger previous = BigInteger.ONE;
+        BigInteger current = BigInteger.ONE;
+        for (int i = 0; i < 3000; i++) {
+            BigInteger next = previous.add(current);
+            previous = current;
+            current = next;
+        }
+        assertEquals("Expected consecutive Fibonacci numbers to be coprime", BigInteger.ONE, Gcd.gcd(current, previous));
+
+        BigInteger prime = BigInteger.valueOf(1000000007L);
+        BigInteger huge = BigInteger.ONE.shiftLeft(2000).multiply(prime);
+        BigInteger small = BigInteger.ONE.shiftLeft(100).add(BigInteger.ONE).multiply(prime);
+        assertEquals("Expected the common prime", huge.gcd(small), Gcd.gcd(huge, small));
+
+        assertEquals("Expected a power of two", BigInteger.ONE.shiftLeft(500),
+                Gcd.gcd(BigInteger.ONE.shiftLeft(700), BigInteger.ONE.shiftLeft(500).multiply(BigInteger.valueOf(3))));
+        assertEquals("Expected gcd(a, 0) to be a", huge, Gcd.gcd(huge, BigInteger.ZERO));
+
+    }
+
+    /**
+     * Tests the gcd of high precision integers on both sides of the long boundary
+     */
+    @Test
+    public void testApintGcd() {
+
+        assertEquals("Expected the gcd of small Apints", new Apint(8), Gcd.gcd(new Apint(32), new Apint(456)));
+        Apint a = new Apint("123456789012345678901234567890");
+        Apint b = new Apint("987654321098765432109876543210");
+        assertEquals("Expected the gcd of large Apints", new Apint("9000000000900000000090"), Gcd.gcd(a, b));
+
+    }
+
+}
@@ -0,0 +1,63 @@
+package core.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the primitive long to complex hash map
+ * @version 0.1
+ */
+public class LongComplexMapTest {
+
+    /**
+     * Tests that adding to a key accumulates its value, and that every entry
+     * survives the table growing
+     */
+    @Test
+    public void testAddAndGrow() {
+
+        LongComplexMap map = new LongComplexMap(2);
+        for (long key = 0; key < 1000; key++) {
+            map.add(key * 0x9E3779B97F4A7C15L, key, -key);
+        }
+        map.add(5 * 0x9E3779B97F4A7C15L, 0.5, 0.25);
+
+        assertEquals("Expected 1000 entries", 1000, map.size());
+        assertTrue("Expected the table to have grown", map.getSlotCount() >= 2000);
+        for (long key = 0; key < 1000; key++) {
+            int slot = map.find(key * 0x9E3779B97F4A7C15L);
+            assertTrue("Expected key " + key + " to be found", slot >= 0);
+            assertEquals("Expected its real part", key == 5 ? 5.5 : key, map.realAt(slot), 0);
+        }
+        assertEquals("Expected a missing key to have no slot", -1, map.find(7));
+
+    }
+
+    /**
+     * Tests visiting and changing the entries by slot
+     */
+    @Test
+    public void testSlots() {
+
+        LongComplexMap map = new LongComplexMap(8);
+        map.add(-3, 1, 2);
+        map.add(Long.MAX_VALUE, 3, 4);
+
+        int visited = 0;
+        for (int slot = 0; slot < map.getSlotCount(); slot++) {
+            if (map.isUsed(slot)) {
+                map.setAt(slot, map.imagAt(slot), map.realAt(slot));
+                visited++;
+            }
+        }
+        assertEquals("Expected two entries", 2, visited);
+        assertEquals("Expected the parts swapped", 2, map.realAt(map.find(-3)), 0);
+
+        map.clear();
+        assertEquals("Expected an empty map", 0, map.size());
+        assertEquals("Expected a cleared key to be gone", -1, map.find(-3));
+
+    }
+
+}
@@ -0,0 +1,148 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for Montgomery arithmetic modulo a long
+ * @version 0.2
+ */
+public class LongMontgomeryTest {
+
+    /**
+     * Tests the unsigned high product against BigInteger
+     */
+    @Test
+    public void testMultiplyHighUnsigned() {
+
+        Random random = new Random(1);
+        BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        for (int i = 0; i < 1000; i++) {
+            long a = random.nextLong();
+            long b = random.nextLong();
+            BigInteger product = new BigInteger(Long.toUnsignedString(a)).multiply(new BigInteger(Long.toUnsignedString(b)));
+            assertEquals("Expected the high half of the product", product.shiftRight(64).and(mask).longValue(),
+                    LongMontgomery.multiplyHighUnsigned(a, b));
+        }
+
+    }
+
+    /**
+     * Tests multiplication and exponentiation against BigInteger, for
+     * small moduli and moduli just below 2^63
+     */
+    @Test
+    public void testAgainstBigInteger() {
+
+        Random random = new Random(2);
+        long[] moduli = {3, 15, 1000003, 999999999989L, Long.MAX_VALUE, Long.MAX_VALUE - 2};
+        for (long modulus : moduli) {
+
+            LongMontgomery field = new LongMontgomery(modulus);
+            BigInteger m = BigInteger.valueOf(modulus);
+
+            for (int i = 0; i < 200; i++) {
+                long a = Math.floorMod(random.nextLong(), modulus);
+                long b = Math.floorMod(random.nextLong(), modulus);
+                long e = random.nextLong() >>> 1;
+
+                assertEquals("Expected a round trip", a, field.fromMontgomery(field.toMontgomery(a)));
+                assertEquals("Expected a * b mod m", BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).mod(m).longValue(),
+                        field.multiplyMod(a, b));
+                assertEquals("Expected a ^ e mod m", BigInteger.valueOf(a).modPow(BigInteger.valueOf(e), m).longValue(),
+                        field.pow(a, e));
+                assertEquals("Expected a + b mod m", BigInteger.valueOf(a).add(BigInteger.valueOf(b)).mod(m).longValue(),
+                        field.add(a, b));
+                assertEquals("Expected a - b mod m", BigInteger.valueOf(a).subtract(BigInteger.valueOf(b)).mod(m).longValue(),
+                        field.subtract(a, b));
+            }
+
+        }
+
+    }
+
+    /**
+     * Tests the sliding window powers, for exponents of every length and
+     * for the largest unsigned exponents, against BigInteger
+     */
+    @Test
+    public void testPowWindows() {
+
+        long modulus = 999999999989L;
+        LongMontgomery field = new LongMontgomery(modulus);
+        BigInteger m = BigInteger.valueOf(modulus);
+        Random random = new Random(4);
+        for (int bits = 0; bits <= 64; bits++) {
+            long e = bits == 0 ? 0 : (random.nextLong() >>> (64 - bits)) | (1L << (bits - 1));
+            BigInteger exponent = new BigInteger(Long.toUnsignedString(e));
+            assertEquals("Expected 3 ^ " + Long.toUnsignedString(e) + " mod m",
+                    BigInteger.valueOf(3).modPow(exponent, m).longValue(), field.pow(3, e));
+        }
+
+    }
+
+    /**
+     * Tests the table of powers of a fixed base against pow
+     */
+    @Test
+    public void testFixedBase() {
+
+        Random random = new Random(5);
+        for (long modulus : new long[] {15, 1000003, Long.MAX_VALUE}) {
+            LongMontgomery field = new LongMontgomery(modulus);
+            LongMontgomery.FixedBase powers = field.fixedBase(7);
+            assertEquals("Expected 7 ^ 0", 1 % modulus, powers.pow(0));
+            assertEquals("Expected 7 ^ (2^64 - 1)", field.pow(7, -1L), powers.pow(-1L));
+            for (int i = 0; i < 100; i++) {
+                long e = random.nextLong();
+                assertEquals("Expected 7 ^ e mod m", field.pow(7, e), powers.pow(e));
+            }
+        }
+
+    }
+
+    /**
+     * Tests single and batch inverses, and that a value sharing a factor
+     * with the modulus has none
+     */
+    @Test
+    public void testInverses() {
+
+        long modulus = 1000003L * 999983L;
+        LongMontgomery field = new LongMontgomery(modulus);
+        Random random = new Random(6);
+        long[] values = new long[50];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = field.toMontgomery(1 + Math.floorMod(random.nextLong(), 999982L));
+        }
+
+        long[] inverses = new long[values.length];
+        assertTrue("Expected every value to be invertible", field.batchInverse(values, values.length, inverses));
+        for (int i = 0; i < values.length; i++) {
+            assertEquals("Expected the inverse of value " + i, field.one(), field.multiply(values[i], inverses[i]));
+            assertEquals("Expected the single inverse to agree", field.inverse(values[i]), inverses[i]);
+        }
+
+        values[17] = field.toMontgomery(999983L * 5);
+        assertEquals("Expected no inverse of a multiple of a factor", 0, field.inverse(values[17]));
+        assertFalse("Expected the batch to fail", field.batchInverse(values, values.length, inverses));
+        assertTrue("Expected a batch of the values before it to succeed", field.batchInverse(values, 17, inverses));
+
+    }
+
+    /**
+     * Tests that even moduli are rejected
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testEvenModulus() {
+
+        new LongMontgomery(10);
+
+    }
+
+}
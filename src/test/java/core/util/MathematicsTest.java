@@ -208,6 +208,35 @@ public class MathematicsTest {
 
     }
 
+    /**
+     * Finds the period r of x^r mod N for a long N beyond the range of an int
+     */
+    @Test
+    public void testFindPeriodClassicallyLong() {
+
+        long N = 1000003L * 999983L;
+        long period = Mathematics.findPeriodClassically(2L, N);
+
+        assertEquals("Expected 2^r = 1 mod N", 1, OrderFinding.powMod(2, period, N));
+        assertEquals("Expected the same period from the Apint path", new Apint(period),
+                Mathematics.findPeriodClassically(new Apint(2), new Apint(N)));
+
+    }
+
+    /**
+     * Finds the period r of x^r mod N for an N beyond 63 bits, which uses the Apint path
+     */
+    @Test
+    public void testFindPeriodClassicallyBeyondLong() {
+
+        // 2^64 + 1 = 274177 * 67280421310721, and 2^128 = 1 mod 2^64 + 1
+        Apint N = new Apint("18446744073709551617");
+        Apint period = Mathematics.findPeriodClassically(new Apint(2), N);
+
+        assertEquals("Expected period of 128", new Apint(128), period);
+
+    }
+
     /**
      * Finds the period r of x^r mod N for when N is zero (should throw an exception)
      */
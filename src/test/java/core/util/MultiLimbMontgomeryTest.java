@@ -0,0 +1,129 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for Montgomery arithmetic modulo numbers of many limbs
+ * @version 0.1
+ */
+public class MultiLimbMontgomeryTest {
+
+    /**
+     * Tests every operation against BigInteger, for moduli of one limb, of
+     * whole limbs with the top bit set, and of several limbs
+     */
+    @Test
+    public void testAgainstBigInteger() {
+
+        Random random = new Random(1);
+        BigInteger[] moduli = {
+                BigInteger.valueOf(1000003),
+                BigInteger.ONE.shiftLeft(64).subtract(BigInteger.valueOf(59)),
+                BigInteger.ONE.shiftLeft(127).subtract(BigInteger.ONE),
+                new BigInteger(300, random).setBit(299).setBit(0),
+                new BigInteger(1024, random).setBit(1023).setBit(0)
+        };
+        for (BigInteger m : moduli) {
+
+            MultiLimbMontgomery field = new MultiLimbMontgomery(m);
+            int[] x = field.newNumber();
+            int[] y = field.newNumber();
+            int[] result = field.newNumber();
+            for (int i = 0; i < 50; i++) {
+
+                BigInteger a = new BigInteger(m.bitLength() + 8, random).mod(m);
+                BigInteger b = i == 0 ? m.subtract(BigInteger.ONE) : new BigInteger(m.bitLength(), random).mod(m);
+                field.toMontgomery(a, x);
+                field.toMontgomery(b, y);
+
+                assertEquals("Expected a round trip", a, field.fromMontgomery(x));
+                field.multiply(x, y, result);
+                assertEquals("Expected a * b mod m", a.multiply(b).mod(m), field.fromMontgomery(result));
+                field.square(x, result);
+                assertEquals("Expected a^2 mod m", a.multiply(a).mod(m), field.fromMontgomery(result));
+                field.add(x, y, result);
+                assertEquals("Expected a + b mod m", a.add(b).mod(m), field.fromMontgomery(result));
+                field.subtract(x, y, result);
+                assertEquals("Expected a - b mod m", a.subtract(b).mod(m), field.fromMontgomery(result));
+                field.halve(x, result);
+                assertEquals("Expected a / 2 mod m", a.multiply(BigInteger.valueOf(2).modInverse(m)).mod(m),
+                        field.fromMontgomery(result));
+
+                BigInteger e = new BigInteger(1 + random.nextInt(m.bitLength()), random);
+                assertEquals("Expected a ^ e mod m", a.modPow(e, m), field.pow(a, e));
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Tests that the operations can write over their operands
+     */
+    @Test
+    public void testInPlace() {
+
+        BigInteger m = BigInteger.ONE.shiftLeft(127).subtract(BigInteger.ONE);
+        MultiLimbMontgomery field = new MultiLimbMontgomery(m);
+        BigInteger a = new BigInteger("123456789012345678901234567890");
+        int[] x = field.toMontgomery(a);
+
+        field.multiply(x, x, x);
+        field.add(x, x, x);
+        field.subtract(x, field.toMontgomery(BigInteger.ONE), x);
+        field.pow(x, BigInteger.valueOf(65537), x);
+        BigInteger expected = a.multiply(a).shiftLeft(1).subtract(BigInteger.ONE).modPow(BigInteger.valueOf(65537), m);
+        assertEquals("Expected (2 a^2 - 1)^65537 mod m", expected, field.fromMontgomery(x));
+
+        field.pow(x, BigInteger.ZERO, x);
+        assertEquals("Expected x^0 = 1", BigInteger.ONE, field.fromMontgomery(x));
+
+    }
+
+    /**
+     * Tests batch inversion, and that a value sharing a factor with the
+     * modulus makes it fail with that factor in the product
+     */
+    @Test
+    public void testBatchInverse() {
+
+        BigInteger p = BigInteger.ONE.shiftLeft(89).subtract(BigInteger.ONE);
+        BigInteger m = p.multiply(BigInteger.ONE.shiftLeft(61).subtract(BigInteger.ONE));
+        MultiLimbMontgomery field = new MultiLimbMontgomery(m);
+        Random random = new Random(2);
+
+        int[][] values = new int[20][];
+        int[][] inverses = new int[20][];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = field.toMontgomery(new BigInteger(80, random).add(BigInteger.ONE));
+            inverses[i] = field.newNumber();
+        }
+        assertTrue("Expected every value to be invertible", field.batchInverse(values, values.length, inverses));
+        int[] product = field.newNumber();
+        for (int i = 0; i < values.length; i++) {
+            field.multiply(values[i], inverses[i], product);
+            assertEquals("Expected the inverse of value " + i, BigInteger.ONE, field.fromMontgomery(product));
+        }
+
+        values[11] = field.toMontgomery(p.multiply(BigInteger.valueOf(3)));
+        assertFalse("Expected the batch to fail", field.batchInverse(values, values.length, inverses));
+        assertEquals("Expected the factor from the product", p, field.gcd(inverses[values.length - 1]));
+
+    }
+
+    /**
+     * Tests that even moduli are rejected
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testEvenModulus() {
+        new MultiLimbMontgomery(BigInteger.ONE.shiftLeft(100));
+    }
+
+}
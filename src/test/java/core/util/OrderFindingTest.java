@@ -0,0 +1,184 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for classical order finding on longs
+ * @version 0.1
+ */
+public class OrderFindingTest {
+
+    /**
+     * Simple test for coverage on the class name
+     */
+    @Test
+    public void constructTest() {
+        new OrderFinding();
+    }
+
+    /**
+     * Tests every strategy against a brute force search, for odd and even moduli
+     */
+    @Test
+    public void testStrategiesAgree() {
+
+        Random random = new Random(4);
+        for (int i = 0; i < 300; i++) {
+
+            long N = 2 + random.nextInt(5000);
+            long X = 1 + random.nextInt((int) N - 1);
+            if (Mathematics.greatestCommonDenominator(X, N) != 1) {
+                continue;
+            }
+
+            long expected = bruteForceOrder(X, N);
+            assertEquals("Expected incremental order of " + X + " mod " + N, expected,
+                    OrderFinding.findOrderIncremental(X, N));
+            assertEquals("Expected baby-step giant-step order of " + X + " mod " + N, expected,
+                    OrderFinding.findOrderBabyStepGiantStep(X, N));
+            assertEquals("Expected order from lambda multiple of " + X + " mod " + N, expected,
+                    OrderFinding.findOrderFromMultiple(X, N, expected * (1 + random.nextInt(12))));
+
+        }
+
+    }
+
+    /**
+     * Tests a modulus far too large for a linear scan
+     */
+    @Test
+    public void testLargeModulus() {
+
+        long p = 1000003;
+        long q = 999983;
+        long N = p * q * 4;
+
+        long order = OrderFinding.findOrderBabyStepGiantStep(3, N);
+        assertEquals("Expected X^r = 1 mod N", 1, OrderFinding.powMod(3, order, N));
+
+        // The order divides lambda(N) = lcm(2, p - 1, q - 1)
+        long lambda = (p - 1) / Mathematics.greatestCommonDenominator(p - 1, q - 1) * (q - 1);
+        assertEquals("Expected r to divide lambda(N)", 0, lambda % order);
+        assertEquals("Expected the same order from lambda(N)", order, OrderFinding.findOrderFromMultiple(3, N, lambda));
+
+    }
+
+    /**
+     * Tests modular exponentiation for odd, even and power of two moduli
+     */
+    @Test
+    public void testPowMod() {
+
+        Random random = new Random(8);
+        long[] moduli = {1, 2, 64, 96, 1000003L * 8, Long.MAX_VALUE, (1L << 62) + 6};
+        for (long N : moduli) {
+            for (int i = 0; i < 50; i++) {
+                long base = random.nextLong();
+                long exponent = random.nextInt(Integer.MAX_VALUE);
+                assertEquals("Expected base^e mod " + N,
+                        BigInteger.valueOf(base).modPow(BigInteger.valueOf(exponent), BigInteger.valueOf(N)).longValue(),
+                        OrderFinding.powMod(base, exponent, N));
+            }
+        }
+
+    }
+
+    /**
+     * Tests that an order past the bound of baby-step giant-step is reported
+     * quickly rather than searched for, here modulo a product of two 30 bit
+     * safe primes, where the order of 3 is about 2^58
+     */
+    @Test(timeout = 20000, expected = InvalidParameterException.class)
+    public void testOrderTooLarge() {
+
+        OrderFinding.findOrder(3, 1073740439L * 1073740127L);
+
+    }
+
+    /**
+     * Tests that an interrupted thread stops baby-step giant-step
+     */
+    @Test(timeout = 20000, expected = CancellationException.class)
+    public void testInterrupted() {
+
+        Thread.currentThread().interrupt();
+        try {
+            OrderFinding.findOrder(3, 1073740439L * 1073740127L);
+        } finally {
+            Thread.interrupted();
+        }
+
+    }
+
+    /**
+     * Tests that a wrong multiple of the order is rejected
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testInvalidMultiple() {
+
+        OrderFinding.findOrderFromMultiple(3, 7, 5);
+
+    }
+
+    /**
+     * Tests that X and N must be coprime
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testNotCoprime() {
+
+        OrderFinding.findOrder(6, 9);
+
+    }
+
+    /**
+     * Tests moduli beyond a long, odd and with a power of two, against the
+     * order found for their factors
+     */
+    @Test
+    public void testBigIntegerModulus() {
+
+        // 2^64 + 1 = 274177 * 67280421310721, and 2 has order 128 modulo it
+        BigInteger N = BigInteger.ONE.shiftLeft(64).add(BigInteger.ONE);
+        assertEquals("Expected order of 128", BigInteger.valueOf(128),
+                OrderFinding.findOrder(BigInteger.valueOf(2), N));
+
+        // N + 2 is 2 modulo N and 3 modulo 8, so its order modulo 2^65 * N is lcm(128, 2^63)
+        BigInteger even = N.shiftLeft(65);
+        BigInteger X = N.add(BigInteger.valueOf(2));
+        assertEquals("Expected order of 2^63", BigInteger.ONE.shiftLeft(63), OrderFinding.findOrder(X, even));
+
+        // Moduli that fit in a long agree with the long implementation
+        assertEquals("Expected the long order", BigInteger.valueOf(OrderFinding.findOrder(3, 1000003L * 8)),
+                OrderFinding.findOrder(BigInteger.valueOf(3), BigInteger.valueOf(1000003L * 8)));
+
+    }
+
+    /**
+     * Tests that X and N must be coprime for moduli beyond a long
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testBigIntegerNotCoprime() {
+
+        BigInteger N = BigInteger.ONE.shiftLeft(64).add(BigInteger.ONE);
+        OrderFinding.findOrder(BigInteger.valueOf(274177), N);
+
+    }
+
+    private static long bruteForceOrder(long X, long N) {
+        long y = X % N;
+        long r = 1;
+        while (y != 1 % N) {
+            y = y * X % N;
+            r++;
+        }
+        return r;
+    }
+
+}
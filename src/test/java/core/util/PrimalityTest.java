@@ -0,0 +1,160 @@
+package core.util;
+
+import org.apfloat.Apint;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the Miller-Rabin and Baillie-PSW primality tests
+ * @version 0.1
+ */
+public class PrimalityTest {
+
+    /**
+     * Simple test for coverage on the class name
+     */
+    @Test
+    public void constructTest() {
+        new Primality();
+    }
+
+    /**
+     * Tests every int below 100000 against a sieve of Eratosthenes
+     */
+    @Test
+    public void testIntAgainstSieve() {
+
+        int limit = 100000;
+        boolean[] composite = new boolean[limit];
+        for (int i = 2; i * i < limit; i++) {
+            if (!composite[i]) {
+                for (int j = i * i; j < limit; j += i) {
+                    composite[j] = true;
+                }
+            }
+        }
+
+        for (int n = -5; n < limit; n++) {
+            boolean expected = n >= 2 && !composite[n];
+            assertEquals("Expected primality of " + n, expected, Primality.isPrime(n));
+            assertEquals("Expected primality of " + n + " as a long", expected, Primality.isPrime((long) n));
+        }
+
+    }
+
+    /**
+     * Tests numbers which fool Miller-Rabin with weaker witness sets
+     */
+    @Test
+    public void testStrongPseudoprimes() {
+
+        // Carmichael numbers, and strong pseudoprimes to bases 2, 3, 5 and 7
+        int[] ints = {561, 1105, 2047, 1373653, 25326001, 2147483647};
+        boolean[] intPrimes = {false, false, false, false, false, true};
+        for (int i = 0; i < ints.length; i++) {
+            assertEquals("Expected primality of " + ints[i], intPrimes[i], Primality.isPrime(ints[i]));
+        }
+
+        // Strong pseudoprimes to the first 7 and 9 prime bases, and numbers near 2^63
+        long[] longs = {3215031751L, 3825123056546413051L, 341550071728321L,
+                Long.MAX_VALUE, 9223372036854775783L};
+        for (long n : longs) {
+            assertEquals("Expected primality of " + n, BigInteger.valueOf(n).isProbablePrime(50), Primality.isPrime(n));
+        }
+
+    }
+
+    /**
+     * Tests random longs against BigInteger's probabilistic test
+     */
+    @Test
+    public void testLongAgainstBigInteger() {
+
+        Random random = new Random(11);
+        for (int i = 0; i < 20000; i++) {
+            long n = random.nextLong() >>> (random.nextInt(40) + 1);
+            assertEquals("Expected primality of " + n, BigInteger.valueOf(n).isProbablePrime(50), Primality.isPrime(n));
+        }
+
+        // Products of two primes just below 2^31, and primes near 2^62
+        long p = 2147483629L;
+        long q = 2147483587L;
+        assertFalse("Expected composite semiprime", Primality.isPrime(p * q));
+        assertTrue("Expected prime 2^62 - 57", Primality.isPrime((1L << 62) - 57));
+
+    }
+
+    /**
+     * Tests Baillie-PSW on numbers beyond 64 bits
+     */
+    @Test
+    public void testBigInteger() {
+
+        BigInteger mersenne89 = BigInteger.ONE.shiftLeft(89).subtract(BigInteger.ONE);
+        BigInteger mersenne127 = BigInteger.ONE.shiftLeft(127).subtract(BigInteger.ONE);
+        assertTrue("Expected 2^89 - 1 to be prime", Primality.isProbablePrime(mersenne89));
+        assertTrue("Expected 2^127 - 1 to be prime", Primality.isProbablePrime(mersenne127));
+        assertFalse("Expected 2^128 + 1 to be composite",
+                Primality.isProbablePrime(BigInteger.ONE.shiftLeft(128).add(BigInteger.ONE)));
+        assertFalse("Expected a product of primes to be composite",
+                Primality.isProbablePrime(mersenne89.multiply(mersenne127)));
+        assertFalse("Expected a perfect square to be composite",
+                Primality.isProbablePrime(mersenne89.multiply(mersenne89)));
+
+        // A strong pseudoprime to every prime base below 41, which the Lucas test catches
+        assertFalse("Expected 3317044064679887385961981 to be composite",
+                Primality.isProbablePrime(new BigInteger("3317044064679887385961981")));
+
+        Random random = new Random(12);
+        for (int i = 0; i < 500; i++) {
+            BigInteger n = new BigInteger(64 + random.nextInt(100), random);
+            assertEquals("Expected primality of " + n, n.isProbablePrime(50), Primality.isProbablePrime(n));
+        }
+        for (int i = 0; i < 50; i++) {
+            BigInteger prime = BigInteger.probablePrime(80 + random.nextInt(100), random);
+            assertTrue("Expected " + prime + " to be prime", Primality.isProbablePrime(prime));
+        }
+
+    }
+
+    /**
+     * Tests the strong Lucas test alone, which must accept primes and reject
+     * strong pseudoprimes to base 2
+     */
+    @Test
+    public void testStrongLucas() {
+
+        int[] primes = {101, 1009, 65537, 2147483647};
+        for (int p : primes) {
+            assertTrue("Expected " + p + " to be a strong Lucas probable prime",
+                    Primality.isStrongLucasProbablePrime(BigInteger.valueOf(p)));
+        }
+
+        int[] basetwo = {2047, 3277, 4033, 4681, 8321};
+        for (int n : basetwo) {
+            assertTrue("Expected " + n + " to be a strong probable prime to base 2",
+                    Primality.isStrongProbablePrime(BigInteger.valueOf(n), BigInteger.valueOf(2)));
+            assertFalse("Expected " + n + " to fail the strong Lucas test",
+                    Primality.isStrongLucasProbablePrime(BigInteger.valueOf(n)));
+        }
+
+    }
+
+    /**
+     * Tests the Apint entry point on Mathematics
+     */
+    @Test
+    public void testApint() {
+
+        assertTrue("Expected 2^127 - 1 to be prime",
+                Mathematics.isPrime(new Apint(BigInteger.ONE.shiftLeft(127).subtract(BigInteger.ONE))));
+        assertFalse("Expected 10^30 to be composite", Mathematics.isPrime(new Apint("1000000000000000000000000000000")));
+        assertTrue("Expected 2 to be prime", Mathematics.isPrime(new Apint(2)));
+
+    }
+
+}
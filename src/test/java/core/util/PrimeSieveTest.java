@@ -0,0 +1,61 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the cached tables of small primes
+ * @version 0.1
+ */
+public class PrimeSieveTest {
+
+    /**
+     * Tests the table of primes against trial division, with bounds that
+     * are and are not prime
+     */
+    @Test
+    public void testPrimesUpTo() {
+
+        assertArrayEquals("Expected the primes up to 2", new int[] {2}, PrimeSieve.primesUpTo(2));
+        assertArrayEquals("Expected the primes up to 30", new int[] {2, 3, 5, 7, 11, 13, 17, 19, 23, 29},
+                PrimeSieve.primesUpTo(30));
+        assertArrayEquals("Expected the primes up to 31", new int[] {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31},
+                PrimeSieve.primesUpTo(31));
+
+        int[] primes = PrimeSieve.primesUpTo(100000);
+        assertEquals("Expected the number of primes below 100000", 9592, primes.length);
+        int index = 0;
+        for (int n = 2; n <= 100000; n++) {
+            if (Primality.isPrime(n)) {
+                assertEquals("Expected " + n + " in the table", n, primes[index++]);
+            }
+        }
+
+    }
+
+    /**
+     * Tests that a smaller table is cut from the cached one, as a copy
+     */
+    @Test
+    public void testSmallerTableAfterLarger() {
+
+        PrimeSieve.primesUpTo(1000);
+        int[] primes = PrimeSieve.primesUpTo(20);
+        assertArrayEquals("Expected the primes up to 20", new int[] {2, 3, 5, 7, 11, 13, 17, 19}, primes);
+
+        primes[0] = 4;
+        assertEquals("Expected the cached table to be unchanged", 2, PrimeSieve.primesUpTo(20)[0]);
+
+    }
+
+    /**
+     * Tests that a bound below 2 is rejected
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testInvalidBound() {
+        PrimeSieve.primesUpTo(1);
+    }
+
+}
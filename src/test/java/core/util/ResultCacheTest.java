@@ -0,0 +1,300 @@
+package core.util;
+
+import core.expection.InvalidParameterException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the bounded, coalescing result cache
+ * @version 0.1
+ */
+public class ResultCacheTest {
+
+    /**
+     * Tests that a value is computed once and then served from the cache,
+     * and that the counters record it
+     */
+    @Test
+    public void testHitsAndMisses() {
+
+        ResultCache<Integer, Integer> cache = new ResultCache<Integer, Integer>(10, 0, TimeUnit.SECONDS);
+        AtomicInteger computations = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            assertEquals("Expected the square", 49, (int) cache.get(7, k -> {
+                computations.incrementAndGet();
+                return k * k;
+            }));
+        }
+
+        assertEquals("Expected one computation", 1, computations.get());
+        ResultCache.Stats stats = cache.getStats();
+        assertEquals("Expected one miss", 1, stats.getMissCount());
+        assertEquals("Expected four hits", 4, stats.getHitCount());
+        assertEquals("Expected a hit rate of 80%", 0.8, stats.getHitRate(), 1e-12);
+        assertEquals("Expected the cached value", 49, (int) cache.getIfPresent(7));
+        assertNull("Expected no value for an unknown key", cache.getIfPresent(8));
+
+    }
+
+    /**
+     * Tests that the least recently used entry is evicted once the cache is full
+     */
+    @Test
+    public void testSizeEviction() {
+
+        ResultCache<Integer, Integer> cache = new ResultCache<Integer, Integer>(2, 0, TimeUnit.SECONDS);
+        cache.get(1, k -> k);
+        cache.get(2, k -> k);
+        cache.get(1, k -> k);
+        cache.get(3, k -> k);
+
+        assertEquals("Expected two entries", 2, cache.size());
+        assertNotNull("Expected the recently used entry to stay", cache.getIfPresent(1));
+        assertNull("Expected the least recently used entry to go", cache.getIfPresent(2));
+        assertEquals("Expected one eviction", 1, cache.getStats().getEvictionCount());
+
+    }
+
+    /**
+     * Tests that entries expire after the time to live
+     */
+    @Test
+    public void testExpiry() {
+
+        AtomicLong now = new AtomicLong();
+        ResultCache<String, Integer> cache = new ResultCache<String, Integer>(10, 5, TimeUnit.SECONDS, now::get);
+        AtomicInteger computations = new AtomicInteger();
+
+        cache.get("a", k -> computations.incrementAndGet());
+        now.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        assertEquals("Expected the entry to be fresh", 1, (int) cache.get("a", k -> computations.incrementAndGet()));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertNull("Expected the entry to have expired", cache.getIfPresent("a"));
+        assertEquals("Expected a recomputation", 2, (int) cache.get("a", k -> computations.incrementAndGet()));
+        assertEquals("Expected one expiry", 1, cache.getStats().getEvictionCount());
+
+    }
+
+    /**
+     * Tests that concurrent requests for the same key share one computation
+     */
+    @Test
+    public void testCoalescing() throws Exception {
+
+        ResultCache<Integer, Integer> cache = new ResultCache<Integer, Integer>(10, 0, TimeUnit.SECONDS);
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+            results.add(executor.submit(() -> cache.get(5, k -> {
+                computations.incrementAndGet();
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return k + 1;
+            })));
+            started.await();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> cache.get(5, k -> computations.incrementAndGet())));
+            }
+
+            // Wait until the three requests are waiting on the computation in flight
+            while (cache.getStats().getCoalescedCount() < 3) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals("Expected the shared value", 6, (int) result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals("Expected one computation", 1, computations.get());
+        assertEquals("Expected three coalesced requests", 3, cache.getStats().getCoalescedCount());
+
+    }
+
+    /**
+     * Tests that a failed computation is rethrown and not cached
+     */
+    @Test
+    public void testFailureIsNotCached() {
+
+        ResultCache<Integer, Integer> cache = new ResultCache<Integer, Integer>(10, 0, TimeUnit.SECONDS);
+        try {
+            cache.get(1, k -> {
+                throw new InvalidParameterException("No value for " + k);
+            });
+            fail("Expected the exception of the computation");
+        } catch (InvalidParameterException expected) {
+            // Expected
+        }
+
+        assertEquals("Expected no entry for the failure", 0, cache.size());
+        assertEquals("Expected a later request to compute again", 2, (int) cache.get(1, k -> 2));
+
+    }
+
+    /**
+     * Tests that a request waiting on a cancelled computation computes the
+     * value itself, rather than seeing the cancellation of another thread
+     */
+    @Test
+    public void testCancelledComputationIsRecomputed() throws Exception {
+
+        ResultCache<Integer, Integer> cache = new ResultCache<Integer, Integer>(10, 0, TimeUnit.SECONDS);
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> owner = executor.submit(() -> cache.get(3, k -> {
+                computations.incrementAndGet();
+                started.countDown();
+                await(release);
+                throw new CancellationException("Cancelled owner");
+            }));
+            started.await();
+            Future<Integer> waiter = executor.submit(() -> cache.get(3, k -> {
+                computations.incrementAndGet();
+                return k * 2;
+            }));
+            awaitCoalesced(cache, 1);
+            release.countDown();
+
+            try {
+                owner.get();
+                fail("Expected the owner to see its own cancellation");
+            } catch (ExecutionException e) {
+                assertTrue("Expected a cancellation", e.getCause() instanceof CancellationException);
+            }
+            assertEquals("Expected the waiter to compute the value", 6, (int) waiter.get(10, TimeUnit.SECONDS));
+            assertEquals("Expected two computations", 2, computations.get());
+            assertEquals("Expected the recomputed value to be cached", 6, (int) cache.getIfPresent(3));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+
+    }
+
+    /**
+     * Tests that a request waiting on a computation can be interrupted
+     */
+    @Test
+    public void testWaitIsInterruptible() throws Exception {
+
+        ResultCache<Integer, Integer> cache = new ResultCache<Integer, Integer>(10, 0, TimeUnit.SECONDS);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            executor.submit(() -> cache.get(4, k -> {
+                started.countDown();
+                await(release);
+                return k;
+            }));
+            started.await();
+            Future<?> waiter = executor.submit(() -> {
+                try {
+                    cache.get(4, k -> k);
+                } catch (CancellationException e) {
+                    cancelled.countDown();
+                }
+            });
+            awaitCoalesced(cache, 1);
+            waiter.cancel(true);
+
+            assertTrue("Expected the wait to stop", cancelled.await(10, TimeUnit.SECONDS));
+            release.countDown();
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+
+    }
+
+    /**
+     * Tests that a computation in flight is not evicted for space, so that
+     * a later request for its key waits on it rather than starting again
+     */
+    @Test
+    public void testInFlightIsNotEvicted() throws Exception {
+
+        ResultCache<Integer, Integer> cache = new ResultCache<Integer, Integer>(1, 0, TimeUnit.SECONDS);
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = executor.submit(() -> cache.get(1, k -> {
+                computations.incrementAndGet();
+                started.countDown();
+                await(release);
+                return k;
+            }));
+            started.await();
+
+            assertEquals("Expected the other key", 2, (int) cache.get(2, k -> k));
+            Future<Integer> second = executor.submit(() -> cache.get(1, k -> {
+                computations.incrementAndGet();
+                return k;
+            }));
+            awaitCoalesced(cache, 1);
+            release.countDown();
+
+            assertEquals("Expected the value", 1, (int) first.get(10, TimeUnit.SECONDS));
+            assertEquals("Expected the same value", 1, (int) second.get(10, TimeUnit.SECONDS));
+            assertEquals("Expected one computation of the key in flight", 1, computations.get());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+
+    }
+
+    /**
+     * Tests that a non-positive size is rejected
+     */
+    @Test(expected = InvalidParameterException.class)
+    public void testInvalidSize() {
+        new ResultCache<Integer, Integer>(0, 0, TimeUnit.SECONDS);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitCoalesced(ResultCache<?, ?> cache, long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (cache.getStats().getCoalescedCount() < count) {
+            assertTrue("Expected a request to wait on the computation", System.currentTimeMillis() < deadline);
+            Thread.sleep(1);
+        }
+    }
+
+}
@@ -0,0 +1,211 @@
+package io.qstudio.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigInteger;
+
+import static org.junit.Assert.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Test suite for the REST API of simulations, factorizations and jobs
+ * @version 0.1
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "qstudio.scheduler.heap-budget-mb=64")
+@AutoConfigureMockMvc
+public class ApiControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Tests that a factorization runs as a job whose result is the prime factors
+     */
+    @Test
+    public void testFactorization() throws Exception {
+
+        JsonNode job = submit("/api/factorizations", "{\"n\": \"" + 211L * 223 * 227 + "\"}");
+        assertEquals("Expected a factorization job", "factorization", job.get("type").asText());
+
+        JsonNode finished = awaitFinished(job.get("id").asText());
+        assertEquals("Expected the job to succeed", "SUCCEEDED", finished.get("status").asText());
+        assertEquals("Expected three factors", 3, finished.get("result").size());
+
+    }
+
+    /**
+     * Tests that invalid numbers are rejected before a job is started
+     */
+    @Test
+    public void testInvalidFactorization() throws Exception {
+
+        mvc.perform(post("/api/factorizations").contentType(MediaType.APPLICATION_JSON).content("{\"n\": \"-5\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+        mvc.perform(post("/api/factorizations").contentType(MediaType.APPLICATION_JSON).content("{\"n\": \"abc\"}"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/api/factorizations").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"n\": \"15\", \"method\": \"guessing\"}"))
+                .andExpect(status().isBadRequest());
+
+    }
+
+    /**
+     * Tests that factorizations too large to run are rejected before a job
+     * is started, and that classical ones are admitted by their size
+     */
+    @Test
+    public void testFactorizationLimits() throws Exception {
+
+        // 2049^2 needs 23 counting qubits, one more than can be simulated
+        mvc.perform(post("/api/factorizations").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"n\": \"2049\", \"method\": \"quantum\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+        mvc.perform(post("/api/factorizations").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"n\": \"" + BigInteger.ONE.shiftLeft(FactorizationController.MAX_CLASSICAL_BITS) + "\"}"))
+                .andExpect(status().isBadRequest());
+
+        // A 60 bit semiprime needs the full baby-step table, over the heap budget of 64 MB
+        mvc.perform(post("/api/factorizations").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"n\": \"" + 1073740439L * 1073740127L + "\"}"))
+                .andExpect(status().isPayloadTooLarge());
+
+    }
+
+    /**
+     * Tests that a Bell circuit is simulated with its probabilities and shots
+     */
+    @Test
+    public void testSimulation() throws Exception {
+
+        JsonNode job = submit("/api/simulations", "{\"qubits\": 2, \"shots\": 1000, \"seed\": 7, \"gates\": [" +
+                "{\"gate\": \"h\", \"qubits\": [0]}, {\"gate\": \"cnot\", \"qubits\": [0, 1]}]}");
+
+        JsonNode result = awaitFinished(job.get("id").asText()).get("result");
+        assertEquals("Expected half of |00>", 0.5, result.get("probabilities").get(0).asDouble(), 1e-12);
+        assertEquals("Expected half of |11>", 0.5, result.get("probabilities").get(3).asDouble(), 1e-12);
+        assertEquals("Expected only two outcomes", 2, result.get("counts").size());
+        assertEquals("Expected every shot", 1000,
+                result.get("counts").get("00").asLong() + result.get("counts").get("11").asLong());
+
+    }
+
+    /**
+     * Tests that invalid circuits are rejected before a job is started
+     */
+    @Test
+    public void testInvalidSimulation() throws Exception {
+
+        mvc.perform(post("/api/simulations").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"qubits\": 1, \"gates\": [{\"gate\": \"cnot\", \"qubits\": [0, 1]}]}"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/api/simulations").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"qubits\": 2, \"gates\": [{\"gate\": \"toffoli\", \"qubits\": [0]}]}"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/api/simulations").contentType(MediaType.APPLICATION_JSON).content("{\"qubits\": 40}"))
+                .andExpect(status().isBadRequest());
+
+    }
+
+    /**
+     * Tests that a circuit whose state vector is over the heap budget is
+     * rejected, and that the queue reports it
+     */
+    @Test
+    public void testAdmission() throws Exception {
+
+        // The scheduler is shared by every test of the context, which may have rejected jobs already
+        long rejected = mapper.readTree(mvc.perform(get("/api/jobs"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("rejected").asLong();
+
+        mvc.perform(post("/api/simulations").contentType(MediaType.APPLICATION_JSON).content("{\"qubits\": 22}"))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.error").exists());
+        mvc.perform(post("/api/simulations?priority=HIGH").header("X-Tenant", "lab")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"qubits\": 20}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.tenant").value("lab"))
+                .andExpect(jsonPath("$.priority").value("HIGH"))
+                .andExpect(jsonPath("$.estimate.heapBytes").value(ResourceEstimate.BASE_BYTES + (16L << 20)));
+        mvc.perform(get("/api/jobs"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.heapBudget").value(64L << 20))
+                .andExpect(jsonPath("$.rejected").value(rejected + 1));
+
+    }
+
+    /**
+     * Tests the convergents of a measurement of period finding
+     */
+    @Test
+    public void testContinuedFraction() throws Exception {
+
+        mvc.perform(get("/api/continued-fractions").param("numerator", "192").param("denominator", "256"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[2].numerator").value(3))
+                .andExpect(jsonPath("$[2].denominator").value(4));
+        mvc.perform(get("/api/continued-fractions").param("numerator", "1").param("denominator", "0"))
+                .andExpect(status().isBadRequest());
+
+    }
+
+    /**
+     * Tests that unknown jobs are not found, and that finished jobs cannot be cancelled
+     */
+    @Test
+    public void testJobs() throws Exception {
+
+        mvc.perform(get("/api/jobs/missing")).andExpect(status().isNotFound());
+
+        String id = submit("/api/factorizations", "{\"n\": \"21\"}").get("id").asText();
+        awaitFinished(id);
+        mvc.perform(delete("/api/jobs/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SUCCEEDED"));
+
+    }
+
+    private JsonNode submit(String path, String body) throws Exception {
+        String response = mvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(response);
+    }
+
+    private JsonNode awaitFinished(String id) throws Exception {
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (true) {
+            JsonNode job = mapper.readTree(mvc.perform(get("/api/jobs/" + id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            String status = job.get("status").asText();
+            if (!status.equals("QUEUED") && !status.equals("RUNNING")) {
+                return job;
+            }
+            assertTrue("Expected job " + id + " to finish", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+
+    }
+
+}
@@ -0,0 +1,243 @@
+package io.qstudio.api;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the admission control and ordering of the job scheduler
+ * @version 0.1
+ */
+public class JobSchedulerTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<JobScheduler> schedulers = new ArrayList<JobScheduler>();
+    private int ids;
+
+    /**
+     * Releases the blocked jobs and stops the workers of every scheduler
+     */
+    @After
+    public void shutdown() {
+        release.countDown();
+        for (JobScheduler scheduler : schedulers) {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * Tests that waiting jobs start by priority, then in order of submission
+     */
+    @Test
+    public void testPriorityOrder() throws Exception {
+
+        JobScheduler scheduler = scheduler(1, 1000, 10, 0);
+        scheduler.submit(job("a", Job.Priority.NORMAL, 1), blocked());
+
+        List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        List<Job> waiting = new ArrayList<Job>();
+        for (Job.Priority priority : new Job.Priority[] {Job.Priority.LOW, Job.Priority.NORMAL, Job.Priority.HIGH,
+                Job.Priority.NORMAL}) {
+            Job job = job("a", priority, 1);
+            waiting.add(job);
+            scheduler.submit(job, progress -> order.add(job.getPriority() + " " + job.getId()));
+        }
+        assertEquals("Expected four jobs waiting", 4, scheduler.getStats().getQueued());
+        assertEquals("Expected two normal jobs waiting", 2,
+                (int) scheduler.getStats().getQueuedByPriority().get(Job.Priority.NORMAL));
+
+        release.countDown();
+        for (Job job : waiting) {
+            awaitStatus(job, Job.Status.SUCCEEDED);
+        }
+        assertEquals("Expected the jobs by priority, then in order",
+                Arrays.asList("HIGH " + waiting.get(2).getId(), "NORMAL " + waiting.get(1).getId(),
+                        "NORMAL " + waiting.get(3).getId(), "LOW " + waiting.get(0).getId()), order);
+
+    }
+
+    /**
+     * Tests that a tenant cannot run more than its limit of jobs at once,
+     * while other tenants can
+     */
+    @Test
+    public void testTenantRunningLimit() throws Exception {
+
+        JobScheduler scheduler = scheduler(3, 1000, 1, 0);
+        Job first = job("a", Job.Priority.NORMAL, 1);
+        Job second = job("a", Job.Priority.NORMAL, 1);
+        Job other = job("b", Job.Priority.NORMAL, 1);
+        scheduler.submit(first, blocked());
+        scheduler.submit(second, blocked());
+        scheduler.submit(other, blocked());
+
+        awaitStatus(first, Job.Status.RUNNING);
+        awaitStatus(other, Job.Status.RUNNING);
+        assertEquals("Expected the second job of the tenant to wait", Job.Status.QUEUED, second.getStatus());
+        assertEquals("Expected two jobs running", 2, scheduler.getStats().getRunning());
+
+        release.countDown();
+        awaitStatus(second, Job.Status.SUCCEEDED);
+
+    }
+
+    /**
+     * Tests that a job which does not fit in the memory left is deferred,
+     * and a smaller job behind it starts first
+     */
+    @Test
+    public void testMemoryDeferral() throws Exception {
+
+        JobScheduler scheduler = scheduler(3, 100, 10, 0);
+        Job running = job("a", Job.Priority.NORMAL, 60);
+        Job large = job("b", Job.Priority.NORMAL, 60);
+        Job small = job("c", Job.Priority.NORMAL, 30);
+        scheduler.submit(running, blocked());
+        scheduler.submit(large, blocked());
+        scheduler.submit(small, blocked());
+
+        awaitStatus(small, Job.Status.RUNNING);
+        JobScheduler.Stats stats = scheduler.getStats();
+        assertEquals("Expected the large job to wait", Job.Status.QUEUED, large.getStatus());
+        assertEquals("Expected one deferred job", 1, stats.getDeferred());
+        assertEquals("Expected the memory of the running jobs", 90, stats.getHeapInUse());
+
+        release.countDown();
+        awaitStatus(large, Job.Status.SUCCEEDED);
+        awaitStatus(running, Job.Status.SUCCEEDED);
+        assertEquals("Expected the memory to be released", 0, scheduler.getStats().getHeapInUse());
+
+    }
+
+    /**
+     * Tests that once the head of the queue has waited past the starvation
+     * timeout, smaller jobs no longer start ahead of it
+     */
+    @Test
+    public void testStarvation() throws Exception {
+
+        JobScheduler scheduler = scheduler(3, 100, 10, 1);
+        Job running = job("a", Job.Priority.NORMAL, 60);
+        Job large = job("b", Job.Priority.NORMAL, 60);
+        scheduler.submit(running, blocked());
+        scheduler.submit(large, progress -> 1);
+        awaitStatus(running, Job.Status.RUNNING);
+        Thread.sleep(5);
+
+        Job small = job("c", Job.Priority.NORMAL, 30);
+        scheduler.submit(small, progress -> 1);
+        assertEquals("Expected the small job to be held back", Job.Status.QUEUED, small.getStatus());
+
+        release.countDown();
+        awaitStatus(large, Job.Status.SUCCEEDED);
+        awaitStatus(small, Job.Status.SUCCEEDED);
+        assertTrue("Expected the large job to start first", large.getStartedAt() <= small.getStartedAt());
+
+    }
+
+    /**
+     * Tests that jobs over the budgets are rejected for good, and jobs over
+     * the queue limit of their tenant until it drains
+     */
+    @Test
+    public void testRejections() throws Exception {
+
+        JobScheduler scheduler = new JobScheduler(1, 100, 0, 1, 1, 1, 0, TimeUnit.SECONDS);
+        schedulers.add(scheduler);
+
+        try {
+            scheduler.submit(job("a", Job.Priority.NORMAL, 101), progress -> 1);
+            fail("Expected a job over the heap budget to be rejected");
+        } catch (JobRejectedException e) {
+            assertFalse("Expected the rejection to be final", e.isRetryable());
+        }
+        try {
+            scheduler.submit(new Job("slow", "test", "a", Job.Priority.NORMAL,
+                    new ResourceEstimate(1, 0, TimeUnit.SECONDS.toNanos(2))), progress -> 1);
+            fail("Expected a job over the time limit to be rejected");
+        } catch (JobRejectedException e) {
+            assertFalse("Expected the rejection to be final", e.isRetryable());
+        }
+
+        scheduler.submit(job("a", Job.Priority.NORMAL, 1), blocked());
+        scheduler.submit(job("a", Job.Priority.NORMAL, 1), blocked());
+        try {
+            scheduler.submit(job("a", Job.Priority.NORMAL, 1), blocked());
+            fail("Expected a job over the queue limit of its tenant to be rejected");
+        } catch (JobRejectedException e) {
+            assertTrue("Expected the rejection to be retryable", e.isRetryable());
+        }
+        scheduler.submit(job("b", Job.Priority.NORMAL, 1), blocked());
+
+        assertEquals("Expected three rejections", 3, scheduler.getStats().getRejected());
+
+    }
+
+    /**
+     * Tests that a job cancelled while it waits leaves the queue, and that
+     * the wait of queued jobs is reported
+     */
+    @Test
+    public void testRemoveAndWaitTimes() throws Exception {
+
+        JobScheduler scheduler = scheduler(1, 100, 10, 0);
+        Job running = job("a", Job.Priority.NORMAL, 1);
+        Job waiting = job("a", Job.Priority.NORMAL, 1);
+        scheduler.submit(running, blocked());
+        scheduler.submit(waiting, progress -> 1);
+        Thread.sleep(20);
+
+        assertTrue("Expected the wait of the queued job", scheduler.getStats().getLongestWaitMillis() >= 10);
+        assertTrue("Expected the job to be cancelled", waiting.cancel());
+        assertTrue("Expected the job to leave the queue", scheduler.remove(waiting));
+        assertEquals("Expected an empty queue", 0, scheduler.getStats().getQueued());
+        assertFalse("Expected a running job not to be in the queue", scheduler.remove(running));
+        assertEquals("Expected one job started", 1, scheduler.getStats().getStarted());
+
+    }
+
+    private JobScheduler scheduler(int workers, long heapBudget, int tenantRunningLimit, long starvationMillis) {
+        JobScheduler scheduler = new JobScheduler(workers, heapBudget, 0, tenantRunningLimit, 100, 0,
+                starvationMillis, TimeUnit.MILLISECONDS);
+        schedulers.add(scheduler);
+        return scheduler;
+    }
+
+    private Job job(String tenant, Job.Priority priority, long heapBytes) {
+        return new Job("job-" + ids++, "test", tenant, priority, new ResourceEstimate(heapBytes, 0, 0));
+    }
+
+    /**
+     * @return a task which runs until the test releases it
+     */
+    private JobTask blocked() {
+        return progress -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return null;
+        };
+    }
+
+    private static void awaitStatus(Job job, Job.Status status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        Job.Status current;
+        while ((current = job.getStatus()) != status) {
+            // A finished job will not change again
+            assertFalse("Expected " + job.getId() + " to be " + status + ", was " + current,
+                    current.isFinished() || System.currentTimeMillis() > deadline);
+            Thread.sleep(1);
+        }
+    }
+
+}
@@ -0,0 +1,195 @@
+package io.qstudio.api;
+
+import core.util.OrderFinding;
+import org.junit.After;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test suite for the service running asynchronous jobs
+ * @version 0.1
+ */
+public class JobServiceTest {
+
+    private final JobScheduler scheduler = new JobScheduler(1, 1 << 30, 0, 1, 100, 0, 0, TimeUnit.SECONDS);
+    private final JobService jobs = new JobService(scheduler, 2);
+
+    /**
+     * Stops the workers of the scheduler
+     */
+    @After
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    /**
+     * Tests that a job runs to completion with its result and progress
+     */
+    @Test
+    public void testJobSucceeds() throws Exception {
+
+        Job job = submit(progress -> {
+            progress.report(0.5);
+            return 42;
+        });
+        awaitFinished(job);
+
+        assertEquals("Expected the job to succeed", Job.Status.SUCCEEDED, job.getStatus());
+        assertEquals("Expected the result", 42, job.getResult());
+        assertEquals("Expected full progress", 1, job.getProgress(), 0);
+        assertSame("Expected the job by its id", job, jobs.get(job.getId()));
+
+    }
+
+    /**
+     * Tests that the exception of a job is recorded as its error
+     */
+    @Test
+    public void testJobFails() throws Exception {
+
+        Job job = submit(progress -> {
+            throw new IllegalStateException("Expected failure");
+        });
+        awaitFinished(job);
+
+        assertEquals("Expected the job to fail", Job.Status.FAILED, job.getStatus());
+        assertEquals("Expected the message of the exception", "Expected failure", job.getError());
+        assertNull("Expected no result", job.getResult());
+
+    }
+
+    /**
+     * Tests that a running job sees its cancellation and its result is discarded
+     */
+    @Test
+    public void testCancel() throws Exception {
+
+        CountDownLatch started = new CountDownLatch(1);
+        Job job = submit(progress -> {
+            started.countDown();
+            while (!progress.isCancelled()) {
+                Thread.yield();
+            }
+            return 1;
+        });
+        started.await();
+        jobs.cancel(job.getId());
+        awaitFinished(job);
+
+        assertEquals("Expected the job to be cancelled", Job.Status.CANCELLED, job.getStatus());
+        assertNull("Expected no result", job.getResult());
+
+    }
+
+    /**
+     * Tests that cancelling a job interrupts a classical order finding it is
+     * running, which would otherwise search for seconds
+     */
+    @Test
+    public void testCancelInterruptsOrderFinding() throws Exception {
+
+        BigInteger N = BigInteger.valueOf(8589933323L).multiply(BigInteger.valueOf(8589934583L));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Job job = submit(progress -> {
+            started.countDown();
+            try {
+                return OrderFinding.findOrder(BigInteger.valueOf(3), N);
+            } catch (CancellationException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        });
+        started.await();
+        jobs.cancel(job.getId());
+
+        assertTrue("Expected the order finding to stop", interrupted.await(2, TimeUnit.SECONDS));
+        assertEquals("Expected the job to be cancelled", Job.Status.CANCELLED, job.getStatus());
+
+    }
+
+    /**
+     * Tests that listeners see every change of status
+     */
+    @Test
+    public void testListeners() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        Job job = submit(progress -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            for (int i = 1; i <= 1000; i++) {
+                progress.report(i / 1000.0);
+            }
+            return null;
+        });
+        StringBuilder seen = new StringBuilder();
+        CountDownLatch done = new CountDownLatch(1);
+        job.addListener(changed -> {
+            seen.append(changed.getStatus().name().charAt(0));
+            if (changed.getStatus().isFinished()) {
+                done.countDown();
+            }
+        });
+        release.countDown();
+        assertTrue("Expected the job to finish", done.await(10, TimeUnit.SECONDS));
+
+        // The job may have started before the listener was added, and progress is only sent in steps of 1%
+        assertTrue("Expected at most 100 progress events, got " + seen, seen.length() <= 102);
+        assertEquals("Expected the last event to be the success", 'S', seen.charAt(seen.length() - 1));
+
+    }
+
+    /**
+     * Tests that the jobs which finished first are forgotten past the limit
+     */
+    @Test
+    public void testFinishedJobsAreForgotten() throws Exception {
+
+        Job first = submit(progress -> 1);
+        awaitFinished(first);
+        for (int i = 0; i < 3; i++) {
+            // Jobs finishing in the same millisecond have no order
+            Thread.sleep(2);
+            awaitFinished(submit(progress -> 1));
+        }
+        submit(progress -> 1);
+
+        try {
+            jobs.get(first.getId());
+            fail("Expected the first job to be forgotten");
+        } catch (JobNotFoundException expected) {
+            // Expected
+        }
+
+    }
+
+    /**
+     * Tests that an unknown job is not found
+     */
+    @Test(expected = JobNotFoundException.class)
+    public void testUnknownJob() {
+        jobs.get("missing");
+    }
+
+    private Job submit(JobTask task) {
+        return jobs.submit("test", "tenant", Job.Priority.NORMAL, ResourceEstimate.SMALL, task);
+    }
+
+    private static void awaitFinished(Job job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!job.getStatus().isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+}